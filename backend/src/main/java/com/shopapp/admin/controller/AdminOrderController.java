@@ -0,0 +1,43 @@
+package com.shopapp.admin.controller;
+
+import com.shopapp.order.service.OrderExporter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/admin/orders")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Admin - Orders", description = "Admin order management APIs")
+public class AdminOrderController {
+
+    private final OrderExporter orderExporter;
+
+    @GetMapping("/export")
+    @Operation(summary = "Export all orders", description = "Stream every order created between two dates, archived ones included, as CSV or NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format) {
+
+        OrderExporter.Range range = OrderExporter.Range.of(from, to);
+        OrderExporter.Format exportFormat = OrderExporter.Format.of(format);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(range.fileName(exportFormat)).build().toString())
+                .body(out -> orderExporter.exportAllOrders(range, exportFormat, out));
+    }
+}
@@ -1,8 +1,10 @@
 package com.shopapp.admin.controller;
 
+import com.shopapp.admin.dto.FlashSaleRequest;
 import com.shopapp.admin.dto.RejectRequest;
 import com.shopapp.admin.dto.VisibilityRequest;
 import com.shopapp.product.dto.ProductResponse;
+import com.shopapp.product.dto.ProductSummary;
 import com.shopapp.product.service.ProductService;
 import com.shopapp.shared.dto.ApiResponse;
 import com.shopapp.shared.dto.PagedResponse;
@@ -29,7 +31,7 @@ public class AdminProductController {
 
     @GetMapping
     @Operation(summary = "Get all products", description = "Get all products with pagination")
-    public ResponseEntity<ApiResponse<PagedResponse<ProductResponse>>> getAllProducts(
+    public ResponseEntity<ApiResponse<PagedResponse<ProductSummary>>> getAllProducts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
@@ -40,8 +42,8 @@ public class AdminProductController {
                 : Sort.by(sortBy).descending();
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        Page<ProductResponse> products = productService.getAllProducts(pageable);
-        PagedResponse<ProductResponse> response = PagedResponse.of(
+        Page<ProductSummary> products = productService.getAllProducts(pageable);
+        PagedResponse<ProductSummary> response = PagedResponse.of(
                 products.getContent(), page, size, products.getTotalElements());
         
         return ResponseEntity.ok(ApiResponse.success(response));
@@ -49,14 +51,14 @@ public class AdminProductController {
 
     @GetMapping("/pending")
     @Operation(summary = "Get pending products", description = "Get all pending products waiting for approval")
-    public ResponseEntity<ApiResponse<PagedResponse<ProductResponse>>> getPendingProducts(
+    public ResponseEntity<ApiResponse<PagedResponse<ProductSummary>>> getPendingProducts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").ascending());
         
-        Page<ProductResponse> products = productService.getPendingProducts(pageable);
-        PagedResponse<ProductResponse> response = PagedResponse.of(
+        Page<ProductSummary> products = productService.getPendingProducts(pageable);
+        PagedResponse<ProductSummary> response = PagedResponse.of(
                 products.getContent(), page, size, products.getTotalElements());
         
         return ResponseEntity.ok(ApiResponse.success(response));
@@ -94,4 +96,15 @@ public class AdminProductController {
         String message = request.getVisible() ? "Product is now visible" : "Product is now hidden";
         return ResponseEntity.ok(ApiResponse.success(message, product));
     }
+
+    @PutMapping("/{productId}/flash-sale")
+    @Operation(summary = "Change flash-sale mode",
+            description = "Count a product's stock in memory for a high-traffic sale, or hand it back to the database")
+    public ResponseEntity<ApiResponse<ProductResponse>> changeFlashSale(
+            @PathVariable String productId,
+            @Valid @RequestBody FlashSaleRequest request) {
+        ProductResponse product = productService.changeFlashSale(productId, request.getEnabled());
+        String message = request.getEnabled() ? "Flash sale started" : "Flash sale ended";
+        return ResponseEntity.ok(ApiResponse.success(message, product));
+    }
 }
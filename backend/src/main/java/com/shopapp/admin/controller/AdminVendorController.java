@@ -1,6 +1,7 @@
 package com.shopapp.admin.controller;
 
 import com.shopapp.admin.dto.RejectRequest;
+import com.shopapp.shared.cache.BoundedCache;
 import com.shopapp.shared.dto.ApiResponse;
 import com.shopapp.shared.dto.PagedResponse;
 import com.shopapp.vendor.dto.VendorResponse;
@@ -17,6 +18,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/admin/vendors")
 @RequiredArgsConstructor
@@ -61,6 +64,12 @@ public class AdminVendorController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping("/cache/stats")
+    @Operation(summary = "Get vendor cache stats", description = "Get hit, miss and eviction counters of the vendor lookup cache")
+    public ResponseEntity<ApiResponse<Map<String, BoundedCache.CacheStats>>> getCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success(vendorService.getCacheStats()));
+    }
+
     @GetMapping("/{vendorId}")
     @Operation(summary = "Get vendor by ID", description = "Get vendor details by ID")
     public ResponseEntity<ApiResponse<VendorResponse>> getVendorById(@PathVariable String vendorId) {
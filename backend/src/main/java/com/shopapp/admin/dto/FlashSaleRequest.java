@@ -0,0 +1,17 @@
+package com.shopapp.admin.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlashSaleRequest {
+
+    @NotNull(message = "Enabled flag is required")
+    private Boolean enabled;
+}
@@ -0,0 +1,62 @@
+package com.shopapp.cart.controller;
+
+import com.shopapp.cart.dto.AddCartItemRequest;
+import com.shopapp.cart.dto.CartResponse;
+import com.shopapp.cart.dto.UpdateCartItemRequest;
+import com.shopapp.cart.service.CartService;
+import com.shopapp.shared.dto.ApiResponse;
+import com.shopapp.shared.security.SecurityUtils;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/cart")
+@RequiredArgsConstructor
+@Tag(name = "Cart", description = "Shopping cart APIs")
+public class CartController {
+
+    private final CartService cartService;
+
+    @GetMapping
+    @Operation(summary = "Get my cart",
+            description = "Get the current user's cart with current prices, stock and a total of the items that can be ordered")
+    public ResponseEntity<ApiResponse<CartResponse>> getCart() {
+        String userId = SecurityUtils.getCurrentUserId();
+        return ResponseEntity.ok(ApiResponse.success(cartService.getCart(userId)));
+    }
+
+    @PostMapping("/items")
+    @Operation(summary = "Add item", description = "Add units of a product to the cart")
+    public ResponseEntity<ApiResponse<CartResponse>> addItem(@Valid @RequestBody AddCartItemRequest request) {
+        String userId = SecurityUtils.getCurrentUserId();
+        return ResponseEntity.ok(ApiResponse.success("Item added to cart", cartService.addItem(userId, request)));
+    }
+
+    @PutMapping("/items/{productId}")
+    @Operation(summary = "Update item quantity", description = "Set the quantity of a cart item; 0 removes it")
+    public ResponseEntity<ApiResponse<CartResponse>> updateItem(
+            @PathVariable String productId,
+            @Valid @RequestBody UpdateCartItemRequest request) {
+        String userId = SecurityUtils.getCurrentUserId();
+        return ResponseEntity.ok(ApiResponse.success("Cart updated", cartService.updateItem(userId, productId, request)));
+    }
+
+    @DeleteMapping("/items/{productId}")
+    @Operation(summary = "Remove item", description = "Remove a product from the cart")
+    public ResponseEntity<ApiResponse<CartResponse>> removeItem(@PathVariable String productId) {
+        String userId = SecurityUtils.getCurrentUserId();
+        return ResponseEntity.ok(ApiResponse.success("Item removed from cart", cartService.removeItem(userId, productId)));
+    }
+
+    @DeleteMapping
+    @Operation(summary = "Clear cart", description = "Remove every item from the cart")
+    public ResponseEntity<ApiResponse<Void>> clearCart() {
+        String userId = SecurityUtils.getCurrentUserId();
+        cartService.clearCart(userId);
+        return ResponseEntity.ok(ApiResponse.success("Cart cleared"));
+    }
+}
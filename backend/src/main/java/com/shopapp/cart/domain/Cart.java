@@ -0,0 +1,33 @@
+package com.shopapp.cart.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Durable copy of a user's cart. Carts are served from memory and written here behind the request,
+ * so this document may trail the cart a user sees by up to one flush interval.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "carts")
+public class Cart {
+
+    // One cart per user, keyed by the user's ID
+    @Id
+    private String id;
+
+    @Builder.Default
+    private List<CartLine> lines = new ArrayList<>();
+
+    private LocalDateTime updatedAt;
+}
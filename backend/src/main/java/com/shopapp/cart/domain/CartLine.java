@@ -0,0 +1,16 @@
+package com.shopapp.cart.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartLine {
+
+    private String productId;
+    private int quantity;
+}
@@ -0,0 +1,34 @@
+package com.shopapp.cart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartItemResponse {
+
+    public enum Issue {
+        // Deleted, or no longer approved for sale
+        UNAVAILABLE,
+        // Fewer units in stock than the cart holds
+        INSUFFICIENT_STOCK
+    }
+
+    private String productId;
+    private String productName;
+    private String productImage;
+    private String vendorId;
+    private int quantity;
+    private BigDecimal unitPrice;
+    private BigDecimal subtotal;
+    private int stock;
+
+    // Why the item cannot be checked out as it is; null when it can
+    private Issue issue;
+}
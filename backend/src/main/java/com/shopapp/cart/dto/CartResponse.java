@@ -0,0 +1,31 @@
+package com.shopapp.cart.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartResponse {
+
+    @Builder.Default
+    private List<CartItemResponse> items = new ArrayList<>();
+
+    private int totalUnits;
+
+    // Sum of the items without an issue, at current prices
+    private BigDecimal totalAmount;
+
+    // True when the cart has items and none has an issue
+    private boolean checkoutReady;
+
+    private LocalDateTime updatedAt;
+}
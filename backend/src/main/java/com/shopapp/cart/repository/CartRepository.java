@@ -0,0 +1,9 @@
+package com.shopapp.cart.repository;
+
+import com.shopapp.cart.domain.Cart;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CartRepository extends MongoRepository<Cart, String>, CartRepositoryCustom {
+}
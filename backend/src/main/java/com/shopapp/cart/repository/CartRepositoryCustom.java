@@ -0,0 +1,14 @@
+package com.shopapp.cart.repository;
+
+import com.shopapp.cart.domain.Cart;
+
+import java.util.List;
+
+public interface CartRepositoryCustom {
+
+    /**
+     * Write several carts in one bulk operation: carts with lines replace their document, empty carts
+     * delete it
+     */
+    void writeAll(List<Cart> carts);
+}
@@ -0,0 +1,35 @@
+package com.shopapp.cart.repository;
+
+import com.shopapp.cart.domain.Cart;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class CartRepositoryCustomImpl implements CartRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void writeAll(List<Cart> carts) {
+        if (carts.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Cart.class);
+        for (Cart cart : carts) {
+            Query byId = Query.query(Criteria.where("_id").is(cart.getId()));
+            if (cart.getLines() == null || cart.getLines().isEmpty()) {
+                bulk.remove(byId);
+            } else {
+                bulk.replaceOne(byId, cart, FindAndReplaceOptions.options().upsert());
+            }
+        }
+        bulk.execute();
+    }
+}
@@ -0,0 +1,232 @@
+package com.shopapp.cart.service;
+
+import com.shopapp.cart.dto.AddCartItemRequest;
+import com.shopapp.cart.dto.CartItemResponse;
+import com.shopapp.cart.dto.CartResponse;
+import com.shopapp.cart.dto.UpdateCartItemRequest;
+import com.shopapp.shared.exception.BadRequestException;
+import com.shopapp.shared.exception.ResourceNotFoundException;
+import com.shopapp.shared.interfaces.CartModuleApi;
+import com.shopapp.shared.interfaces.ProductModuleApi.ProductDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+@Service
+public class CartService implements CartModuleApi {
+
+    // ProductStatus.APPROVED, as ProductDto carries it
+    private static final String APPROVED = "APPROVED";
+
+    private final CartStore cartStore;
+    private final ProductSnapshots productSnapshots;
+    private final int maxLines;
+    private final int maxQuantity;
+
+    public CartService(CartStore cartStore,
+                       ProductSnapshots productSnapshots,
+                       @Value("${cart.max-lines:100}") int maxLines,
+                       @Value("${cart.max-quantity:99}") int maxQuantity) {
+        if (maxLines <= 0 || maxQuantity <= 0) {
+            throw new IllegalArgumentException("Cart line and quantity limits must be positive");
+        }
+        this.cartStore = cartStore;
+        this.productSnapshots = productSnapshots;
+        this.maxLines = maxLines;
+        this.maxQuantity = maxQuantity;
+    }
+
+    // ===== CartModuleApi Implementation =====
+
+    @Override
+    public Map<String, Integer> checkoutLines(String userId) {
+        requireUserId(userId);
+
+        Map<String, Integer> lines = cartStore.read(userId, PackedCart::quantities);
+        if (lines.isEmpty()) {
+            throw new BadRequestException("Cart is empty");
+        }
+
+        Map<String, ProductDto> products = productSnapshots.get(lines.keySet());
+        List<String> blocked = new ArrayList<>();
+        lines.forEach((productId, quantity) -> {
+            if (issueOf(products.get(productId), quantity) != null) {
+                blocked.add(productId);
+            }
+        });
+        if (!blocked.isEmpty()) {
+            throw new BadRequestException("Cart has items that are unavailable or short of stock: "
+                    + String.join(", ", blocked));
+        }
+        return lines;
+    }
+
+    @Override
+    public void removeOrdered(String userId, Map<String, Integer> quantities) {
+        requireUserId(userId);
+
+        cartStore.update(userId, cart -> {
+            quantities.forEach((productId, quantity) ->
+                    cart.set(productId, cart.quantityOf(productId) - quantity));
+            return null;
+        });
+        log.info("Removed {} ordered products from cart of user {}", quantities.size(), userId);
+    }
+
+    // ===== Cart Operations =====
+
+    public CartResponse getCart(String userId) {
+        requireUserId(userId);
+        return toCartResponse(cartStore.read(userId, CartView::of));
+    }
+
+    public CartResponse addItem(String userId, AddCartItemRequest request) {
+        requireUserId(userId);
+        if (request == null || request.getProductId() == null || request.getProductId().trim().isEmpty()) {
+            throw new BadRequestException("Product ID is required");
+        }
+        if (request.getQuantity() == null || request.getQuantity() <= 0) {
+            throw new BadRequestException("Quantity must be greater than 0");
+        }
+
+        String productId = request.getProductId();
+        ProductDto product = productSnapshots.get(Set.of(productId)).get(productId);
+        if (product == null || !APPROVED.equals(product.status())) {
+            throw new ResourceNotFoundException("Product", "id", productId);
+        }
+
+        CartView view = cartStore.update(userId, cart -> {
+            // Summed as a long, so a huge requested quantity cannot wrap past the limit
+            long quantity = (long) cart.quantityOf(productId) + request.getQuantity();
+            if (quantity > maxQuantity) {
+                throw new BadRequestException("At most " + maxQuantity + " units of a product fit in the cart");
+            }
+            if (cart.quantityOf(productId) == 0 && cart.size() >= maxLines) {
+                throw new BadRequestException("Cart cannot hold more than " + maxLines + " different products");
+            }
+            cart.set(productId, (int) quantity);
+            return CartView.of(cart);
+        });
+        return toCartResponse(view);
+    }
+
+    public CartResponse updateItem(String userId, String productId, UpdateCartItemRequest request) {
+        requireUserId(userId);
+        if (request == null || request.getQuantity() == null || request.getQuantity() < 0) {
+            throw new BadRequestException("Quantity cannot be negative");
+        }
+        if (request.getQuantity() > maxQuantity) {
+            throw new BadRequestException("At most " + maxQuantity + " units of a product fit in the cart");
+        }
+
+        CartView view = cartStore.update(userId, cart -> {
+            if (cart.quantityOf(productId) == 0) {
+                throw new ResourceNotFoundException("Cart item", "productId", productId);
+            }
+            cart.set(productId, request.getQuantity());
+            return CartView.of(cart);
+        });
+        return toCartResponse(view);
+    }
+
+    public CartResponse removeItem(String userId, String productId) {
+        requireUserId(userId);
+
+        CartView view = cartStore.update(userId, cart -> {
+            cart.set(productId, 0);
+            return CartView.of(cart);
+        });
+        return toCartResponse(view);
+    }
+
+    public void clearCart(String userId) {
+        requireUserId(userId);
+
+        cartStore.update(userId, cart -> {
+            cart.clear();
+            return null;
+        });
+        log.info("Cleared cart of user {}", userId);
+    }
+
+    // ===== Helper Methods =====
+
+    // Products are looked up after the user's lock is released, from a copy of the lines
+    private CartResponse toCartResponse(CartView view) {
+        Map<String, ProductDto> products = productSnapshots.get(view.lines().keySet());
+
+        List<CartItemResponse> items = new ArrayList<>();
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        int totalUnits = 0;
+        boolean ready = !view.lines().isEmpty();
+        for (Map.Entry<String, Integer> line : view.lines().entrySet()) {
+            ProductDto product = products.get(line.getKey());
+            int quantity = line.getValue();
+            CartItemResponse.Issue issue = issueOf(product, quantity);
+
+            CartItemResponse.CartItemResponseBuilder item = CartItemResponse.builder()
+                    .productId(line.getKey())
+                    .quantity(quantity)
+                    .issue(issue);
+            if (product != null) {
+                BigDecimal subtotal = product.price().multiply(BigDecimal.valueOf(quantity));
+                item.productName(product.name())
+                        .productImage(product.images() != null && !product.images().isEmpty()
+                                ? product.images().get(0)
+                                : null)
+                        .vendorId(product.vendorId())
+                        .unitPrice(product.price())
+                        .subtotal(subtotal)
+                        .stock(product.stock());
+                if (issue == null) {
+                    totalAmount = totalAmount.add(subtotal);
+                }
+            }
+            items.add(item.build());
+            totalUnits += quantity;
+            ready &= issue == null;
+        }
+
+        return CartResponse.builder()
+                .items(items)
+                .totalUnits(totalUnits)
+                .totalAmount(totalAmount)
+                .checkoutReady(ready)
+                .updatedAt(view.updatedAt())
+                .build();
+    }
+
+    private static CartItemResponse.Issue issueOf(ProductDto product, int quantity) {
+        if (product == null || !APPROVED.equals(product.status())) {
+            return CartItemResponse.Issue.UNAVAILABLE;
+        }
+        if (product.stock() < quantity) {
+            return CartItemResponse.Issue.INSUFFICIENT_STOCK;
+        }
+        return null;
+    }
+
+    private static void requireUserId(String userId) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new BadRequestException("User ID is required");
+        }
+    }
+
+    /**
+     * A copy of a cart's lines taken under its lock
+     */
+    private record CartView(Map<String, Integer> lines, LocalDateTime updatedAt) {
+
+        static CartView of(PackedCart cart) {
+            return new CartView(cart.quantities(), cart.updatedAt());
+        }
+    }
+}
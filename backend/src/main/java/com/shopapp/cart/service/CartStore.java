@@ -0,0 +1,187 @@
+package com.shopapp.cart.service;
+
+import com.shopapp.cart.domain.Cart;
+import com.shopapp.cart.repository.CartRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Carts served from memory: the most recently used {@code max-carts} are kept resident, and every change
+ * is written to Mongo behind the request by a periodic flush. Each user's cart is only touched under
+ * one of {@code lock-stripes} locks picked by user ID, so a user's concurrent requests apply in turn
+ * while different users rarely wait on each other. A changed cart stays reachable until it is written,
+ * even when the LRU drops it, so nothing is read back from Mongo older than what was served. Changes
+ * made within the last flush interval are lost if the process dies without shutting down.
+ */
+@Slf4j
+@Component
+public class CartStore {
+
+    private final CartRepository cartRepository;
+    private final ReentrantLock[] locks;
+
+    // Access order turns the map into an LRU list; guarded by itself
+    private final LinkedHashMap<String, PackedCart> resident;
+
+    // Changed carts not yet written, by user ID
+    private final Map<String, PackedCart> dirty = new ConcurrentHashMap<>();
+
+    public CartStore(CartRepository cartRepository,
+                     @Value("${cart.store.max-carts:100000}") int maxCarts,
+                     @Value("${cart.store.lock-stripes:64}") int lockStripes) {
+        if (maxCarts <= 0 || lockStripes <= 0) {
+            throw new IllegalArgumentException("Cart store size and lock stripes must be positive");
+        }
+        this.cartRepository = cartRepository;
+        this.locks = new ReentrantLock[lockStripes];
+        for (int i = 0; i < lockStripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.resident = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PackedCart> eldest) {
+                return size() > maxCarts;
+            }
+        };
+    }
+
+    /**
+     * Run {@code reader} against a user's cart under the user's lock; the cart must not escape it
+     */
+    <T> T read(String userId, Function<PackedCart, T> reader) {
+        ReentrantLock lock = lockOf(userId);
+        lock.lock();
+        try {
+            return reader.apply(load(userId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * As {@link #read}, queueing the cart for the next flush if {@code change} changed it
+     */
+    <T> T update(String userId, Function<PackedCart, T> change) {
+        ReentrantLock lock = lockOf(userId);
+        lock.lock();
+        try {
+            PackedCart cart = load(userId);
+            long before = cart.version();
+            T result = change.apply(cart);
+            if (cart.version() != before) {
+                dirty.put(userId, cart);
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cart.store.flush-interval-ms:1000}",
+            initialDelayString = "${cart.store.flush-interval-ms:1000}")
+    public void flush() {
+        try {
+            flushDirty();
+        } catch (RuntimeException e) {
+            // Carts stay queued and are retried on the next flush
+            log.error("Cart write-behind failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushDirty();
+    }
+
+    /**
+     * Write every queued cart in one bulk operation
+     * @return number of carts written
+     */
+    int flushDirty() {
+        if (dirty.isEmpty()) {
+            return 0;
+        }
+
+        List<String> userIds = new ArrayList<>();
+        List<PackedCart> carts = new ArrayList<>();
+        List<Long> versions = new ArrayList<>();
+        List<Cart> documents = new ArrayList<>();
+        for (Map.Entry<String, PackedCart> entry : dirty.entrySet()) {
+            String userId = entry.getKey();
+            ReentrantLock lock = lockOf(userId);
+            lock.lock();
+            try {
+                PackedCart cart = entry.getValue();
+                userIds.add(userId);
+                carts.add(cart);
+                versions.add(cart.version());
+                documents.add(cart.toDocument(userId));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        cartRepository.writeAll(documents);
+
+        for (int i = 0; i < userIds.size(); i++) {
+            ReentrantLock lock = lockOf(userIds.get(i));
+            lock.lock();
+            try {
+                // A cart changed since it was copied stays queued for the next flush
+                if (carts.get(i).version() == versions.get(i)) {
+                    dirty.remove(userIds.get(i), carts.get(i));
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return documents.size();
+    }
+
+    int residentCount() {
+        synchronized (resident) {
+            return resident.size();
+        }
+    }
+
+    int dirtyCount() {
+        return dirty.size();
+    }
+
+    // Called under the user's lock, so a cart is loaded from Mongo at most once while it is away
+    private PackedCart load(String userId) {
+        PackedCart cart;
+        synchronized (resident) {
+            cart = resident.get(userId);
+        }
+        if (cart != null) {
+            return cart;
+        }
+
+        cart = dirty.get(userId);
+        if (cart == null) {
+            cart = cartRepository.findById(userId)
+                    .map(PackedCart::of)
+                    .orElseGet(PackedCart::new);
+        }
+        synchronized (resident) {
+            resident.put(userId, cart);
+        }
+        return cart;
+    }
+
+    private ReentrantLock lockOf(String userId) {
+        return locks[Math.floorMod(userId.hashCode(), locks.length)];
+    }
+}
@@ -0,0 +1,168 @@
+package com.shopapp.cart.service;
+
+import com.shopapp.cart.domain.Cart;
+import com.shopapp.cart.domain.CartLine;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The lines of one cart held in memory as a product ID array and a parallel {@code int} array of
+ * quantities, in the order they were added, instead of a list of line objects. Not thread-safe:
+ * {@link CartStore} only hands a cart out under its user's lock.
+ */
+final class PackedCart {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private String[] productIds;
+    private int[] quantities;
+    private int size;
+
+    // Bumped by every change, so a flush can tell whether the cart moved on while it was being written
+    private long version;
+    private LocalDateTime updatedAt;
+
+    PackedCart() {
+        this(INITIAL_CAPACITY);
+    }
+
+    private PackedCart(int capacity) {
+        this.productIds = new String[capacity];
+        this.quantities = new int[capacity];
+    }
+
+    static PackedCart of(Cart cart) {
+        List<CartLine> lines = cart.getLines() != null ? cart.getLines() : List.of();
+        PackedCart packed = new PackedCart(Math.max(lines.size(), INITIAL_CAPACITY));
+        for (CartLine line : lines) {
+            if (line != null && line.getProductId() != null && line.getQuantity() > 0) {
+                packed.productIds[packed.size] = line.getProductId();
+                packed.quantities[packed.size] = line.getQuantity();
+                packed.size++;
+            }
+        }
+        packed.updatedAt = cart.getUpdatedAt();
+        return packed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    String productId(int index) {
+        return productIds[index];
+    }
+
+    int quantity(int index) {
+        return quantities[index];
+    }
+
+    /**
+     * Quantity of a product in the cart, 0 if it has no line
+     */
+    int quantityOf(String productId) {
+        int index = indexOf(productId);
+        return index < 0 ? 0 : quantities[index];
+    }
+
+    /**
+     * Set the quantity of a product's line, adding the line at the end if missing; 0 or less removes it
+     */
+    void set(String productId, int quantity) {
+        int index = indexOf(productId);
+        if (quantity <= 0) {
+            if (index >= 0) {
+                remove(index);
+                changed();
+            }
+            return;
+        }
+        if (index >= 0) {
+            if (quantities[index] != quantity) {
+                quantities[index] = quantity;
+                changed();
+            }
+            return;
+        }
+
+        if (size == productIds.length) {
+            productIds = Arrays.copyOf(productIds, size * 2);
+            quantities = Arrays.copyOf(quantities, size * 2);
+        }
+        productIds[size] = productId;
+        quantities[size] = quantity;
+        size++;
+        changed();
+    }
+
+    void clear() {
+        if (size == 0) {
+            return;
+        }
+        Arrays.fill(productIds, 0, size, null);
+        size = 0;
+        changed();
+    }
+
+    long version() {
+        return version;
+    }
+
+    LocalDateTime updatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Product ID to quantity, in line order
+     */
+    Map<String, Integer> quantities() {
+        Map<String, Integer> lines = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            lines.put(productIds[i], quantities[i]);
+        }
+        return lines;
+    }
+
+    Cart toDocument(String userId) {
+        List<CartLine> lines = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            lines.add(CartLine.builder().productId(productIds[i]).quantity(quantities[i]).build());
+        }
+        return Cart.builder()
+                .id(userId)
+                .lines(lines)
+                .updatedAt(updatedAt)
+                .build();
+    }
+
+    // Carts hold a handful of lines, so a scan beats keeping an index beside the arrays
+    private int indexOf(String productId) {
+        for (int i = 0; i < size; i++) {
+            if (productIds[i].equals(productId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void remove(int index) {
+        int tail = size - index - 1;
+        System.arraycopy(productIds, index + 1, productIds, index, tail);
+        System.arraycopy(quantities, index + 1, quantities, index, tail);
+        productIds[--size] = null;
+    }
+
+    private void changed() {
+        version++;
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,83 @@
+package com.shopapp.cart.service;
+
+import com.shopapp.shared.cache.BoundedCache;
+import com.shopapp.shared.events.product.ProductApprovedEvent;
+import com.shopapp.shared.events.product.ProductRejectedEvent;
+import com.shopapp.shared.events.product.ProductsChangedEvent;
+import com.shopapp.shared.interfaces.ProductModuleApi;
+import com.shopapp.shared.interfaces.ProductModuleApi.ProductDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Price and stock of the products in carts, so showing a cart reads no products while they stay unchanged.
+ * The product module's change events drop the affected snapshots, and the next read reloads every
+ * missing one in a single lookup; the TTL only bounds how long a lost event could go unnoticed.
+ */
+@Component
+public class ProductSnapshots {
+
+    private final ProductModuleApi productModuleApi;
+    private final BoundedCache<String, ProductDto> snapshots;
+
+    // Bumped by every change event, so a lookup that raced one does not cache what it read
+    private final AtomicLong changes = new AtomicLong();
+
+    public ProductSnapshots(ProductModuleApi productModuleApi,
+                            @Value("${cart.snapshots.max-size:20000}") int maxSize,
+                            @Value("${cart.snapshots.ttl-seconds:60}") long ttlSeconds) {
+        this.productModuleApi = productModuleApi;
+        this.snapshots = new BoundedCache<>(maxSize, Duration.ofSeconds(ttlSeconds));
+    }
+
+    /**
+     * Snapshots of the given products, keyed by ID; products that no longer exist are absent
+     */
+    public Map<String, ProductDto> get(Collection<String> productIds) {
+        Map<String, ProductDto> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String productId : productIds) {
+            snapshots.get(productId).ifPresentOrElse(
+                    snapshot -> found.put(productId, snapshot),
+                    () -> missing.add(productId));
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        long seen = changes.get();
+        Map<String, ProductDto> loaded = productModuleApi.findByIds(missing);
+        if (changes.get() == seen) {
+            loaded.forEach(snapshots::put);
+        }
+        found.putAll(loaded);
+        return found;
+    }
+
+    @EventListener
+    public void handleProductsChanged(ProductsChangedEvent event) {
+        changes.incrementAndGet();
+        event.getProductIds().forEach(snapshots::invalidate);
+    }
+
+    @EventListener
+    public void handleProductApproved(ProductApprovedEvent event) {
+        changes.incrementAndGet();
+        snapshots.invalidate(event.getProductId());
+    }
+
+    @EventListener
+    public void handleProductRejected(ProductRejectedEvent event) {
+        changes.incrementAndGet();
+        snapshots.invalidate(event.getProductId());
+    }
+}
@@ -1,57 +1,115 @@
 package com.shopapp.order.controller;
 
+import com.shopapp.order.dto.CartCheckoutRequest;
+import com.shopapp.order.dto.CheckoutTicket;
 import com.shopapp.order.dto.CreateOrderRequest;
 import com.shopapp.order.dto.OrderResponse;
+import com.shopapp.order.dto.OrderSummary;
+import com.shopapp.order.repository.OrderIndexes;
+import com.shopapp.order.service.CheckoutAdmission;
 import com.shopapp.order.service.OrderService;
 import com.shopapp.shared.dto.ApiResponse;
 import com.shopapp.shared.dto.PagedResponse;
+import com.shopapp.shared.idempotency.IdempotencyStore;
+import com.shopapp.shared.pagination.Cursor;
 import com.shopapp.shared.security.SecurityUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.util.function.Supplier;
+
 @RestController
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
 @Tag(name = "Orders", description = "Order management APIs")
 public class OrderController {
 
+    private static final long MAX_POLL_SECONDS = 5;
+
     private final OrderService orderService;
+    private final CheckoutAdmission checkoutAdmission;
+    private final IdempotencyStore idempotencyStore;
 
     @PostMapping
-    @Operation(summary = "Create order", description = "Create a new order")
-    public ResponseEntity<ApiResponse<OrderResponse>> createOrder(
-            @Valid @RequestBody CreateOrderRequest request) {
+    @Operation(summary = "Create order",
+            description = "Create a new order. When checkout is busy, answers 202 with a waiting-room ticket to poll "
+                    + "before submitting again. Retries sent with the same Idempotency-Key replay the first order.")
+    public ResponseEntity<?> createOrder(
+            @Valid @RequestBody CreateOrderRequest request,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        String userId = SecurityUtils.getCurrentUserId();
+        // Outside admission, so a replayed duplicate never takes a checkout slot
+        return idempotencyStore.execute("orders", userId, idempotencyKey, request,
+                () -> admitAndCreate(userId, () -> orderService.createOrder(userId, request)));
+    }
+
+    @PostMapping("/from-cart")
+    @Operation(summary = "Order cart",
+            description = "Order everything in the current user's cart and take the ordered items out of it. "
+                    + "Waiting room and Idempotency-Key behave as for creating an order.")
+    public ResponseEntity<?> createOrderFromCart(
+            @Valid @RequestBody CartCheckoutRequest request,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        String userId = SecurityUtils.getCurrentUserId();
+        return idempotencyStore.execute("orders-from-cart", userId, idempotencyKey, request,
+                () -> admitAndCreate(userId, () -> orderService.createOrderFromCart(userId, request)));
+    }
+
+    private ResponseEntity<ApiResponse<?>> admitAndCreate(String userId, Supplier<OrderResponse> create) {
+        CheckoutTicket ticket = checkoutAdmission.admit(userId);
+        if (ticket.getStatus() == CheckoutTicket.Status.WAITING) {
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/orders/checkout-tickets/" + ticket.getId()))
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.min(ticket.getEtaSeconds(), MAX_POLL_SECONDS)))
+                    .body(ApiResponse.success("Checkout is busy, you are in the waiting room", ticket));
+        }
+
+        long started = System.nanoTime();
+        try {
+            OrderResponse order = create.get();
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("Order created successfully", order));
+        } finally {
+            checkoutAdmission.release(System.nanoTime() - started);
+        }
+    }
+
+    @GetMapping("/checkout-tickets/{ticketId}")
+    @Operation(summary = "Get checkout ticket", description = "Position and estimated wait of a checkout waiting-room ticket")
+    public ResponseEntity<ApiResponse<CheckoutTicket>> getCheckoutTicket(@PathVariable String ticketId) {
         String userId = SecurityUtils.getCurrentUserId();
-        OrderResponse order = orderService.createOrder(userId, request);
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(ApiResponse.success("Order created successfully", order));
+        return ResponseEntity.ok(ApiResponse.success(checkoutAdmission.status(userId, ticketId)));
     }
 
     @GetMapping
     @Operation(summary = "Get my orders", description = "Get all orders for the current user")
-    public ResponseEntity<ApiResponse<PagedResponse<OrderResponse>>> getMyOrders(
+    public ResponseEntity<ApiResponse<PagedResponse<OrderSummary>>> getMyOrders(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String cursor) {
         
         String userId = SecurityUtils.getCurrentUserId();
-        Sort sort = sortDir.equalsIgnoreCase("asc") 
-                ? Sort.by(sortBy).ascending() 
-                : Sort.by(sortBy).descending();
-        Pageable pageable = PageRequest.of(page, size, sort);
+        if (cursor != null) {
+            Cursor after = Cursor.decode(cursor);
+            return ResponseEntity.ok(ApiResponse.success(
+                    PagedResponse.of(orderService.getUserOrders(userId, after, size), size, after == null)));
+        }
+
+        Pageable pageable = OrderIndexes.USER_SORTS.pageable(page, size, sortBy, sortDir);
         
-        Page<OrderResponse> orders = orderService.getUserOrders(userId, pageable);
-        PagedResponse<OrderResponse> response = PagedResponse.of(
+        Page<OrderSummary> orders = orderService.getUserOrders(userId, pageable);
+        PagedResponse<OrderSummary> response = PagedResponse.of(
                 orders.getContent(), page, size, orders.getTotalElements());
         
         return ResponseEntity.ok(ApiResponse.success(response));
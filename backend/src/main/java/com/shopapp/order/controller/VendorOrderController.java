@@ -2,23 +2,32 @@ package com.shopapp.order.controller;
 
 import com.shopapp.order.domain.OrderStatus;
 import com.shopapp.order.dto.OrderResponse;
+import com.shopapp.order.dto.OrderSummary;
 import com.shopapp.order.dto.UpdateOrderStatusRequest;
+import com.shopapp.order.repository.OrderIndexes;
+import com.shopapp.order.service.OrderExporter;
 import com.shopapp.order.service.OrderService;
 import com.shopapp.shared.dto.ApiResponse;
 import com.shopapp.shared.dto.PagedResponse;
 import com.shopapp.shared.interfaces.VendorModuleApi;
+import com.shopapp.shared.pagination.Cursor;
 import com.shopapp.shared.security.SecurityUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/vendor/orders")
@@ -28,38 +37,62 @@ import org.springframework.web.bind.annotation.*;
 public class VendorOrderController {
 
     private final OrderService orderService;
+    private final OrderExporter orderExporter;
     private final VendorModuleApi vendorModuleApi;
 
     @GetMapping
     @Operation(summary = "Get vendor orders", description = "Get all orders containing items from this vendor")
-    public ResponseEntity<ApiResponse<PagedResponse<OrderResponse>>> getVendorOrders(
+    public ResponseEntity<ApiResponse<PagedResponse<OrderSummary>>> getVendorOrders(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir,
-            @RequestParam(required = false) OrderStatus status) {
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) String cursor) {
         
         String userId = SecurityUtils.getCurrentUserId();
         String vendorId = getVendorIdForUser(userId);
         
-        Sort sort = sortDir.equalsIgnoreCase("asc") 
-                ? Sort.by(sortBy).ascending() 
-                : Sort.by(sortBy).descending();
-        Pageable pageable = PageRequest.of(page, size, sort);
+        if (cursor != null) {
+            Cursor after = Cursor.decode(cursor);
+            return ResponseEntity.ok(ApiResponse.success(
+                    PagedResponse.of(orderService.getVendorOrders(vendorId, status, after, size), size, after == null)));
+        }
+        
+        Pageable pageable = OrderIndexes.VENDOR_SORTS.pageable(page, size, sortBy, sortDir);
         
-        Page<OrderResponse> orders;
+        Page<OrderSummary> orders;
         if (status != null) {
             orders = orderService.getVendorOrdersByStatus(vendorId, status, pageable);
         } else {
             orders = orderService.getVendorOrders(vendorId, pageable);
         }
         
-        PagedResponse<OrderResponse> response = PagedResponse.of(
+        PagedResponse<OrderSummary> response = PagedResponse.of(
                 orders.getContent(), page, size, orders.getTotalElements());
         
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping("/export")
+    @Operation(summary = "Export vendor orders", description = "Stream every order of this vendor created between two dates as CSV or NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportVendorOrders(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format) {
+
+        // Everything that can fail with a clean error response is resolved before streaming starts
+        String vendorId = getVendorIdForUser(SecurityUtils.getCurrentUserId());
+        OrderExporter.Range range = OrderExporter.Range.of(from, to);
+        OrderExporter.Format exportFormat = OrderExporter.Format.of(format);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(range.fileName(exportFormat)).build().toString())
+                .body(out -> orderExporter.exportVendorOrders(vendorId, range, exportFormat, out));
+    }
+
     @GetMapping("/{orderId}")
     @Operation(summary = "Get vendor order by ID", description = "Get order details for a vendor's order")
     public ResponseEntity<ApiResponse<OrderResponse>> getVendorOrder(@PathVariable String orderId) {
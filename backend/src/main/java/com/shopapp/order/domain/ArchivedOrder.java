@@ -0,0 +1,93 @@
+package com.shopapp.order.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A finished order moved out of the hot {@code orders} collection. The whole order is kept as a
+ * compressed payload; only the fields an order history lists are stored alongside it in the clear.
+ * Archived orders never change, so nothing is ever written back to them.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "orders_archive")
+public class ArchivedOrder {
+
+    // Same ID as the order, so archiving an order twice overwrites instead of duplicating it
+    @Id
+    private String id;
+
+    private String userId;
+    private OrderStatus status;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal totalAmount;
+    private String statusNote;
+    private LocalDate estimatedDeliveryDate;
+
+    // Name and image of each item only, for listings
+    @Builder.Default
+    private List<OrderItem> items = new ArrayList<>();
+
+    private LocalDateTime createdAt;
+    private LocalDateTime archivedAt;
+
+    // Gzipped extended JSON of the whole order
+    private byte[] payload;
+
+    public static ArchivedOrder of(Order order, byte[] payload, LocalDateTime archivedAt) {
+        List<OrderItem> previews = new ArrayList<>();
+        if (order.getItems() != null) {
+            for (OrderItem item : order.getItems()) {
+                if (item != null) {
+                    previews.add(OrderItem.builder()
+                            .productName(item.getProductName())
+                            .productImage(item.getProductImage())
+                            .build());
+                }
+            }
+        }
+
+        return ArchivedOrder.builder()
+                .id(order.getId())
+                .userId(order.getUserId())
+                .status(order.getStatus())
+                .totalAmount(order.getTotalAmount())
+                .statusNote(order.getStatusNote())
+                .estimatedDeliveryDate(order.getEstimatedDeliveryDate())
+                .items(previews)
+                .createdAt(order.getCreatedAt())
+                .archivedAt(archivedAt)
+                .payload(payload)
+                .build();
+    }
+
+    /**
+     * The listed fields as an order summary, as {@code OrderRepository} summary queries return them
+     */
+    public Order toSummary() {
+        return Order.builder()
+                .id(id)
+                .userId(userId)
+                .status(status)
+                .totalAmount(totalAmount)
+                .statusNote(statusNote)
+                .estimatedDeliveryDate(estimatedDeliveryDate)
+                .items(items != null ? items : new ArrayList<>())
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -9,13 +9,14 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 
 @Data
 @Builder
@@ -33,6 +34,7 @@ public class Order {
     @Builder.Default
     private List<OrderItem> items = new ArrayList<>();
 
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal totalAmount;
 
     @Indexed
@@ -55,43 +57,21 @@ public class Order {
     @LastModifiedDate
     private LocalDateTime updatedAt;
 
+    // Stock reserved for an unpaid order is released once this passes; cleared when paid or cancelled
+    private LocalDateTime holdExpiresAt;
+
+    // Set by the hold sweeper between cancelling an expired order and releasing its stock
+    private String holdReleaseId;
+
     private LocalDateTime confirmedAt;
     private LocalDateTime cancelledAt;
     private LocalDateTime shippedAt;
     private LocalDateTime deliveredAt;
 
-    // Status transition methods
-    public void updateStatus(OrderStatus newStatus, String note) {
-        this.status = newStatus;
-        this.statusNote = note;
-        
-        switch (newStatus) {
-            case SHIPPED -> this.shippedAt = LocalDateTime.now();
-            case DELIVERED -> this.deliveredAt = LocalDateTime.now();
-            case CANCELLED -> this.cancelledAt = LocalDateTime.now();
-            default -> {}
-        }
-    }
-    
-    public void scheduleDelivery(LocalDate deliveryDate, String note) {
-        this.status = OrderStatus.DELIVERY_SCHEDULED;
-        this.estimatedDeliveryDate = deliveryDate;
-        this.statusNote = note;
-    }
-
-    public void confirm() {
-        this.status = OrderStatus.PREPARING;
-        this.confirmedAt = LocalDateTime.now();
-    }
-
-    public void cancel(String reason) {
-        this.status = OrderStatus.CANCELLED;
-        this.cancellationReason = reason;
-        this.cancelledAt = LocalDateTime.now();
-    }
+    // Status changes are written through OrderRepository#transition, never by saving a loaded order
 
     public boolean isPlaced() {
-        return status == OrderStatus.PLACED || status == OrderStatus.CREATED;
+        return OrderTransitions.UNPAID.contains(status);
     }
 
     public boolean isConfirmed() {
@@ -107,13 +87,10 @@ public class Order {
     }
 
     public boolean canBeCancelled() {
-        // Can only cancel if not yet shipped
-        return Set.of(OrderStatus.PLACED, OrderStatus.CREATED, OrderStatus.PREPARING)
-                .contains(status);
+        return OrderTransitions.CANCELLABLE.contains(status);
     }
-    
+
     public boolean canBeUpdatedByVendor() {
-        // Vendor can update status until delivered or cancelled
-        return !Set.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED).contains(status);
+        return OrderTransitions.isOpenToVendor(status);
     }
 }
@@ -0,0 +1,77 @@
+package com.shopapp.order.domain;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Which status changes an order allows, computed once. Lookups run in both directions: a vendor update
+ * is applied as a conditional write on every status the requested one can be reached from, so the check
+ * and the write happen in the same database operation.
+ */
+public final class OrderTransitions {
+
+    /**
+     * Statuses of an order awaiting payment
+     */
+    public static final Set<OrderStatus> UNPAID = Collections.unmodifiableSet(
+            EnumSet.of(OrderStatus.PLACED, OrderStatus.CREATED));
+
+    /**
+     * Statuses from which an order can still be cancelled and its stock returned, i.e. not yet shipped
+     */
+    public static final Set<OrderStatus> CANCELLABLE = Collections.unmodifiableSet(
+            EnumSet.of(OrderStatus.PLACED, OrderStatus.CREATED, OrderStatus.PREPARING));
+
+    /**
+     * Terminal statuses: an order in one of them never changes again and may be archived
+     */
+    public static final Set<OrderStatus> FINISHED = Collections.unmodifiableSet(
+            EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED));
+
+    private static final Map<OrderStatus, Set<OrderStatus>> VENDOR_TARGETS = new EnumMap<>(OrderStatus.class);
+    private static final Map<OrderStatus, Set<OrderStatus>> VENDOR_SOURCES = new EnumMap<>(OrderStatus.class);
+
+    static {
+        for (OrderStatus status : OrderStatus.values()) {
+            VENDOR_TARGETS.put(status, EnumSet.noneOf(OrderStatus.class));
+            VENDOR_SOURCES.put(status, EnumSet.noneOf(OrderStatus.class));
+        }
+        allow(OrderStatus.PLACED, OrderStatus.PREPARING, OrderStatus.CANCELLED);
+        allow(OrderStatus.CREATED, OrderStatus.PREPARING, OrderStatus.CANCELLED);
+        // CONFIRMED is a legacy status that acts like PREPARING
+        allow(OrderStatus.CONFIRMED, OrderStatus.SHIPPED, OrderStatus.DELIVERY_SCHEDULED, OrderStatus.CANCELLED);
+        allow(OrderStatus.PREPARING, OrderStatus.SHIPPED, OrderStatus.DELIVERY_SCHEDULED, OrderStatus.CANCELLED);
+        allow(OrderStatus.DELIVERY_SCHEDULED, OrderStatus.SHIPPED, OrderStatus.OUT_FOR_DELIVERY);
+        allow(OrderStatus.SHIPPED, OrderStatus.OUT_FOR_DELIVERY, OrderStatus.DELIVERY_SCHEDULED);
+        allow(OrderStatus.OUT_FOR_DELIVERY, OrderStatus.DELIVERED, OrderStatus.DELIVERY_SCHEDULED);
+        VENDOR_TARGETS.replaceAll((status, targets) -> Collections.unmodifiableSet(targets));
+        VENDOR_SOURCES.replaceAll((status, sources) -> Collections.unmodifiableSet(sources));
+    }
+
+    private OrderTransitions() {
+    }
+
+    /**
+     * Every status a vendor may move an order to {@code to} from; empty if vendors cannot set it at all
+     */
+    public static Set<OrderStatus> vendorSourcesOf(OrderStatus to) {
+        return VENDOR_SOURCES.get(to);
+    }
+
+    /**
+     * Whether a vendor can still change an order in {@code status}
+     */
+    public static boolean isOpenToVendor(OrderStatus status) {
+        return !VENDOR_TARGETS.get(status).isEmpty();
+    }
+
+    private static void allow(OrderStatus from, OrderStatus... targets) {
+        for (OrderStatus to : targets) {
+            VENDOR_TARGETS.get(from).add(to);
+            VENDOR_SOURCES.get(to).add(from);
+        }
+    }
+}
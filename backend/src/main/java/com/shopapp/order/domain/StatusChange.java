@@ -0,0 +1,63 @@
+package com.shopapp.order.domain;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The fields one status transition writes. Applied in the same conditional update that checks the
+ * current status, so nothing can change the order between the check and the write.
+ */
+@Getter
+public final class StatusChange {
+
+    private final OrderStatus status;
+
+    // Field name to new value; a null value clears the field
+    private final Map<String, Object> fields;
+
+    private StatusChange(OrderStatus status, Map<String, Object> fields) {
+        this.status = status;
+        // A transition out of an unpaid status ends its stock hold; a cancellation's caller returns the stock
+        fields.put("holdExpiresAt", null);
+        this.fields = Collections.unmodifiableMap(fields);
+    }
+
+    /**
+     * Payment received: the order moves on to preparation
+     */
+    public static StatusChange confirm(LocalDateTime at) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("confirmedAt", at);
+        return new StatusChange(OrderStatus.PREPARING, fields);
+    }
+
+    public static StatusChange cancel(String reason, LocalDateTime at) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("cancellationReason", reason);
+        fields.put("cancelledAt", at);
+        return new StatusChange(OrderStatus.CANCELLED, fields);
+    }
+
+    /**
+     * A vendor's fulfilment update
+     * @param estimatedDeliveryDate only recorded for {@link OrderStatus#DELIVERY_SCHEDULED}
+     */
+    public static StatusChange byVendor(OrderStatus status, String note, LocalDate estimatedDeliveryDate,
+                                        LocalDateTime at) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("statusNote", note);
+        switch (status) {
+            case DELIVERY_SCHEDULED -> fields.put("estimatedDeliveryDate", estimatedDeliveryDate);
+            case SHIPPED -> fields.put("shippedAt", at);
+            case DELIVERED -> fields.put("deliveredAt", at);
+            case CANCELLED -> fields.put("cancelledAt", at);
+            default -> {}
+        }
+        return new StatusChange(status, fields);
+    }
+}
@@ -0,0 +1,106 @@
+package com.shopapp.order.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One vendor's share of an order: only that vendor's items and their subtotal, alongside the order's
+ * status and delivery details. A read model rebuilt from {@link Order}, which stays the source of truth;
+ * never write to it directly.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "vendor_orders")
+public class VendorOrder {
+
+    // orderId:vendorId, so re-projecting an order overwrites its documents instead of duplicating them
+    @Id
+    private String id;
+
+    private String orderId;
+    private String vendorId;
+    private String userId;
+
+    @Builder.Default
+    private List<OrderItem> items = new ArrayList<>();
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal subtotal;
+    private OrderStatus status;
+    private ShippingAddress shippingAddress;
+    private String cancellationReason;
+    private LocalDate estimatedDeliveryDate;
+    private String statusNote;
+
+    // Copied from the order, so a vendor's listing sorts the same way a buyer's does
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime confirmedAt;
+    private LocalDateTime cancelledAt;
+    private LocalDateTime shippedAt;
+    private LocalDateTime deliveredAt;
+
+    public static String idOf(String orderId, String vendorId) {
+        return orderId + ":" + vendorId;
+    }
+
+    /**
+     * Split an order into one document per vendor with items in it
+     */
+    public static List<VendorOrder> of(Order order) {
+        Map<String, List<OrderItem>> itemsByVendor = new LinkedHashMap<>();
+        if (order.getItems() != null) {
+            for (OrderItem item : order.getItems()) {
+                if (item != null && item.getVendorId() != null) {
+                    itemsByVendor.computeIfAbsent(item.getVendorId(), vendorId -> new ArrayList<>()).add(item);
+                }
+            }
+        }
+
+        List<VendorOrder> vendorOrders = new ArrayList<>(itemsByVendor.size());
+        itemsByVendor.forEach((vendorId, items) -> vendorOrders.add(of(order, vendorId, items)));
+        return vendorOrders;
+    }
+
+    private static VendorOrder of(Order order, String vendorId, List<OrderItem> items) {
+        BigDecimal subtotal = items.stream()
+                .map(OrderItem::getSubtotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        return VendorOrder.builder()
+                .id(idOf(order.getId(), vendorId))
+                .orderId(order.getId())
+                .vendorId(vendorId)
+                .userId(order.getUserId())
+                .items(items)
+                .subtotal(subtotal)
+                .status(order.getStatus())
+                .shippingAddress(order.getShippingAddress())
+                .cancellationReason(order.getCancellationReason())
+                .estimatedDeliveryDate(order.getEstimatedDeliveryDate())
+                .statusNote(order.getStatusNote())
+                .createdAt(order.getCreatedAt())
+                .updatedAt(order.getUpdatedAt())
+                .confirmedAt(order.getConfirmedAt())
+                .cancelledAt(order.getCancelledAt())
+                .shippedAt(order.getShippedAt())
+                .deliveredAt(order.getDeliveredAt())
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.shopapp.order.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Order the current user's server-side cart; the items come from the cart
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartCheckoutRequest {
+
+    @NotNull(message = "Shipping address is required")
+    @Valid
+    private ShippingAddressRequest shippingAddress;
+}
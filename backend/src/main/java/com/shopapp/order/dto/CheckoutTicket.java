@@ -0,0 +1,28 @@
+package com.shopapp.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A place in the checkout waiting room. Once {@code ADMITTED}, submitting the order again goes straight through.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutTicket {
+
+    private String id;
+    private Status status;
+
+    // Upper bound: tickets that left the room early still count until the head passes them
+    private int position;
+    private long etaSeconds;
+
+    public enum Status {
+        WAITING,
+        ADMITTED
+    }
+}
@@ -0,0 +1,33 @@
+package com.shopapp.order.dto;
+
+import com.shopapp.order.domain.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One order in an export: a flat record with no nested items, so it maps one-to-one onto a CSV row.
+ * In a vendor's export, the counts and amount cover only that vendor's items.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderExportRow {
+
+    private String orderId;
+    private String userId;
+    private OrderStatus status;
+    private int itemCount;
+    private int units;
+    private BigDecimal amount;
+    private LocalDateTime createdAt;
+    private LocalDateTime confirmedAt;
+    private LocalDateTime shippedAt;
+    private LocalDateTime deliveredAt;
+    private LocalDateTime cancelledAt;
+}
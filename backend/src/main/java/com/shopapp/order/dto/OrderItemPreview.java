@@ -0,0 +1,16 @@
+package com.shopapp.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderItemPreview {
+
+    private String productName;
+    private String productImage;
+}
@@ -0,0 +1,32 @@
+package com.shopapp.order.dto;
+
+import com.shopapp.order.domain.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Listing view of an order: status, totals and a few item thumbnails. Line items, the shipping address
+ * and the status timeline are only in the full {@link OrderResponse}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummary {
+
+    private String id;
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+    private int itemCount;
+    private List<OrderItemPreview> previewItems;
+    private String statusNote;
+    private LocalDate estimatedDeliveryDate;
+    private LocalDateTime createdAt;
+}
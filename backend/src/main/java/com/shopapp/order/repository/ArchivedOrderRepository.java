@@ -0,0 +1,16 @@
+package com.shopapp.order.repository;
+
+import com.shopapp.order.domain.ArchivedOrder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ArchivedOrderRepository extends MongoRepository<ArchivedOrder, String>, ArchivedOrderRepositoryCustom {
+
+    // Same listed fields as the hot collection, leaving the compressed payload behind
+    @Query(value = "{ 'userId': ?0 }", fields = OrderRepository.SUMMARY_FIELDS)
+    Page<ArchivedOrder> findSummariesByUserId(String userId, Pageable pageable);
+}
@@ -0,0 +1,37 @@
+package com.shopapp.order.repository;
+
+import com.shopapp.order.domain.ArchivedOrder;
+import com.shopapp.order.domain.Order;
+import com.shopapp.shared.pagination.Cursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Writes and reads of the order archive. Orders go in compressed and come back out whole;
+ * the scroll, like {@link OrderRepositoryCustom#findByUserIdAfter}, loads only the listed fields.
+ */
+public interface ArchivedOrderRepositoryCustom {
+
+    /**
+     * A user's archived orders after {@code after} (or from the start when null), newest first
+     */
+    List<ArchivedOrder> findByUserIdAfter(String userId, Cursor after, int limit);
+
+    /**
+     * The whole archived order, decompressed
+     */
+    Optional<Order> findOrder(String orderId, String userId);
+
+    /**
+     * Copy {@code orders} into the archive in one bulk write; orders archived before are overwritten
+     */
+    void archive(List<Order> orders, LocalDateTime archivedAt);
+
+    /**
+     * As {@link OrderRepositoryCustom#streamCreatedBetween}, over the archive, each order decompressed
+     */
+    Stream<Order> streamCreatedBetween(LocalDateTime from, LocalDateTime to);
+}
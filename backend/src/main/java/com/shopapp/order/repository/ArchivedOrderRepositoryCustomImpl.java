@@ -0,0 +1,108 @@
+package com.shopapp.order.repository;
+
+import com.shopapp.order.domain.ArchivedOrder;
+import com.shopapp.order.domain.Order;
+import com.shopapp.shared.pagination.Cursor;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@RequiredArgsConstructor
+public class ArchivedOrderRepositoryCustomImpl implements ArchivedOrderRepositoryCustom {
+
+    // Extended JSON keeps BSON types such as dates and decimals exact across the round trip
+    private static final JsonWriterSettings PAYLOAD_JSON = JsonWriterSettings.builder()
+            .outputMode(JsonMode.EXTENDED)
+            .build();
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<ArchivedOrder> findByUserIdAfter(String userId, Cursor after, int limit) {
+        Criteria filter = Criteria.where("userId").is(userId);
+        Criteria criteria = after != null ? new Criteria().andOperator(filter, after.after()) : filter;
+        Query query = new BasicQuery(criteria.getCriteriaObject(), Document.parse(OrderRepository.SUMMARY_FIELDS))
+                .with(Cursor.SORT)
+                .limit(limit);
+        return mongoTemplate.find(query, ArchivedOrder.class);
+    }
+
+    @Override
+    public Optional<Order> findOrder(String orderId, String userId) {
+        Query query = Query.query(Criteria.where("_id").is(orderId).and("userId").is(userId));
+        query.fields().include("payload");
+        ArchivedOrder archived = mongoTemplate.findOne(query, ArchivedOrder.class);
+        if (archived == null || archived.getPayload() == null) {
+            return Optional.empty();
+        }
+        return Optional.of(restore(archived));
+    }
+
+    @Override
+    public Stream<Order> streamCreatedBetween(LocalDateTime from, LocalDateTime to) {
+        Query query = OrderRepositoryCustomImpl.createdBetween(from, to);
+        query.fields().include("payload");
+        return mongoTemplate.stream(query, ArchivedOrder.class)
+                .filter(archived -> archived.getPayload() != null)
+                .map(this::restore);
+    }
+
+    @Override
+    public void archive(List<Order> orders, LocalDateTime archivedAt) {
+        if (orders.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ArchivedOrder.class);
+        for (Order order : orders) {
+            Document document = new Document();
+            mongoTemplate.getConverter().write(order, document);
+            byte[] payload = compress(document.toJson(PAYLOAD_JSON));
+            bulk.replaceOne(Query.query(Criteria.where("_id").is(order.getId())),
+                    ArchivedOrder.of(order, payload, archivedAt),
+                    FindAndReplaceOptions.options().upsert());
+        }
+        bulk.execute();
+    }
+
+    private Order restore(ArchivedOrder archived) {
+        return mongoTemplate.getConverter().read(Order.class, Document.parse(decompress(archived.getPayload())));
+    }
+
+    static byte[] compress(String json) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(json.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not compress archived order", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static String decompress(byte[] payload) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decompress archived order", e);
+        }
+    }
+}
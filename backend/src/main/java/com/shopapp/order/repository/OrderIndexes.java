@@ -0,0 +1,129 @@
+package com.shopapp.order.repository;
+
+import com.shopapp.order.domain.ArchivedOrder;
+import com.shopapp.order.domain.Order;
+import com.shopapp.order.domain.OrderStatus;
+import com.shopapp.order.domain.OrderTransitions;
+import com.shopapp.order.domain.VendorOrder;
+import com.shopapp.shared.index.ModuleIndexes;
+import com.shopapp.shared.pagination.SortPolicy;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+public class OrderIndexes implements ModuleIndexes {
+
+    public static final String USER_CREATED = "user_created_id";
+    public static final String ARCHIVE_USER_CREATED = "archive_user_created_id";
+    public static final String VENDOR_CREATED = "vendor_created_id";
+    public static final String VENDOR_STATUS_CREATED = "vendor_status_created_id";
+    public static final String HOLD_EXPIRES = "hold_expires";
+    public static final String HOLD_RELEASE = "hold_release";
+
+    /**
+     * Sort keys accepted by a user's order history
+     */
+    public static final SortPolicy USER_SORTS = SortPolicy.builder()
+            .indexed("createdAt", USER_CREATED)
+            .topK("totalAmount")
+            .build();
+
+    /**
+     * Sort keys accepted by a vendor's order listing, which reads the {@link VendorOrder} read model;
+     * a status filter is served by {@value #VENDOR_STATUS_CREATED} in the same key order
+     */
+    public static final SortPolicy VENDOR_SORTS = SortPolicy.builder()
+            .indexed("createdAt", VENDOR_CREATED)
+            .topK("totalAmount", "subtotal")
+            .build();
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt");
+
+    @Override
+    public List<DeclaredIndex> indexes() {
+        return List.of(
+                new DeclaredIndex(Order.class, new Index()
+                        .on("userId", Sort.Direction.ASC)
+                        .on("createdAt", Sort.Direction.DESC)
+                        .on("_id", Sort.Direction.DESC)
+                        .named(USER_CREATED)),
+                // The archive only serves order histories, so this is the one index it carries
+                new DeclaredIndex(ArchivedOrder.class, new Index()
+                        .on("userId", Sort.Direction.ASC)
+                        .on("createdAt", Sort.Direction.DESC)
+                        .on("_id", Sort.Direction.DESC)
+                        .named(ARCHIVE_USER_CREATED)),
+                new DeclaredIndex(VendorOrder.class, new Index()
+                        .on("vendorId", Sort.Direction.ASC)
+                        .on("createdAt", Sort.Direction.DESC)
+                        .on("_id", Sort.Direction.DESC)
+                        .named(VENDOR_CREATED)),
+                new DeclaredIndex(VendorOrder.class, new Index()
+                        .on("vendorId", Sort.Direction.ASC)
+                        .on("status", Sort.Direction.ASC)
+                        .on("createdAt", Sort.Direction.DESC)
+                        .on("_id", Sort.Direction.DESC)
+                        .named(VENDOR_STATUS_CREATED)),
+                // Only unpaid orders carry a hold, so the sweeper's index stays as small as the backlog
+                new DeclaredIndex(Order.class, new Index()
+                        .on("holdExpiresAt", Sort.Direction.ASC)
+                        .partial(PartialIndexFilter.of(Criteria.where("holdExpiresAt").exists(true)))
+                        .named(HOLD_EXPIRES)),
+                new DeclaredIndex(Order.class, new Index()
+                        .on("holdReleaseId", Sort.Direction.ASC)
+                        .sparse()
+                        .named(HOLD_RELEASE)));
+    }
+
+    // Histories also merge both tiers by amount in memory, so the two must sort it the same way
+    @Override
+    public List<DecimalField> decimalFields() {
+        return List.of(
+                new DecimalField(Order.class, "totalAmount"),
+                new DecimalField(ArchivedOrder.class, "totalAmount"),
+                new DecimalField(VendorOrder.class, "subtotal"));
+    }
+
+    @Override
+    public List<SortPolicy> sortPolicies() {
+        return List.of(USER_SORTS, VENDOR_SORTS);
+    }
+
+    @Override
+    public List<QueryProbe> probes() {
+        return List.of(
+                new QueryProbe("findSummariesByUserId", Order.class,
+                        Query.query(Criteria.where("userId").is("probe")).with(NEWEST_FIRST)),
+                new QueryProbe("archive.findSummariesByUserId", ArchivedOrder.class,
+                        Query.query(Criteria.where("userId").is("probe")).with(NEWEST_FIRST)),
+                new QueryProbe("findSummariesByVendorId", VendorOrder.class,
+                        Query.query(Criteria.where("vendorId").is("probe")).with(NEWEST_FIRST)),
+                new QueryProbe("findSummariesByVendorIdAndStatus", VendorOrder.class,
+                        Query.query(Criteria.where("vendorId").is("probe").and("status").is(OrderStatus.PLACED))
+                                .with(NEWEST_FIRST)),
+                new QueryProbe("findExpiredHoldIds", Order.class,
+                        Query.query(Criteria.where("holdExpiresAt").exists(true).lte(LocalDateTime.of(2000, 1, 1, 0, 0))
+                                        .and("status").in(OrderTransitions.UNPAID))
+                                .with(Sort.by(Sort.Direction.ASC, "holdExpiresAt"))),
+                new QueryProbe("findStalledHoldReleases", Order.class,
+                        Query.query(Criteria.where("holdReleaseId").exists(true)
+                                .and("cancelledAt").lte(LocalDateTime.of(2000, 1, 1, 0, 0)))),
+                new QueryProbe("streamByVendorIdCreatedBetween", VendorOrder.class,
+                        Query.query(Criteria.where("vendorId").is("probe")
+                                        .and("createdAt").gte(LocalDateTime.of(2000, 1, 1, 0, 0)).lt(LocalDateTime.of(2001, 1, 1, 0, 0)))
+                                .with(Sort.by(Sort.Direction.ASC, "createdAt", "_id"))),
+                new QueryProbe("streamCreatedBetween", Order.class,
+                        OrderRepositoryCustomImpl.createdBetween(LocalDateTime.of(2000, 1, 1, 0, 0), LocalDateTime.of(2001, 1, 1, 0, 0))),
+                new QueryProbe("findArchivable", Order.class,
+                        Query.query(Criteria.where("status").in(OrderTransitions.FINISHED)
+                                .and("updatedAt").lte(LocalDateTime.of(2000, 1, 1, 0, 0))
+                                .and("holdReleaseId").exists(false))));
+    }
+}
@@ -10,26 +10,30 @@ import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface OrderRepository extends MongoRepository<Order, String> {
+public interface OrderRepository extends MongoRepository<Order, String>, OrderRepositoryCustom {
 
-    Page<Order> findByUserId(String userId, Pageable pageable);
+    /**
+     * Fields loaded for listings: the {@code find...Summaries...} methods return orders without the
+     * shipping address and with only the name and image of each item, so they must never be saved back.
+     */
+    String SUMMARY_FIELDS = "{ 'status': 1, 'totalAmount': 1, 'statusNote': 1, 'estimatedDeliveryDate': 1, "
+            + "'createdAt': 1, 'items.productName': 1, 'items.productImage': 1 }";
+
+    @Query(fields = SUMMARY_FIELDS)
+    Page<Order> findSummariesByUserId(String userId, Pageable pageable);
 
     Optional<Order> findByIdAndUserId(String id, String userId);
 
     List<Order> findByUserIdAndStatus(String userId, OrderStatus status);
 
     Page<Order> findByStatus(OrderStatus status, Pageable pageable);
-    
-    // Find orders that contain items from a specific vendor
-    @Query("{ 'items.vendorId': ?0 }")
-    Page<Order> findByVendorId(String vendorId, Pageable pageable);
-    
-    // Find orders by vendor and status
-    @Query("{ 'items.vendorId': ?0, 'status': ?1 }")
-    Page<Order> findByVendorIdAndStatus(String vendorId, OrderStatus status, Pageable pageable);
-    
+
+    // Whole collection, for rebuilding read models
+    Stream<Order> streamAllBy();
+
     // Find specific order containing vendor's items
     @Query("{ '_id': ?0, 'items.vendorId': ?1 }")
     Optional<Order> findByIdAndVendorId(String orderId, String vendorId);
@@ -0,0 +1,85 @@
+package com.shopapp.order.repository;
+
+import com.shopapp.order.domain.Order;
+import com.shopapp.order.domain.OrderStatus;
+import com.shopapp.order.domain.StatusChange;
+import com.shopapp.shared.pagination.Cursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Custom order queries that cannot be expressed as derived queries.
+ * The scroll backs listings, so it loads only {@link OrderRepository#SUMMARY_FIELDS}.
+ */
+public interface OrderRepositoryCustom {
+
+    /**
+     * A user's orders after {@code after} (or from the start when null), newest first
+     */
+    List<Order> findByUserIdAfter(String userId, Cursor after, int limit);
+
+    /**
+     * Apply {@code change} if the order is still in one of {@code from}, as a single conditional update
+     * @return the order after the change, or empty if it does not exist or its status is no longer in {@code from}
+     */
+    Optional<Order> transition(String orderId, Set<OrderStatus> from, StatusChange change);
+
+    /**
+     * As {@link #transition}, for an order that must also contain the vendor's items
+     */
+    Optional<Order> transitionForVendor(String orderId, String vendorId, Set<OrderStatus> from, StatusChange change);
+
+    /**
+     * IDs of unpaid orders whose stock hold expired at or before {@code now}, oldest expiry first
+     */
+    List<String> findExpiredHoldIds(LocalDateTime now, int limit);
+
+    /**
+     * Cancel those of {@code orderIds} that are still unpaid and expired, tagging them with {@code releaseId}
+     * so the caller can find exactly the orders it won, even if a payment raced the sweep
+     * @return number of orders cancelled
+     */
+    long cancelExpiredHolds(List<String> orderIds, LocalDateTime now, String releaseId, String reason);
+
+    /**
+     * Clear the stock hold of an order that is still unpaid and not being released by a sweep
+     * @return false if the order is missing, no longer unpaid, or already cancelled by a sweep
+     */
+    boolean clearHold(String orderId);
+
+    /**
+     * Orders tagged by {@link #cancelExpiredHolds}, with only the product and quantity of each item
+     */
+    List<Order> findHoldReleases(String releaseId);
+
+    /**
+     * Clear the hold of every order tagged with {@code releaseId} once its stock is back
+     */
+    void completeHoldReleases(String releaseId);
+
+    /**
+     * Orders cancelled by a hold release at or before {@code cancelledBefore} that still carry its ID,
+     * left behind by a sweep that failed before completing the release; only the release ID is loaded
+     */
+    List<Order> findStalledHoldReleases(LocalDateTime cancelledBefore, int limit);
+
+    /**
+     * Orders that finished (were last changed in a terminal status) at or before {@code cutoff}, whole
+     */
+    List<Order> findArchivable(LocalDateTime cutoff, int limit);
+
+    /**
+     * Delete those of {@code orderIds} that are still finished at or before {@code cutoff}, once archived
+     * @return number of orders deleted
+     */
+    long deleteArchived(List<String> orderIds, LocalDateTime cutoff);
+
+    /**
+     * Every order created in {@code [from, to)}, oldest first, read through one database cursor; close the stream
+     */
+    Stream<Order> streamCreatedBetween(LocalDateTime from, LocalDateTime to);
+}
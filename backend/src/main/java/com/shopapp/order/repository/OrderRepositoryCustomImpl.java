@@ -0,0 +1,177 @@
+package com.shopapp.order.repository;
+
+import com.shopapp.order.domain.Order;
+import com.shopapp.order.domain.OrderStatus;
+import com.shopapp.order.domain.OrderTransitions;
+import com.shopapp.order.domain.StatusChange;
+import com.shopapp.shared.pagination.Cursor;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    // Documents per round trip while streaming an export
+    static final int EXPORT_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Order> findByUserIdAfter(String userId, Cursor after, int limit) {
+        return findAfter(Criteria.where("userId").is(userId), after, limit);
+    }
+
+    @Override
+    public Optional<Order> transition(String orderId, Set<OrderStatus> from, StatusChange change) {
+        return transition(Criteria.where("_id").is(orderId), from, change);
+    }
+
+    @Override
+    public Optional<Order> transitionForVendor(String orderId, String vendorId, Set<OrderStatus> from,
+                                               StatusChange change) {
+        return transition(Criteria.where("_id").is(orderId).and("items.vendorId").is(vendorId), from, change);
+    }
+
+    @Override
+    public List<String> findExpiredHoldIds(LocalDateTime now, int limit) {
+        Query query = Query.query(expiredHold(now))
+                .with(Sort.by(Sort.Direction.ASC, "holdExpiresAt"))
+                .limit(limit);
+        query.fields().include("_id");
+        return mongoTemplate.find(query, Order.class).stream()
+                .map(Order::getId)
+                .toList();
+    }
+
+    @Override
+    public long cancelExpiredHolds(List<String> orderIds, LocalDateTime now, String releaseId, String reason) {
+        // Re-check the hold in the filter: an order paid since it was listed no longer matches
+        Query query = Query.query(new Criteria().andOperator(Criteria.where("_id").in(orderIds), expiredHold(now)));
+        Update update = new Update()
+                .set("status", OrderStatus.CANCELLED)
+                .set("cancellationReason", reason)
+                .set("cancelledAt", now)
+                .set("holdReleaseId", releaseId)
+                .currentDate("updatedAt");
+        return mongoTemplate.updateMulti(query, update, Order.class).getModifiedCount();
+    }
+
+    @Override
+    public boolean clearHold(String orderId) {
+        Query query = Query.query(Criteria.where("_id").is(orderId)
+                .and("status").in(OrderTransitions.UNPAID)
+                .and("holdReleaseId").exists(false));
+        Update update = new Update()
+                .unset("holdExpiresAt")
+                .currentDate("updatedAt");
+        // Matched rather than modified: an order whose hold is already clear may still be paid for
+        return mongoTemplate.updateFirst(query, update, Order.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public List<Order> findHoldReleases(String releaseId) {
+        Query query = Query.query(Criteria.where("holdReleaseId").is(releaseId));
+        query.fields().include("items.productId", "items.quantity");
+        return mongoTemplate.find(query, Order.class);
+    }
+
+    @Override
+    public void completeHoldReleases(String releaseId) {
+        Query query = Query.query(Criteria.where("holdReleaseId").is(releaseId));
+        Update update = new Update()
+                .unset("holdExpiresAt")
+                .unset("holdReleaseId");
+        mongoTemplate.updateMulti(query, update, Order.class);
+    }
+
+    @Override
+    public List<Order> findStalledHoldReleases(LocalDateTime cancelledBefore, int limit) {
+        Query query = Query.query(Criteria.where("holdReleaseId").exists(true)
+                        .and("cancelledAt").lte(cancelledBefore))
+                .limit(limit);
+        query.fields().include("holdReleaseId");
+        return mongoTemplate.find(query, Order.class);
+    }
+
+    @Override
+    public List<Order> findArchivable(LocalDateTime cutoff, int limit) {
+        return mongoTemplate.find(Query.query(archivable(cutoff)).limit(limit), Order.class);
+    }
+
+    @Override
+    public long deleteArchived(List<String> orderIds, LocalDateTime cutoff) {
+        Query query = Query.query(new Criteria().andOperator(Criteria.where("_id").in(orderIds), archivable(cutoff)));
+        return mongoTemplate.remove(query, Order.class).getDeletedCount();
+    }
+
+    @Override
+    public Stream<Order> streamCreatedBetween(LocalDateTime from, LocalDateTime to) {
+        return mongoTemplate.stream(createdBetween(from, to), Order.class);
+    }
+
+    /**
+     * Orders created in {@code [from, to)} in ID order. Generated IDs embed their creation second, so bounding
+     * {@code _id} lets a whole-collection export walk a range of the {@code _id} index instead of needing
+     * an index on {@code createdAt}; {@code createdAt} then trims the partial seconds at either end.
+     */
+    static Query createdBetween(LocalDateTime from, LocalDateTime to) {
+        Criteria ids = Criteria.where("_id")
+                .gte(new ObjectId(Date.from(from.atZone(ZoneId.systemDefault()).toInstant())))
+                .lt(new ObjectId(Date.from(to.plusSeconds(1).atZone(ZoneId.systemDefault()).toInstant())));
+        return Query.query(new Criteria().andOperator(ids, Criteria.where("createdAt").gte(from).lt(to)))
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .cursorBatchSize(EXPORT_BATCH_SIZE);
+    }
+
+    private Optional<Order> transition(Criteria target, Set<OrderStatus> from, StatusChange change) {
+        Query query = Query.query(target.and("status").in(from));
+        Update update = new Update()
+                .set("status", change.getStatus())
+                .currentDate("updatedAt");
+        change.getFields().forEach((field, value) -> {
+            if (value != null) {
+                update.set(field, value);
+            } else {
+                update.unset(field);
+            }
+        });
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                query, update, FindAndModifyOptions.options().returnNew(true), Order.class));
+    }
+
+    private Criteria expiredHold(LocalDateTime now) {
+        return Criteria.where("holdExpiresAt").exists(true).lte(now)
+                .and("status").in(OrderTransitions.UNPAID);
+    }
+
+    // An order still being released by the hold sweeper is left until its stock is back
+    private Criteria archivable(LocalDateTime cutoff) {
+        return Criteria.where("status").in(OrderTransitions.FINISHED)
+                .and("updatedAt").lte(cutoff)
+                .and("holdReleaseId").exists(false);
+    }
+
+    private List<Order> findAfter(Criteria filter, Cursor after, int limit) {
+        Criteria criteria = after != null ? new Criteria().andOperator(filter, after.after()) : filter;
+        Query query = new BasicQuery(criteria.getCriteriaObject(), Document.parse(OrderRepository.SUMMARY_FIELDS))
+                .with(Cursor.SORT)
+                .limit(limit);
+        return mongoTemplate.find(query, Order.class);
+    }
+}
@@ -0,0 +1,26 @@
+package com.shopapp.order.repository;
+
+import com.shopapp.order.domain.OrderStatus;
+import com.shopapp.order.domain.VendorOrder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface VendorOrderRepository extends MongoRepository<VendorOrder, String>, VendorOrderRepositoryCustom {
+
+    /**
+     * Fields loaded for a vendor's listing; like {@link OrderRepository#SUMMARY_FIELDS}, without the
+     * shipping address and with only the name and image of each item
+     */
+    String SUMMARY_FIELDS = "{ 'orderId': 1, 'status': 1, 'subtotal': 1, 'statusNote': 1, 'estimatedDeliveryDate': 1, "
+            + "'createdAt': 1, 'items.productName': 1, 'items.productImage': 1 }";
+
+    @Query(value = "{ 'vendorId': ?0 }", fields = SUMMARY_FIELDS)
+    Page<VendorOrder> findSummariesByVendorId(String vendorId, Pageable pageable);
+
+    @Query(value = "{ 'vendorId': ?0, 'status': ?1 }", fields = SUMMARY_FIELDS)
+    Page<VendorOrder> findSummariesByVendorIdAndStatus(String vendorId, OrderStatus status, Pageable pageable);
+}
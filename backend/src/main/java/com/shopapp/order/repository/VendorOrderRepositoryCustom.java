@@ -0,0 +1,44 @@
+package com.shopapp.order.repository;
+
+import com.shopapp.order.domain.OrderStatus;
+import com.shopapp.order.domain.VendorOrder;
+import com.shopapp.shared.pagination.Cursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Keyset scroll over the vendor read model, which loads only {@link VendorOrderRepository#SUMMARY_FIELDS},
+ * the cursor behind a vendor's export, and the writes that keep the read model in step with orders
+ */
+public interface VendorOrderRepositoryCustom {
+
+    /**
+     * A vendor's share of orders after {@code after} (or from the start when null), newest first
+     * @param status optional status filter, ignored when null
+     */
+    List<VendorOrder> findByVendorIdAfter(String vendorId, OrderStatus status, Cursor after, int limit);
+
+    /**
+     * A vendor's share of every order created in {@code [from, to)}, oldest first, read through one
+     * database cursor; close the stream
+     */
+    Stream<VendorOrder> streamByVendorIdCreatedBetween(String vendorId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Insert or replace each share unless the stored copy was projected from a newer version of its order
+     * (a later {@code updatedAt}), so a slow projection never overwrites a fresher one
+     */
+    void saveAllIfNewer(List<VendorOrder> shares);
+
+    /**
+     * Whether every order that existed before the projection started has been projected
+     */
+    boolean isBackfilled();
+
+    /**
+     * Record that the backfill ran to the end
+     */
+    void markBackfilled();
+}
@@ -0,0 +1,93 @@
+package com.shopapp.order.repository;
+
+import com.shopapp.order.domain.OrderStatus;
+import com.shopapp.order.domain.VendorOrder;
+import com.shopapp.shared.pagination.Cursor;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class VendorOrderRepositoryCustomImpl implements VendorOrderRepositoryCustom {
+
+    private static final int DUPLICATE_KEY = 11000;
+    private static final String MARKERS = "projection_markers";
+    private static final String BACKFILL_MARKER = "vendor_orders:backfill";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<VendorOrder> findByVendorIdAfter(String vendorId, OrderStatus status, Cursor after, int limit) {
+        Criteria filter = Criteria.where("vendorId").is(vendorId);
+        if (status != null) {
+            filter = filter.and("status").is(status);
+        }
+        Criteria criteria = after != null ? new Criteria().andOperator(filter, after.after()) : filter;
+        Query query = new BasicQuery(criteria.getCriteriaObject(), Document.parse(VendorOrderRepository.SUMMARY_FIELDS))
+                .with(Cursor.SORT)
+                .limit(limit);
+        return mongoTemplate.find(query, VendorOrder.class);
+    }
+
+    @Override
+    public Stream<VendorOrder> streamByVendorIdCreatedBetween(String vendorId, LocalDateTime from, LocalDateTime to) {
+        // Walks the vendor's stretch of the vendor/createdAt index backwards
+        Query query = Query.query(Criteria.where("vendorId").is(vendorId).and("createdAt").gte(from).lt(to))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt", "_id"))
+                .cursorBatchSize(OrderRepositoryCustomImpl.EXPORT_BATCH_SIZE);
+        return mongoTemplate.stream(query, VendorOrder.class);
+    }
+
+    @Override
+    public void saveAllIfNewer(List<VendorOrder> shares) {
+        if (shares.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, VendorOrder.class);
+        for (VendorOrder share : shares) {
+            Criteria filter = Criteria.where("_id").is(share.getId());
+            if (share.getUpdatedAt() != null) {
+                filter = filter.orOperator(
+                        Criteria.where("updatedAt").exists(false),
+                        Criteria.where("updatedAt").lte(share.getUpdatedAt()));
+            }
+            bulk.replaceOne(Query.query(filter), share, FindAndReplaceOptions.options().upsert());
+        }
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            // A stored copy newer than the share fails the filter, and the upsert then collides with its _id:
+            // that share is stale and skipping it is the point
+            boolean onlyStale = !e.getErrors().isEmpty()
+                    && e.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY);
+            if (!onlyStale) {
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public boolean isBackfilled() {
+        return mongoTemplate.exists(Query.query(Criteria.where("_id").is(BACKFILL_MARKER)), MARKERS);
+    }
+
+    @Override
+    public void markBackfilled() {
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(BACKFILL_MARKER)),
+                new Update().currentDate("completedAt"), MARKERS);
+    }
+}
@@ -0,0 +1,203 @@
+package com.shopapp.order.service;
+
+import com.shopapp.order.dto.CheckoutTicket;
+import com.shopapp.shared.exception.ResourceNotFoundException;
+import com.shopapp.shared.exception.ServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission control in front of checkout. At most {@code max-concurrent} orders are placed at once;
+ * everyone else gets a ticket in a FIFO waiting room and polls it until a slot is set aside for them.
+ * Once the room is full, new arrivals are turned away immediately instead of queueing on server threads.
+ * Each user holds at most one ticket, so resubmitting keeps their place.
+ */
+@Slf4j
+@Component
+public class CheckoutAdmission {
+
+    private static final long RETRY_AFTER_SECONDS = 5;
+
+    // Seed for the checkout duration average until real checkouts have been timed
+    private static final long INITIAL_CHECKOUT_NANOS = Duration.ofMillis(200).toNanos();
+
+    private final int maxConcurrent;
+    private final int queueCapacity;
+    private final long ticketTtlNanos;
+    private final LongSupplier nanoClock;
+
+    private int inFlight;
+    private long nextSequence;
+    private long averageCheckoutNanos = INITIAL_CHECKOUT_NANOS;
+    private final LinkedHashMap<String, Ticket> waiting = new LinkedHashMap<>();
+    private final Map<String, Ticket> admitted = new HashMap<>();
+    private final Map<String, Ticket> ticketsByUser = new HashMap<>();
+
+    @Autowired
+    public CheckoutAdmission(@Value("${orders.checkout.max-concurrent:32}") int maxConcurrent,
+                             @Value("${orders.checkout.queue-capacity:1000}") int queueCapacity,
+                             @Value("${orders.checkout.ticket-ttl-seconds:30}") long ticketTtlSeconds) {
+        this(maxConcurrent, queueCapacity, Duration.ofSeconds(ticketTtlSeconds), System::nanoTime);
+    }
+
+    CheckoutAdmission(int maxConcurrent, int queueCapacity, Duration ticketTtl, LongSupplier nanoClock) {
+        if (maxConcurrent <= 0 || queueCapacity < 0) {
+            throw new IllegalArgumentException("Checkout concurrency must be positive and queue capacity non-negative");
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.queueCapacity = queueCapacity;
+        this.ticketTtlNanos = ticketTtl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Let the user check out now, or place them in the waiting room.
+     * An {@code ADMITTED} ticket means the caller holds a slot and must {@link #release(long)} it.
+     * @throws ServiceUnavailableException if the waiting room is full
+     */
+    public synchronized CheckoutTicket admit(String userId) {
+        long now = nanoClock.getAsLong();
+
+        Ticket ticket = ticketsByUser.get(userId);
+        if (ticket != null && admitted.remove(ticket.id) != null) {
+            // The slot was set aside when the ticket reached the head of the room
+            ticketsByUser.remove(userId);
+            return CheckoutTicket.builder().id(ticket.id).status(CheckoutTicket.Status.ADMITTED).build();
+        }
+        if (ticket != null) {
+            ticket.lastSeen = now;
+            return waitingTicket(ticket);
+        }
+
+        // Nobody may jump the queue, so a free slot only goes to a new arrival when the room is empty
+        if (inFlight < maxConcurrent && waiting.isEmpty()) {
+            inFlight++;
+            return CheckoutTicket.builder().status(CheckoutTicket.Status.ADMITTED).build();
+        }
+
+        if (waiting.size() >= queueCapacity) {
+            throw new ServiceUnavailableException("Checkout is at capacity, please retry shortly", RETRY_AFTER_SECONDS);
+        }
+
+        ticket = new Ticket(UUID.randomUUID().toString(), userId, nextSequence++, now);
+        waiting.put(ticket.id, ticket);
+        ticketsByUser.put(userId, ticket);
+        return waitingTicket(ticket);
+    }
+
+    /**
+     * Where a user's ticket stands; polling also keeps a waiting ticket alive
+     */
+    public synchronized CheckoutTicket status(String userId, String ticketId) {
+        Ticket ticket = ticketsByUser.get(userId);
+        if (ticket == null || !ticket.id.equals(ticketId)) {
+            throw new ResourceNotFoundException("Checkout ticket", "id", ticketId);
+        }
+
+        if (admitted.containsKey(ticketId)) {
+            return CheckoutTicket.builder().id(ticketId).status(CheckoutTicket.Status.ADMITTED).build();
+        }
+        ticket.lastSeen = nanoClock.getAsLong();
+        return waitingTicket(ticket);
+    }
+
+    /**
+     * Give back a slot taken by an admitted checkout and let the next ticket in
+     * @param elapsedNanos how long the checkout took, for the waiting-time estimate
+     */
+    public synchronized void release(long elapsedNanos) {
+        inFlight--;
+        averageCheckoutNanos += (elapsedNanos - averageCheckoutNanos) / 8;
+        promote();
+    }
+
+    /**
+     * Drop tickets whose holders stopped polling, and slots set aside for users who never came back
+     */
+    @Scheduled(fixedDelayString = "${orders.checkout.expiry-interval-ms:1000}")
+    public synchronized void expire() {
+        long now = nanoClock.getAsLong();
+        int expired = 0;
+
+        Iterator<Ticket> waitingTickets = waiting.values().iterator();
+        while (waitingTickets.hasNext()) {
+            Ticket ticket = waitingTickets.next();
+            if (now - ticket.lastSeen > ticketTtlNanos) {
+                waitingTickets.remove();
+                ticketsByUser.remove(ticket.userId);
+                expired++;
+            }
+        }
+
+        Iterator<Ticket> admittedTickets = admitted.values().iterator();
+        while (admittedTickets.hasNext()) {
+            Ticket ticket = admittedTickets.next();
+            if (now - ticket.lastSeen > ticketTtlNanos) {
+                admittedTickets.remove();
+                ticketsByUser.remove(ticket.userId);
+                inFlight--;
+                expired++;
+            }
+        }
+
+        if (expired > 0) {
+            log.debug("Expired {} abandoned checkout tickets", expired);
+            promote();
+        }
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    private void promote() {
+        long now = nanoClock.getAsLong();
+        Iterator<Ticket> head = waiting.values().iterator();
+        while (inFlight < maxConcurrent && head.hasNext()) {
+            Ticket ticket = head.next();
+            head.remove();
+            // The holder now has one ticket TTL to come back and claim the slot
+            ticket.lastSeen = now;
+            admitted.put(ticket.id, ticket);
+            inFlight++;
+        }
+    }
+
+    private CheckoutTicket waitingTicket(Ticket ticket) {
+        long headSequence = waiting.values().iterator().next().sequence;
+        int position = (int) (ticket.sequence - headSequence + 1);
+        long etaNanos = position * averageCheckoutNanos / maxConcurrent;
+
+        return CheckoutTicket.builder()
+                .id(ticket.id)
+                .status(CheckoutTicket.Status.WAITING)
+                .position(position)
+                .etaSeconds(Math.max(1, Duration.ofNanos(etaNanos).toSeconds()))
+                .build();
+    }
+
+    private static final class Ticket {
+        private final String id;
+        private final String userId;
+        private final long sequence;
+        private long lastSeen;
+
+        private Ticket(String id, String userId, long sequence, long lastSeen) {
+            this.id = id;
+            this.userId = userId;
+            this.sequence = sequence;
+            this.lastSeen = lastSeen;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.shopapp.order.service;
+
+import com.shopapp.order.domain.Order;
+import com.shopapp.order.repository.ArchivedOrderRepository;
+import com.shopapp.order.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves orders that finished more than {@code after-days} ago out of the hot {@code orders} collection,
+ * so its indexes only cover orders that are still moving. Each batch is copied into the archive first
+ * and deleted second; a crash in between leaves an order in both places, which readers tolerate by
+ * preferring the hot copy, and the next run finishes the move.
+ */
+@Slf4j
+@Component
+public class OrderArchiver {
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final Duration age;
+    private final int batchSize;
+
+    public OrderArchiver(OrderRepository orderRepository,
+                         ArchivedOrderRepository archivedOrderRepository,
+                         @Value("${orders.archive.after-days:90}") long afterDays,
+                         @Value("${orders.archive.batch-size:500}") int batchSize) {
+        if (afterDays <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Archive age and batch size must be positive");
+        }
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.age = Duration.ofDays(afterDays);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${orders.archive.interval-ms:3600000}",
+            initialDelayString = "${orders.archive.interval-ms:3600000}")
+    public void archive() {
+        try {
+            int archived = archive(LocalDateTime.now());
+            if (archived > 0) {
+                log.info("Archived {} finished orders", archived);
+            }
+        } catch (RuntimeException e) {
+            log.error("Order archival failed", e);
+        }
+    }
+
+    /**
+     * Archive every order finished more than the configured age before {@code now}, one batch at a time
+     * @return number of orders moved
+     */
+    int archive(LocalDateTime now) {
+        LocalDateTime cutoff = now.minus(age);
+        int archived = 0;
+        List<Order> orders;
+        long deleted;
+        do {
+            orders = orderRepository.findArchivable(cutoff, batchSize);
+            if (orders.isEmpty()) {
+                break;
+            }
+            archivedOrderRepository.archive(orders, now);
+            List<String> orderIds = orders.stream().map(Order::getId).toList();
+            deleted = orderRepository.deleteArchived(orderIds, cutoff);
+            archived += (int) deleted;
+            // A batch that could not be deleted would be found again forever
+        } while (orders.size() == batchSize && deleted > 0);
+        return archived;
+    }
+}
@@ -0,0 +1,220 @@
+package com.shopapp.order.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopapp.order.domain.Order;
+import com.shopapp.order.domain.OrderItem;
+import com.shopapp.order.domain.VendorOrder;
+import com.shopapp.order.dto.OrderExportRow;
+import com.shopapp.order.repository.ArchivedOrderRepository;
+import com.shopapp.order.repository.OrderRepository;
+import com.shopapp.order.repository.VendorOrderRepository;
+import com.shopapp.shared.csv.CsvWriter;
+import com.shopapp.shared.exception.BadRequestException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes orders created in a date range straight from a database cursor to the response, one row at a time,
+ * so an export of any length runs in one request and constant memory. A vendor's export reads their
+ * {@link VendorOrder} read model; the admin export covers the hot collection and then the archive.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderExporter {
+
+    static final List<String> CSV_HEADER = List.of("order_id", "user_id", "status", "item_count", "units", "amount",
+            "created_at", "confirmed_at", "shipped_at", "delivered_at", "cancelled_at");
+
+    // Rows between explicit flushes, so a slow export still shows progress to the client
+    private static final int FLUSH_EVERY = 1000;
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final VendorOrderRepository vendorOrderRepository;
+    private final ObjectMapper objectMapper;
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format of(String format) {
+            return Arrays.stream(values())
+                    .filter(value -> value.name().equalsIgnoreCase(format))
+                    .findFirst()
+                    .orElseThrow(() -> new BadRequestException("Export format must be csv or ndjson"));
+        }
+    }
+
+    /**
+     * Orders created from the start of {@code from} up to the end of {@code to}
+     */
+    public record Range(LocalDate from, LocalDate to) {
+
+        /**
+         * @param from first day, defaulting to one year before {@code to}
+         * @param to last day, defaulting to today
+         */
+        public static Range of(LocalDate from, LocalDate to) {
+            LocalDate last = to != null ? to : LocalDate.now();
+            LocalDate first = from != null ? from : last.minusYears(1);
+            if (first.isAfter(last)) {
+                throw new BadRequestException("Export range must start on or before its end");
+            }
+            return new Range(first, last);
+        }
+
+        LocalDateTime start() {
+            return from.atStartOfDay();
+        }
+
+        LocalDateTime end() {
+            return to.plusDays(1).atStartOfDay();
+        }
+
+        public String fileName(Format format) {
+            return "orders-" + from + "-to-" + to + "." + format.extension();
+        }
+    }
+
+    /**
+     * Export a vendor's share of every order in {@code range}
+     */
+    public void exportVendorOrders(String vendorId, Range range, Format format, OutputStream out) throws IOException {
+        RowWriter writer = new RowWriter(format, out);
+        try (Stream<VendorOrder> orders = vendorOrderRepository.streamByVendorIdCreatedBetween(
+                vendorId, range.start(), range.end())) {
+            writer.writeAll(orders.map(OrderExporter::toRow).iterator());
+        }
+        writer.finish();
+        log.info("Exported {} orders of vendor {} from {} to {}", writer.rows, vendorId, range.from(), range.to());
+    }
+
+    /**
+     * Export every order in {@code range}, archived ones included
+     */
+    public void exportAllOrders(Range range, Format format, OutputStream out) throws IOException {
+        RowWriter writer = new RowWriter(format, out);
+        try (Stream<Order> orders = orderRepository.streamCreatedBetween(range.start(), range.end())) {
+            writer.writeAll(orders.map(OrderExporter::toRow).iterator());
+        }
+        try (Stream<Order> orders = archivedOrderRepository.streamCreatedBetween(range.start(), range.end())) {
+            writer.writeAll(orders.map(OrderExporter::toRow).iterator());
+        }
+        writer.finish();
+        log.info("Exported {} orders from {} to {}", writer.rows, range.from(), range.to());
+    }
+
+    static OrderExportRow toRow(Order order) {
+        return row(order.getItems())
+                .orderId(order.getId())
+                .userId(order.getUserId())
+                .status(order.getStatus())
+                .amount(order.getTotalAmount())
+                .createdAt(order.getCreatedAt())
+                .confirmedAt(order.getConfirmedAt())
+                .shippedAt(order.getShippedAt())
+                .deliveredAt(order.getDeliveredAt())
+                .cancelledAt(order.getCancelledAt())
+                .build();
+    }
+
+    static OrderExportRow toRow(VendorOrder order) {
+        return row(order.getItems())
+                .orderId(order.getOrderId())
+                .userId(order.getUserId())
+                .status(order.getStatus())
+                .amount(order.getSubtotal())
+                .createdAt(order.getCreatedAt())
+                .confirmedAt(order.getConfirmedAt())
+                .shippedAt(order.getShippedAt())
+                .deliveredAt(order.getDeliveredAt())
+                .cancelledAt(order.getCancelledAt())
+                .build();
+    }
+
+    private static OrderExportRow.OrderExportRowBuilder row(List<OrderItem> items) {
+        List<OrderItem> lines = items != null ? items : List.of();
+        return OrderExportRow.builder()
+                .itemCount(lines.size())
+                .units(lines.stream().mapToInt(item -> item != null ? item.getQuantity() : 0).sum());
+    }
+
+    private final class RowWriter {
+
+        private final Format format;
+        private final Writer writer;
+        private final CsvWriter csv;
+        private long rows;
+
+        private RowWriter(Format format, OutputStream out) throws IOException {
+            this.format = format;
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.csv = format == Format.CSV ? new CsvWriter(writer) : null;
+            if (csv != null) {
+                csv.writeRecord(CSV_HEADER);
+            }
+        }
+
+        private void writeAll(Iterator<OrderExportRow> rowsToWrite) throws IOException {
+            while (rowsToWrite.hasNext()) {
+                write(rowsToWrite.next());
+                if (++rows % FLUSH_EVERY == 0) {
+                    finish();
+                }
+            }
+        }
+
+        private void write(OrderExportRow row) throws IOException {
+            if (format == Format.NDJSON) {
+                writer.write(objectMapper.writeValueAsString(row));
+                writer.write('\n');
+                return;
+            }
+            csv.writeRecord(Arrays.asList(row.getOrderId(), row.getUserId(),
+                    row.getStatus(),
+                    row.getItemCount(), row.getUnits(),
+                    row.getAmount() != null ? row.getAmount().toPlainString() : null,
+                    row.getCreatedAt(), row.getConfirmedAt(), row.getShippedAt(), row.getDeliveredAt(),
+                    row.getCancelledAt()));
+        }
+
+        // The response stream belongs to the container, so it is flushed but never closed here
+        private void finish() throws IOException {
+            if (csv != null) {
+                csv.flush();
+            }
+            writer.flush();
+        }
+    }
+}
@@ -1,41 +1,72 @@
 package com.shopapp.order.service;
 
+import com.shopapp.order.domain.ArchivedOrder;
 import com.shopapp.order.domain.Order;
 import com.shopapp.order.domain.OrderItem;
 import com.shopapp.order.domain.OrderStatus;
+import com.shopapp.order.domain.OrderTransitions;
 import com.shopapp.order.domain.ShippingAddress;
+import com.shopapp.order.domain.StatusChange;
+import com.shopapp.order.domain.VendorOrder;
 import com.shopapp.order.dto.*;
+import com.shopapp.order.repository.ArchivedOrderRepository;
+import com.shopapp.order.repository.OrderIndexes;
 import com.shopapp.order.repository.OrderRepository;
+import com.shopapp.order.repository.VendorOrderRepository;
 import com.shopapp.shared.events.DomainEventPublisher;
 import com.shopapp.shared.events.order.OrderConfirmedEvent;
 import com.shopapp.shared.events.order.OrderCreatedEvent;
+import com.shopapp.shared.events.order.OrderStatusChangedEvent;
 import com.shopapp.shared.events.payment.PaymentFailedEvent;
 import com.shopapp.shared.events.payment.PaymentSuccessEvent;
 import com.shopapp.shared.exception.BadRequestException;
+import com.shopapp.shared.exception.ConflictException;
 import com.shopapp.shared.exception.ResourceNotFoundException;
+import com.shopapp.shared.interfaces.CartModuleApi;
 import com.shopapp.shared.interfaces.OrderModuleApi;
 import com.shopapp.shared.interfaces.ProductModuleApi;
+import com.shopapp.shared.pagination.Cursor;
+import com.shopapp.shared.pagination.CursorPage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class OrderService implements OrderModuleApi {
 
+    // Item thumbnails shown on an order card in listings
+    private static final int PREVIEW_ITEMS = 4;
+
+    // Cursor.SORT, for merging scrolls of both tiers
+    private static final Comparator<Order> NEWEST_FIRST = comparatorOf(Sort.by(Sort.Direction.DESC, "createdAt"));
+
     private final OrderRepository orderRepository;
+    private final VendorOrderRepository vendorOrderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
     private final ProductModuleApi productModuleApi;
+    private final CartModuleApi cartModuleApi;
     private final DomainEventPublisher eventPublisher;
+    private final StockHoldSweeper stockHoldSweeper;
 
     // ===== OrderModuleApi Implementation =====
 
@@ -56,18 +87,14 @@ public class OrderService implements OrderModuleApi {
             throw new BadRequestException("Order ID is required");
         }
 
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
-
-        if (!order.isPlaced()) {
-            throw new BadRequestException("Only placed orders can be confirmed");
-        }
-
-        order.confirm();
-        orderRepository.save(order);
+        Order order = orderRepository.transition(orderId, OrderTransitions.UNPAID,
+                        StatusChange.confirm(LocalDateTime.now()))
+                .orElseThrow(() -> transitionConflict(orderRepository.findById(orderId), orderId,
+                        status -> "Only placed orders can be confirmed; order is " + status));
         log.info("Order {} confirmed", orderId);
 
         eventPublisher.publish(new OrderConfirmedEvent(orderId, order.getUserId()));
+        eventPublisher.publish(new OrderStatusChangedEvent(orderId, order.getStatus().name()));
     }
 
     @Override
@@ -77,29 +104,53 @@ public class OrderService implements OrderModuleApi {
             throw new BadRequestException("Order ID is required");
         }
 
-        if (reason == null) {
-            reason = "No reason provided";
-        }
+        cancel(orderId, reason != null ? reason : "No reason provided");
+    }
 
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
+    @Override
+    public boolean beginPayment(String orderId) {
+        if (orderId == null || orderId.trim().isEmpty()) {
+            throw new BadRequestException("Order ID is required");
+        }
 
-        if (!order.canBeCancelled()) {
-            throw new BadRequestException("Order cannot be cancelled in current status");
+        boolean cleared = orderRepository.clearHold(orderId);
+        if (cleared) {
+            log.info("Order {} taken out of its stock hold for payment", orderId);
         }
+        return cleared;
+    }
+
+    /**
+     * Cancel an order that has not shipped yet. Only the caller whose conditional update wins
+     * restores the stock, so a cancellation racing another one never returns it twice.
+     */
+    private Order cancel(String orderId, String reason) {
+        Order order = orderRepository.transition(orderId, OrderTransitions.CANCELLABLE,
+                        StatusChange.cancel(reason, LocalDateTime.now()))
+                .orElseThrow(() -> transitionConflict(orderRepository.findById(orderId), orderId,
+                        status -> "Order cannot be cancelled in current status: " + status));
+
+        releaseStockOf(order);
 
-        // Restore stock for cancelled items
+        log.info("Order {} cancelled with reason: {}", orderId, reason);
+
+        eventPublisher.publish(new OrderStatusChangedEvent(orderId, order.getStatus().name()));
+        return order;
+    }
+
+    /**
+     * Return every line of a cancelled order in one bulk write rather than a round trip per item
+     */
+    private void releaseStockOf(Order order) {
+        Map<String, Integer> quantities = new LinkedHashMap<>();
         if (order.getItems() != null) {
             for (OrderItem item : order.getItems()) {
                 if (item != null && item.getProductId() != null) {
-                    productModuleApi.restoreStock(item.getProductId(), item.getQuantity());
+                    quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
                 }
             }
         }
-
-        order.cancel(reason);
-        orderRepository.save(order);
-        log.info("Order {} cancelled with reason: {}", orderId, reason);
+        productModuleApi.releaseStock(quantities);
     }
 
     // ===== Order Operations =====
@@ -120,10 +171,8 @@ public class OrderService implements OrderModuleApi {
 
         log.info("Creating order for user: {}", userId);
 
-        List<OrderItem> orderItems = new ArrayList<>();
-        BigDecimal totalAmount = BigDecimal.ZERO;
-
-        // Validate products and calculate totals
+        // Validate line items and merge repeated products into a single reservation line
+        Map<String, Integer> quantities = new LinkedHashMap<>();
         for (OrderItemRequest itemRequest : request.getItems()) {
             if (itemRequest == null) {
                 throw new BadRequestException("Order item cannot be null");
@@ -136,22 +185,18 @@ public class OrderService implements OrderModuleApi {
             if (itemRequest.getQuantity() == null || itemRequest.getQuantity() <= 0) {
                 throw new BadRequestException("Quantity must be greater than 0 for order item");
             }
-            ProductModuleApi.ProductDto product = productModuleApi.findById(itemRequest.getProductId())
-                    .orElseThrow(() -> new BadRequestException(
-                            "Product not found: " + itemRequest.getProductId()));
+            quantities.merge(itemRequest.getProductId(), itemRequest.getQuantity(), Integer::sum);
+        }
 
-            if (!"APPROVED".equals(product.status())) {
-                throw new BadRequestException("Product is not available: " + product.name());
-            }
+        ShippingAddress shippingAddress = toShippingAddress(request.getShippingAddress());
 
-            // Try to decrement stock
-            boolean stockDeducted = productModuleApi.decrementStock(
-                    product.id(), itemRequest.getQuantity());
-            
-            if (!stockDeducted) {
-                throw new BadRequestException(
-                        "Insufficient stock for product: " + product.name());
-            }
+        // Reserve all items at once; nothing is taken if any line fails
+        Map<String, ProductModuleApi.ProductDto> products = productModuleApi.reserveStock(quantities);
+
+        List<OrderItem> orderItems = new ArrayList<>();
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (OrderItemRequest itemRequest : request.getItems()) {
+            ProductModuleApi.ProductDto product = products.get(itemRequest.getProductId());
 
             // Get first product image or null
             String productImage = (product.images() != null && !product.images().isEmpty()) 
@@ -170,17 +215,22 @@ public class OrderService implements OrderModuleApi {
             totalAmount = totalAmount.add(orderItem.getSubtotal());
         }
 
-        ShippingAddress shippingAddress = toShippingAddress(request.getShippingAddress());
-
         Order order = Order.builder()
                 .userId(userId)
                 .items(orderItems)
                 .totalAmount(totalAmount)
                 .status(OrderStatus.PLACED)
                 .shippingAddress(shippingAddress)
+                .holdExpiresAt(stockHoldSweeper.expiresAt(LocalDateTime.now()))
                 .build();
 
-        Order savedOrder = orderRepository.save(order);
+        Order savedOrder;
+        try {
+            savedOrder = orderRepository.save(order);
+        } catch (RuntimeException e) {
+            productModuleApi.releaseStock(quantities);
+            throw e;
+        }
         log.info("Order created with id: {} for user: {}", savedOrder.getId(), userId);
 
         // Publish order created event
@@ -190,6 +240,35 @@ public class OrderService implements OrderModuleApi {
         return toOrderResponse(savedOrder);
     }
 
+    /**
+     * Order everything in the user's cart, then take the ordered quantities out of it
+     */
+    @Transactional
+    public OrderResponse createOrderFromCart(String userId, CartCheckoutRequest request) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new BadRequestException("User ID is required");
+        }
+
+        if (request == null) {
+            throw new BadRequestException("Checkout request is required");
+        }
+
+        Map<String, Integer> lines = cartModuleApi.checkoutLines(userId);
+        List<OrderItemRequest> items = lines.entrySet().stream()
+                .map(line -> OrderItemRequest.builder()
+                        .productId(line.getKey())
+                        .quantity(line.getValue())
+                        .build())
+                .toList();
+
+        OrderResponse order = createOrder(userId, CreateOrderRequest.builder()
+                .items(items)
+                .shippingAddress(request.getShippingAddress())
+                .build());
+        cartModuleApi.removeOrdered(userId, lines);
+        return order;
+    }
+
     public OrderResponse getOrder(String userId, String orderId) {
         if (userId == null || userId.trim().isEmpty()) {
             throw new BadRequestException("User ID is required");
@@ -200,11 +279,12 @@ public class OrderService implements OrderModuleApi {
         }
 
         Order order = orderRepository.findByIdAndUserId(orderId, userId)
+                .or(() -> archivedOrderRepository.findOrder(orderId, userId))
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
         return toOrderResponse(order);
     }
 
-    public Page<OrderResponse> getUserOrders(String userId, Pageable pageable) {
+    public Page<OrderSummary> getUserOrders(String userId, Pageable pageable) {
         if (userId == null || userId.trim().isEmpty()) {
             throw new BadRequestException("User ID is required");
         }
@@ -213,8 +293,36 @@ public class OrderService implements OrderModuleApi {
             throw new BadRequestException("Pageable parameter is required");
         }
 
-        return orderRepository.findByUserId(userId, pageable)
-                .map(this::toOrderResponse);
+        // Every row up to the end of the requested page, from both tiers, so the merge can place them
+        Pageable head = PageRequest.of(0, (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE),
+                pageable.getSort());
+        Page<ArchivedOrder> archived = archivedOrderRepository.findSummariesByUserId(userId, head);
+        if (archived.getTotalElements() == 0) {
+            return orderRepository.findSummariesByUserId(userId, pageable)
+                    .map(this::toOrderSummary);
+        }
+
+        Page<Order> hot = orderRepository.findSummariesByUserId(userId, head);
+        List<OrderSummary> content = mergeTiers(hot.getContent(), archived.getContent(), comparatorOf(pageable.getSort()))
+                .stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(this::toOrderSummary)
+                .toList();
+        return new PageImpl<>(content, pageable, hot.getTotalElements() + archived.getTotalElements());
+    }
+
+    public CursorPage<OrderSummary> getUserOrders(String userId, Cursor after, int size) {
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new BadRequestException("User ID is required");
+        }
+
+        int limit = CursorPage.fetchLimit(size);
+        List<Order> orders = mergeTiers(
+                orderRepository.findByUserIdAfter(userId, after, limit),
+                archivedOrderRepository.findByUserIdAfter(userId, after, limit),
+                NEWEST_FIRST);
+        return toOrderSummaries(orders.size() > limit ? orders.subList(0, limit) : orders, size);
     }
 
     @Transactional
@@ -227,47 +335,58 @@ public class OrderService implements OrderModuleApi {
             throw new BadRequestException("Order ID is required");
         }
 
-        Order order = orderRepository.findByIdAndUserId(orderId, userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
-
-        if (!order.canBeCancelled()) {
-            throw new BadRequestException("Order cannot be cancelled");
+        // Ownership check only; the status is checked by the cancellation itself
+        if (orderRepository.findByIdAndUserId(orderId, userId).isEmpty()) {
+            Order archived = archivedOrderRepository.findOrder(orderId, userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
+            throw new ConflictException("Order cannot be cancelled in current status: " + archived.getStatus());
         }
 
-        cancelOrder(orderId, "Cancelled by user");
-
-        // Refresh the order
-        order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
-        return toOrderResponse(order);
+        return toOrderResponse(cancel(orderId, "Cancelled by user"));
     }
 
     // ===== Vendor Order Operations =====
+    // Reads come from the vendor_orders read model, so a vendor only ever sees their own items
 
     /**
      * Get all orders containing items from a specific vendor
      */
-    public Page<OrderResponse> getVendorOrders(String vendorId, Pageable pageable) {
+    public Page<OrderSummary> getVendorOrders(String vendorId, Pageable pageable) {
         if (vendorId == null || vendorId.trim().isEmpty()) {
             throw new BadRequestException("Vendor ID is required");
         }
         
         log.info("Fetching orders for vendor: {}", vendorId);
-        return orderRepository.findByVendorId(vendorId, pageable)
-                .map(this::toOrderResponse);
+        return vendorOrderRepository.findSummariesByVendorId(vendorId, pageable)
+                .map(this::toOrderSummary);
     }
 
     /**
      * Get orders for a vendor filtered by status
      */
-    public Page<OrderResponse> getVendorOrdersByStatus(String vendorId, OrderStatus status, Pageable pageable) {
+    public Page<OrderSummary> getVendorOrdersByStatus(String vendorId, OrderStatus status, Pageable pageable) {
         if (vendorId == null || vendorId.trim().isEmpty()) {
             throw new BadRequestException("Vendor ID is required");
         }
         
         log.info("Fetching orders for vendor: {} with status: {}", vendorId, status);
-        return orderRepository.findByVendorIdAndStatus(vendorId, status, pageable)
-                .map(this::toOrderResponse);
+        return vendorOrderRepository.findSummariesByVendorIdAndStatus(vendorId, status, pageable)
+                .map(this::toOrderSummary);
+    }
+
+    /**
+     * Keyset scroll over a vendor's orders, optionally filtered by status
+     */
+    public CursorPage<OrderSummary> getVendorOrders(String vendorId, OrderStatus status, Cursor after, int size) {
+        if (vendorId == null || vendorId.trim().isEmpty()) {
+            throw new BadRequestException("Vendor ID is required");
+        }
+
+        List<VendorOrder> orders = vendorOrderRepository.findByVendorIdAfter(
+                vendorId, status, after, CursorPage.fetchLimit(size));
+        return CursorPage.of(orders, size,
+                order -> new Cursor(order.getCreatedAt(), order.getId()),
+                page -> page.stream().map(this::toOrderSummary).toList());
     }
 
     /**
@@ -281,7 +400,7 @@ public class OrderService implements OrderModuleApi {
             throw new BadRequestException("Order ID is required");
         }
         
-        Order order = orderRepository.findByIdAndVendorId(orderId, vendorId)
+        VendorOrder order = vendorOrderRepository.findById(VendorOrder.idOf(orderId, vendorId))
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
         return toOrderResponse(order);
     }
@@ -301,59 +420,33 @@ public class OrderService implements OrderModuleApi {
             throw new BadRequestException("Status is required");
         }
 
-        Order order = orderRepository.findByIdAndVendorId(orderId, vendorId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
-
-        if (!order.canBeUpdatedByVendor()) {
-            throw new BadRequestException("Order cannot be updated in current status: " + order.getStatus());
-        }
-
         OrderStatus newStatus = request.getStatus();
-        
-        // Validate status transition
-        validateStatusTransition(order.getStatus(), newStatus);
-
-        // Handle DELIVERY_SCHEDULED specially
-        if (newStatus == OrderStatus.DELIVERY_SCHEDULED) {
-            if (request.getEstimatedDeliveryDate() == null) {
-                throw new BadRequestException("Estimated delivery date is required for DELIVERY_SCHEDULED status");
-            }
-            order.scheduleDelivery(request.getEstimatedDeliveryDate(), request.getNote());
-        } else {
-            order.updateStatus(newStatus, request.getNote());
+        Set<OrderStatus> from = OrderTransitions.vendorSourcesOf(newStatus);
+        if (from.isEmpty()) {
+            throw new BadRequestException("Vendors cannot move an order to " + newStatus);
+        }
+        if (newStatus == OrderStatus.DELIVERY_SCHEDULED && request.getEstimatedDeliveryDate() == null) {
+            throw new BadRequestException("Estimated delivery date is required for DELIVERY_SCHEDULED status");
         }
 
-        Order savedOrder = orderRepository.save(order);
+        StatusChange change = StatusChange.byVendor(
+                newStatus, request.getNote(), request.getEstimatedDeliveryDate(), LocalDateTime.now());
+        Order savedOrder = orderRepository.transitionForVendor(orderId, vendorId, from, change)
+                .orElseThrow(() -> transitionConflict(orderRepository.findByIdAndVendorId(orderId, vendorId), orderId,
+                        status -> String.format("Cannot transition from %s to %s", status, newStatus)));
+        // As with cancel(): the conditional update won, so this caller alone returns the stock
+        if (newStatus == OrderStatus.CANCELLED) {
+            releaseStockOf(savedOrder);
+        }
         log.info("Order {} status updated to {} by vendor {}", orderId, newStatus, vendorId);
 
-        return toOrderResponse(savedOrder);
-    }
+        eventPublisher.publish(new OrderStatusChangedEvent(orderId, newStatus.name()));
 
-    /**
-     * Validate that the status transition is allowed
-     */
-    private void validateStatusTransition(OrderStatus currentStatus, OrderStatus newStatus) {
-        // Define valid transitions
-        boolean validTransition = switch (currentStatus) {
-            case PLACED, CREATED -> newStatus == OrderStatus.PREPARING || 
-                                    newStatus == OrderStatus.CANCELLED;
-            // CONFIRMED is a legacy status that acts like PREPARING
-            case CONFIRMED, PREPARING -> newStatus == OrderStatus.SHIPPED || 
-                             newStatus == OrderStatus.DELIVERY_SCHEDULED ||
-                             newStatus == OrderStatus.CANCELLED;
-            case DELIVERY_SCHEDULED -> newStatus == OrderStatus.SHIPPED ||
-                                       newStatus == OrderStatus.OUT_FOR_DELIVERY;
-            case SHIPPED -> newStatus == OrderStatus.OUT_FOR_DELIVERY ||
-                           newStatus == OrderStatus.DELIVERY_SCHEDULED;
-            case OUT_FOR_DELIVERY -> newStatus == OrderStatus.DELIVERED ||
-                                     newStatus == OrderStatus.DELIVERY_SCHEDULED;
-            default -> false;
-        };
-
-        if (!validTransition) {
-            throw new BadRequestException(
-                    String.format("Cannot transition from %s to %s", currentStatus, newStatus));
-        }
+        VendorOrder vendorOrder = VendorOrder.of(savedOrder).stream()
+                .filter(share -> vendorId.equals(share.getVendorId()))
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
+        return toOrderResponse(vendorOrder);
     }
 
     // ===== Event Handlers =====
@@ -367,11 +460,25 @@ public class OrderService implements OrderModuleApi {
     @EventListener
     public void handlePaymentFailed(PaymentFailedEvent event) {
         log.info("Handling PaymentFailedEvent for order: {}", event.getOrderId());
-        cancelOrder(event.getOrderId(), "Payment failed: " + event.getFailureReason());
+        try {
+            cancelOrder(event.getOrderId(), "Payment failed: " + event.getFailureReason());
+        } catch (ConflictException e) {
+            // A late failure must not undo progress the order has made since
+            log.warn("Ignoring payment failure for order {}: {}", event.getOrderId(), e.getMessage());
+        }
     }
 
     // ===== Helper Methods =====
 
+    /**
+     * Explain why a conditional transition matched nothing: the order is gone, or its status has moved on
+     */
+    private ConflictException transitionConflict(Optional<Order> current, String orderId,
+                                                 Function<OrderStatus, String> reason) {
+        Order order = current.orElseThrow(() -> new ResourceNotFoundException("Order", "id", orderId));
+        return new ConflictException(reason.apply(order.getStatus()));
+    }
+
     private OrderDto toOrderDto(Order order) {
         return new OrderDto(
                 order.getId(),
@@ -381,23 +488,85 @@ public class OrderService implements OrderModuleApi {
         );
     }
 
-    private OrderResponse toOrderResponse(Order order) {
-        List<OrderItemResponse> itemResponses = order.getItems().stream()
-                .map(item -> OrderItemResponse.builder()
-                        .productId(item.getProductId())
+    /**
+     * Hot and archived summaries in one order; an order caught mid-archival is listed once, from the hot copy
+     */
+    private List<Order> mergeTiers(List<Order> hot, List<ArchivedOrder> archived, Comparator<Order> order) {
+        Map<String, Order> byId = new LinkedHashMap<>();
+        hot.forEach(summary -> byId.put(summary.getId(), summary));
+        archived.forEach(summary -> byId.putIfAbsent(summary.getId(), summary.toSummary()));
+        List<Order> merged = new ArrayList<>(byId.values());
+        merged.sort(order);
+        return merged;
+    }
+
+    /**
+     * In-memory equivalent of a sort accepted by {@link OrderIndexes#USER_SORTS}, ties broken newest ID first
+     */
+    private static Comparator<Order> comparatorOf(Sort sort) {
+        Comparator<Order> comparator = null;
+        for (Sort.Order key : sort) {
+            Comparator<Order> byKey = switch (key.getProperty()) {
+                case "createdAt" -> Comparator.comparing(Order::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "totalAmount" -> Comparator.comparing(Order::getTotalAmount, Comparator.nullsFirst(Comparator.naturalOrder()));
+                default -> throw new BadRequestException("Unsupported sort field: " + key.getProperty());
+            };
+            byKey = key.isAscending() ? byKey : byKey.reversed();
+            comparator = comparator == null ? byKey : comparator.thenComparing(byKey);
+        }
+        Comparator<Order> newestId = Comparator.comparing(Order::getId, Comparator.nullsFirst(Comparator.naturalOrder())).reversed();
+        return comparator == null ? newestId : comparator.thenComparing(newestId);
+    }
+
+    private CursorPage<OrderSummary> toOrderSummaries(List<Order> orders, int size) {
+        return CursorPage.of(orders, size,
+                order -> new Cursor(order.getCreatedAt(), order.getId()),
+                page -> page.stream().map(this::toOrderSummary).toList());
+    }
+
+    private OrderSummary toOrderSummary(Order order) {
+        List<OrderItem> items = order.getItems() != null ? order.getItems() : List.of();
+        return OrderSummary.builder()
+                .id(order.getId())
+                .status(order.getStatus())
+                .totalAmount(order.getTotalAmount())
+                .itemCount(items.size())
+                .previewItems(toPreviewItems(items))
+                .statusNote(order.getStatusNote())
+                .estimatedDeliveryDate(order.getEstimatedDeliveryDate())
+                .createdAt(order.getCreatedAt())
+                .build();
+    }
+
+    private OrderSummary toOrderSummary(VendorOrder order) {
+        List<OrderItem> items = order.getItems() != null ? order.getItems() : List.of();
+        return OrderSummary.builder()
+                .id(order.getOrderId())
+                .status(order.getStatus())
+                .totalAmount(order.getSubtotal())
+                .itemCount(items.size())
+                .previewItems(toPreviewItems(items))
+                .statusNote(order.getStatusNote())
+                .estimatedDeliveryDate(order.getEstimatedDeliveryDate())
+                .createdAt(order.getCreatedAt())
+                .build();
+    }
+
+    private List<OrderItemPreview> toPreviewItems(List<OrderItem> items) {
+        return items.stream()
+                .limit(PREVIEW_ITEMS)
+                .map(item -> OrderItemPreview.builder()
                         .productName(item.getProductName())
                         .productImage(item.getProductImage())
-                        .vendorId(item.getVendorId())
-                        .quantity(item.getQuantity())
-                        .unitPrice(item.getUnitPrice())
-                        .subtotal(item.getSubtotal())
                         .build())
                 .toList();
+    }
 
+    private OrderResponse toOrderResponse(Order order) {
         return OrderResponse.builder()
                 .id(order.getId())
                 .userId(order.getUserId())
-                .items(itemResponses)
+                .items(toItemResponses(order.getItems()))
                 .totalAmount(order.getTotalAmount())
                 .status(order.getStatus())
                 .shippingAddress(order.getShippingAddress())
@@ -412,6 +581,42 @@ public class OrderService implements OrderModuleApi {
                 .build();
     }
 
+    /**
+     * A vendor's view of an order: only their items, totalling their subtotal
+     */
+    private OrderResponse toOrderResponse(VendorOrder order) {
+        return OrderResponse.builder()
+                .id(order.getOrderId())
+                .userId(order.getUserId())
+                .items(toItemResponses(order.getItems()))
+                .totalAmount(order.getSubtotal())
+                .status(order.getStatus())
+                .shippingAddress(order.getShippingAddress())
+                .cancellationReason(order.getCancellationReason())
+                .statusNote(order.getStatusNote())
+                .estimatedDeliveryDate(order.getEstimatedDeliveryDate())
+                .createdAt(order.getCreatedAt())
+                .confirmedAt(order.getConfirmedAt())
+                .cancelledAt(order.getCancelledAt())
+                .shippedAt(order.getShippedAt())
+                .deliveredAt(order.getDeliveredAt())
+                .build();
+    }
+
+    private List<OrderItemResponse> toItemResponses(List<OrderItem> items) {
+        return items.stream()
+                .map(item -> OrderItemResponse.builder()
+                        .productId(item.getProductId())
+                        .productName(item.getProductName())
+                        .productImage(item.getProductImage())
+                        .vendorId(item.getVendorId())
+                        .quantity(item.getQuantity())
+                        .unitPrice(item.getUnitPrice())
+                        .subtotal(item.getSubtotal())
+                        .build())
+                .toList();
+    }
+
     private ShippingAddress toShippingAddress(ShippingAddressRequest request) {
         if (request == null) {
             throw new BadRequestException("Shipping address is required");
@@ -0,0 +1,153 @@
+package com.shopapp.order.service;
+
+import com.shopapp.order.domain.Order;
+import com.shopapp.order.domain.OrderItem;
+import com.shopapp.order.domain.OrderStatus;
+import com.shopapp.order.repository.OrderRepository;
+import com.shopapp.shared.events.DomainEventPublisher;
+import com.shopapp.shared.events.order.OrderStatusChangedEvent;
+import com.shopapp.shared.interfaces.ProductModuleApi;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Stock taken by an order is only held until its payment window closes. Expired holds are found
+ * through the partial {@code holdExpiresAt} index, cancelled with one update per batch, and their
+ * stock handed back with a single bulk {@code $inc}. The {@code $inc} is keyed by the batch's release
+ * ID, so a release that a failed sweep left half done is finished by a later one without returning
+ * any stock twice.
+ */
+@Slf4j
+@Component
+public class StockHoldSweeper {
+
+    static final String EXPIRED_REASON = "Payment window expired";
+
+    private final OrderRepository orderRepository;
+    private final ProductModuleApi productModuleApi;
+    private final DomainEventPublisher eventPublisher;
+    private final Duration ttl;
+    private final int batchSize;
+    private final Duration sweepInterval;
+
+    public StockHoldSweeper(OrderRepository orderRepository,
+                            ProductModuleApi productModuleApi,
+                            DomainEventPublisher eventPublisher,
+                            @Value("${orders.holds.ttl-minutes:15}") long ttlMinutes,
+                            @Value("${orders.holds.batch-size:500}") int batchSize,
+                            @Value("${orders.holds.sweep-interval-ms:60000}") long sweepIntervalMs) {
+        if (ttlMinutes <= 0 || batchSize <= 0 || sweepIntervalMs <= 0) {
+            throw new IllegalArgumentException("Hold TTL, sweep batch size and sweep interval must be positive");
+        }
+        this.orderRepository = orderRepository;
+        this.productModuleApi = productModuleApi;
+        this.eventPublisher = eventPublisher;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.batchSize = batchSize;
+        this.sweepInterval = Duration.ofMillis(sweepIntervalMs);
+    }
+
+    /**
+     * When the hold of an order placed at {@code placedAt} expires
+     */
+    public LocalDateTime expiresAt(LocalDateTime placedAt) {
+        return placedAt.plus(ttl);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.holds.sweep-interval-ms:60000}",
+            initialDelayString = "${orders.holds.sweep-interval-ms:60000}")
+    public void sweep() {
+        try {
+            int released = sweep(LocalDateTime.now());
+            if (released > 0) {
+                log.info("Released stock holds of {} expired orders", released);
+            }
+        } catch (RuntimeException e) {
+            log.error("Stock hold sweep failed", e);
+        }
+    }
+
+    /**
+     * Finish the releases earlier sweeps left incomplete, then release every hold expired at
+     * {@code now}, one batch at a time
+     * @return number of orders cancelled
+     */
+    int sweep(LocalDateTime now) {
+        resumeStalledReleases(now);
+
+        int released = 0;
+        List<String> orderIds;
+        do {
+            orderIds = orderRepository.findExpiredHoldIds(now, batchSize);
+            if (!orderIds.isEmpty()) {
+                released += release(orderIds, now);
+            }
+        } while (orderIds.size() == batchSize);
+        return released;
+    }
+
+    /**
+     * A release still tagged on its orders a whole sweep interval after it began belongs to a sweep that
+     * failed or died between cancelling the orders and completing the release
+     */
+    private void resumeStalledReleases(LocalDateTime now) {
+        List<Order> stalled;
+        do {
+            stalled = orderRepository.findStalledHoldReleases(now.minus(sweepInterval), batchSize);
+            Set<String> releaseIds = new LinkedHashSet<>();
+            stalled.forEach(order -> releaseIds.add(order.getHoldReleaseId()));
+            for (String releaseId : releaseIds) {
+                log.warn("Resuming stalled hold release {}", releaseId);
+                finish(releaseId);
+            }
+        } while (stalled.size() == batchSize);
+    }
+
+    private int release(List<String> orderIds, LocalDateTime now) {
+        String releaseId = UUID.randomUUID().toString();
+        long cancelled = orderRepository.cancelExpiredHolds(orderIds, now, releaseId, EXPIRED_REASON);
+        if (cancelled == 0) {
+            return 0;
+        }
+
+        finish(releaseId);
+        return (int) cancelled;
+    }
+
+    /**
+     * Return the stock of the orders tagged with {@code releaseId} and clear their hold. Every step is
+     * safe to repeat, so a release interrupted anywhere can simply be finished again.
+     */
+    private void finish(String releaseId) {
+        // Only orders this sweep actually cancelled carry the release ID, so stock is returned exactly once
+        Map<String, Integer> quantities = new HashMap<>();
+        List<Order> releases = orderRepository.findHoldReleases(releaseId);
+        for (Order order : releases) {
+            for (OrderItem item : order.getItems()) {
+                if (item != null && item.getProductId() != null) {
+                    quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+                }
+            }
+        }
+
+        productModuleApi.releaseStock(releaseId, quantities);
+        orderRepository.completeHoldReleases(releaseId);
+        // Once the orders no longer carry the ID nothing retries the release, so its record can go
+        productModuleApi.forgetRelease(releaseId, quantities.keySet());
+        for (Order order : releases) {
+            eventPublisher.publish(new OrderStatusChangedEvent(order.getId(), OrderStatus.CANCELLED.name()));
+        }
+        log.debug("Hold release {} cancelled {} orders across {} products", releaseId, releases.size(), quantities.size());
+    }
+}
@@ -0,0 +1,91 @@
+package com.shopapp.order.service;
+
+import com.shopapp.order.domain.Order;
+import com.shopapp.order.domain.VendorOrder;
+import com.shopapp.order.repository.OrderRepository;
+import com.shopapp.order.repository.VendorOrderRepository;
+import com.shopapp.shared.events.order.OrderCreatedEvent;
+import com.shopapp.shared.events.order.OrderStatusChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the {@code vendor_orders} read model in step with orders. Every change re-projects the whole
+ * order, so the documents of all its vendors are overwritten with current values and a missed event
+ * is repaired by the next one. A projection read from an older version of the order than the stored
+ * one is dropped, so concurrent refreshes cannot roll a vendor's copy back.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VendorOrderProjection {
+
+    private static final int BACKFILL_BATCH = 500;
+
+    private final OrderRepository orderRepository;
+    private final VendorOrderRepository vendorOrderRepository;
+
+    @EventListener
+    public void handleOrderCreated(OrderCreatedEvent event) {
+        refresh(event.getOrderId());
+    }
+
+    @EventListener
+    public void handleOrderStatusChanged(OrderStatusChangedEvent event) {
+        refresh(event.getOrderId());
+    }
+
+    /**
+     * Re-project one order. Failures are logged rather than thrown: the order itself is already
+     * saved, and vendors are better served by a briefly stale listing than a failed checkout.
+     */
+    public void refresh(String orderId) {
+        try {
+            orderRepository.findById(orderId)
+                    .ifPresent(order -> vendorOrderRepository.saveAllIfNewer(VendorOrder.of(order)));
+        } catch (RuntimeException e) {
+            log.error("Could not project order {} into vendor orders; vendors see it stale until its next change",
+                    orderId, e);
+        }
+    }
+
+    /**
+     * Project every existing order on each start until one pass has run to the end, so a backfill cut
+     * short by a crash is picked up again rather than left partial
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (vendorOrderRepository.isBackfilled()) {
+            return;
+        }
+
+        int projected = 0;
+        List<VendorOrder> batch = new ArrayList<>(BACKFILL_BATCH);
+        try (Stream<Order> orders = orderRepository.streamAllBy()) {
+            Iterator<Order> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                batch.addAll(VendorOrder.of(iterator.next()));
+                projected++;
+                if (batch.size() >= BACKFILL_BATCH) {
+                    vendorOrderRepository.saveAllIfNewer(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            vendorOrderRepository.saveAllIfNewer(batch);
+        }
+        vendorOrderRepository.markBackfilled();
+        if (projected > 0) {
+            log.info("Backfilled vendor orders from {} orders", projected);
+        }
+    }
+}
@@ -1,52 +1,64 @@
 package com.shopapp.payment.controller;
 
+import com.shopapp.payment.domain.PaymentStatus;
 import com.shopapp.payment.dto.*;
+import com.shopapp.payment.repository.PaymentIndexes;
 import com.shopapp.payment.service.PaymentService;
 import com.shopapp.shared.dto.ApiResponse;
 import com.shopapp.shared.dto.PagedResponse;
+import com.shopapp.shared.idempotency.IdempotencyStore;
 import com.shopapp.shared.security.SecurityUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+
 @RestController
 @RequestMapping("/api/payments")
 @RequiredArgsConstructor
 @Tag(name = "Payments", description = "Payment management APIs")
 public class PaymentController {
 
+    // Suggested wait between polls of a payment being processed
+    private static final long POLL_SECONDS = 1;
+
     private final PaymentService paymentService;
+    private final IdempotencyStore idempotencyStore;
 
     @PostMapping("/initiate")
-    @Operation(summary = "Initiate payment", description = "Initiate payment for an order")
-    public ResponseEntity<ApiResponse<PaymentResponse>> initiatePayment(
-            @Valid @RequestBody InitiatePaymentRequest request) {
+    @Operation(summary = "Initiate payment",
+            description = "Initiate payment for an order. Retries sent with the same Idempotency-Key replay the first payment.")
+    public ResponseEntity<?> initiatePayment(
+            @Valid @RequestBody InitiatePaymentRequest request,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         String userId = SecurityUtils.getCurrentUserId();
-        PaymentResponse payment = paymentService.initiatePayment(userId, request);
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(ApiResponse.success("Payment initiated successfully", payment));
+        return idempotencyStore.execute("payments", userId, idempotencyKey, request, () -> {
+            PaymentResponse payment = paymentService.initiatePayment(userId, request);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("Payment initiated successfully", payment));
+        });
     }
 
     @PostMapping("/process")
-    @Operation(summary = "Process payment", description = "Process a pending payment (simulated)")
+    @Operation(summary = "Process payment",
+            description = "Submit a pending payment for processing. Answers 202 at once; poll the payment until "
+                    + "its status is no longer PROCESSING, waiting as long as Retry-After says between polls.")
     public ResponseEntity<ApiResponse<PaymentResponse>> processPayment(
             @Valid @RequestBody ProcessPaymentRequest request) {
         String userId = SecurityUtils.getCurrentUserId();
         PaymentResponse payment = paymentService.processPayment(userId, request);
-        
-        String message = payment.getStatus().name().equals("SUCCESS") 
-                ? "Payment processed successfully" 
-                : "Payment processing failed";
-        
-        return ResponseEntity.ok(ApiResponse.success(message, payment));
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/payments/" + payment.getId()))
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(POLL_SECONDS))
+                .body(ApiResponse.success("Payment is being processed", payment));
     }
 
     @GetMapping("/{paymentId}")
@@ -54,6 +66,11 @@ public class PaymentController {
     public ResponseEntity<ApiResponse<PaymentResponse>> getPayment(@PathVariable String paymentId) {
         String userId = SecurityUtils.getCurrentUserId();
         PaymentResponse payment = paymentService.getPayment(userId, paymentId);
+        if (payment.getStatus() == PaymentStatus.PROCESSING) {
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(POLL_SECONDS))
+                    .body(ApiResponse.success(payment));
+        }
         return ResponseEntity.ok(ApiResponse.success(payment));
     }
 
@@ -74,10 +91,7 @@ public class PaymentController {
             @RequestParam(defaultValue = "desc") String sortDir) {
         
         String userId = SecurityUtils.getCurrentUserId();
-        Sort sort = sortDir.equalsIgnoreCase("asc") 
-                ? Sort.by(sortBy).ascending() 
-                : Sort.by(sortBy).descending();
-        Pageable pageable = PageRequest.of(page, size, sort);
+        Pageable pageable = PaymentIndexes.USER_SORTS.pageable(page, size, sortBy, sortDir);
         
         Page<PaymentResponse> payments = paymentService.getUserPayments(userId, pageable);
         PagedResponse<PaymentResponse> response = PagedResponse.of(
@@ -9,6 +9,8 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -29,6 +31,7 @@ public class Payment {
     @Indexed
     private String userId;
 
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal amount;
 
     @Indexed
@@ -41,6 +44,15 @@ public class Payment {
 
     private String paymentMethod;
 
+    // Asks the gateway simulator to approve the charge; real gateways ignore it
+    private boolean simulateSuccess;
+
+    // Queue state while PROCESSING: when a worker may next take the payment (the end of the current
+    // worker's lease while one holds it), the token of that worker's claim, and gateway calls made so far
+    private LocalDateTime availableAt;
+    private String claimToken;
+    private int attempts;
+
     @CreatedDate
     private LocalDateTime createdAt;
 
@@ -65,6 +77,10 @@ public class Payment {
         return status == PaymentStatus.PENDING;
     }
 
+    public boolean isProcessing() {
+        return status == PaymentStatus.PROCESSING;
+    }
+
     public boolean isSuccess() {
         return status == PaymentStatus.SUCCESS;
     }
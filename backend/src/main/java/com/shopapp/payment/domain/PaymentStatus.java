@@ -2,6 +2,10 @@ package com.shopapp.payment.domain;
 
 public enum PaymentStatus {
     PENDING,
+    // Submitted and queued for, or in, a call to the payment gateway
+    PROCESSING,
     SUCCESS,
-    FAILED
+    FAILED,
+    // Charged, but the order was cancelled before it could be confirmed; the charge must be reversed
+    REFUND_PENDING
 }
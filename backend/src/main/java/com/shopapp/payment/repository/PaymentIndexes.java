@@ -0,0 +1,64 @@
+package com.shopapp.payment.repository;
+
+import com.shopapp.payment.domain.Payment;
+import com.shopapp.shared.index.ModuleIndexes;
+import com.shopapp.shared.pagination.SortPolicy;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+public class PaymentIndexes implements ModuleIndexes {
+
+    public static final String USER_CREATED = "user_created_id";
+    public static final String QUEUE = "status_available";
+
+    /**
+     * Sort keys accepted by a user's payment history
+     */
+    public static final SortPolicy USER_SORTS = SortPolicy.builder()
+            .indexed("createdAt", USER_CREATED)
+            .topK("amount")
+            .build();
+
+    @Override
+    public List<DeclaredIndex> indexes() {
+        return List.of(
+                new DeclaredIndex(Payment.class, new Index()
+                        .on("userId", Sort.Direction.ASC)
+                        .on("createdAt", Sort.Direction.DESC)
+                        .on("_id", Sort.Direction.DESC)
+                        .named(USER_CREATED)),
+                // Workers claim the queued payment that has waited longest
+                new DeclaredIndex(Payment.class, new Index()
+                        .on("status", Sort.Direction.ASC)
+                        .on("availableAt", Sort.Direction.ASC)
+                        .named(QUEUE)));
+    }
+
+    @Override
+    public List<DecimalField> decimalFields() {
+        return List.of(new DecimalField(Payment.class, "amount"));
+    }
+
+    @Override
+    public List<SortPolicy> sortPolicies() {
+        return List.of(USER_SORTS);
+    }
+
+    @Override
+    public List<QueryProbe> probes() {
+        return List.of(
+                new QueryProbe("findByUserId", Payment.class,
+                        Query.query(Criteria.where("userId").is("probe"))
+                                .with(Sort.by(Sort.Direction.DESC, "createdAt"))),
+                new QueryProbe("claimNext", Payment.class,
+                        Query.query(PaymentRepositoryCustomImpl.available(LocalDateTime.now()))
+                                .with(Sort.by(Sort.Direction.ASC, "availableAt"))));
+    }
+}
@@ -10,7 +10,7 @@ import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
 @Repository
-public interface PaymentRepository extends MongoRepository<Payment, String> {
+public interface PaymentRepository extends MongoRepository<Payment, String>, PaymentRepositoryCustom {
 
     Optional<Payment> findByOrderId(String orderId);
 
@@ -21,6 +21,4 @@ public interface PaymentRepository extends MongoRepository<Payment, String> {
     Page<Payment> findByUserId(String userId, Pageable pageable);
 
     Page<Payment> findByStatus(PaymentStatus status, Pageable pageable);
-
-    boolean existsByOrderId(String orderId);
 }
@@ -0,0 +1,47 @@
+package com.shopapp.payment.repository;
+
+import com.shopapp.payment.domain.Payment;
+import com.shopapp.payment.domain.PaymentStatus;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * The payment queue. A payment is queued by moving it from PENDING to PROCESSING, and workers claim it
+ * for a lease; every later write is conditional on the claim token, so a worker whose lease ran out
+ * and was taken over can no longer change the payment.
+ */
+public interface PaymentRepositoryCustom {
+
+    /**
+     * Queue a pending payment of {@code userId} for processing
+     * @return the queued payment, or empty if it is missing or no longer pending
+     */
+    Optional<Payment> enqueue(String paymentId, String userId, boolean simulateSuccess, LocalDateTime now);
+
+    /**
+     * Claim the queued payment that has been available the longest, hiding it from other workers
+     * until {@code leaseUntil} and counting the attempt
+     * @return the claimed payment, or empty if none is available
+     */
+    Optional<Payment> claimNext(LocalDateTime now, LocalDateTime leaseUntil, String claimToken);
+
+    /**
+     * Put a claimed payment back on the queue, available again at {@code availableAt}
+     * @return false if the claim was lost
+     */
+    boolean retryLater(String paymentId, String claimToken, LocalDateTime availableAt);
+
+    /**
+     * Record the outcome of a claimed payment and take it off the queue
+     * @return the finished payment, or empty if the claim was lost
+     */
+    Optional<Payment> complete(String paymentId, String claimToken, PaymentStatus status,
+                               String transactionId, String failureReason, LocalDateTime processedAt);
+
+    /**
+     * Flag a successful payment whose order could not be confirmed for reversal
+     * @return false if the payment is not in SUCCESS
+     */
+    boolean markRefundPending(String paymentId, String reason);
+}
@@ -0,0 +1,102 @@
+package com.shopapp.payment.repository;
+
+import com.shopapp.payment.domain.Payment;
+import com.shopapp.payment.domain.PaymentStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class PaymentRepositoryCustomImpl implements PaymentRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<Payment> enqueue(String paymentId, String userId, boolean simulateSuccess, LocalDateTime now) {
+        Query query = Query.query(Criteria.where("_id").is(paymentId)
+                .and("userId").is(userId)
+                .and("status").is(PaymentStatus.PENDING));
+        Update update = new Update()
+                .set("status", PaymentStatus.PROCESSING)
+                .set("simulateSuccess", simulateSuccess)
+                .set("availableAt", now)
+                .set("attempts", 0)
+                .currentDate("updatedAt");
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                query, update, FindAndModifyOptions.options().returnNew(true), Payment.class));
+    }
+
+    @Override
+    public Optional<Payment> claimNext(LocalDateTime now, LocalDateTime leaseUntil, String claimToken) {
+        Query query = Query.query(available(now))
+                .with(Sort.by(Sort.Direction.ASC, "availableAt"));
+        Update update = new Update()
+                .set("availableAt", leaseUntil)
+                .set("claimToken", claimToken)
+                .inc("attempts", 1)
+                .currentDate("updatedAt");
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                query, update, FindAndModifyOptions.options().returnNew(true), Payment.class));
+    }
+
+    @Override
+    public boolean retryLater(String paymentId, String claimToken, LocalDateTime availableAt) {
+        Update update = new Update()
+                .set("availableAt", availableAt)
+                .unset("claimToken")
+                .currentDate("updatedAt");
+        return mongoTemplate.updateFirst(claimed(paymentId, claimToken), update, Payment.class)
+                .getModifiedCount() > 0;
+    }
+
+    @Override
+    public Optional<Payment> complete(String paymentId, String claimToken, PaymentStatus status,
+                                      String transactionId, String failureReason, LocalDateTime processedAt) {
+        Update update = new Update()
+                .set("status", status)
+                .set("processedAt", processedAt)
+                .unset("availableAt")
+                .unset("claimToken")
+                .currentDate("updatedAt");
+        if (transactionId != null) {
+            update.set("transactionId", transactionId);
+        }
+        if (failureReason != null) {
+            update.set("failureReason", failureReason);
+        }
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                claimed(paymentId, claimToken), update, FindAndModifyOptions.options().returnNew(true), Payment.class));
+    }
+
+    @Override
+    public boolean markRefundPending(String paymentId, String reason) {
+        Query query = Query.query(Criteria.where("_id").is(paymentId)
+                .and("status").is(PaymentStatus.SUCCESS));
+        Update update = new Update()
+                .set("status", PaymentStatus.REFUND_PENDING)
+                .set("failureReason", reason)
+                .currentDate("updatedAt");
+        return mongoTemplate.updateFirst(query, update, Payment.class).getModifiedCount() > 0;
+    }
+
+    /**
+     * Queued payments no worker holds a live lease on; shared with the index probe
+     */
+    static Criteria available(LocalDateTime now) {
+        return Criteria.where("status").is(PaymentStatus.PROCESSING)
+                .and("availableAt").lte(now);
+    }
+
+    private static Query claimed(String paymentId, String claimToken) {
+        return Query.query(Criteria.where("_id").is(paymentId)
+                .and("status").is(PaymentStatus.PROCESSING)
+                .and("claimToken").is(claimToken));
+    }
+}
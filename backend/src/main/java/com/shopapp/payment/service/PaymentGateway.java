@@ -0,0 +1,40 @@
+package com.shopapp.payment.service;
+
+import java.math.BigDecimal;
+
+/**
+ * A card payment provider, called by the payment queue's workers off the request path.
+ * Implementations must treat {@link ChargeRequest#paymentId()} as an idempotency key: a charge
+ * retried after a timeout or a worker crash returns the first outcome instead of charging twice.
+ */
+public interface PaymentGateway {
+
+    /**
+     * Charge a payment
+     * @return the provider's decision, approved or declined
+     * @throws PaymentGatewayException if the provider could not be reached or did not decide;
+     *         the charge is retried
+     */
+    ChargeResult charge(ChargeRequest request);
+
+    record ChargeRequest(
+            String paymentId,
+            BigDecimal amount,
+            String paymentMethod,
+            boolean simulateSuccess
+    ) {}
+
+    record ChargeResult(
+            boolean approved,
+            String transactionId,
+            String declineReason
+    ) {
+        public static ChargeResult approved(String transactionId) {
+            return new ChargeResult(true, transactionId, null);
+        }
+
+        public static ChargeResult declined(String reason) {
+            return new ChargeResult(false, null, reason);
+        }
+    }
+}
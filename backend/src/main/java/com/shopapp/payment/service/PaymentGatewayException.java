@@ -0,0 +1,11 @@
+package com.shopapp.payment.service;
+
+/**
+ * A gateway call that ended without a decision, e.g. a timeout or an outage; safe to retry
+ */
+public class PaymentGatewayException extends RuntimeException {
+
+    public PaymentGatewayException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,204 @@
+package com.shopapp.payment.service;
+
+import com.shopapp.payment.domain.Payment;
+import com.shopapp.payment.domain.PaymentStatus;
+import com.shopapp.payment.repository.PaymentRepository;
+import com.shopapp.shared.events.DomainEventPublisher;
+import com.shopapp.shared.events.payment.PaymentFailedEvent;
+import com.shopapp.shared.events.payment.PaymentSuccessEvent;
+import com.shopapp.shared.exception.ConflictException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Processes submitted payments off the request path. The queue is the payments collection itself:
+ * a submitted payment waits in PROCESSING until one of {@code workers} threads claims it for a lease,
+ * calls the {@link PaymentGateway} and records the outcome. A gateway call that ends without a
+ * decision is retried with exponential backoff up to {@code max-attempts} calls; a worker that dies
+ * mid-call loses its lease, and the payment is claimed again when the lease runs out. Workers poll
+ * for work every {@code poll-interval-ms} and are woken early by submissions on this instance.
+ */
+@Slf4j
+@Component
+public class PaymentQueue {
+
+    private static final String PROVIDER_UNAVAILABLE = "Payment provider unavailable, please try again";
+
+    // Backoff doubles up to this many times
+    private static final int MAX_BACKOFF_DOUBLINGS = 10;
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentGateway paymentGateway;
+    private final DomainEventPublisher eventPublisher;
+    private final int workers;
+    private final Duration lease;
+    private final Duration pollInterval;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+
+    private final Semaphore wakeUps = new Semaphore(0);
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    public PaymentQueue(PaymentRepository paymentRepository,
+                        PaymentGateway paymentGateway,
+                        DomainEventPublisher eventPublisher,
+                        @Value("${payments.queue.workers:4}") int workers,
+                        @Value("${payments.queue.lease-seconds:30}") long leaseSeconds,
+                        @Value("${payments.queue.poll-interval-ms:500}") long pollIntervalMs,
+                        @Value("${payments.queue.max-attempts:5}") int maxAttempts,
+                        @Value("${payments.queue.retry-backoff-ms:1000}") long retryBackoffMs) {
+        if (workers <= 0 || leaseSeconds <= 0 || pollIntervalMs <= 0 || maxAttempts <= 0 || retryBackoffMs < 0) {
+            throw new IllegalArgumentException("Payment queue workers, lease, poll interval and attempts must be positive");
+        }
+        this.paymentRepository = paymentRepository;
+        this.paymentGateway = paymentGateway;
+        this.eventPublisher = eventPublisher;
+        this.workers = workers;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.pollInterval = Duration.ofMillis(pollIntervalMs);
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = Duration.ofMillis(retryBackoffMs);
+    }
+
+    // Also picks up payments left queued by a previous shutdown
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        executor = Executors.newFixedThreadPool(workers, Thread.ofPlatform().name("payment-worker-", 0).factory());
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::work);
+        }
+        log.info("Started {} payment workers", workers);
+    }
+
+    // Payments being charged keep their lease and are claimed again after it runs out
+    @PreDestroy
+    public synchronized void shutdown() {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Wake a waiting worker, e.g. after a payment was queued
+     */
+    public void signal() {
+        wakeUps.release();
+    }
+
+    private void work() {
+        while (running) {
+            try {
+                if (!processNext(LocalDateTime.now())) {
+                    wakeUps.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Payment worker failed, pausing before the next claim", e);
+                try {
+                    Thread.sleep(pollInterval.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Claim and process the payment that has been waiting longest
+     * @return false if no payment was available
+     */
+    boolean processNext(LocalDateTime now) {
+        String claimToken = UUID.randomUUID().toString();
+        Optional<Payment> claimed = paymentRepository.claimNext(now, now.plus(lease), claimToken);
+        if (claimed.isEmpty()) {
+            return false;
+        }
+        process(claimed.get(), claimToken);
+        return true;
+    }
+
+    private void process(Payment payment, String claimToken) {
+        PaymentGateway.ChargeResult result;
+        try {
+            result = paymentGateway.charge(new PaymentGateway.ChargeRequest(
+                    payment.getId(), payment.getAmount(), payment.getPaymentMethod(), payment.isSimulateSuccess()));
+        } catch (PaymentGatewayException e) {
+            if (payment.getAttempts() < maxAttempts) {
+                LocalDateTime retryAt = LocalDateTime.now().plus(backoff(payment.getAttempts()));
+                paymentRepository.retryLater(payment.getId(), claimToken, retryAt);
+                log.warn("Payment {} attempt {} got no decision, retrying at {}: {}",
+                        payment.getId(), payment.getAttempts(), retryAt, e.getMessage());
+                return;
+            }
+            log.warn("Payment {} got no decision after {} attempts: {}", payment.getId(), payment.getAttempts(), e.getMessage());
+            result = PaymentGateway.ChargeResult.declined(PROVIDER_UNAVAILABLE);
+        }
+
+        Optional<Payment> completed = result.approved()
+                ? paymentRepository.complete(payment.getId(), claimToken, PaymentStatus.SUCCESS,
+                        result.transactionId(), null, LocalDateTime.now())
+                : paymentRepository.complete(payment.getId(), claimToken, PaymentStatus.FAILED,
+                        null, result.declineReason(), LocalDateTime.now());
+        if (completed.isEmpty()) {
+            // Another worker took the payment over after the lease ran out and records the outcome instead
+            log.warn("Lost the claim on payment {} before recording its outcome", payment.getId());
+            return;
+        }
+
+        Payment done = completed.get();
+        log.info("Payment {} {} after {} attempts", done.getId(), done.getStatus(), done.getAttempts());
+        try {
+            if (done.isSuccess()) {
+                publishSuccess(done);
+            } else {
+                eventPublisher.publish(new PaymentFailedEvent(
+                        done.getId(), done.getOrderId(), done.getUserId(), done.getAmount(), done.getFailureReason()));
+            }
+        } catch (RuntimeException e) {
+            // The outcome is recorded; a failed order update must not put the payment back on the queue
+            log.error("Order update after payment {} {} failed", done.getId(), done.getStatus(), e);
+        }
+    }
+
+    /**
+     * The order may have been cancelled while the charge was in flight; the money is then taken for
+     * an order that no longer exists, so the payment is flagged for reversal instead of left SUCCESS
+     */
+    private void publishSuccess(Payment done) {
+        try {
+            eventPublisher.publish(new PaymentSuccessEvent(
+                    done.getId(), done.getOrderId(), done.getUserId(), done.getAmount(), done.getTransactionId()));
+        } catch (ConflictException e) {
+            log.warn("Order {} could not be confirmed after payment {}: {}", done.getOrderId(), done.getId(), e.getMessage());
+            if (!paymentRepository.markRefundPending(done.getId(), "Order not confirmable: " + e.getMessage())) {
+                log.error("Payment {} could not be flagged for refund", done.getId());
+            }
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        return retryBackoff.multipliedBy(1L << Math.min(Math.max(attempts - 1, 0), MAX_BACKOFF_DOUBLINGS));
+    }
+}
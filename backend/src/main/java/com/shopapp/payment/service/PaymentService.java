@@ -5,19 +5,20 @@ import com.shopapp.payment.domain.PaymentStatus;
 import com.shopapp.payment.dto.*;
 import com.shopapp.payment.repository.PaymentRepository;
 import com.shopapp.shared.events.DomainEventPublisher;
-import com.shopapp.shared.events.payment.PaymentFailedEvent;
 import com.shopapp.shared.events.payment.PaymentSuccessEvent;
 import com.shopapp.shared.exception.BadRequestException;
 import com.shopapp.shared.exception.ResourceNotFoundException;
 import com.shopapp.shared.interfaces.OrderModuleApi;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Random;
+import java.time.LocalDateTime;
+import java.util.Set;
 import java.util.UUID;
 
 @Slf4j
@@ -25,20 +26,17 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class PaymentService {
 
+    private static final Set<String> PAYABLE_ORDER_STATUSES = Set.of("PLACED", "CREATED");
+
     private final PaymentRepository paymentRepository;
     private final OrderModuleApi orderModuleApi;
     private final DomainEventPublisher eventPublisher;
-    private final Random random = new Random();
+    private final PaymentQueue paymentQueue;
 
     @Transactional
     public PaymentResponse initiatePayment(String userId, InitiatePaymentRequest request) {
         log.info("Initiating payment for order: {} by user: {}", request.getOrderId(), userId);
 
-        // Check if payment already exists for this order
-        if (paymentRepository.existsByOrderId(request.getOrderId())) {
-            throw new BadRequestException("Payment already initiated for this order");
-        }
-
         // Get order details
         OrderModuleApi.OrderDto order = orderModuleApi.findById(request.getOrderId())
                 .orElseThrow(() -> new ResourceNotFoundException("Order", "id", request.getOrderId()));
@@ -48,8 +46,8 @@ public class PaymentService {
             throw new BadRequestException("Order does not belong to current user");
         }
 
-        // Verify order is in CREATED status
-        if (!"CREATED".equals(order.status())) {
+        // Verify order is still awaiting payment (CREATED is the legacy name for PLACED)
+        if (!PAYABLE_ORDER_STATUSES.contains(order.status())) {
             throw new BadRequestException("Order is not in a valid state for payment");
         }
 
@@ -67,7 +65,7 @@ public class PaymentService {
         if ("CASH_ON_DELIVERY".equals(paymentMethod)) {
             String transactionId = "COD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
             payment.markSuccess(transactionId);
-            Payment savedPayment = paymentRepository.save(payment);
+            Payment savedPayment = insertPayment(payment);
             log.info("COD Payment initiated and marked success with id: {} for order: {}", savedPayment.getId(), request.getOrderId());
             
             // Publish success event to update order status
@@ -82,13 +80,15 @@ public class PaymentService {
             return toPaymentResponse(savedPayment);
         }
 
-        Payment savedPayment = paymentRepository.save(payment);
+        Payment savedPayment = insertPayment(payment);
         log.info("Payment initiated with id: {} for order: {}", savedPayment.getId(), request.getOrderId());
 
         return toPaymentResponse(savedPayment);
     }
 
-    @Transactional
+    /**
+     * Queue a pending payment for a worker to charge; the caller polls the payment for the outcome
+     */
     public PaymentResponse processPayment(String userId, ProcessPaymentRequest request) {
         log.info("Processing payment: {} for user: {}", request.getPaymentId(), userId);
 
@@ -99,42 +99,18 @@ public class PaymentService {
             throw new BadRequestException("Payment has already been processed");
         }
 
-        // Simulate payment processing with 90% success rate
-        boolean success = request.isSimulateSuccess() || random.nextDouble() < 0.9;
-
-        if (success) {
-            String transactionId = "TXN-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-            payment.markSuccess(transactionId);
-            paymentRepository.save(payment);
-            
-            log.info("Payment {} succeeded with transaction id: {}", payment.getId(), transactionId);
-
-            // Publish success event
-            eventPublisher.publish(new PaymentSuccessEvent(
-                    payment.getId(),
-                    payment.getOrderId(),
-                    payment.getUserId(),
-                    payment.getAmount(),
-                    transactionId
-            ));
-        } else {
-            String failureReason = "Payment declined by payment provider";
-            payment.markFailed(failureReason);
-            paymentRepository.save(payment);
-            
-            log.info("Payment {} failed: {}", payment.getId(), failureReason);
-
-            // Publish failure event
-            eventPublisher.publish(new PaymentFailedEvent(
-                    payment.getId(),
-                    payment.getOrderId(),
-                    payment.getUserId(),
-                    payment.getAmount(),
-                    failureReason
-            ));
+        // Past this point the hold sweep can no longer cancel the order under the charge
+        if (!orderModuleApi.beginPayment(payment.getOrderId())) {
+            throw new BadRequestException("Order is no longer awaiting payment");
         }
 
-        return toPaymentResponse(payment);
+        // Conditional on PENDING, so a payment submitted twice at once is queued once
+        Payment queued = paymentRepository.enqueue(payment.getId(), userId, request.isSimulateSuccess(), LocalDateTime.now())
+                .orElseThrow(() -> new BadRequestException("Payment has already been processed"));
+        paymentQueue.signal();
+
+        log.info("Payment {} queued for processing", queued.getId());
+        return toPaymentResponse(queued);
     }
 
     public PaymentResponse getPayment(String userId, String paymentId) {
@@ -154,6 +130,15 @@ public class PaymentService {
                 .map(this::toPaymentResponse);
     }
 
+    // The unique orderId index is the check, so two concurrent initiations cannot both succeed
+    private Payment insertPayment(Payment payment) {
+        try {
+            return paymentRepository.insert(payment);
+        } catch (DuplicateKeyException e) {
+            throw new BadRequestException("Payment already initiated for this order");
+        }
+    }
+
     private PaymentResponse toPaymentResponse(Payment payment) {
         return PaymentResponse.builder()
                 .id(payment.getId())
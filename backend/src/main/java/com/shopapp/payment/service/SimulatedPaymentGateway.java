@@ -0,0 +1,102 @@
+package com.shopapp.payment.service;
+
+import com.shopapp.shared.cache.BoundedCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Local stand-in for a card provider. Each call waits a log-normally distributed time set by its
+ * median and 99th percentile; a call drawn longer than {@code timeout-ms} waits out the timeout
+ * and fails without a decision, as do {@code error-rate} of the rest. Of the calls that decide,
+ * {@code decline-rate} are declined unless the payment asked for success. Decisions are remembered
+ * per payment, so a retried charge returns the first one.
+ */
+@Component
+@ConditionalOnProperty(name = "payments.gateway", havingValue = "simulator", matchIfMissing = true)
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    // z-score of the 99th percentile of a standard normal distribution
+    private static final double Z_99 = 2.3263;
+
+    private final double medianMillis;
+    private final double sigma;
+    private final long timeoutMillis;
+    private final double errorRate;
+    private final double declineRate;
+    private final Random random;
+    private final BoundedCache<String, ChargeResult> decisions = new BoundedCache<>(100_000, Duration.ofDays(1));
+
+    @Autowired
+    public SimulatedPaymentGateway(@Value("${payments.simulator.latency-median-ms:200}") long latencyMedianMs,
+                                   @Value("${payments.simulator.latency-p99-ms:1500}") long latencyP99Ms,
+                                   @Value("${payments.simulator.timeout-ms:10000}") long timeoutMs,
+                                   @Value("${payments.simulator.error-rate:0.02}") double errorRate,
+                                   @Value("${payments.simulator.decline-rate:0.1}") double declineRate) {
+        this(latencyMedianMs, latencyP99Ms, timeoutMs, errorRate, declineRate, new Random());
+    }
+
+    SimulatedPaymentGateway(long latencyMedianMs, long latencyP99Ms, long timeoutMs,
+                            double errorRate, double declineRate, Random random) {
+        if (latencyMedianMs < 0 || latencyP99Ms < latencyMedianMs || timeoutMs <= 0) {
+            throw new IllegalArgumentException("Simulated latency must satisfy 0 <= median <= p99 and timeout > 0");
+        }
+        if (errorRate < 0 || errorRate > 1 || declineRate < 0 || declineRate > 1) {
+            throw new IllegalArgumentException("Simulated error and decline rates must be between 0 and 1");
+        }
+        this.medianMillis = latencyMedianMs;
+        this.sigma = latencyMedianMs == 0 ? 0 : Math.log((double) latencyP99Ms / latencyMedianMs) / Z_99;
+        this.timeoutMillis = timeoutMs;
+        this.errorRate = errorRate;
+        this.declineRate = declineRate;
+        this.random = random;
+    }
+
+    @Override
+    public ChargeResult charge(ChargeRequest request) {
+        ChargeResult earlier = decisions.get(request.paymentId()).orElse(null);
+        if (earlier != null) {
+            return earlier;
+        }
+
+        long latency = latencyMillis();
+        if (latency > timeoutMillis) {
+            pause(timeoutMillis);
+            throw new PaymentGatewayException("Payment provider timed out after " + timeoutMillis + " ms");
+        }
+        pause(latency);
+        if (random.nextDouble() < errorRate) {
+            throw new PaymentGatewayException("Payment provider is temporarily unavailable");
+        }
+
+        ChargeResult result = request.simulateSuccess() || random.nextDouble() >= declineRate
+                ? ChargeResult.approved("TXN-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase())
+                : ChargeResult.declined("Payment declined by payment provider");
+        decisions.put(request.paymentId(), result);
+        return result;
+    }
+
+    private long latencyMillis() {
+        if (medianMillis == 0) {
+            return 0;
+        }
+        return Math.round(medianMillis * Math.exp(sigma * random.nextGaussian()));
+    }
+
+    private static void pause(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Payment provider call was interrupted");
+        }
+    }
+}
@@ -1,18 +1,24 @@
 package com.shopapp.product.controller;
 
 import com.shopapp.product.dto.*;
+import com.shopapp.product.repository.ProductIndexes;
 import com.shopapp.product.service.ProductService;
 import com.shopapp.shared.dto.ApiResponse;
 import com.shopapp.shared.dto.PagedResponse;
+import com.shopapp.shared.pagination.Cursor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.math.BigDecimal;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/products")
@@ -20,53 +26,131 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Products", description = "Public product browsing APIs")
 public class ProductController {
 
+    // Public catalog reads may be cached anywhere but must be revalidated; the ETag makes that a cheap 304
+    private static final CacheControl PUBLIC_CATALOG = CacheControl.noCache().cachePublic();
+
     private final ProductService productService;
 
     @GetMapping
     @Operation(summary = "Get approved products", description = "Get all approved and visible products with pagination")
-    public ResponseEntity<ApiResponse<PagedResponse<ProductResponse>>> getProducts(
+    public ResponseEntity<ApiResponse<PagedResponse<ProductSummary>>> getProducts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String cursor,
+            WebRequest webRequest) {
         
-        Sort sort = sortDir.equalsIgnoreCase("asc") 
-                ? Sort.by(sortBy).ascending() 
-                : Sort.by(sortBy).descending();
-        Pageable pageable = PageRequest.of(page, size, sort);
+        String eTag = productService.getCatalogTag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        if (cursor != null) {
+            Cursor after = Cursor.decode(cursor);
+            return catalogResponse(eTag,
+                    PagedResponse.of(productService.getApprovedProducts(after, size), size, after == null));
+        }
+
+        Pageable pageable = ProductIndexes.CATALOG_SORTS.pageable(page, size, sortBy, sortDir);
         
-        Page<ProductResponse> products = productService.getApprovedProducts(pageable);
-        PagedResponse<ProductResponse> response = PagedResponse.of(
+        Page<ProductSummary> products = productService.getApprovedProducts(pageable);
+        PagedResponse<ProductSummary> response = PagedResponse.of(
                 products.getContent(), page, size, products.getTotalElements());
         
-        return ResponseEntity.ok(ApiResponse.success(response));
+        return catalogResponse(eTag, response);
     }
 
     @GetMapping("/{productId}")
     @Operation(summary = "Get product by ID", description = "Get approved product details by ID")
-    public ResponseEntity<ApiResponse<ProductResponse>> getProductById(@PathVariable String productId) {
+    public ResponseEntity<ApiResponse<ProductResponse>> getProductById(
+            @PathVariable String productId, WebRequest webRequest) {
+        String eTag = productService.getApprovedProductTag(productId);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         ProductResponse product = productService.getApprovedProductById(productId);
-        return ResponseEntity.ok(ApiResponse.success(product));
+        return catalogResponse(eTag, product);
+    }
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Suggest products",
+            description = "Typeahead suggestions of approved product names and categories starting with the query")
+    public ResponseEntity<ApiResponse<List<ProductSuggestion>>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest webRequest) {
+
+        String eTag = productService.getCatalogTag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        return catalogResponse(eTag, productService.suggest(q, limit));
+    }
+
+    @GetMapping("/search/faceted")
+    @Operation(summary = "Faceted product search",
+            description = "Search approved products by keyword, category, price range and stock, with facet counts")
+    public ResponseEntity<ApiResponse<FacetedSearchResponse>> facetedSearch(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest webRequest) {
+
+        String eTag = productService.getCatalogTag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        ProductSearchRequest request = ProductSearchRequest.builder()
+                .keyword(keyword)
+                .category(category)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .inStock(inStock)
+                .build();
+
+        FacetedSearchResponse response = productService.facetedSearch(request, PageRequest.of(page, size));
+        return catalogResponse(eTag, response);
     }
 
     @GetMapping("/search")
     @Operation(summary = "Search products", description = "Search approved products by keyword or category")
-    public ResponseEntity<ApiResponse<PagedResponse<ProductResponse>>> searchProducts(
+    public ResponseEntity<ApiResponse<PagedResponse<ProductSummary>>> searchProducts(
             @RequestParam(required = false) String keyword,
             @RequestParam(required = false) String category,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest webRequest) {
         
+        String eTag = productService.getCatalogTag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         Pageable pageable = PageRequest.of(page, size);
         ProductSearchRequest request = ProductSearchRequest.builder()
                 .keyword(keyword)
                 .category(category)
                 .build();
         
-        Page<ProductResponse> products = productService.searchProducts(request, pageable);
-        PagedResponse<ProductResponse> response = PagedResponse.of(
+        Page<ProductSummary> products = productService.searchProducts(request, pageable);
+        PagedResponse<ProductSummary> response = PagedResponse.of(
                 products.getContent(), page, size, products.getTotalElements());
         
-        return ResponseEntity.ok(ApiResponse.success(response));
+        return catalogResponse(eTag, response);
+    }
+
+    private <T> ResponseEntity<ApiResponse<T>> catalogResponse(String eTag, T body) {
+        return ResponseEntity.ok()
+                .cacheControl(PUBLIC_CATALOG)
+                .eTag(eTag)
+                .body(ApiResponse.success(body));
     }
 }
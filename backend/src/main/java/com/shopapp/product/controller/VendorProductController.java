@@ -1,18 +1,19 @@
 package com.shopapp.product.controller;
 
 import com.shopapp.product.dto.*;
+import com.shopapp.product.repository.ProductIndexes;
+import com.shopapp.product.service.ProductImportJobService;
 import com.shopapp.product.service.ProductService;
 import com.shopapp.shared.dto.ApiResponse;
 import com.shopapp.shared.dto.PagedResponse;
+import com.shopapp.shared.pagination.Cursor;
 import com.shopapp.shared.security.SecurityUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -21,6 +22,8 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 
 @RestController
@@ -31,6 +34,7 @@ import java.nio.charset.StandardCharsets;
 public class VendorProductController {
 
     private final ProductService productService;
+    private final ProductImportJobService productImportJobService;
 
     @GetMapping
     @Operation(summary = "Get my products", description = "Get all products for the current vendor")
@@ -38,13 +42,17 @@ public class VendorProductController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String cursor) {
         
         String userId = SecurityUtils.getCurrentUserId();
-        Sort sort = sortDir.equalsIgnoreCase("asc") 
-                ? Sort.by(sortBy).ascending() 
-                : Sort.by(sortBy).descending();
-        Pageable pageable = PageRequest.of(page, size, sort);
+        if (cursor != null) {
+            Cursor after = Cursor.decode(cursor);
+            return ResponseEntity.ok(ApiResponse.success(
+                    PagedResponse.of(productService.getVendorProducts(userId, after, size), size, after == null)));
+        }
+
+        Pageable pageable = ProductIndexes.VENDOR_SORTS.pageable(page, size, sortBy, sortDir);
         
         Page<ProductResponse> products = productService.getVendorProducts(userId, pageable);
         PagedResponse<ProductResponse> response = PagedResponse.of(
@@ -86,21 +94,16 @@ public class VendorProductController {
     public ResponseEntity<ApiResponse<BulkUploadResponse>> bulkUploadProducts(
             @RequestParam("file") MultipartFile file) throws IOException {
         
-        if (file.isEmpty()) {
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error("Please select a CSV file to upload"));
-        }
-
-        String filename = file.getOriginalFilename();
-        if (filename == null || !filename.toLowerCase().endsWith(".csv")) {
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error("Only CSV files are allowed"));
+        String uploadError = validateCsvUpload(file);
+        if (uploadError != null) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(uploadError));
         }
 
         String userId = SecurityUtils.getCurrentUserId();
-        String csvContent = new String(file.getBytes(), StandardCharsets.UTF_8);
-        
-        BulkUploadResponse result = productService.bulkUploadProducts(userId, csvContent);
+        BulkUploadResponse result;
+        try (Reader csv = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            result = productService.bulkUploadProducts(userId, csv);
+        }
         
         String message = String.format("Bulk upload completed: %d successful, %d failed out of %d total",
                 result.getSuccessCount(), result.getFailureCount(), result.getTotalRows());
@@ -108,6 +111,30 @@ public class VendorProductController {
         return ResponseEntity.ok(ApiResponse.success(message, result));
     }
 
+    @PostMapping(value = "/bulk-upload/jobs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Start bulk upload job", description = "Queue a CSV file for background import and return the job")
+    public ResponseEntity<ApiResponse<ImportJobResponse>> startBulkUploadJob(
+            @RequestParam("file") MultipartFile file) {
+
+        String uploadError = validateCsvUpload(file);
+        if (uploadError != null) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(uploadError));
+        }
+
+        String userId = SecurityUtils.getCurrentUserId();
+        ImportJobResponse job = productImportJobService.submit(userId, file);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Bulk upload queued", job));
+    }
+
+    @GetMapping("/bulk-upload/jobs/{jobId}")
+    @Operation(summary = "Get bulk upload job", description = "Get progress of a background CSV import")
+    public ResponseEntity<ApiResponse<ImportJobResponse>> getBulkUploadJob(@PathVariable String jobId) {
+        String userId = SecurityUtils.getCurrentUserId();
+        ImportJobResponse job = productImportJobService.getJob(userId, jobId);
+        return ResponseEntity.ok(ApiResponse.success(job));
+    }
+
     @GetMapping("/bulk-upload/template")
     @Operation(summary = "Get CSV template", description = "Get a sample CSV template for bulk upload")
     public ResponseEntity<String> getCSVTemplate() {
@@ -123,4 +150,16 @@ public class VendorProductController {
                 .header("Content-Disposition", "attachment; filename=product_upload_template.csv")
                 .body(template);
     }
+
+    private String validateCsvUpload(MultipartFile file) {
+        if (file.isEmpty()) {
+            return "Please select a CSV file to upload";
+        }
+
+        String filename = file.getOriginalFilename();
+        if (filename == null || !filename.toLowerCase().endsWith(".csv")) {
+            return "Only CSV files are allowed";
+        }
+        return null;
+    }
 }
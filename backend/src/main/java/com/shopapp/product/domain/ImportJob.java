@@ -0,0 +1,71 @@
+package com.shopapp.product.domain;
+
+import com.shopapp.product.dto.BulkUploadResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An asynchronous CSV product import. Progress is saved after every committed batch,
+ * so a job interrupted by a restart resumes after {@code committedLine}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "import_jobs")
+public class ImportJob {
+
+    @Id
+    private String id;
+
+    @Indexed
+    private String vendorId;
+
+    private String fileName;
+
+    // Location of the spooled upload on this node's disk
+    private String spoolPath;
+
+    private long fileSize;
+
+    @Indexed
+    @Builder.Default
+    private ImportJobStatus status = ImportJobStatus.QUEUED;
+
+    private int totalRows;
+
+    private int successCount;
+
+    private int failureCount;
+
+    @Builder.Default
+    private List<BulkUploadResponse.RowError> errors = new ArrayList<>();
+
+    // Source line of the last record covered by a committed batch
+    private long committedLine;
+
+    private long bytesProcessed;
+
+    private String failureReason;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime completedAt;
+
+    @CreatedDate
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+}
@@ -9,6 +9,8 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -30,6 +32,7 @@ public class Product {
     @Indexed
     private String category;
 
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal price;
 
     private int stock;
@@ -51,6 +54,19 @@ public class Product {
     @Builder.Default
     private boolean visible = true;
 
+    // While set, stock is counted in memory by FlashSaleStock and this field trails it by one flush
+    private boolean flashSale;
+
+    // Source of products created by an asynchronous CSV import, so an interrupted job can resume exactly
+    @Indexed(sparse = true)
+    private String importJobId;
+
+    private Long importLine;
+
+    // Stock releases applied by incrementStock(releaseId, ...) whose owner has not yet recorded them as done
+    @Builder.Default
+    private List<String> stockReleases = new ArrayList<>();
+
     @CreatedDate
     private LocalDateTime createdAt;
 
@@ -13,14 +13,13 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class BulkUploadResponse {
+
+    // A summary only: created products are not echoed back, so large imports stay cheap to return
     
     private int totalRows;
     private int successCount;
     private int failureCount;
     
-    @Builder.Default
-    private List<ProductResponse> successfulProducts = new ArrayList<>();
-    
     @Builder.Default
     private List<RowError> errors = new ArrayList<>();
     
@@ -29,7 +28,7 @@ public class BulkUploadResponse {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class RowError {
-        private int rowNumber;
+        private long rowNumber;
         private String productName;
         private String errorMessage;
     }
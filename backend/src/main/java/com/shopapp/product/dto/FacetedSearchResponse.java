@@ -0,0 +1,17 @@
+package com.shopapp.product.dto;
+
+import com.shopapp.shared.dto.PagedResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetedSearchResponse {
+
+    private PagedResponse<ProductResponse> products;
+    private SearchFacets facets;
+}
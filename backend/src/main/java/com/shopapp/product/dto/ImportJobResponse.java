@@ -0,0 +1,32 @@
+package com.shopapp.product.dto;
+
+import com.shopapp.product.domain.ImportJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobResponse {
+
+    private String id;
+    private ImportJobStatus status;
+    private String fileName;
+    private int rowsProcessed;
+    private int successCount;
+    private int failureCount;
+    private int percentComplete;
+    // Estimated seconds remaining while running, otherwise null
+    private Long etaSeconds;
+    private List<BulkUploadResponse.RowError> errors;
+    private String failureReason;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
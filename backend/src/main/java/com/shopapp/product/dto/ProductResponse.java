@@ -28,6 +28,7 @@ public class ProductResponse {
     private ProductStatus status;
     private String rejectionReason;
     private boolean visible;
+    private boolean flashSale;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
@@ -18,4 +18,5 @@ public class ProductSearchRequest {
     private BigDecimal minPrice;
     private BigDecimal maxPrice;
     private String vendorId;
+    private Boolean inStock;
 }
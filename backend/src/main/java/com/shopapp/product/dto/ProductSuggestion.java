@@ -0,0 +1,22 @@
+package com.shopapp.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSuggestion {
+
+    private String text;
+    private SuggestionType type;
+    private long popularity;
+
+    public enum SuggestionType {
+        NAME,
+        CATEGORY
+    }
+}
@@ -0,0 +1,33 @@
+package com.shopapp.product.dto;
+
+import com.shopapp.product.domain.ProductStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Listing view of a product: everything a product card or table row shows, without the description,
+ * rejection reason or full image gallery of {@link ProductResponse}
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSummary {
+
+    private String id;
+    private String name;
+    private String category;
+    private BigDecimal price;
+    private int stock;
+    private String thumbnail;
+    private String vendorId;
+    private String vendorName;
+    private ProductStatus status;
+    private boolean visible;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,51 @@
+package com.shopapp.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filter sidebar counts. Each facet is counted with every filter applied except its own,
+ * so selecting a category still shows how many products the other categories have.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchFacets {
+
+    @Builder.Default
+    private List<CategoryCount> categories = new ArrayList<>();
+
+    @Builder.Default
+    private List<PriceBucket> priceBuckets = new ArrayList<>();
+
+    private long inStock;
+
+    private long outOfStock;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoryCount {
+        private String category;
+        private long count;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceBucket {
+        private BigDecimal min;
+        // Exclusive upper bound, null for the open-ended top bucket
+        private BigDecimal max;
+        private long count;
+    }
+}
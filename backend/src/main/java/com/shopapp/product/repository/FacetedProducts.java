@@ -0,0 +1,11 @@
+package com.shopapp.product.repository;
+
+import com.shopapp.product.domain.Product;
+import com.shopapp.product.dto.SearchFacets;
+
+import java.util.List;
+
+/**
+ * One page of a faceted search. {@code total} and {@code facets} are only present when requested.
+ */
+public record FacetedProducts(List<Product> content, Long total, SearchFacets facets) {}
@@ -0,0 +1,18 @@
+package com.shopapp.product.repository;
+
+import com.shopapp.product.domain.ImportJob;
+import com.shopapp.product.domain.ImportJobStatus;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ImportJobRepository extends MongoRepository<ImportJob, String> {
+
+    Optional<ImportJob> findByIdAndVendorId(String id, String vendorId);
+
+    List<ImportJob> findByStatusIn(Collection<ImportJobStatus> statuses);
+}
@@ -0,0 +1,84 @@
+package com.shopapp.product.repository;
+
+import com.shopapp.product.domain.Product;
+import com.shopapp.product.domain.ProductStatus;
+import com.shopapp.shared.index.ModuleIndexes;
+import com.shopapp.shared.pagination.Cursor;
+import com.shopapp.shared.pagination.SortPolicy;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class ProductIndexes implements ModuleIndexes {
+
+    public static final String CATALOG_CREATED = "status_visible_created_id";
+    public static final String VENDOR_CREATED = "vendor_created_id";
+
+    /**
+     * Sort keys accepted by the public catalog listing
+     */
+    public static final SortPolicy CATALOG_SORTS = SortPolicy.builder()
+            .indexed("createdAt", CATALOG_CREATED)
+            .topK("name")
+            .topK("price")
+            .build();
+
+    /**
+     * Sort keys accepted by a vendor's own product listing
+     */
+    public static final SortPolicy VENDOR_SORTS = SortPolicy.builder()
+            .indexed("createdAt", VENDOR_CREATED)
+            .topK("name")
+            .topK("price")
+            .topK("stock")
+            .topK("status")
+            .build();
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt");
+
+    @Override
+    public List<DeclaredIndex> indexes() {
+        return List.of(
+                new DeclaredIndex(Product.class, new Index()
+                        .on("status", Sort.Direction.ASC)
+                        .on("visible", Sort.Direction.ASC)
+                        .on("createdAt", Sort.Direction.DESC)
+                        .on("_id", Sort.Direction.DESC)
+                        .named(CATALOG_CREATED)),
+                new DeclaredIndex(Product.class, new Index()
+                        .on("vendorId", Sort.Direction.ASC)
+                        .on("createdAt", Sort.Direction.DESC)
+                        .on("_id", Sort.Direction.DESC)
+                        .named(VENDOR_CREATED)));
+    }
+
+    @Override
+    public List<DecimalField> decimalFields() {
+        return List.of(new DecimalField(Product.class, "price"));
+    }
+
+    @Override
+    public List<SortPolicy> sortPolicies() {
+        return List.of(CATALOG_SORTS, VENDOR_SORTS);
+    }
+
+    @Override
+    public List<QueryProbe> probes() {
+        Criteria approved = Criteria.where("status").is(ProductStatus.APPROVED).and("visible").is(true);
+        return List.of(
+                new QueryProbe("findSummariesByStatusAndVisibleTrue", Product.class,
+                        Query.query(approved).with(NEWEST_FIRST)),
+                new QueryProbe("findApprovedAfter", Product.class,
+                        Query.query(approved).with(Cursor.SORT)),
+                new QueryProbe("findApprovedSummariesByCategory", Product.class,
+                        Query.query(Criteria.where("status").is(ProductStatus.APPROVED)
+                                .and("visible").is(true).and("category").is("probe")).with(NEWEST_FIRST)),
+                new QueryProbe("findByVendorId", Product.class,
+                        Query.query(Criteria.where("vendorId").is("probe")).with(NEWEST_FIRST)));
+    }
+}
@@ -10,27 +10,47 @@ import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends MongoRepository<Product, String> {
+public interface ProductRepository extends MongoRepository<Product, String>, ProductRepositoryCustom {
+
+    /**
+     * Fields loaded for listings. The {@code find...Summaries...} methods return products holding
+     * only these fields and at most the first image, so they must never be saved back.
+     */
+    String SUMMARY_FIELDS = "{ 'name': 1, 'category': 1, 'price': 1, 'stock': 1, 'vendorId': 1, "
+            + "'status': 1, 'visible': 1, 'createdAt': 1, 'images': { '$slice': 1 } }";
 
     Page<Product> findByVendorId(String vendorId, Pageable pageable);
 
-    Page<Product> findByStatus(ProductStatus status, Pageable pageable);
+    @Query(value = "{}", fields = SUMMARY_FIELDS)
+    Page<Product> findAllSummaries(Pageable pageable);
+
+    @Query(fields = SUMMARY_FIELDS)
+    Page<Product> findSummariesByStatus(ProductStatus status, Pageable pageable);
 
-    Page<Product> findByStatusAndVisibleTrue(ProductStatus status, Pageable pageable);
+    @Query(fields = SUMMARY_FIELDS)
+    Page<Product> findSummariesByStatusAndVisibleTrue(ProductStatus status, Pageable pageable);
 
     Page<Product> findByVendorIdAndStatus(String vendorId, ProductStatus status, Pageable pageable);
 
-    @Query("{ 'status': 'APPROVED', 'visible': true, 'category': ?0 }")
-    Page<Product> findApprovedByCategory(String category, Pageable pageable);
+    @Query(value = "{ 'status': 'APPROVED', 'visible': true, 'category': ?0 }", fields = SUMMARY_FIELDS)
+    Page<Product> findApprovedSummariesByCategory(String category, Pageable pageable);
 
-    @Query("{ 'status': 'APPROVED', 'visible': true, 'name': { $regex: ?0, $options: 'i' } }")
-    Page<Product> findApprovedByNameContaining(String keyword, Pageable pageable);
+    Stream<Product> streamByStatusAndVisibleTrue(ProductStatus status);
 
     Optional<Product> findByIdAndVendorId(String id, String vendorId);
 
+    @Query(value = "{ 'flashSale': true }", fields = "{ 'stock': 1 }")
+    List<Product> findFlashSaleStock();
+
     List<Product> findByIdIn(List<String> ids);
 
+    @Query(value = "{ '_id': { '$in': ?0 } }", fields = SUMMARY_FIELDS)
+    List<Product> findSummariesByIdIn(List<String> ids);
+
     long countByVendorIdAndStatus(String vendorId, ProductStatus status);
+
+    long deleteByImportJobIdAndImportLineGreaterThan(String importJobId, long importLine);
 }
@@ -0,0 +1,113 @@
+package com.shopapp.product.repository;
+
+import com.shopapp.product.domain.Product;
+import com.shopapp.product.dto.ProductSearchRequest;
+import com.shopapp.shared.pagination.Cursor;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+/**
+ * Custom product persistence operations that cannot be expressed as derived queries.
+ * Stock adjustments are applied server-side so concurrent checkouts never lose updates.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Atomically decrement stock if at least {@code quantity} units are available.
+     * Products in a flash sale never match: their stock is counted in memory until the sale ends.
+     * @return the new stock level, or empty if the product is missing or has insufficient stock
+     */
+    OptionalInt decrementStock(String productId, int quantity);
+
+    /**
+     * Atomically increment stock
+     * @return the new stock level, or empty if the product is missing
+     */
+    OptionalInt incrementStock(String productId, int quantity);
+
+    /**
+     * Decrement stock for every product (productId -> quantity) in one ordered bulk write.
+     * The write stops at the first product that is missing or short on stock, and the
+     * lines applied before it are undone with a compensating bulk write.
+     * @return the ID of the product that could not be decremented, or empty if all lines succeeded
+     */
+    Optional<String> decrementStock(Map<String, Integer> quantities);
+
+    /**
+     * Insert new products in one unordered bulk write, so a row that fails does not stop the rows after it
+     * @return the index of every product that could not be inserted, with the reason, in index order
+     */
+    Map<Integer, String> insertUnordered(List<Product> products);
+
+    /**
+     * Increment stock for every product (productId -> quantity) in one bulk write
+     */
+    void incrementStock(Map<String, Integer> quantities);
+
+    /**
+     * As {@link #incrementStock(Map)}, applied at most once per product for {@code releaseId}: the ID is
+     * recorded on the product in the same update, so a release retried after a partial failure skips the
+     * products it already reached
+     */
+    void incrementStock(String releaseId, Map<String, Integer> quantities);
+
+    /**
+     * As {@link #incrementStock(String, Map)} for a single product
+     * @return true if this call applied the release, false if the product is missing or already had it
+     */
+    boolean incrementStock(String releaseId, String productId, int quantity);
+
+    /**
+     * Drop the record of {@code releaseId} from the products it reached
+     */
+    void forgetRelease(String releaseId, Collection<String> productIds);
+
+    /**
+     * Put an approved product into flash-sale mode, so database stock decrements stop matching it
+     * @return the product with its stock at the moment of the switch, or empty if it is missing,
+     *         not approved or already in a flash sale
+     */
+    Optional<Product> startFlashSale(String productId);
+
+    /**
+     * Take a product out of flash-sale mode
+     */
+    void endFlashSale(String productId);
+
+    /**
+     * Show or hide a product with a targeted update, so concurrent stock updates and flash-sale flushes
+     * are never overwritten by a stale copy of the document
+     * @return the updated product, or empty if it is missing
+     */
+    Optional<Product> updateVisibility(String productId, boolean visible);
+
+    /**
+     * Only the status, visibility and last-modified time of a product, for cheap freshness checks
+     */
+    Optional<Product> findVersionById(String productId);
+
+    /**
+     * Approved, visible products after {@code after} (or from the start when null), newest first,
+     * holding only {@link ProductRepository#SUMMARY_FIELDS}
+     */
+    List<Product> findApprovedAfter(Cursor after, int limit);
+
+    /**
+     * A vendor's products after {@code after} (or from the start when null), newest first
+     */
+    List<Product> findByVendorIdAfter(String vendorId, Cursor after, int limit);
+
+    /**
+     * Approved, visible products matching the category, price range and in-stock filters of
+     * {@code filter}, newest first, computed with a single aggregation
+     * @param ids restricts the search to these products (e.g. keyword matches), or null for no restriction
+     * @param withFacets whether to also compute the total and facet counts; without them the page is read
+     *                   with a plain indexed find instead of the aggregation
+     */
+    FacetedProducts facetedSearch(ProductSearchRequest filter, Collection<String> ids, Pageable pageable, boolean withFacets);
+}
@@ -0,0 +1,433 @@
+package com.shopapp.product.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.shopapp.product.domain.Product;
+import com.shopapp.product.domain.ProductStatus;
+import com.shopapp.product.dto.ProductSearchRequest;
+import com.shopapp.product.dto.SearchFacets;
+import com.shopapp.shared.pagination.Cursor;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.aggregation.FacetOperation;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    private static final Integer[] PRICE_BUCKET_BOUNDARIES = {0, 25, 50, 100, 250, 500};
+    private static final String TOP_PRICE_BUCKET = "top";
+    private static final int MAX_CATEGORY_FACETS = 50;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public OptionalInt decrementStock(String productId, int quantity) {
+        // The stock guard lives in the filter, so the check and the $inc are a single atomic step
+        Query query = Query.query(Criteria.where("_id").is(productId).and("stock").gte(quantity)
+                .and("flashSale").ne(true));
+        return adjustStock(query, -quantity);
+    }
+
+    @Override
+    public OptionalInt incrementStock(String productId, int quantity) {
+        Query query = Query.query(Criteria.where("_id").is(productId));
+        return adjustStock(query, quantity);
+    }
+
+    @Override
+    public Optional<String> decrementStock(Map<String, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<Map.Entry<String, Integer>> lines = new ArrayList<>(quantities.entrySet());
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.ORDERED, Product.class);
+        for (Map.Entry<String, Integer> line : lines) {
+            // Upserting turns a failed stock guard into a duplicate key error on _id, which halts
+            // the ordered write at exactly that line, so we know which earlier lines were applied
+            Query query = Query.query(Criteria.where("_id").is(line.getKey()).and("stock").gte(line.getValue())
+                    .and("flashSale").ne(true));
+            bulk.upsert(query, stockUpdate(-line.getValue()));
+        }
+
+        BulkWriteResult result;
+        int appliedUntil = lines.size();
+        try {
+            result = bulk.execute();
+        } catch (BulkOperationException e) {
+            BulkWriteError error = e.getErrors().get(0);
+            if (error.getCode() != DUPLICATE_KEY_ERROR) {
+                compensate(lines, error.getIndex(), indexesOf(e.getResult().getUpserts()));
+                throw e;
+            }
+            result = e.getResult();
+            appliedUntil = error.getIndex();
+        }
+
+        // An upsert only inserts when the product no longer exists; treat that line as failed too
+        Set<Integer> upserted = indexesOf(result.getUpserts());
+        int failedIndex = appliedUntil;
+        for (int index : upserted) {
+            failedIndex = Math.min(failedIndex, index);
+        }
+
+        if (failedIndex == lines.size()) {
+            return Optional.empty();
+        }
+
+        compensate(lines, appliedUntil, upserted);
+        return Optional.of(lines.get(failedIndex).getKey());
+    }
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<Product> products) {
+        if (products.isEmpty()) {
+            return Map.of();
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, Product.class);
+        bulk.insert(products);
+        try {
+            bulk.execute();
+            return Map.of();
+        } catch (BulkOperationException e) {
+            // Without per-document errors (e.g. a write concern failure) nothing tells which rows landed
+            if (e.getErrors().isEmpty()) {
+                throw e;
+            }
+            Map<Integer, String> failed = new TreeMap<>();
+            e.getErrors().forEach(error -> failed.put(error.getIndex(), error.getMessage()));
+            return failed;
+        }
+    }
+
+    @Override
+    public void incrementStock(Map<String, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, Product.class);
+        quantities.forEach((productId, quantity) ->
+                bulk.updateOne(Query.query(Criteria.where("_id").is(productId)), stockUpdate(quantity)));
+        bulk.execute();
+    }
+
+    @Override
+    public void incrementStock(String releaseId, Map<String, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, Product.class);
+        quantities.forEach((productId, quantity) -> bulk.updateOne(
+                Query.query(Criteria.where("_id").is(productId).and("stockReleases").ne(releaseId)),
+                stockUpdate(quantity).addToSet("stockReleases", releaseId)));
+        bulk.execute();
+    }
+
+    @Override
+    public boolean incrementStock(String releaseId, String productId, int quantity) {
+        Query query = Query.query(Criteria.where("_id").is(productId).and("stockReleases").ne(releaseId));
+        return mongoTemplate.updateFirst(query, stockUpdate(quantity).addToSet("stockReleases", releaseId), Product.class)
+                .getModifiedCount() > 0;
+    }
+
+    @Override
+    public void forgetRelease(String releaseId, Collection<String> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+
+        Query query = Query.query(Criteria.where("_id").in(productIds).and("stockReleases").is(releaseId));
+        mongoTemplate.updateMulti(query, new Update().pull("stockReleases", releaseId), Product.class);
+    }
+
+    @Override
+    public Optional<Product> startFlashSale(String productId) {
+        Query query = Query.query(Criteria.where("_id").is(productId)
+                .and("status").is(ProductStatus.APPROVED)
+                .and("flashSale").ne(true));
+        query.fields().include("stock", "flashSale");
+        Update update = new Update()
+                .set("flashSale", true)
+                .currentDate("updatedAt");
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                query, update, FindAndModifyOptions.options().returnNew(true), Product.class));
+    }
+
+    @Override
+    public void endFlashSale(String productId) {
+        Update update = new Update()
+                .set("flashSale", false)
+                .currentDate("updatedAt");
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(productId)), update, Product.class);
+    }
+
+    @Override
+    public Optional<Product> updateVisibility(String productId, boolean visible) {
+        Update update = new Update()
+                .set("visible", visible)
+                .currentDate("updatedAt");
+        return Optional.ofNullable(mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(productId)),
+                update, FindAndModifyOptions.options().returnNew(true), Product.class));
+    }
+
+    @Override
+    public Optional<Product> findVersionById(String productId) {
+        Query query = Query.query(Criteria.where("_id").is(productId));
+        query.fields().include("status", "visible", "updatedAt");
+        return Optional.ofNullable(mongoTemplate.findOne(query, Product.class));
+    }
+
+    @Override
+    public List<Product> findApprovedAfter(Cursor after, int limit) {
+        Criteria filter = Criteria.where("status").is(ProductStatus.APPROVED).and("visible").is(true);
+        return findAfter(filter, Document.parse(ProductRepository.SUMMARY_FIELDS), after, limit);
+    }
+
+    @Override
+    public List<Product> findByVendorIdAfter(String vendorId, Cursor after, int limit) {
+        return findAfter(Criteria.where("vendorId").is(vendorId), new Document(), after, limit);
+    }
+
+    private List<Product> findAfter(Criteria filter, Document fields, Cursor after, int limit) {
+        Criteria criteria = after != null ? new Criteria().andOperator(filter, after.after()) : filter;
+        Query query = new BasicQuery(criteria.getCriteriaObject(), fields).with(Cursor.SORT).limit(limit);
+        return mongoTemplate.find(query, Product.class);
+    }
+
+    @Override
+    public FacetedProducts facetedSearch(ProductSearchRequest filter, Collection<String> ids,
+                                         Pageable pageable, boolean withFacets) {
+        if (!withFacets) {
+            return new FacetedProducts(findFacetedPage(filter, ids, pageable), null, null);
+        }
+
+        // The pipeline is untyped, so values are given in their stored BSON form
+        Criteria base = Criteria.where("status").is(ProductStatus.APPROVED.name()).and("visible").is(true);
+        if (ids != null) {
+            base = base.and("_id").in(ids.stream().map(id -> ObjectId.isValid(id) ? new ObjectId(id) : id).toList());
+        }
+
+        Criteria category = categoryOf(filter);
+        Criteria price = priceRange("priceValue", filter.getMinPrice(), filter.getMaxPrice());
+        Criteria inStock = inStockOf(filter);
+
+        // Every facet branch applies all filters except its own
+        FacetOperation facets = Aggregation.facet(pipeline(
+                        matching(category, price, inStock),
+                        Aggregation.sort(Cursor.SORT),
+                        Aggregation.skip(pageable.getOffset()),
+                        Aggregation.limit(pageable.getPageSize())))
+                .as("results")
+                .and(pipeline(matching(category, price, inStock), Aggregation.count().as("count")))
+                .as("total")
+                .and(pipeline(matching(price, inStock),
+                        Aggregation.group("category").count().as("count"),
+                        Aggregation.sort(Sort.by(Sort.Direction.DESC, "count").and(Sort.by("_id"))),
+                        Aggregation.limit(MAX_CATEGORY_FACETS)))
+                .as("categories")
+                .and(pipeline(matching(category, inStock),
+                        Aggregation.bucket("priceValue")
+                                .withBoundaries((Object[]) PRICE_BUCKET_BOUNDARIES)
+                                .withDefaultBucket(TOP_PRICE_BUCKET)
+                                .andOutputCount().as("count")))
+                .as("prices")
+                .and(pipeline(matching(category, price),
+                        Aggregation.group()
+                                .sum(ConditionalOperators.when(ComparisonOperators.valueOf("stock").greaterThanValue(0))
+                                        .then(1)
+                                        .otherwise(0))
+                                .as("inStock")
+                                .count().as("all")))
+                .as("stock");
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(base),
+                // Prices written before they were mapped as decimals may still be strings until converted at startup
+                Aggregation.addFields().addField("priceValue")
+                        .withValueOf(ConvertOperators.valueOf("price").convertToDecimal())
+                        .build(),
+                facets);
+
+        Document result = mongoTemplate.aggregate(
+                aggregation, mongoTemplate.getCollectionName(Product.class), Document.class).getUniqueMappedResult();
+
+        List<Product> content = result == null ? List.of() : result.getList("results", Document.class).stream()
+                .map(document -> mongoTemplate.getConverter().read(Product.class, document))
+                .toList();
+        return new FacetedProducts(content, firstLong(result, "total", "count"), toFacets(result));
+    }
+
+    /**
+     * The page alone, once totals and facets are cached: a plain find walks the approved-products index in
+     * {@link Cursor#SORT} order and stops after the page, where {@code $facet} would sort every match in memory
+     */
+    private List<Product> findFacetedPage(ProductSearchRequest filter, Collection<String> ids, Pageable pageable) {
+        Criteria base = Criteria.where("status").is(ProductStatus.APPROVED).and("visible").is(true);
+        if (ids != null) {
+            base = base.and("_id").in(ids);
+        }
+        Criteria[] criteria = Stream.of(base, categoryOf(filter),
+                        priceRange("price", filter.getMinPrice(), filter.getMaxPrice()), inStockOf(filter))
+                .filter(Objects::nonNull)
+                .toArray(Criteria[]::new);
+
+        Query query = Query.query(new Criteria().andOperator(criteria))
+                .with(Cursor.SORT)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize());
+        return mongoTemplate.find(query, Product.class);
+    }
+
+    private Criteria categoryOf(ProductSearchRequest filter) {
+        return filter.getCategory() != null && !filter.getCategory().isBlank()
+                ? Criteria.where("category").is(filter.getCategory().trim())
+                : null;
+    }
+
+    private Criteria inStockOf(ProductSearchRequest filter) {
+        return Boolean.TRUE.equals(filter.getInStock()) ? Criteria.where("stock").gt(0) : null;
+    }
+
+    private Criteria priceRange(String field, BigDecimal min, BigDecimal max) {
+        if (min == null && max == null) {
+            return null;
+        }
+        Criteria criteria = Criteria.where(field);
+        if (min != null) {
+            criteria = criteria.gte(new Decimal128(min));
+        }
+        if (max != null) {
+            criteria = criteria.lte(new Decimal128(max));
+        }
+        return criteria;
+    }
+
+    private AggregationOperation matching(Criteria... filters) {
+        List<Criteria> applied = Arrays.stream(filters).filter(Objects::nonNull).toList();
+        return applied.isEmpty()
+                ? null
+                : Aggregation.match(new Criteria().andOperator(applied.toArray(new Criteria[0])));
+    }
+
+    private AggregationOperation[] pipeline(AggregationOperation... operations) {
+        return Arrays.stream(operations)
+                .filter(Objects::nonNull)
+                .toArray(AggregationOperation[]::new);
+    }
+
+    private SearchFacets toFacets(Document result) {
+        SearchFacets facets = SearchFacets.builder().build();
+        if (result == null) {
+            return facets;
+        }
+
+        for (Document category : result.getList("categories", Document.class)) {
+            facets.getCategories().add(SearchFacets.CategoryCount.builder()
+                    .category(category.getString("_id"))
+                    .count(((Number) category.get("count")).longValue())
+                    .build());
+        }
+
+        Map<Object, Long> bucketCounts = result.getList("prices", Document.class).stream()
+                .collect(Collectors.toMap(bucket -> bucket.get("_id") instanceof Number n ? n.intValue() : TOP_PRICE_BUCKET,
+                        bucket -> ((Number) bucket.get("count")).longValue()));
+        for (int i = 0; i < PRICE_BUCKET_BOUNDARIES.length; i++) {
+            boolean top = i == PRICE_BUCKET_BOUNDARIES.length - 1;
+            facets.getPriceBuckets().add(SearchFacets.PriceBucket.builder()
+                    .min(BigDecimal.valueOf(PRICE_BUCKET_BOUNDARIES[i]))
+                    .max(top ? null : BigDecimal.valueOf(PRICE_BUCKET_BOUNDARIES[i + 1]))
+                    .count(bucketCounts.getOrDefault(top ? TOP_PRICE_BUCKET : PRICE_BUCKET_BOUNDARIES[i], 0L))
+                    .build());
+        }
+
+        long inStock = firstLong(result, "stock", "inStock");
+        facets.setInStock(inStock);
+        facets.setOutOfStock(firstLong(result, "stock", "all") - inStock);
+        return facets;
+    }
+
+    private long firstLong(Document result, String facet, String field) {
+        List<Document> rows = result.getList(facet, Document.class);
+        return rows.isEmpty() ? 0 : ((Number) rows.get(0).get(field)).longValue();
+    }
+
+    /**
+     * Undo every decrement applied before {@code appliedUntil} and drop the stub documents
+     * created by upserts against products that no longer exist
+     */
+    private void compensate(List<Map.Entry<String, Integer>> lines, int appliedUntil, Set<Integer> upserted) {
+        Map<String, Integer> applied = new LinkedHashMap<>();
+        List<String> stubs = new ArrayList<>();
+        for (int i = 0; i < appliedUntil; i++) {
+            if (upserted.contains(i)) {
+                stubs.add(lines.get(i).getKey());
+            } else {
+                applied.put(lines.get(i).getKey(), lines.get(i).getValue());
+            }
+        }
+
+        incrementStock(applied);
+        if (!stubs.isEmpty()) {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").in(stubs)), Product.class);
+        }
+    }
+
+    private Set<Integer> indexesOf(List<BulkWriteUpsert> upserts) {
+        return upserts.stream()
+                .map(BulkWriteUpsert::getIndex)
+                .collect(Collectors.toSet());
+    }
+
+    private OptionalInt adjustStock(Query query, int delta) {
+        query.fields().include("stock");
+        Product updated = mongoTemplate.findAndModify(
+                query, stockUpdate(delta), FindAndModifyOptions.options().returnNew(true), Product.class);
+
+        return updated != null ? OptionalInt.of(updated.getStock()) : OptionalInt.empty();
+    }
+
+    private Update stockUpdate(int delta) {
+        return new Update()
+                .inc("stock", delta)
+                .currentDate("updatedAt");
+    }
+}
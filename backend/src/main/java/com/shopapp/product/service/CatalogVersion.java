@@ -0,0 +1,97 @@
+package com.shopapp.product.service;
+
+import com.shopapp.shared.events.vendor.VendorProfileUpdatedEvent;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.OptionalInt;
+import java.util.function.LongSupplier;
+
+/**
+ * Version counters behind the catalog's HTTP entity tags, so conditional GETs can be answered
+ * without reading any products. Tags are weak because the response envelope carries a timestamp.
+ * The counters are one shared document, so a change made through any instance moves the tags every
+ * instance hands out, and a restart does not reset them.
+ * <p>
+ * Stock alone does not bump the listing version, or every checkout would invalidate every listing
+ * exactly when traffic peaks. Listing tags instead roll over once per stock window, which bounds how
+ * long the stock shown on a cached listing can trail the real level.
+ */
+@Component
+public class CatalogVersion {
+
+    static final String COLLECTION = "catalog_versions";
+
+    private static final String ID = "catalog";
+    private static final String PRODUCTS = "products";
+    private static final String VENDORS = "vendors";
+
+    private final MongoTemplate mongoTemplate;
+    private final long stockWindowMillis;
+    private final LongSupplier clock;
+
+    @Autowired
+    public CatalogVersion(MongoTemplate mongoTemplate,
+                          @Value("${product.catalog.stock-window-seconds:30}") long stockWindowSeconds) {
+        this(mongoTemplate, stockWindowSeconds * 1000, System::currentTimeMillis);
+    }
+
+    CatalogVersion(MongoTemplate mongoTemplate, long stockWindowMillis, LongSupplier clock) {
+        if (stockWindowMillis <= 0) {
+            throw new IllegalArgumentException("Catalog stock window must be positive");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.stockWindowMillis = stockWindowMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Called after any change other than stock that can alter what public product listings return
+     */
+    public void productsChanged() {
+        increment(PRODUCTS);
+    }
+
+    // Responses embed vendor business names
+    @EventListener
+    public void handleVendorProfileUpdated(VendorProfileUpdatedEvent event) {
+        increment(VENDORS);
+    }
+
+    public String listingTag() {
+        Document counters = counters();
+        long stockWindow = clock.getAsLong() / stockWindowMillis;
+        return "W/\"c-" + counter(counters, PRODUCTS) + "-" + counter(counters, VENDORS) + "-" + stockWindow + "\"";
+    }
+
+    /**
+     * @param liveStock stock counted in memory by a running flash sale, which {@code updatedAt} does not follow
+     */
+    public String productTag(String productId, LocalDateTime updatedAt, OptionalInt liveStock) {
+        long modified = updatedAt == null ? 0 : updatedAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+        String stock = liveStock.isPresent() ? "-s" + liveStock.getAsInt() : "";
+        return "W/\"p-" + productId + "-" + modified + stock + "-" + counter(counters(), VENDORS) + "\"";
+    }
+
+    private Document counters() {
+        return mongoTemplate.findById(ID, Document.class, COLLECTION);
+    }
+
+    private static long counter(Document counters, String name) {
+        Number value = counters != null ? counters.get(name, Number.class) : null;
+        return value != null ? value.longValue() : 0;
+    }
+
+    private void increment(String name) {
+        mongoTemplate.upsert(Query.query(Criteria.where("_id").is(ID)), new Update().inc(name, 1), COLLECTION);
+    }
+}
@@ -0,0 +1,145 @@
+package com.shopapp.product.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Append-only local log of flash-sale reservations that may not have reached the database yet.
+ * Each flush seals the current segment and deletes it once the stock it covers is written back;
+ * after a crash every remaining segment is replayed. Only reservations are logged, never releases,
+ * so a replay can at worst count a sale twice and under-sell, but never oversell.
+ */
+@Slf4j
+@Component
+public class FlashSaleJournal {
+
+    private static final String SEGMENT_PREFIX = "reservations-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path dir;
+    private BufferedWriter writer;
+    private Path current;
+    private long sequence;
+
+    public FlashSaleJournal(@Value("${product.flash-sale.journal-dir:${java.io.tmpdir}/shopapp-flash-sale}") String dir) {
+        this.dir = Path.of(dir);
+    }
+
+    /**
+     * Record a reservation; flushed to the operating system before returning, so it survives a process crash
+     */
+    public synchronized void append(String productId, int quantity) {
+        try {
+            if (writer == null) {
+                Files.createDirectories(dir);
+                current = dir.resolve(SEGMENT_PREFIX + System.currentTimeMillis() + "-" + sequence++ + SEGMENT_SUFFIX);
+                writer = Files.newBufferedWriter(current, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            writer.write(productId + "," + quantity);
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not journal flash-sale reservation", e);
+        }
+    }
+
+    /**
+     * Close the segment being written, so later reservations start a new one
+     * @return the closed segment, or null if nothing was logged since the last rotation
+     */
+    public synchronized Path rotate() {
+        if (writer == null) {
+            return null;
+        }
+
+        Path sealed = current;
+        closeWriter();
+        return sealed;
+    }
+
+    /**
+     * Delete segments whose reservations are now reflected in the database
+     */
+    public void discard(List<Path> segments) {
+        for (Path segment : segments) {
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException e) {
+                log.warn("Could not delete flash-sale journal segment {}", segment, e);
+            }
+        }
+    }
+
+    /**
+     * Units reserved per product across every segment left on disk
+     */
+    public synchronized Map<String, Integer> replay() {
+        Map<String, Integer> reserved = new HashMap<>();
+        for (Path segment : segments()) {
+            try (Stream<String> lines = Files.lines(segment, StandardCharsets.UTF_8)) {
+                lines.forEach(line -> {
+                    int comma = line.lastIndexOf(',');
+                    // A torn last line from a crash mid-write is skipped
+                    if (comma > 0) {
+                        try {
+                            reserved.merge(line.substring(0, comma), Integer.parseInt(line.substring(comma + 1)), Integer::sum);
+                        } catch (NumberFormatException e) {
+                            log.warn("Skipping malformed flash-sale journal line in {}", segment);
+                        }
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not replay flash-sale journal " + segment, e);
+            }
+        }
+        return reserved;
+    }
+
+    /**
+     * Every segment on disk, including the one being written
+     */
+    public synchronized List<Path> segments() {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files
+                    .filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list flash-sale journal segments", e);
+        }
+    }
+
+    public synchronized void close() {
+        if (writer != null) {
+            closeWriter();
+        }
+    }
+
+    private void closeWriter() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("Could not close flash-sale journal segment {}", current, e);
+        } finally {
+            writer = null;
+            current = null;
+        }
+    }
+}
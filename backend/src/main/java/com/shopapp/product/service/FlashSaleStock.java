@@ -0,0 +1,219 @@
+package com.shopapp.product.service;
+
+import com.shopapp.product.domain.Product;
+import com.shopapp.product.repository.ProductRepository;
+import com.shopapp.shared.exception.BadRequestException;
+import com.shopapp.shared.exception.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory stock for products in a flash sale. Reservations are taken from {@link StripedStock}
+ * slots and journaled locally instead of each writing the same product document; the net change
+ * is written back with one bulk {@code $inc} per flush. The database filters flash-sale products
+ * out of its own stock decrements, so the two paths can never sell the same unit.
+ * Assumes a single application instance owns the flash-sale stock.
+ */
+@Slf4j
+@Component
+public class FlashSaleStock {
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final ProductRepository productRepository;
+    private final FlashSaleJournal journal;
+    private final int stripes;
+    private final Map<String, StripedStock> counters = new ConcurrentHashMap<>();
+
+    // Segments sealed by a flush whose write-back has not succeeded yet
+    private final List<Path> unflushedSegments = new ArrayList<>();
+
+    public FlashSaleStock(ProductRepository productRepository,
+                          FlashSaleJournal journal,
+                          @Value("${product.flash-sale.stripes:16}") int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Flash-sale stripe count must be positive");
+        }
+        this.productRepository = productRepository;
+        this.journal = journal;
+        this.stripes = stripes;
+    }
+
+    public boolean isActive(String productId) {
+        return counters.containsKey(productId);
+    }
+
+    /**
+     * Live stock of a flash-sale product, ahead of what the database shows
+     */
+    public OptionalInt available(String productId) {
+        StripedStock stock = counters.get(productId);
+        return stock != null ? OptionalInt.of(stock.level()) : OptionalInt.empty();
+    }
+
+    /**
+     * Take {@code quantity} units of a flash-sale product
+     * @return false if there is not enough stock
+     * @throws ServiceUnavailableException if the sale is ending and the product is being handed back to the database
+     */
+    public boolean reserve(String productId, int quantity) {
+        StripedStock stock = counters.get(productId);
+        StripedStock.Outcome outcome = stock != null ? stock.take(quantity) : StripedStock.Outcome.SEALED;
+        if (outcome == StripedStock.Outcome.SEALED) {
+            throw new ServiceUnavailableException("Flash sale is ending, please retry", RETRY_AFTER_SECONDS);
+        }
+        if (outcome == StripedStock.Outcome.INSUFFICIENT) {
+            return false;
+        }
+
+        try {
+            journal.append(productId, quantity);
+        } catch (RuntimeException e) {
+            stock.give(quantity);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Return units of a flash-sale product
+     * @return false if the product is not (or no longer) in a flash sale and the caller must restore them itself
+     */
+    public boolean release(String productId, int quantity) {
+        StripedStock stock = counters.get(productId);
+        return stock != null && stock.give(quantity);
+    }
+
+    /**
+     * Return units of a flash-sale product at most once for {@code releaseId}. The units and the release ID
+     * reach the database in one update first, so a retry is recognised there and a crash before the units
+     * reach memory loses nothing: a restart loads them back with the rest. Only the call that applied the
+     * update gives them to the sale, counting them as already flushed.
+     * @return false if the product is not (or no longer) in a flash sale and the caller must restore them itself
+     */
+    public synchronized boolean release(String releaseId, String productId, int quantity) {
+        StripedStock stock = counters.get(productId);
+        if (stock == null || stock.isSealed()) {
+            return false;
+        }
+
+        // Holding the flush lock, so the flushed level cannot be overwritten by a write-back in progress
+        if (productRepository.incrementStock(releaseId, productId, quantity) && stock.give(quantity)) {
+            stock.flushedTo(stock.flushedLevel() + quantity);
+        }
+        return true;
+    }
+
+    /**
+     * Move an approved product's stock into memory
+     * @return the stock the sale starts with
+     */
+    public synchronized int start(String productId) {
+        Product product = productRepository.startFlashSale(productId)
+                .orElseThrow(() -> new BadRequestException("Only approved products outside a flash sale can start one"));
+
+        counters.put(productId, new StripedStock(product.getStock(), stripes));
+        log.info("Flash sale started for product {} with {} units", productId, product.getStock());
+        return product.getStock();
+    }
+
+    /**
+     * Hand a product's stock back to the database
+     * @return the stock left when the sale ended
+     */
+    public synchronized int end(String productId) {
+        StripedStock stock = counters.get(productId);
+        if (stock == null) {
+            throw new BadRequestException("Product is not in a flash sale");
+        }
+
+        // Reservations arriving from here until removal are told to retry rather than hitting stale database stock
+        int level = stock.seal();
+        int delta = level - stock.flushedLevel();
+        if (delta != 0) {
+            productRepository.incrementStock(productId, delta);
+        }
+        productRepository.endFlashSale(productId);
+        counters.remove(productId);
+        log.info("Flash sale ended for product {} with {} units left", productId, level);
+        return level;
+    }
+
+    /**
+     * Write the net change of every flash-sale product back to the database in one bulk update
+     */
+    @Scheduled(fixedDelayString = "${product.flash-sale.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        // Rotate first: everything journaled from now on lands in a segment this flush does not delete
+        Path segment = journal.rotate();
+        if (segment != null) {
+            unflushedSegments.add(segment);
+        }
+
+        Map<String, Integer> deltas = new HashMap<>();
+        Map<String, Integer> levels = new HashMap<>();
+        counters.forEach((productId, stock) -> {
+            if (stock.isSealed()) {
+                return;
+            }
+            int level = stock.level();
+            if (level != stock.flushedLevel()) {
+                deltas.put(productId, level - stock.flushedLevel());
+                levels.put(productId, level);
+            }
+        });
+
+        try {
+            productRepository.incrementStock(deltas);
+        } catch (RuntimeException e) {
+            log.error("Flash-sale stock write-back failed; will retry on the next flush", e);
+            return;
+        }
+
+        levels.forEach((productId, level) -> counters.get(productId).flushedTo(level));
+        journal.discard(unflushedSegments);
+        unflushedSegments.clear();
+    }
+
+    /**
+     * Replay reservations a crash kept from the database, then load every flash-sale product back into memory
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void recover() {
+        List<Path> segments = journal.segments();
+        Map<String, Integer> reserved = journal.replay();
+        if (!reserved.isEmpty()) {
+            Map<String, Integer> deltas = new HashMap<>();
+            reserved.forEach((productId, quantity) -> deltas.put(productId, -quantity));
+            productRepository.incrementStock(deltas);
+            log.warn("Replayed unflushed flash-sale reservations for {} products", reserved.size());
+        }
+        journal.discard(segments);
+
+        for (Product product : productRepository.findFlashSaleStock()) {
+            counters.put(product.getId(), new StripedStock(product.getStock(), stripes));
+        }
+        if (!counters.isEmpty()) {
+            log.info("Resumed flash sales for {} products", counters.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        journal.close();
+    }
+}
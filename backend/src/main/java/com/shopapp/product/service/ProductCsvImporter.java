@@ -0,0 +1,218 @@
+package com.shopapp.product.service;
+
+import com.shopapp.product.domain.Product;
+import com.shopapp.product.domain.ProductStatus;
+import com.shopapp.product.dto.BulkUploadResponse;
+import com.shopapp.product.repository.ProductRepository;
+import com.shopapp.shared.csv.CsvReader;
+import com.shopapp.shared.exception.BadRequestException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Imports vendor products from CSV ({@code name,category,description,price,stock,images}).
+ * Rows are parsed one at a time and inserted in fixed-size batches, so memory use does not
+ * grow with the size of the file.
+ */
+@Slf4j
+@Component
+public class ProductCsvImporter {
+
+    // Failures are always counted, but only this many are itemised in the response
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final ProductRepository productRepository;
+    private final int batchSize;
+
+    public ProductCsvImporter(ProductRepository productRepository,
+                              @Value("${product.import.batch-size:1000}") int batchSize) {
+        this.productRepository = productRepository;
+        this.batchSize = batchSize;
+    }
+
+    public BulkUploadResponse importProducts(String vendorId, Reader csv) {
+        return importProducts(vendorId, csv, null, BulkUploadResponse.builder().build(), 0, (totals, line) -> { });
+    }
+
+    /**
+     * Resumable import. Products are tagged with {@code importJobId} and their source line; records
+     * starting on or before {@code resumeAfterLine} were committed by an earlier run and are skipped.
+     * @param totals counts carried over from the earlier run, updated in place
+     * @param listener notified after every committed batch with the line of the last record read
+     */
+    public BulkUploadResponse importProducts(String vendorId, Reader csv, String importJobId,
+                                             BulkUploadResponse totals, long resumeAfterLine,
+                                             CommitListener listener) {
+        List<Product> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+
+        try (CsvReader reader = new CsvReader(csv)) {
+            if (reader.readRecord() == null) {
+                throw new BadRequestException("CSV must contain a header row and at least one data row");
+            }
+
+            List<String> record;
+            while ((record = readRecord(reader, totals)) != null) {
+                long line = reader.getRecordLine();
+                if (line <= resumeAfterLine || CsvReader.isBlank(record)) {
+                    continue;
+                }
+
+                totals.setTotalRows(totals.getTotalRows() + 1);
+                try {
+                    Product product = toProduct(record, vendorId);
+                    if (importJobId != null) {
+                        product.setImportJobId(importJobId);
+                        product.setImportLine(line);
+                    }
+                    batch.add(product);
+                    batchLines.add(line);
+                } catch (BadRequestException e) {
+                    fail(totals, line, record.get(0).trim(), e.getMessage());
+                    continue;
+                }
+
+                if (batch.size() == batchSize) {
+                    flush(batch, batchLines, totals);
+                    listener.committed(totals, line);
+                }
+            }
+            flush(batch, batchLines, totals);
+            listener.committed(totals, reader.getRecordLine());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read CSV upload", e);
+        }
+
+        if (totals.getTotalRows() == 0 && totals.getErrors().isEmpty()) {
+            throw new BadRequestException("CSV must contain a header row and at least one data row");
+        }
+
+        log.info("Bulk upload completed for vendor {}: {} success, {} failed out of {} total",
+                vendorId, totals.getSuccessCount(), totals.getFailureCount(), totals.getTotalRows());
+        return totals;
+    }
+
+    /**
+     * A record that cannot be parsed (e.g. an unterminated quote) swallows the rest of the file,
+     * so it is reported as a failed row and ends the import
+     */
+    private List<String> readRecord(CsvReader reader, BulkUploadResponse response) throws IOException {
+        try {
+            return reader.readRecord();
+        } catch (BadRequestException e) {
+            response.setTotalRows(response.getTotalRows() + 1);
+            fail(response, reader.getRecordLine(), null, e.getMessage());
+            return null;
+        }
+    }
+
+    private void flush(List<Product> batch, List<Long> batchLines, BulkUploadResponse response) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            Map<Integer, String> failed = productRepository.insertUnordered(batch);
+            response.setSuccessCount(response.getSuccessCount() + batch.size() - failed.size());
+            failed.forEach((index, reason) -> {
+                log.warn("Failed to insert product from line {}: {}", batchLines.get(index), reason);
+                fail(response, batchLines.get(index), batch.get(index).getName(), "Failed to save product");
+            });
+        } catch (DataAccessException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                // Shutting down: the batch is not committed and a resumed job imports it again
+                throw e;
+            }
+            log.error("Failed to insert batch of {} products: {}", batch.size(), e.getMessage());
+            for (int i = 0; i < batch.size(); i++) {
+                fail(response, batchLines.get(i), batch.get(i).getName(), "Failed to save product");
+            }
+        }
+
+        batch.clear();
+        batchLines.clear();
+    }
+
+    private void fail(BulkUploadResponse response, long line, String productName, String message) {
+        response.setFailureCount(response.getFailureCount() + 1);
+        if (response.getErrors().size() < MAX_REPORTED_ERRORS) {
+            response.getErrors().add(BulkUploadResponse.RowError.builder()
+                    .rowNumber(line)
+                    .productName(productName)
+                    .errorMessage(message)
+                    .build());
+        }
+    }
+
+    private Product toProduct(List<String> fields, String vendorId) {
+        if (fields.size() < 5) {
+            throw new BadRequestException("Row must have at least 5 columns: name, category, description, price, stock");
+        }
+
+        String name = fields.get(0).trim();
+        String category = fields.get(1).trim();
+        String description = fields.get(2).trim();
+        String priceStr = fields.get(3).trim();
+        String stockStr = fields.get(4).trim();
+        List<String> images = fields.size() > 5 && !fields.get(5).isBlank()
+                ? List.of(fields.get(5).trim().split(";"))
+                : List.of();
+
+        if (name.isEmpty()) {
+            throw new BadRequestException("Product name is required");
+        }
+        if (category.isEmpty()) {
+            throw new BadRequestException("Category is required");
+        }
+
+        BigDecimal price;
+        try {
+            price = new BigDecimal(priceStr);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid price format: " + priceStr);
+        }
+        if (price.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new BadRequestException("Price must be greater than 0");
+        }
+
+        int stock;
+        try {
+            stock = Integer.parseInt(stockStr);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid stock format: " + stockStr);
+        }
+        if (stock < 0) {
+            throw new BadRequestException("Stock cannot be negative");
+        }
+
+        return Product.builder()
+                .name(name)
+                .category(category)
+                .description(description.isEmpty() ? null : description)
+                .price(price)
+                .stock(stock)
+                .images(images)
+                .vendorId(vendorId)
+                .status(ProductStatus.PENDING)
+                .visible(true)
+                .build();
+    }
+
+    /**
+     * Receives the running totals each time a batch has been written
+     */
+    @FunctionalInterface
+    public interface CommitListener {
+        void committed(BulkUploadResponse totals, long lastLine);
+    }
+}
@@ -0,0 +1,60 @@
+package com.shopapp.product.service;
+
+import com.shopapp.product.dto.ProductSearchRequest;
+import com.shopapp.product.dto.SearchFacets;
+import com.shopapp.shared.cache.BoundedCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * Short-lived cache of faceted search totals and facet counts, keyed by the normalized filters.
+ * Paging through results or reopening a filter sidebar then reuses the counts instead of recomputing them.
+ */
+@Component
+public class ProductFacetCache {
+
+    private final BoundedCache<Key, Entry> cache;
+
+    public ProductFacetCache(@Value("${product.facets.cache.max-size:1000}") int maxSize,
+                             @Value("${product.facets.cache.ttl-seconds:30}") long ttlSeconds) {
+        this.cache = new BoundedCache<>(maxSize, Duration.ofSeconds(ttlSeconds));
+    }
+
+    public Optional<Entry> get(ProductSearchRequest request) {
+        return cache.get(Key.of(request));
+    }
+
+    public void put(ProductSearchRequest request, Entry entry) {
+        cache.put(Key.of(request), entry);
+    }
+
+    public BoundedCache.CacheStats stats() {
+        return cache.stats();
+    }
+
+    public record Entry(long total, SearchFacets facets) {}
+
+    /**
+     * Filters that only differ in token order, case, whitespace or decimal scale share a key
+     */
+    record Key(String keyword, String category, BigDecimal minPrice, BigDecimal maxPrice, boolean inStock) {
+
+        static Key of(ProductSearchRequest request) {
+            return new Key(
+                    String.join(" ", new TreeSet<>(ProductSearchIndex.tokenize(request.getKeyword()))),
+                    request.getCategory() == null ? "" : request.getCategory().trim(),
+                    normalize(request.getMinPrice()),
+                    normalize(request.getMaxPrice()),
+                    Boolean.TRUE.equals(request.getInStock()));
+        }
+
+        private static BigDecimal normalize(BigDecimal value) {
+            return value == null ? null : value.stripTrailingZeros();
+        }
+    }
+}
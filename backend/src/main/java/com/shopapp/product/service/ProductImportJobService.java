@@ -0,0 +1,315 @@
+package com.shopapp.product.service;
+
+import com.mongodb.MongoInterruptedException;
+import com.shopapp.product.domain.ImportJob;
+import com.shopapp.product.domain.ImportJobStatus;
+import com.shopapp.product.dto.BulkUploadResponse;
+import com.shopapp.product.dto.ImportJobResponse;
+import com.shopapp.product.repository.ImportJobRepository;
+import com.shopapp.product.repository.ProductRepository;
+import com.shopapp.shared.exception.BadRequestException;
+import com.shopapp.shared.exception.ForbiddenException;
+import com.shopapp.shared.exception.ResourceNotFoundException;
+import com.shopapp.shared.exception.ServiceUnavailableException;
+import com.shopapp.shared.interfaces.VendorModuleApi;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs CSV product imports in the background. Uploads are spooled to local disk and processed
+ * by a small bounded worker pool, so request threads return as soon as the file is stored.
+ */
+@Slf4j
+@Service
+public class ProductImportJobService {
+
+    private static final long RETRY_AFTER_SECONDS = 30;
+
+    private final ImportJobRepository importJobRepository;
+    private final ProductRepository productRepository;
+    private final ProductCsvImporter productCsvImporter;
+    private final VendorModuleApi vendorModuleApi;
+    private final Path spoolDir;
+    private final ExecutorService executor;
+
+    @Autowired
+    public ProductImportJobService(ImportJobRepository importJobRepository,
+                                   ProductRepository productRepository,
+                                   ProductCsvImporter productCsvImporter,
+                                   VendorModuleApi vendorModuleApi,
+                                   @Value("${product.import.spool-dir:${java.io.tmpdir}/shopapp-imports}") String spoolDir,
+                                   @Value("${product.import.workers:2}") int workers,
+                                   @Value("${product.import.queue-capacity:20}") int queueCapacity) {
+        this(importJobRepository, productRepository, productCsvImporter, vendorModuleApi, Path.of(spoolDir),
+                new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(queueCapacity),
+                        Thread.ofPlatform().name("product-import-", 0).factory()));
+    }
+
+    ProductImportJobService(ImportJobRepository importJobRepository,
+                            ProductRepository productRepository,
+                            ProductCsvImporter productCsvImporter,
+                            VendorModuleApi vendorModuleApi,
+                            Path spoolDir,
+                            ExecutorService executor) {
+        this.importJobRepository = importJobRepository;
+        this.productRepository = productRepository;
+        this.productCsvImporter = productCsvImporter;
+        this.vendorModuleApi = vendorModuleApi;
+        this.spoolDir = spoolDir;
+        this.executor = executor;
+    }
+
+    public ImportJobResponse submit(String userId, MultipartFile file) {
+        String vendorId = vendorModuleApi.getVendorIdByUserId(userId)
+                .orElseThrow(() -> new ForbiddenException("User is not an approved vendor"));
+
+        ImportJob job = importJobRepository.save(ImportJob.builder()
+                .vendorId(vendorId)
+                .fileName(file.getOriginalFilename())
+                .fileSize(file.getSize())
+                .build());
+
+        Path spool = spoolDir.resolve(job.getId() + ".csv");
+        try {
+            Files.createDirectories(spoolDir);
+            file.transferTo(spool);
+        } catch (IOException e) {
+            importJobRepository.delete(job);
+            throw new UncheckedIOException("Failed to store CSV upload", e);
+        }
+
+        job.setSpoolPath(spool.toString());
+        importJobRepository.save(job);
+
+        try {
+            executor.execute(() -> run(job.getId()));
+        } catch (RejectedExecutionException e) {
+            importJobRepository.delete(job);
+            deleteSpool(spool);
+            throw new ServiceUnavailableException("Too many imports in progress, please retry shortly", RETRY_AFTER_SECONDS);
+        }
+
+        log.info("Queued import job {} for vendor {} ({} bytes)", job.getId(), vendorId, job.getFileSize());
+        return toResponse(job);
+    }
+
+    public ImportJobResponse getJob(String userId, String jobId) {
+        String vendorId = vendorModuleApi.getVendorIdByUserId(userId)
+                .orElseThrow(() -> new ForbiddenException("User is not an approved vendor"));
+
+        return importJobRepository.findByIdAndVendorId(jobId, vendorId)
+                .map(this::toResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job", "id", jobId));
+    }
+
+    /**
+     * Picks up jobs left queued or running by a previous shutdown. Jobs whose upload is not on this
+     * node's disk belong to another instance and are left alone.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        List<ImportJob> jobs = importJobRepository.findByStatusIn(List.of(ImportJobStatus.QUEUED, ImportJobStatus.RUNNING));
+        for (ImportJob job : jobs) {
+            if (job.getSpoolPath() == null || !Files.exists(Path.of(job.getSpoolPath()))) {
+                continue;
+            }
+            try {
+                executor.execute(() -> run(job.getId()));
+                log.info("Resuming import job {} after line {}", job.getId(), job.getCommittedLine());
+            } catch (RejectedExecutionException e) {
+                finish(job, ImportJobStatus.FAILED, "Import could not be resumed, please upload the file again");
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Interrupted jobs stay RUNNING and are resumed from their last checkpoint on the next start
+        executor.shutdownNow();
+    }
+
+    void run(String jobId) {
+        ImportJob job = importJobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus().isFinished()) {
+            return;
+        }
+
+        Path spool = Path.of(job.getSpoolPath());
+        if (!Files.exists(spool)) {
+            finish(job, ImportJobStatus.FAILED, "Uploaded file is no longer available");
+            return;
+        }
+
+        // Rows past the checkpoint were written by a batch whose checkpoint never landed; they are re-imported
+        productRepository.deleteByImportJobIdAndImportLineGreaterThan(jobId, job.getCommittedLine());
+
+        job.setStatus(ImportJobStatus.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        job.setBytesProcessed(0);
+        importJobRepository.save(job);
+
+        BulkUploadResponse totals = BulkUploadResponse.builder()
+                .totalRows(job.getTotalRows())
+                .successCount(job.getSuccessCount())
+                .failureCount(job.getFailureCount())
+                .errors(new ArrayList<>(job.getErrors()))
+                .build();
+
+        try (CountingInputStream in = new CountingInputStream(Files.newInputStream(spool));
+             Reader csv = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            productCsvImporter.importProducts(job.getVendorId(), csv, jobId, totals, job.getCommittedLine(),
+                    (progress, line) -> checkpoint(job, progress, line, in.getCount()));
+            finish(job, ImportJobStatus.COMPLETED, null);
+        } catch (BadRequestException e) {
+            finish(job, ImportJobStatus.FAILED, e.getMessage());
+        } catch (Exception e) {
+            if (isInterruption(e)) {
+                // Shutting down: the job stays RUNNING with its spool, so the next start resumes it from the checkpoint
+                Thread.currentThread().interrupt();
+                log.info("Import job {} interrupted after line {}", jobId, job.getCommittedLine());
+                return;
+            }
+            log.error("Import job {} failed", jobId, e);
+            finish(job, ImportJobStatus.FAILED, "Import failed unexpectedly");
+        }
+    }
+
+    /**
+     * Whether {@code e} comes from the worker being interrupted. Reads of the spool fail with
+     * {@link ClosedByInterruptException} and database calls with {@link MongoInterruptedException},
+     * either possibly wrapped, and not every path keeps the thread's interrupt flag set.
+     */
+    private static boolean isInterruption(Throwable e) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException || cause instanceof InterruptedIOException
+                    || cause instanceof ClosedByInterruptException || cause instanceof MongoInterruptedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void checkpoint(ImportJob job, BulkUploadResponse progress, long line, long bytesRead) {
+        job.setTotalRows(progress.getTotalRows());
+        job.setSuccessCount(progress.getSuccessCount());
+        job.setFailureCount(progress.getFailureCount());
+        job.setErrors(new ArrayList<>(progress.getErrors()));
+        job.setCommittedLine(line);
+        job.setBytesProcessed(bytesRead);
+        importJobRepository.save(job);
+    }
+
+    private void finish(ImportJob job, ImportJobStatus status, String failureReason) {
+        job.setStatus(status);
+        job.setFailureReason(failureReason);
+        job.setCompletedAt(LocalDateTime.now());
+        importJobRepository.save(job);
+
+        if (job.getSpoolPath() != null) {
+            deleteSpool(Path.of(job.getSpoolPath()));
+        }
+        log.info("Import job {} {}: {} success, {} failed out of {} total", job.getId(), status,
+                job.getSuccessCount(), job.getFailureCount(), job.getTotalRows());
+    }
+
+    private void deleteSpool(Path spool) {
+        try {
+            Files.deleteIfExists(spool);
+        } catch (IOException e) {
+            log.warn("Failed to delete spooled upload {}: {}", spool, e.getMessage());
+        }
+    }
+
+    private ImportJobResponse toResponse(ImportJob job) {
+        int percentComplete = job.getStatus() == ImportJobStatus.COMPLETED ? 100
+                : job.getFileSize() > 0 ? (int) Math.min(99, job.getBytesProcessed() * 100 / job.getFileSize()) : 0;
+
+        return ImportJobResponse.builder()
+                .id(job.getId())
+                .status(job.getStatus())
+                .fileName(job.getFileName())
+                .rowsProcessed(job.getTotalRows())
+                .successCount(job.getSuccessCount())
+                .failureCount(job.getFailureCount())
+                .percentComplete(percentComplete)
+                .etaSeconds(estimateSecondsRemaining(job))
+                .errors(job.getErrors())
+                .failureReason(job.getFailureReason())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+
+    // Extrapolates from the byte throughput of the current run
+    private Long estimateSecondsRemaining(ImportJob job) {
+        if (job.getStatus() != ImportJobStatus.RUNNING || job.getStartedAt() == null || job.getBytesProcessed() <= 0) {
+            return null;
+        }
+        long elapsedMillis = Duration.between(job.getStartedAt(), LocalDateTime.now()).toMillis();
+        long remainingBytes = Math.max(0, job.getFileSize() - job.getBytesProcessed());
+        return elapsedMillis * remainingBytes / job.getBytesProcessed() / 1000;
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+
+        private volatile long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.shopapp.product.service;
+
+import com.shopapp.product.domain.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over the names of approved, visible products.
+ * Names are split into lower-cased tokens; every query token must prefix-match a token
+ * of the product name. Lookups touch only the matching postings, never the whole catalog.
+ */
+@Slf4j
+@Component
+public class ProductSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Comparator<IndexedProduct> NEWEST_FIRST = Comparator
+            .comparing(IndexedProduct::createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(IndexedProduct::id);
+
+    // token -> product IDs; sorted so a prefix is a contiguous key range
+    private final ConcurrentSkipListMap<String, Set<String>> postings = new ConcurrentSkipListMap<>();
+    private final Map<String, IndexedProduct> products = new ConcurrentHashMap<>();
+
+    /**
+     * Add, refresh or drop a product depending on whether it is currently searchable
+     */
+    public synchronized void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+
+        removeEntry(product.getId());
+        if (!product.isApproved() || !product.isVisible()) {
+            return;
+        }
+
+        Set<String> tokens = tokenize(product.getName());
+        products.put(product.getId(), new IndexedProduct(product.getId(), product.getCreatedAt(), tokens));
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(product.getId());
+        }
+    }
+
+    public synchronized void remove(String productId) {
+        removeEntry(productId);
+    }
+
+    /**
+     * Replace the whole index with the given searchable products
+     */
+    public synchronized void rebuild(Iterable<Product> catalog) {
+        postings.clear();
+        products.clear();
+        catalog.forEach(this::index);
+        log.info("Product search index built with {} products and {} tokens", products.size(), postings.size());
+    }
+
+    /**
+     * Find matching product IDs, newest first
+     */
+    public Page<String> search(String keyword, Pageable pageable) {
+        List<IndexedProduct> hits = matchingIds(keyword).stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .sorted(NEWEST_FIRST)
+                .toList();
+
+        int from = (int) Math.min(pageable.getOffset(), hits.size());
+        int to = Math.min(from + pageable.getPageSize(), hits.size());
+        List<String> page = hits.subList(from, to).stream()
+                .map(IndexedProduct::id)
+                .toList();
+
+        return new PageImpl<>(page, pageable, hits.size());
+    }
+
+    /**
+     * IDs of every indexed product matching all tokens of {@code keyword}, in no particular order
+     */
+    public Set<String> matchingIds(String keyword) {
+        Set<String> queryTokens = tokenize(keyword);
+        if (queryTokens.isEmpty()) {
+            return Set.of();
+        }
+
+        // Start from the rarest token so intersections stay as small as possible
+        List<Set<String>> matches = new ArrayList<>();
+        for (String token : queryTokens) {
+            Set<String> ids = prefixMatches(token);
+            if (ids.isEmpty()) {
+                return Set.of();
+            }
+            matches.add(ids);
+        }
+        matches.sort(Comparator.comparingInt(Set::size));
+
+        Set<String> result = matches.get(0);
+        for (int i = 1; i < matches.size() && !result.isEmpty(); i++) {
+            result.retainAll(matches.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * As {@link #matchingIds(String)}, keeping only the {@code limit} newest matches when there are more,
+     * so a short keyword that prefix-matches most of the catalog does not produce a huge ID list
+     */
+    public Set<String> matchingIds(String keyword, int limit) {
+        Set<String> ids = matchingIds(keyword);
+        if (ids.size() <= limit) {
+            return ids;
+        }
+        return ids.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .sorted(NEWEST_FIRST)
+                .limit(limit)
+                .map(IndexedProduct::id)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    static Set<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Set.of();
+        }
+
+        return Arrays.stream(TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    private Set<String> prefixMatches(String prefix) {
+        Set<String> ids = new HashSet<>();
+        postings.subMap(prefix, true, prefix + Character.MAX_VALUE, true)
+                .values()
+                .forEach(ids::addAll);
+        return ids;
+    }
+
+    private void removeEntry(String productId) {
+        IndexedProduct existing = products.remove(productId);
+        if (existing == null) {
+            return;
+        }
+
+        for (String token : existing.tokens()) {
+            postings.computeIfPresent(token, (t, ids) -> {
+                ids.remove(productId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private record IndexedProduct(String id, LocalDateTime createdAt, Collection<String> tokens) {}
+}
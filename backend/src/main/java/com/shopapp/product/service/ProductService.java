@@ -3,34 +3,65 @@ package com.shopapp.product.service;
 import com.shopapp.product.domain.Product;
 import com.shopapp.product.domain.ProductStatus;
 import com.shopapp.product.dto.*;
+import com.shopapp.product.repository.FacetedProducts;
 import com.shopapp.product.repository.ProductRepository;
+import com.shopapp.shared.dto.PagedResponse;
 import com.shopapp.shared.events.DomainEventPublisher;
 import com.shopapp.shared.events.product.ProductApprovedEvent;
 import com.shopapp.shared.events.product.ProductRejectedEvent;
+import com.shopapp.shared.events.product.ProductsChangedEvent;
 import com.shopapp.shared.exception.BadRequestException;
 import com.shopapp.shared.exception.ForbiddenException;
 import com.shopapp.shared.exception.ResourceNotFoundException;
 import com.shopapp.shared.interfaces.ProductModuleApi;
 import com.shopapp.shared.interfaces.VendorModuleApi;
+import com.shopapp.shared.pagination.Cursor;
+import com.shopapp.shared.pagination.CursorPage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.Reader;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ProductService implements ProductModuleApi {
 
+    private static final String UNKNOWN_VENDOR = "Unknown Vendor";
+    private static final int MAX_SUGGESTIONS = 20;
+
+    // Newest keyword matches a faceted search considers; totals and facets then cover only these
+    static final int MAX_KEYWORD_MATCHES = 1000;
+
     private final ProductRepository productRepository;
     private final VendorModuleApi vendorModuleApi;
     private final DomainEventPublisher eventPublisher;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final ProductCsvImporter productCsvImporter;
+    private final ProductFacetCache productFacetCache;
+    private final CatalogVersion catalogVersion;
+    private final FlashSaleStock flashSaleStock;
 
     // ===== ProductModuleApi Implementation =====
 
@@ -44,6 +75,16 @@ public class ProductService implements ProductModuleApi {
                 .map(this::toProductDto);
     }
 
+    @Override
+    public Map<String, ProductDto> findByIds(Collection<String> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return Map.of();
+        }
+
+        return productRepository.findByIdIn(new ArrayList<>(productIds)).stream()
+                .collect(Collectors.toMap(Product::getId, this::toProductDto));
+    }
+
     @Override
     public boolean isApprovedProduct(String productId) {
         if (productId == null || productId.trim().isEmpty()) {
@@ -66,16 +107,25 @@ public class ProductService implements ProductModuleApi {
             throw new BadRequestException("Quantity must be positive");
         }
 
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
+        if (flashSaleStock.isActive(productId)) {
+            boolean reserved = flashSaleStock.reserve(productId, quantity);
+            if (reserved) {
+                stockChanged(Set.of(productId));
+            }
+            return reserved;
+        }
 
-        if (!product.hasStock(quantity)) {
+        OptionalInt newStock = productRepository.decrementStock(productId, quantity);
+        if (newStock.isEmpty()) {
+            // Only pay for the existence check on the failure path
+            if (!productRepository.existsById(productId)) {
+                throw new ResourceNotFoundException("Product", "id", productId);
+            }
             return false;
         }
 
-        product.decrementStock(quantity);
-        productRepository.save(product);
-        log.info("Decremented stock for product {} by {}", productId, quantity);
+        stockChanged(Set.of(productId));
+        log.info("Decremented stock for product {} by {}, remaining {}", productId, quantity, newStock.getAsInt());
         return true;
     }
 
@@ -90,12 +140,121 @@ public class ProductService implements ProductModuleApi {
             throw new BadRequestException("Quantity must be positive");
         }
 
-        Product product = productRepository.findById(productId)
+        if (flashSaleStock.release(productId, quantity)) {
+            stockChanged(Set.of(productId));
+            log.info("Restored {} flash-sale units of product {}", quantity, productId);
+            return;
+        }
+
+        int newStock = productRepository.incrementStock(productId, quantity)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
 
-        product.incrementStock(quantity);
-        productRepository.save(product);
-        log.info("Restored stock for product {} by {}", productId, quantity);
+        stockChanged(Set.of(productId));
+        log.info("Restored stock for product {} by {}, now {}", productId, quantity, newStock);
+    }
+
+    @Override
+    @Transactional
+    public Map<String, ProductDto> reserveStock(Map<String, Integer> quantities) {
+        if (quantities == null || quantities.isEmpty()) {
+            throw new BadRequestException("At least one product is required");
+        }
+
+        quantities.forEach((productId, quantity) -> {
+            if (productId == null || productId.trim().isEmpty()) {
+                throw new BadRequestException("Product ID is required");
+            }
+            if (quantity == null || quantity <= 0) {
+                throw new BadRequestException("Quantity must be positive");
+            }
+        });
+
+        Map<String, Product> products = productRepository.findByIdIn(new ArrayList<>(quantities.keySet())).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        for (String productId : quantities.keySet()) {
+            Product product = products.get(productId);
+            if (product == null) {
+                throw new BadRequestException("Product not found: " + productId);
+            }
+            if (!product.isApproved()) {
+                throw new BadRequestException("Product is not available: " + product.getName());
+            }
+        }
+
+        // Flash-sale lines come out of memory; the rest go to the database in one bulk write
+        Map<String, Integer> flashSaleLines = new LinkedHashMap<>();
+        Map<String, Integer> databaseLines = new LinkedHashMap<>();
+        quantities.forEach((productId, quantity) ->
+                (flashSaleStock.isActive(productId) ? flashSaleLines : databaseLines).put(productId, quantity));
+
+        Map<String, Integer> taken = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, Integer> line : flashSaleLines.entrySet()) {
+                if (!flashSaleStock.reserve(line.getKey(), line.getValue())) {
+                    throw new BadRequestException("Insufficient stock for product: " + products.get(line.getKey()).getName());
+                }
+                taken.put(line.getKey(), line.getValue());
+            }
+            productRepository.decrementStock(databaseLines).ifPresent(productId -> {
+                throw new BadRequestException("Insufficient stock for product: " + products.get(productId).getName());
+            });
+        } catch (RuntimeException e) {
+            releaseStock(taken);
+            throw e;
+        }
+        productSuggestIndex.recordDemand(quantities);
+        stockChanged(quantities.keySet());
+        log.info("Reserved stock for {} products", quantities.size());
+
+        Map<String, ProductDto> reserved = new LinkedHashMap<>();
+        quantities.keySet().forEach(productId -> reserved.put(productId, toProductDto(products.get(productId))));
+        return reserved;
+    }
+
+    @Override
+    @Transactional
+    public void releaseStock(Map<String, Integer> quantities) {
+        if (quantities == null || quantities.isEmpty()) {
+            return;
+        }
+
+        Map<String, Integer> databaseLines = new LinkedHashMap<>();
+        quantities.forEach((productId, quantity) -> {
+            if (!flashSaleStock.release(productId, quantity)) {
+                databaseLines.put(productId, quantity);
+            }
+        });
+
+        productRepository.incrementStock(databaseLines);
+        stockChanged(quantities.keySet());
+        log.info("Released stock for {} products", quantities.size());
+    }
+
+    @Override
+    public void releaseStock(String releaseId, Map<String, Integer> quantities) {
+        if (quantities == null || quantities.isEmpty()) {
+            return;
+        }
+
+        Map<String, Integer> databaseLines = new LinkedHashMap<>();
+        quantities.forEach((productId, quantity) -> {
+            if (!flashSaleStock.release(releaseId, productId, quantity)) {
+                databaseLines.put(productId, quantity);
+            }
+        });
+
+        productRepository.incrementStock(releaseId, databaseLines);
+        stockChanged(quantities.keySet());
+        log.info("Released stock for {} products under release {}", quantities.size(), releaseId);
+    }
+
+    @Override
+    public void forgetRelease(String releaseId, Collection<String> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return;
+        }
+        productRepository.forgetRelease(releaseId, productIds);
     }
 
     // ===== Vendor Product Operations =====
@@ -143,6 +302,9 @@ public class ProductService implements ProductModuleApi {
                 .build();
 
         Product savedProduct = productRepository.save(product);
+        productSearchIndex.index(savedProduct);
+        productSuggestIndex.index(savedProduct);
+        catalogVersion.productsChanged();
         log.info("Product created with id: {} by vendor: {}", savedProduct.getId(), vendorId);
 
         return toProductResponse(savedProduct);
@@ -152,154 +314,19 @@ public class ProductService implements ProductModuleApi {
      * Bulk upload products from CSV data
      * CSV format: name,category,description,price,stock,images (images are semicolon-separated)
      */
-    @Transactional
-    public BulkUploadResponse bulkUploadProducts(String userId, String csvContent) {
+    public BulkUploadResponse bulkUploadProducts(String userId, Reader csv) {
         if (userId == null || userId.trim().isEmpty()) {
             throw new BadRequestException("User ID is required");
         }
-        
-        if (csvContent == null || csvContent.trim().isEmpty()) {
+
+        if (csv == null) {
             throw new BadRequestException("CSV content is required");
         }
 
-        // Get vendor ID from user ID
         String vendorId = vendorModuleApi.getVendorIdByUserId(userId)
                 .orElseThrow(() -> new ForbiddenException("User is not an approved vendor"));
 
-        BulkUploadResponse response = BulkUploadResponse.builder()
-                .totalRows(0)
-                .successCount(0)
-                .failureCount(0)
-                .build();
-
-        String[] lines = csvContent.split("\n");
-        if (lines.length < 2) {
-            throw new BadRequestException("CSV must contain a header row and at least one data row");
-        }
-
-        // Skip header row, process data rows
-        for (int i = 1; i < lines.length; i++) {
-            String line = lines[i].trim();
-            if (line.isEmpty()) continue;
-            
-            response.setTotalRows(response.getTotalRows() + 1);
-            
-            try {
-                ProductResponse product = parseAndCreateProduct(line, i + 1, vendorId);
-                response.setSuccessCount(response.getSuccessCount() + 1);
-                response.getSuccessfulProducts().add(product);
-            } catch (Exception e) {
-                response.setFailureCount(response.getFailureCount() + 1);
-                String productName = extractProductName(line);
-                response.getErrors().add(BulkUploadResponse.RowError.builder()
-                        .rowNumber(i + 1)
-                        .productName(productName)
-                        .errorMessage(e.getMessage())
-                        .build());
-                log.warn("Failed to import row {}: {}", i + 1, e.getMessage());
-            }
-        }
-
-        log.info("Bulk upload completed for vendor {}: {} success, {} failed out of {} total",
-                vendorId, response.getSuccessCount(), response.getFailureCount(), response.getTotalRows());
-
-        return response;
-    }
-
-    private ProductResponse parseAndCreateProduct(String csvLine, int rowNumber, String vendorId) {
-        // Parse CSV line (handle quoted values with commas)
-        String[] parts = parseCSVLine(csvLine);
-        
-        if (parts.length < 5) {
-            throw new BadRequestException("Row must have at least 5 columns: name, category, description, price, stock");
-        }
-
-        String name = parts[0].trim();
-        String category = parts[1].trim();
-        String description = parts[2].trim();
-        String priceStr = parts[3].trim();
-        String stockStr = parts[4].trim();
-        List<String> images = parts.length > 5 && !parts[5].trim().isEmpty() 
-                ? List.of(parts[5].trim().split(";"))
-                : List.of();
-
-        // Validate
-        if (name.isEmpty()) {
-            throw new BadRequestException("Product name is required");
-        }
-        if (category.isEmpty()) {
-            throw new BadRequestException("Category is required");
-        }
-
-        BigDecimal price;
-        try {
-            price = new BigDecimal(priceStr);
-            if (price.compareTo(BigDecimal.ZERO) <= 0) {
-                throw new BadRequestException("Price must be greater than 0");
-            }
-        } catch (NumberFormatException e) {
-            throw new BadRequestException("Invalid price format: " + priceStr);
-        }
-
-        int stock;
-        try {
-            stock = Integer.parseInt(stockStr);
-            if (stock < 0) {
-                throw new BadRequestException("Stock cannot be negative");
-            }
-        } catch (NumberFormatException e) {
-            throw new BadRequestException("Invalid stock format: " + stockStr);
-        }
-
-        // Create product
-        Product product = Product.builder()
-                .name(name)
-                .category(category)
-                .description(description.isEmpty() ? null : description)
-                .price(price)
-                .stock(stock)
-                .images(images)
-                .vendorId(vendorId)
-                .status(ProductStatus.PENDING)
-                .visible(true)
-                .build();
-
-        Product savedProduct = productRepository.save(product);
-        log.debug("Created product {} from CSV row {}", savedProduct.getId(), rowNumber);
-
-        return toProductResponse(savedProduct);
-    }
-
-    private String[] parseCSVLine(String line) {
-        // Simple CSV parser that handles quoted values
-        java.util.List<String> result = new java.util.ArrayList<>();
-        StringBuilder current = new StringBuilder();
-        boolean inQuotes = false;
-        
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
-            
-            if (c == '"') {
-                inQuotes = !inQuotes;
-            } else if (c == ',' && !inQuotes) {
-                result.add(current.toString());
-                current = new StringBuilder();
-            } else {
-                current.append(c);
-            }
-        }
-        result.add(current.toString());
-        
-        return result.toArray(new String[0]);
-    }
-
-    private String extractProductName(String csvLine) {
-        try {
-            String[] parts = parseCSVLine(csvLine);
-            return parts.length > 0 ? parts[0].trim() : "Unknown";
-        } catch (Exception e) {
-            return "Unknown";
-        }
+        return productCsvImporter.importProducts(vendorId, csv);
     }
 
     @Transactional
@@ -310,6 +337,11 @@ public class ProductService implements ProductModuleApi {
         Product product = productRepository.findByIdAndVendorId(productId, vendorId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
 
+        // Saving the whole document would overwrite stock that is being counted in memory
+        if (product.isFlashSale()) {
+            throw new BadRequestException("Product cannot be edited during a flash sale");
+        }
+
         if (request.getName() != null) {
             product.setName(request.getName());
         }
@@ -330,6 +362,9 @@ public class ProductService implements ProductModuleApi {
         }
 
         Product updatedProduct = productRepository.save(product);
+        productSearchIndex.index(updatedProduct);
+        productSuggestIndex.index(updatedProduct);
+        productsChanged(Set.of(productId));
         log.info("Product {} updated by vendor {}", productId, vendorId);
 
         return toProductResponse(updatedProduct);
@@ -343,7 +378,14 @@ public class ProductService implements ProductModuleApi {
         Product product = productRepository.findByIdAndVendorId(productId, vendorId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
 
+        if (product.isFlashSale()) {
+            throw new BadRequestException("Product cannot be deleted during a flash sale");
+        }
+
         productRepository.delete(product);
+        productSearchIndex.remove(productId);
+        productSuggestIndex.remove(productId);
+        productsChanged(Set.of(productId));
         log.info("Product {} deleted by vendor {}", productId, vendorId);
     }
 
@@ -351,15 +393,50 @@ public class ProductService implements ProductModuleApi {
         String vendorId = vendorModuleApi.getVendorIdByUserId(userId)
                 .orElseThrow(() -> new ForbiddenException("User is not an approved vendor"));
 
-        return productRepository.findByVendorId(vendorId, pageable)
-                .map(this::toProductResponse);
+        return toProductResponses(productRepository.findByVendorId(vendorId, pageable));
+    }
+
+    public CursorPage<ProductResponse> getVendorProducts(String userId, Cursor after, int size) {
+        String vendorId = vendorModuleApi.getVendorIdByUserId(userId)
+                .orElseThrow(() -> new ForbiddenException("User is not an approved vendor"));
+
+        List<Product> products = productRepository.findByVendorIdAfter(vendorId, after, CursorPage.fetchLimit(size));
+        return CursorPage.of(products, size, ProductService::positionOf, this::toProductResponses);
     }
 
     // ===== Public Product Operations =====
 
-    public Page<ProductResponse> getApprovedProducts(Pageable pageable) {
-        return productRepository.findByStatusAndVisibleTrue(ProductStatus.APPROVED, pageable)
-                .map(this::toProductResponse);
+    public Page<ProductSummary> getApprovedProducts(Pageable pageable) {
+        return toProductSummaries(productRepository.findSummariesByStatusAndVisibleTrue(ProductStatus.APPROVED, pageable));
+    }
+
+    /**
+     * Keyset variant of {@link #getApprovedProducts(Pageable)}: a range scan from the cursor with no
+     * skip and no count, so every page costs the same however deep the client scrolls
+     */
+    public CursorPage<ProductSummary> getApprovedProducts(Cursor after, int size) {
+        List<Product> products = productRepository.findApprovedAfter(after, CursorPage.fetchLimit(size));
+        return CursorPage.of(products, size, ProductService::positionOf, this::toProductSummaries);
+    }
+
+    /**
+     * Entity tag for a public product, read with a projection so a matching {@code If-None-Match}
+     * skips loading the product and its vendor. A flash sale moves stock without touching
+     * {@code updatedAt}, so its live level is part of the tag.
+     */
+    public String getApprovedProductTag(String productId) {
+        Product version = productRepository.findVersionById(productId)
+                .filter(product -> product.isApproved() && product.isVisible())
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
+        return catalogVersion.productTag(productId, version.getUpdatedAt(), flashSaleStock.available(productId));
+    }
+
+    /**
+     * Entity tag shared by all public listings; changes whenever any product or vendor name changes, and
+     * once per stock window for stock
+     */
+    public String getCatalogTag() {
+        return catalogVersion.listingTag();
     }
 
     public ProductResponse getApprovedProductById(String productId) {
@@ -373,28 +450,105 @@ public class ProductService implements ProductModuleApi {
         return toProductResponse(product);
     }
 
-    public Page<ProductResponse> searchProducts(ProductSearchRequest request, Pageable pageable) {
+    public Page<ProductSummary> searchProducts(ProductSearchRequest request, Pageable pageable) {
         if (request.getKeyword() != null && !request.getKeyword().isBlank()) {
-            return productRepository.findApprovedByNameContaining(request.getKeyword(), pageable)
-                    .map(this::toProductResponse);
+            return toProductSummaries(findIndexedProducts(productSearchIndex.search(request.getKeyword(), pageable)));
         }
         if (request.getCategory() != null && !request.getCategory().isBlank()) {
-            return productRepository.findApprovedByCategory(request.getCategory(), pageable)
-                    .map(this::toProductResponse);
+            return toProductSummaries(productRepository.findApprovedSummariesByCategory(request.getCategory(), pageable));
         }
         return getApprovedProducts(pageable);
     }
 
+    /**
+     * Search combining keyword, category, price range and in-stock filters, returning the page together
+     * with facet counts. Totals and facets are cached briefly per normalized filter set, so later pages
+     * of the same search only fetch their products. A keyword is narrowed to its
+     * {@value #MAX_KEYWORD_MATCHES} newest matches before filtering.
+     */
+    public FacetedSearchResponse facetedSearch(ProductSearchRequest request, Pageable pageable) {
+        if (request.getMinPrice() != null && request.getMaxPrice() != null
+                && request.getMinPrice().compareTo(request.getMaxPrice()) > 0) {
+            throw new BadRequestException("Minimum price cannot exceed maximum price");
+        }
+
+        Set<String> ids = null;
+        if (request.getKeyword() != null && !request.getKeyword().isBlank()) {
+            ids = productSearchIndex.matchingIds(request.getKeyword(), MAX_KEYWORD_MATCHES);
+            if (ids.isEmpty()) {
+                return FacetedSearchResponse.builder()
+                        .products(PagedResponse.of(List.of(), pageable.getPageNumber(), pageable.getPageSize(), 0))
+                        .facets(SearchFacets.builder().build())
+                        .build();
+            }
+        }
+
+        Optional<ProductFacetCache.Entry> cached = productFacetCache.get(request);
+        FacetedProducts result = productRepository.facetedSearch(request, ids, pageable, cached.isEmpty());
+        ProductFacetCache.Entry facets = cached.orElseGet(() -> {
+            ProductFacetCache.Entry entry = new ProductFacetCache.Entry(result.total(), result.facets());
+            productFacetCache.put(request, entry);
+            return entry;
+        });
+
+        return FacetedSearchResponse.builder()
+                .products(PagedResponse.of(toProductResponses(result.content()),
+                        pageable.getPageNumber(), pageable.getPageSize(), facets.total()))
+                .facets(facets.facets())
+                .build();
+    }
+
+    /**
+     * Load one page of index hits, keeping the index ordering
+     */
+    private Page<Product> findIndexedProducts(Page<String> productIds) {
+        if (productIds.isEmpty()) {
+            return new PageImpl<>(List.of(), productIds.getPageable(), productIds.getTotalElements());
+        }
+
+        Map<String, Product> products = productRepository.findSummariesByIdIn(productIds.getContent()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<Product> ordered = productIds.getContent().stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(ordered, productIds.getPageable(), productIds.getTotalElements());
+    }
+
+    /**
+     * Typeahead suggestions for product names and categories, answered from memory
+     */
+    public List<ProductSuggestion> suggest(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Suggestion query is required");
+        }
+        if (limit <= 0 || limit > MAX_SUGGESTIONS) {
+            throw new BadRequestException("Suggestion limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+
+        return productSuggestIndex.suggest(query, limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildSearchIndex() {
+        try (Stream<Product> catalog = productRepository.streamByStatusAndVisibleTrue(ProductStatus.APPROVED)) {
+            productSearchIndex.rebuild(catalog::iterator);
+        }
+        // A second cursor rather than holding the whole catalog in memory between the two builds
+        try (Stream<Product> catalog = productRepository.streamByStatusAndVisibleTrue(ProductStatus.APPROVED)) {
+            productSuggestIndex.rebuild(catalog::iterator);
+        }
+    }
+
     // ===== Admin Operations =====
 
-    public Page<ProductResponse> getAllProducts(Pageable pageable) {
-        return productRepository.findAll(pageable)
-                .map(this::toProductResponse);
+    public Page<ProductSummary> getAllProducts(Pageable pageable) {
+        return toProductSummaries(productRepository.findAllSummaries(pageable));
     }
 
-    public Page<ProductResponse> getPendingProducts(Pageable pageable) {
-        return productRepository.findByStatus(ProductStatus.PENDING, pageable)
-                .map(this::toProductResponse);
+    public Page<ProductSummary> getPendingProducts(Pageable pageable) {
+        return toProductSummaries(productRepository.findSummariesByStatus(ProductStatus.PENDING, pageable));
     }
 
     public ProductResponse getProductById(String productId) {
@@ -416,6 +570,9 @@ public class ProductService implements ProductModuleApi {
         product.setRejectionReason(null);
 
         Product approvedProduct = productRepository.save(product);
+        productSearchIndex.index(approvedProduct);
+        productSuggestIndex.index(approvedProduct);
+        catalogVersion.productsChanged();
         log.info("Product {} approved", productId);
 
         eventPublisher.publish(new ProductApprovedEvent(productId, product.getVendorId()));
@@ -436,6 +593,9 @@ public class ProductService implements ProductModuleApi {
         product.setRejectionReason(reason);
 
         Product rejectedProduct = productRepository.save(product);
+        productSearchIndex.index(rejectedProduct);
+        productSuggestIndex.index(rejectedProduct);
+        catalogVersion.productsChanged();
         log.info("Product {} rejected with reason: {}", productId, reason);
 
         eventPublisher.publish(new ProductRejectedEvent(productId, product.getVendorId(), reason));
@@ -445,25 +605,61 @@ public class ProductService implements ProductModuleApi {
 
     @Transactional
     public ProductResponse changeProductVisibility(String productId, boolean visible) {
-        Product product = productRepository.findById(productId)
+        Product updatedProduct = productRepository.updateVisibility(productId, visible)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
-
-        product.setVisible(visible);
-        Product updatedProduct = productRepository.save(product);
+        productSearchIndex.index(updatedProduct);
+        productSuggestIndex.index(updatedProduct);
+        productsChanged(Set.of(productId));
         log.info("Product {} visibility changed to {}", productId, visible);
 
         return toProductResponse(updatedProduct);
     }
 
+    /**
+     * Switch a product in or out of flash-sale mode, where its stock is counted in memory
+     */
+    public ProductResponse changeFlashSale(String productId, boolean enabled) {
+        if (!productRepository.existsById(productId)) {
+            throw new ResourceNotFoundException("Product", "id", productId);
+        }
+
+        if (enabled) {
+            flashSaleStock.start(productId);
+        } else {
+            flashSaleStock.end(productId);
+        }
+        productsChanged(Set.of(productId));
+
+        return getProductById(productId);
+    }
+
     // ===== Helper Methods =====
 
+    /**
+     * Bump the listing version and tell other modules holding copies of these products to reload them.
+     * Creation and approval are left out: a product no one could see yet is in no one's copy, and
+     * approval and rejection have their own events.
+     */
+    private void productsChanged(Set<String> productIds) {
+        catalogVersion.productsChanged();
+        stockChanged(productIds);
+    }
+
+    /**
+     * Tell other modules holding copies of these products to reload them, leaving the listing version
+     * alone; see {@link CatalogVersion} for how listings pick up stock
+     */
+    private void stockChanged(Set<String> productIds) {
+        eventPublisher.publish(new ProductsChangedEvent(productIds));
+    }
+
     private ProductDto toProductDto(Product product) {
         return new ProductDto(
                 product.getId(),
                 product.getName(),
                 product.getCategory(),
                 product.getPrice(),
-                product.getStock(),
+                flashSaleStock.available(product.getId()).orElse(product.getStock()),
                 product.getVendorId(),
                 product.getStatus().name(),
                 product.getImages()
@@ -473,14 +669,86 @@ public class ProductService implements ProductModuleApi {
     private ProductResponse toProductResponse(Product product) {
         String vendorName = vendorModuleApi.findById(product.getVendorId())
                 .map(VendorModuleApi.VendorDto::businessName)
-                .orElse("Unknown Vendor");
+                .orElse(UNKNOWN_VENDOR);
+
+        return toProductResponse(product, vendorName);
+    }
+
+    /**
+     * Map a whole page, resolving every distinct vendor with a single batch lookup
+     */
+    private Page<ProductResponse> toProductResponses(Page<Product> products) {
+        Map<String, VendorModuleApi.VendorDto> vendors = findVendors(products.getContent());
+        return products.map(product -> toProductResponse(product, vendors));
+    }
+
+    private List<ProductResponse> toProductResponses(List<Product> products) {
+        Map<String, VendorModuleApi.VendorDto> vendors = findVendors(products);
+        return products.stream()
+                .map(product -> toProductResponse(product, vendors))
+                .toList();
+    }
+
+    private Map<String, VendorModuleApi.VendorDto> findVendors(List<Product> products) {
+        Set<String> vendorIds = products.stream()
+                .map(Product::getVendorId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        return vendorIds.isEmpty()
+                ? Map.of()
+                : vendorModuleApi.findByIds(vendorIds);
+    }
+
+    private static Cursor positionOf(Product product) {
+        return new Cursor(product.getCreatedAt(), product.getId());
+    }
+
+    private ProductResponse toProductResponse(Product product, Map<String, VendorModuleApi.VendorDto> vendors) {
+        return toProductResponse(product, vendorNameOf(product, vendors));
+    }
+
+    private static String vendorNameOf(Product product, Map<String, VendorModuleApi.VendorDto> vendors) {
+        VendorModuleApi.VendorDto vendor = vendors.get(product.getVendorId());
+        return vendor != null ? vendor.businessName() : UNKNOWN_VENDOR;
+    }
+
+    private Page<ProductSummary> toProductSummaries(Page<Product> products) {
+        Map<String, VendorModuleApi.VendorDto> vendors = findVendors(products.getContent());
+        return products.map(product -> toProductSummary(product, vendorNameOf(product, vendors)));
+    }
+
+    private List<ProductSummary> toProductSummaries(List<Product> products) {
+        Map<String, VendorModuleApi.VendorDto> vendors = findVendors(products);
+        return products.stream()
+                .map(product -> toProductSummary(product, vendorNameOf(product, vendors)))
+                .toList();
+    }
+
+    private ProductSummary toProductSummary(Product product, String vendorName) {
+        List<String> images = product.getImages();
+        return ProductSummary.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .category(product.getCategory())
+                .price(product.getPrice())
+                .stock(flashSaleStock.available(product.getId()).orElse(product.getStock()))
+                .thumbnail(images != null && !images.isEmpty() ? images.get(0) : null)
+                .vendorId(product.getVendorId())
+                .vendorName(vendorName)
+                .status(product.getStatus())
+                .visible(product.isVisible())
+                .createdAt(product.getCreatedAt())
+                .build();
+    }
 
+    private ProductResponse toProductResponse(Product product, String vendorName) {
         return ProductResponse.builder()
                 .id(product.getId())
                 .name(product.getName())
                 .category(product.getCategory())
                 .price(product.getPrice())
-                .stock(product.getStock())
+                .stock(flashSaleStock.available(product.getId()).orElse(product.getStock()))
                 .description(product.getDescription())
                 .images(product.getImages())
                 .vendorId(product.getVendorId())
@@ -488,6 +756,7 @@ public class ProductService implements ProductModuleApi {
                 .status(product.getStatus())
                 .rejectionReason(product.getRejectionReason())
                 .visible(product.isVisible())
+                .flashSale(product.isFlashSale())
                 .createdAt(product.getCreatedAt())
                 .updatedAt(product.getUpdatedAt())
                 .build();
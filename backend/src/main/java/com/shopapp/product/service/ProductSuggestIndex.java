@@ -0,0 +1,419 @@
+package com.shopapp.product.service;
+
+import com.shopapp.product.domain.Product;
+import com.shopapp.product.dto.ProductSuggestion;
+import com.shopapp.product.dto.ProductSuggestion.SuggestionType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Typeahead over the names and categories of approved, visible products, held in a compressed prefix trie.
+ * Every node caches the top-K terms of its subtree, so a lookup is a walk down the prefix and a list copy.
+ * Popularity is the number of products carrying a term plus the units reserved for them since startup.
+ * Reservations only add to lock-free counters; a scheduled task folds them into the trie, so checkouts
+ * never wait on the trie's write lock.
+ */
+@Slf4j
+@Component
+public class ProductSuggestIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Names are also reachable from their later words ("mouse" finds "Wireless Mouse"), up to this many
+    private static final int MAX_WORD_OFFSETS = 5;
+
+    private static final Comparator<Term> MOST_POPULAR_FIRST = Comparator
+            .comparingLong(Term::popularity).reversed()
+            .thenComparing(Term::key)
+            .thenComparing(Term::type);
+
+    private final int topK;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Node root = new Node("");
+    private final Map<TermId, Term> terms = new HashMap<>();
+    private final Map<String, List<Term>> termsByProduct = new HashMap<>();
+    private final Map<String, Long> demandByProduct = new HashMap<>();
+    private final ConcurrentMap<String, LongAdder> pendingDemand = new ConcurrentHashMap<>();
+
+    public ProductSuggestIndex(@Value("${product.suggest.top-k:10}") int topK) {
+        if (topK <= 0) {
+            throw new IllegalArgumentException("Suggestion top-k must be positive");
+        }
+        this.topK = topK;
+    }
+
+    /**
+     * Add, refresh or drop a product depending on whether it is currently searchable
+     */
+    public void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeEntry(product.getId());
+            if (product.isApproved() && product.isVisible()) {
+                addEntry(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String productId) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(productId);
+            demandByProduct.remove(productId);
+            pendingDemand.remove(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace the whole trie with the given searchable products, keeping the demand seen so far
+     */
+    public void rebuild(Iterable<Product> catalog) {
+        lock.writeLock().lock();
+        try {
+            drainDemand();
+            root = new Node("");
+            terms.clear();
+            termsByProduct.clear();
+            catalog.forEach(product -> {
+                if (product != null && product.getId() != null && product.isApproved() && product.isVisible()) {
+                    addEntry(product);
+                }
+            });
+            log.info("Product suggest index built with {} products and {} terms", termsByProduct.size(), terms.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Count the units just reserved for the given products; their terms are boosted on the next
+     * {@link #applyDemand()}
+     */
+    public void recordDemand(Map<String, Integer> quantities) {
+        quantities.forEach((productId, quantity) -> {
+            if (quantity != null && quantity > 0) {
+                pendingDemand.computeIfAbsent(productId, id -> new LongAdder()).add(quantity);
+            }
+        });
+    }
+
+    /**
+     * Boost the terms of every product by the demand recorded since the last call
+     */
+    @Scheduled(fixedDelayString = "${product.suggest.demand-interval-ms:5000}")
+    public void applyDemand() {
+        if (pendingDemand.isEmpty()) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            drainDemand();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Counters are reset rather than removed, so a reservation racing the drain is never lost
+    private void drainDemand() {
+        pendingDemand.forEach((productId, counter) -> {
+            long units = counter.sumThenReset();
+            if (units == 0) {
+                return;
+            }
+            demandByProduct.merge(productId, units, Long::sum);
+            for (Term term : termsByProduct.getOrDefault(productId, List.of())) {
+                adjust(term, units);
+            }
+        });
+    }
+
+    /**
+     * The most popular terms starting with {@code prefix}, at most {@code min(limit, top-k)} of them
+     */
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int i = 0;
+            while (i < key.length()) {
+                Node child = node.children.get(key.charAt(i));
+                if (child == null) {
+                    return List.of();
+                }
+                int common = commonPrefixLength(child.edge, key, i);
+                // The prefix may end part-way along an edge; anything else is a mismatch
+                if (common < child.edge.length() && i + common < key.length()) {
+                    return List.of();
+                }
+                i += common;
+                node = child;
+            }
+
+            return node.top.stream()
+                    .limit(limit)
+                    .map(Term::toSuggestion)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return String.join(" ", tokens(text));
+    }
+
+    /**
+     * Trie keys for a term: the whole phrase, and for names each later word onwards
+     */
+    static Set<String> keysOf(String text, SuggestionType type) {
+        List<String> words = tokens(text);
+        Set<String> keys = new LinkedHashSet<>();
+        int offsets = type == SuggestionType.NAME ? Math.min(words.size(), MAX_WORD_OFFSETS) : Math.min(words.size(), 1);
+        for (int i = 0; i < offsets; i++) {
+            keys.add(String.join(" ", words.subList(i, words.size())));
+        }
+        return keys;
+    }
+
+    private static List<String> tokens(String text) {
+        return Arrays.stream(TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    private void addEntry(Product product) {
+        long weight = 1 + demandByProduct.getOrDefault(product.getId(), 0L);
+        List<Term> productTerms = new ArrayList<>(2);
+        addTerm(product.getName(), SuggestionType.NAME, weight, productTerms);
+        addTerm(product.getCategory(), SuggestionType.CATEGORY, weight, productTerms);
+        termsByProduct.put(product.getId(), productTerms);
+    }
+
+    private void addTerm(String text, SuggestionType type, long weight, List<Term> productTerms) {
+        String key = normalize(text);
+        if (key.isEmpty()) {
+            return;
+        }
+
+        Term term = terms.computeIfAbsent(new TermId(key, type), id -> {
+            Term created = new Term(id, text.trim());
+            keysOf(text, type).forEach(path -> insert(path, created));
+            return created;
+        });
+        term.products++;
+        adjust(term, weight);
+        productTerms.add(term);
+    }
+
+    private void removeEntry(String productId) {
+        List<Term> productTerms = termsByProduct.remove(productId);
+        if (productTerms == null) {
+            return;
+        }
+
+        long weight = 1 + demandByProduct.getOrDefault(productId, 0L);
+        for (Term term : productTerms) {
+            term.products--;
+            if (term.products == 0) {
+                terms.remove(term.id);
+                keysOf(term.text, term.id.type()).forEach(path -> delete(path, term));
+            } else {
+                adjust(term, -weight);
+            }
+        }
+    }
+
+    private void adjust(Term term, long delta) {
+        term.popularity += delta;
+        keysOf(term.text, term.id.type()).forEach(this::refreshPath);
+    }
+
+    private void insert(String key, Term term) {
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            char first = key.charAt(i);
+            Node child = node.children.get(first);
+            if (child == null) {
+                child = new Node(key.substring(i));
+                node.children.put(first, child);
+                node = child;
+                break;
+            }
+
+            int common = commonPrefixLength(child.edge, key, i);
+            if (common < child.edge.length()) {
+                // Split the edge so the new key can branch off where it diverges
+                Node middle = new Node(child.edge.substring(0, common));
+                child.edge = child.edge.substring(common);
+                middle.children.put(child.edge.charAt(0), child);
+                middle.top = child.top;
+                node.children.put(first, middle);
+                child = middle;
+            }
+            i += common;
+            node = child;
+        }
+        node.terms.add(term);
+    }
+
+    private void delete(String key, Term term) {
+        List<Node> path = pathTo(key);
+        if (path == null) {
+            return;
+        }
+
+        Node node = path.get(path.size() - 1);
+        node.terms.remove(term);
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node current = path.get(i);
+            Node parent = path.get(i - 1);
+            if (current.terms.isEmpty() && current.children.isEmpty()) {
+                parent.children.remove(current.edge.charAt(0));
+            } else if (current.terms.isEmpty() && current.children.size() == 1) {
+                // Fold a pass-through node back into its only child to keep the trie compressed
+                Node only = current.children.values().iterator().next();
+                only.edge = current.edge + only.edge;
+                parent.children.put(only.edge.charAt(0), only);
+                path.set(i, only);
+            }
+        }
+        refresh(path);
+    }
+
+    private void refreshPath(String key) {
+        List<Node> path = pathTo(key);
+        if (path != null) {
+            refresh(path);
+        }
+    }
+
+    private void refresh(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            Set<Term> candidates = new LinkedHashSet<>(node.terms);
+            node.children.values().forEach(child -> candidates.addAll(child.top));
+            node.top = candidates.stream()
+                    .sorted(MOST_POPULAR_FIRST)
+                    .limit(topK)
+                    .toList();
+        }
+    }
+
+    private List<Node> pathTo(String key) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null || !key.startsWith(child.edge, i)) {
+                return null;
+            }
+            i += child.edge.length();
+            node = child;
+            path.add(node);
+        }
+        return path;
+    }
+
+    private static int commonPrefixLength(String edge, String key, int offset) {
+        int max = Math.min(edge.length(), key.length() - offset);
+        int common = 0;
+        while (common < max && edge.charAt(common) == key.charAt(offset + common)) {
+            common++;
+        }
+        return common;
+    }
+
+    private static final class Node {
+        private String edge;
+        private final Map<Character, Node> children = new HashMap<>();
+        private final Set<Term> terms = new LinkedHashSet<>();
+        private List<Term> top = List.of();
+
+        private Node(String edge) {
+            this.edge = edge;
+        }
+    }
+
+    private record TermId(String key, SuggestionType type) {
+    }
+
+    private static final class Term {
+        private final TermId id;
+        private final String text;
+        private int products;
+        private long popularity;
+
+        private Term(TermId id, String text) {
+            this.id = id;
+            this.text = text;
+        }
+
+        private String key() {
+            return id.key();
+        }
+
+        private SuggestionType type() {
+            return id.type();
+        }
+
+        private long popularity() {
+            return popularity;
+        }
+
+        private ProductSuggestion toSuggestion() {
+            return ProductSuggestion.builder()
+                    .text(text)
+                    .type(id.type())
+                    .popularity(popularity)
+                    .build();
+        }
+    }
+}
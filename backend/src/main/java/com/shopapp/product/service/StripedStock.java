@@ -0,0 +1,158 @@
+package com.shopapp.product.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Stock of one flash-sale product spread over independent CAS slots, so concurrent buyers rarely
+ * touch the same cache line. A reservation is taken whole from one slot where possible; only when
+ * stock is fragmented across slots does it fall back to a locked gather. Sealing drains every slot
+ * in one locked step and turns later takes and gives away, so the drained level is exact.
+ */
+final class StripedStock {
+
+    enum Outcome { TAKEN, INSUFFICIENT, SEALED }
+
+    private static final int SEALED = Integer.MIN_VALUE;
+
+    // Ints per 64-byte cache line, so neighbouring slots do not false-share
+    private static final int PADDING = 16;
+
+    private final AtomicIntegerArray cells;
+    private final int stripes;
+    private volatile boolean sealed;
+
+    // Level last written to the database; only touched by the flushing thread
+    private int flushedLevel;
+
+    StripedStock(int stock, int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        this.stripes = stripes;
+        this.cells = new AtomicIntegerArray(stripes * PADDING);
+        int level = Math.max(stock, 0);
+        for (int slot = 0; slot < stripes; slot++) {
+            cells.set(cell(slot), level / stripes + (slot < level % stripes ? 1 : 0));
+        }
+        this.flushedLevel = level;
+    }
+
+    Outcome take(int quantity) {
+        int home = ThreadLocalRandom.current().nextInt(stripes);
+        for (int k = 0; k < stripes; k++) {
+            int cell = cell((home + k) % stripes);
+            while (true) {
+                int available = cells.get(cell);
+                if (available == SEALED) {
+                    return Outcome.SEALED;
+                }
+                if (available < quantity) {
+                    break;
+                }
+                if (cells.compareAndSet(cell, available, available - quantity)) {
+                    return Outcome.TAKEN;
+                }
+            }
+        }
+        return gather(quantity);
+    }
+
+    /**
+     * Return units to a slot
+     * @return false if the stock is sealed and the caller must return them elsewhere
+     */
+    boolean give(int quantity) {
+        int cell = cell(ThreadLocalRandom.current().nextInt(stripes));
+        while (true) {
+            int available = cells.get(cell);
+            if (available == SEALED) {
+                return false;
+            }
+            if (cells.compareAndSet(cell, available, available + quantity)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Drain every slot and refuse all later takes and gives
+     * @return the exact level at the moment of sealing
+     */
+    synchronized int seal() {
+        sealed = true;
+        int level = 0;
+        for (int slot = 0; slot < stripes; slot++) {
+            int available = cells.getAndSet(cell(slot), SEALED);
+            if (available != SEALED) {
+                level += available;
+            }
+        }
+        return level;
+    }
+
+    /**
+     * Current level; a snapshot, possibly missing a reservation that is being gathered
+     */
+    int level() {
+        int level = 0;
+        for (int slot = 0; slot < stripes; slot++) {
+            int available = cells.get(cell(slot));
+            if (available != SEALED) {
+                level += available;
+            }
+        }
+        return level;
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    int flushedLevel() {
+        return flushedLevel;
+    }
+
+    void flushedTo(int level) {
+        this.flushedLevel = level;
+    }
+
+    // Sealing holds the same lock, so no slot can be sealed while units are borrowed here
+    private synchronized Outcome gather(int quantity) {
+        if (sealed) {
+            return Outcome.SEALED;
+        }
+
+        int[] borrowed = new int[stripes];
+        int gathered = 0;
+        for (int slot = 0; slot < stripes && gathered < quantity; slot++) {
+            int cell = cell(slot);
+            while (true) {
+                int available = cells.get(cell);
+                int part = Math.min(available, quantity - gathered);
+                if (part <= 0) {
+                    break;
+                }
+                if (cells.compareAndSet(cell, available, available - part)) {
+                    borrowed[slot] = part;
+                    gathered += part;
+                    break;
+                }
+            }
+        }
+
+        if (gathered == quantity) {
+            return Outcome.TAKEN;
+        }
+        for (int slot = 0; slot < stripes; slot++) {
+            if (borrowed[slot] > 0) {
+                cells.getAndAdd(cell(slot), borrowed[slot]);
+            }
+        }
+        return Outcome.INSUFFICIENT;
+    }
+
+    private static int cell(int slot) {
+        return slot * PADDING;
+    }
+}
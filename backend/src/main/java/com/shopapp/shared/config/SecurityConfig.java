@@ -1,8 +1,10 @@
 package com.shopapp.shared.config;
 
+import com.shopapp.shared.idempotency.IdempotencyStore;
 import com.shopapp.shared.security.CustomAccessDeniedHandler;
 import com.shopapp.shared.security.JwtAuthenticationEntryPoint;
 import com.shopapp.shared.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -48,8 +50,9 @@ public class SecurityConfig {
             "https://*.ngrok-free.dev"
         ));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With", "Accept"));
-        configuration.setExposedHeaders(List.of("Authorization"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With", "Accept",
+                IdempotencyStore.HEADER));
+        configuration.setExposedHeaders(List.of("Authorization", IdempotencyStore.REPLAYED_HEADER));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
         
@@ -71,6 +74,9 @@ public class SecurityConfig {
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             )
             .authorizeHttpRequests(auth -> auth
+                // Streamed responses finish on an async dispatch of a request that was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // SPA client-side routes (React Router) - static files handled by WebSecurityCustomizer
                 .requestMatchers("/login", "/register", "/products", "/products/**", "/cart", 
                                  "/checkout", "/orders", "/orders/**", "/profile", "/vendor/**", 
@@ -95,6 +101,9 @@ public class SecurityConfig {
                 // Order endpoints - authenticated users
                 .requestMatchers("/api/orders/**").hasAnyRole("USER", "VENDOR", "ADMIN")
                 
+                // Cart endpoints - authenticated users
+                .requestMatchers("/api/cart/**").hasAnyRole("USER", "VENDOR", "ADMIN")
+                
                 // Payment endpoints - authenticated users
                 .requestMatchers("/api/payments/**").hasAnyRole("USER", "VENDOR", "ADMIN")
                 
@@ -0,0 +1,143 @@
+package com.shopapp.shared.csv;
+
+import com.shopapp.shared.exception.BadRequestException;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 reader: one record is held in memory at a time.
+ * Quoted fields may contain separators, line breaks and doubled quotes ({@code ""}).
+ * LF, CRLF and lone CR all end a record, and a leading UTF-8 byte order mark is ignored.
+ */
+public class CsvReader implements Closeable {
+
+    public static final int DEFAULT_MAX_FIELD_LENGTH = 64 * 1024;
+
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final char BOM = '\uFEFF';
+    private static final int EOF = -1;
+
+    private final Reader reader;
+    private final int maxFieldLength;
+
+    private long line = 1;
+    private long recordLine;
+    private int pending = EOF;
+    private boolean started;
+
+    public CsvReader(Reader reader) {
+        this(reader, DEFAULT_MAX_FIELD_LENGTH);
+    }
+
+    public CsvReader(Reader reader, int maxFieldLength) {
+        this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader);
+        this.maxFieldLength = maxFieldLength;
+    }
+
+    /**
+     * @return the fields of the next record, or null at end of input
+     * @throws BadRequestException if a quoted field is never closed or a field exceeds the length limit
+     */
+    public List<String> readRecord() throws IOException {
+        int c = next();
+        if (!started) {
+            started = true;
+            if (c == BOM) {
+                c = next();
+            }
+        }
+        if (c == EOF) {
+            return null;
+        }
+
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            if (quoted) {
+                if (c == EOF) {
+                    throw new BadRequestException("Unterminated quoted field starting on line " + recordLine);
+                }
+                if (c == QUOTE) {
+                    int following = next();
+                    if (following == QUOTE) {
+                        append(field, QUOTE);
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    append(field, (char) c);
+                }
+            } else if (c == SEPARATOR) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == EOF) {
+                if (c == '\r') {
+                    int following = next();
+                    if (following != '\n') {
+                        pending = following;
+                    }
+                }
+                if (c != EOF) {
+                    line++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else if (c == QUOTE && field.isEmpty()) {
+                quoted = true;
+            } else {
+                // Stray quotes inside an unquoted field are kept as-is rather than rejected
+                append(field, (char) c);
+            }
+            c = next();
+        }
+    }
+
+    /**
+     * @return the line on which the most recently read record started (1-based)
+     */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    /**
+     * @return true if the record has no content, i.e. it came from a blank line
+     */
+    public static boolean isBlank(List<String> record) {
+        return record.size() == 1 && record.get(0).isBlank();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int next() throws IOException {
+        if (pending != EOF) {
+            int c = pending;
+            pending = EOF;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void append(StringBuilder field, char c) {
+        if (field.length() >= maxFieldLength) {
+            throw new BadRequestException("Field on line " + recordLine + " exceeds " + maxFieldLength + " characters");
+        }
+        field.append(c);
+    }
+}
@@ -1,5 +1,7 @@
 package com.shopapp.shared.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.shopapp.shared.pagination.CursorPage;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,15 +13,17 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PagedResponse<T> {
     
     private List<T> content;
-    private int page;
+    private Integer page;
     private int size;
-    private long totalElements;
-    private int totalPages;
+    private Long totalElements;
+    private Integer totalPages;
     private boolean first;
     private boolean last;
+    private String nextCursor;
     
     public static <T> PagedResponse<T> of(List<T> content, int page, int size, long totalElements) {
         int totalPages = (int) Math.ceil((double) totalElements / size);
@@ -33,4 +37,15 @@ public class PagedResponse<T> {
                 .last(page >= totalPages - 1)
                 .build();
     }
+
+    // Cursor pages carry no page number or totals; counting would defeat the point of keyset paging
+    public static <T> PagedResponse<T> of(CursorPage<T> cursorPage, int size, boolean first) {
+        return PagedResponse.<T>builder()
+                .content(cursorPage.content())
+                .size(size)
+                .first(first)
+                .last(cursorPage.nextCursor() == null)
+                .nextCursor(cursorPage.nextCursor())
+                .build();
+    }
 }
@@ -0,0 +1,25 @@
+package com.shopapp.shared.events.order;
+
+import com.shopapp.shared.events.DomainEvent;
+import lombok.Getter;
+
+/**
+ * Published after any change to an order's status, including the vendor's delivery updates
+ */
+@Getter
+public class OrderStatusChangedEvent extends DomainEvent {
+
+    private final String orderId;
+    private final String status;
+
+    public OrderStatusChangedEvent(String orderId, String status) {
+        super();
+        this.orderId = orderId;
+        this.status = status;
+    }
+
+    @Override
+    public String getEventType() {
+        return "ORDER_STATUS_CHANGED";
+    }
+}
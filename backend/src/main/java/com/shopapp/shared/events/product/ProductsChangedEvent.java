@@ -0,0 +1,26 @@
+package com.shopapp.shared.events.product;
+
+import com.shopapp.shared.events.DomainEvent;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * Price, stock, availability or details of some products changed, or they were deleted.
+ * Carries only IDs: listeners holding copies of product data reload what they need.
+ */
+@Getter
+public class ProductsChangedEvent extends DomainEvent {
+
+    private final Set<String> productIds;
+
+    public ProductsChangedEvent(Set<String> productIds) {
+        super();
+        this.productIds = Set.copyOf(productIds);
+    }
+
+    @Override
+    public String getEventType() {
+        return "PRODUCTS_CHANGED";
+    }
+}
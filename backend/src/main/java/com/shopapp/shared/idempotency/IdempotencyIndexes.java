@@ -0,0 +1,24 @@
+package com.shopapp.shared.idempotency;
+
+import com.shopapp.shared.index.ModuleIndexes;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class IdempotencyIndexes implements ModuleIndexes {
+
+    public static final String EXPIRES = "expires_ttl";
+
+    @Override
+    public List<DeclaredIndex> indexes() {
+        return List.of(
+                // Each record carries its own deadline, so the TTL index expires at exactly expiresAt
+                new DeclaredIndex(IdempotencyRecord.class, new Index()
+                        .on("expiresAt", Sort.Direction.ASC)
+                        .expire(0)
+                        .named(EXPIRES)));
+    }
+}
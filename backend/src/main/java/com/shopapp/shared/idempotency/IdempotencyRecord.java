@@ -0,0 +1,40 @@
+package com.shopapp.shared.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * The first outcome of a request sent with an {@code Idempotency-Key}. The ID is unique per scope, user
+ * and key, so the insert that claims a key is also the check that nobody else has.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "idempotency_keys")
+public class IdempotencyRecord {
+
+    // scope:userId:key
+    @Id
+    private String id;
+
+    // Fingerprint of the request body, so a key reused for a different request is refused
+    private String requestHash;
+
+    private boolean completed;
+    private int responseStatus;
+
+    // JSON body of the first response, replayed verbatim
+    private String responseBody;
+
+    private LocalDateTime createdAt;
+
+    // Removed by the TTL index once passed; short while the request runs, so a crashed claim frees the key
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,241 @@
+package com.shopapp.shared.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopapp.shared.exception.BadRequestException;
+import com.shopapp.shared.exception.ConflictException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs a state-changing request at most once per {@code Idempotency-Key}. The first request claims the key
+ * with a single insert and stores its response; later duplicates get that response replayed without
+ * running anything. Duplicates arriving while the first is still running on this instance wait for its
+ * result instead of being turned away. Only final successes are kept: a failure or a {@code 202} frees
+ * the key, so the client's retry is processed normally.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    // Longest a claim outlives a crash of the instance running it
+    private static final Duration CLAIM_TTL = Duration.ofMinutes(5);
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public IdempotencyStore(MongoTemplate mongoTemplate,
+                            ObjectMapper objectMapper,
+                            @Value("${idempotency.ttl-hours:24}") long ttlHours,
+                            @Value("${idempotency.wait-seconds:10}") long waitSeconds) {
+        this(mongoTemplate, objectMapper, Duration.ofHours(ttlHours), Duration.ofSeconds(waitSeconds));
+    }
+
+    IdempotencyStore(MongoTemplate mongoTemplate, ObjectMapper objectMapper, Duration ttl, Duration waitTimeout) {
+        if (ttl.isNegative() || ttl.isZero() || waitTimeout.isNegative()) {
+            throw new IllegalArgumentException("Idempotency TTL must be positive and wait timeout non-negative");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+    }
+
+    /**
+     * Run {@code action} unless a request with the same key already did, in which case its response is replayed
+     * @param scope endpoint the key belongs to, so one key may be used on different endpoints
+     * @param key client-chosen key; without one the action simply runs
+     * @param request request body, fingerprinted to detect a key reused for a different request
+     * @throws ConflictException if the key belongs to a different request, or its first request is still running elsewhere
+     */
+    public ResponseEntity<?> execute(String scope, String userId, String key, Object request,
+                                     Supplier<ResponseEntity<?>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String id = scope + ":" + userId + ":" + key;
+        String requestHash = fingerprint(request);
+
+        InFlight mine = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            return awaitDuplicate(running, requestHash);
+        }
+
+        try {
+            ResponseEntity<?> response = runOnce(id, requestHash, action);
+            mine.result().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            mine.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    private ResponseEntity<?> runOnce(String id, String requestHash, Supplier<ResponseEntity<?>> action) {
+        IdempotencyRecord existing = claim(id, requestHash);
+        if (existing != null) {
+            checkSameRequest(existing.getRequestHash(), requestHash);
+            if (!existing.isCompleted()) {
+                throw new ConflictException("A request with this " + HEADER + " is still being processed");
+            }
+            return replay(existing);
+        }
+
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            release(id);
+            throw e;
+        }
+
+        if (isFinal(response)) {
+            complete(id, response);
+        } else {
+            release(id);
+        }
+        return response;
+    }
+
+    /**
+     * Insert the claim for a key
+     * @return null if this call claimed it, otherwise the record already holding it
+     */
+    private IdempotencyRecord claim(String id, String requestHash) {
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyRecord claim = IdempotencyRecord.builder()
+                .id(id)
+                .requestHash(requestHash)
+                .createdAt(now)
+                .expiresAt(now.plus(CLAIM_TTL))
+                .build();
+        try {
+            mongoTemplate.insert(claim);
+            return null;
+        } catch (DuplicateKeyException e) {
+            IdempotencyRecord existing = mongoTemplate.findById(id, IdempotencyRecord.class);
+            if (existing == null) {
+                // Expired between the insert and the read; the client's retry will claim it
+                throw new ConflictException("A request with this " + HEADER + " is still being processed");
+            }
+            return existing;
+        }
+    }
+
+    private void complete(String id, ResponseEntity<?> response) {
+        try {
+            Update update = new Update()
+                    .set("completed", true)
+                    .set("responseStatus", response.getStatusCode().value())
+                    .set("responseBody", objectMapper.writeValueAsString(response.getBody()))
+                    .set("expiresAt", LocalDateTime.now().plus(ttl));
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)), update, IdempotencyRecord.class);
+        } catch (JsonProcessingException | RuntimeException e) {
+            // The claim stays until it expires, so duplicates are refused rather than run twice
+            log.error("Could not store the response for idempotency key {}", id, e);
+        }
+    }
+
+    private void release(String id) {
+        try {
+            mongoTemplate.remove(Query.query(Criteria.where("_id").is(id)), IdempotencyRecord.class);
+        } catch (RuntimeException e) {
+            log.warn("Could not release idempotency key {}; it frees itself when the claim expires", id, e);
+        }
+    }
+
+    private ResponseEntity<?> awaitDuplicate(InFlight running, String requestHash) {
+        checkSameRequest(running.requestHash(), requestHash);
+        try {
+            return replayed(running.result().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ConflictException("A request with this " + HEADER + " is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("A request with this " + HEADER + " is still being processed");
+        }
+    }
+
+    private ResponseEntity<?> replay(IdempotencyRecord record) {
+        try {
+            return ResponseEntity.status(record.getResponseStatus())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(objectMapper.readTree(record.getResponseBody()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response for idempotency key " + record.getId() + " is unreadable", e);
+        }
+    }
+
+    private static ResponseEntity<?> replayed(ResponseEntity<?> response) {
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(response.getBody());
+    }
+
+    private static void checkSameRequest(String expected, String actual) {
+        if (!expected.equals(actual)) {
+            throw new ConflictException(HEADER + " was already used for a different request");
+        }
+    }
+
+    // 202 only means the request was queued, not processed
+    private static boolean isFinal(ResponseEntity<?> response) {
+        return response.getStatusCode().is2xxSuccessful() && response.getStatusCode().value() != HttpStatus.ACCEPTED.value();
+    }
+
+    String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint request", e);
+        }
+    }
+
+    private record InFlight(String requestHash, CompletableFuture<ResponseEntity<?>> result) {
+    }
+}
@@ -0,0 +1,274 @@
+package com.shopapp.shared.index;
+
+import com.mongodb.client.result.UpdateResult;
+import com.shopapp.shared.index.ModuleIndexes.DecimalField;
+import com.shopapp.shared.index.ModuleIndexes.DeclaredIndex;
+import com.shopapp.shared.index.ModuleIndexes.QueryProbe;
+import com.shopapp.shared.pagination.SortPolicy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * Reconciles the indexes declared by every {@link ModuleIndexes} with the database once the application is up.
+ * Missing indexes are built, indexes nobody declares are reported as drift, and each registered query is
+ * explained so a query that silently falls back to a collection scan shows up in the startup log.
+ * Declared decimal fields still stored as strings are converted first, so sorts on them are numeric.
+ * All of this runs on a separate thread so a long index build never delays serving requests.
+ */
+@Component
+@Slf4j
+public class IndexManager {
+
+    private static final String ID_INDEX = "_id_";
+    private static final String COLLECTION_SCAN = "COLLSCAN";
+
+    private final MongoTemplate mongoTemplate;
+    private final List<ModuleIndexes> modules;
+    private final boolean buildOnStartup;
+    private final boolean explainOnStartup;
+    private final Executor executor;
+
+    @Autowired
+    public IndexManager(MongoTemplate mongoTemplate,
+                        List<ModuleIndexes> modules,
+                        @Value("${indexes.build-on-startup:true}") boolean buildOnStartup,
+                        @Value("${indexes.explain-on-startup:true}") boolean explainOnStartup) {
+        this(mongoTemplate, modules, buildOnStartup, explainOnStartup,
+                task -> Thread.ofPlatform().name("index-manager").daemon().start(task));
+    }
+
+    IndexManager(MongoTemplate mongoTemplate, List<ModuleIndexes> modules,
+                 boolean buildOnStartup, boolean explainOnStartup, Executor executor) {
+        this.mongoTemplate = mongoTemplate;
+        this.modules = modules;
+        this.buildOnStartup = buildOnStartup;
+        this.explainOnStartup = explainOnStartup;
+        this.executor = executor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileInBackground() {
+        executor.execute(() -> {
+            try {
+                reconcile();
+            } catch (RuntimeException e) {
+                log.error("Index reconciliation failed", e);
+            }
+        });
+    }
+
+    Report reconcile() {
+        Map<Class<?>, List<Index>> declared = new LinkedHashMap<>();
+        List<QueryProbe> probes = new ArrayList<>();
+        List<String> unbackedSorts = new ArrayList<>();
+        for (ModuleIndexes module : modules) {
+            // A data migration rather than an index build, so it runs whatever the index settings are
+            module.decimalFields().forEach(this::convertLegacyDecimals);
+            for (DeclaredIndex index : module.indexes()) {
+                declared.computeIfAbsent(index.entity(), entity -> new ArrayList<>()).add(index.index());
+            }
+            probes.addAll(module.probes());
+            unbackedSorts.addAll(findUnbackedSorts(module));
+        }
+
+        List<String> built = new ArrayList<>();
+        List<String> undeclared = new ArrayList<>();
+        declared.forEach((entity, indexes) -> reconcile(entity, indexes, built, undeclared));
+
+        List<String> collectionScans = new ArrayList<>();
+        if (explainOnStartup) {
+            for (QueryProbe probe : probes) {
+                if (isCollectionScan(probe)) {
+                    collectionScans.add(probe.name());
+                }
+            }
+        }
+
+        log.info("Index reconciliation finished: {} built, {} undeclared, {} queries scanning collections",
+                built.size(), undeclared.size(), collectionScans.size());
+        return new Report(built, undeclared, collectionScans, unbackedSorts);
+    }
+
+    private void convertLegacyDecimals(DecimalField decimal) {
+        String collection = mongoTemplate.getCollectionName(decimal.entity());
+        Query legacy = Query.query(Criteria.where(decimal.field()).type(JsonSchemaObject.Type.stringType()));
+        // A value that does not parse keeps its string, so one bad document cannot stop the others converting
+        AggregationUpdate toDecimal = AggregationUpdate.update()
+                .set(decimal.field()).toValue(ConvertOperators.Convert.convertValueOf(decimal.field())
+                        .to("decimal").onErrorReturnValueOf(decimal.field()));
+        try {
+            UpdateResult result = mongoTemplate.updateMulti(legacy, toDecimal, collection);
+            if (result != null && result.getModifiedCount() > 0) {
+                log.info("Converted {} string values of {}.{} to decimals",
+                        result.getModifiedCount(), collection, decimal.field());
+            }
+            long remaining = mongoTemplate.count(legacy, collection);
+            if (remaining > 0) {
+                log.warn("{} values of {}.{} are still strings; sorting on the field puts them after every decimal",
+                        remaining, collection, decimal.field());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not convert {}.{} to decimals; sorting on the field is wrong until it is: {}",
+                    collection, decimal.field(), e.getMessage());
+        }
+    }
+
+    private List<String> findUnbackedSorts(ModuleIndexes module) {
+        Set<String> names = module.indexes().stream()
+                .map(index -> nameOf(index.index()))
+                .collect(Collectors.toSet());
+        List<String> unbacked = new ArrayList<>();
+        for (SortPolicy policy : module.sortPolicies()) {
+            for (SortPolicy.SortKey key : policy.getKeys()) {
+                if (key.isIndexed() && !names.contains(key.index())) {
+                    log.warn("Sort key {} relies on index {}, which {} does not declare",
+                            key.field(), key.index(), module.getClass().getSimpleName());
+                    unbacked.add(key.field());
+                }
+            }
+        }
+        return unbacked;
+    }
+
+    private void reconcile(Class<?> entity, List<Index> indexes, List<String> built, List<String> undeclared) {
+        String collection = mongoTemplate.getCollectionName(entity);
+        IndexOperations indexOps = mongoTemplate.indexOps(entity);
+        Map<String, String> existing = new LinkedHashMap<>();
+        for (IndexInfo info : indexOps.getIndexInfo()) {
+            existing.put(info.getName(), keysOf(info));
+        }
+
+        Set<String> expected = new HashSet<>();
+        for (Index index : indexes) {
+            String keys = keysOf(index.getIndexKeys());
+            String name = nameOf(index);
+            expected.add(keys);
+            if (existing.containsValue(keys)) {
+                continue;
+            }
+            if (existing.containsKey(name)) {
+                log.warn("Index {} on {} has keys {} but is declared as {}; drop it to let it be rebuilt",
+                        name, collection, existing.get(name), keys);
+                continue;
+            }
+            if (!buildOnStartup) {
+                log.warn("Declared index {} on {} is missing", name, collection);
+                continue;
+            }
+            try {
+                log.info("Building missing index {} on {}", name, collection);
+                indexOps.ensureIndex(index);
+                built.add(collection + "." + name);
+            } catch (RuntimeException e) {
+                log.warn("Could not build index {} on {}: {}", name, collection, e.getMessage());
+            }
+        }
+
+        new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                .resolveIndexFor(entity)
+                .forEach(annotated -> expected.add(keysOf(annotated.getIndexKeys())));
+
+        existing.forEach((name, keys) -> {
+            if (!ID_INDEX.equals(name) && !expected.contains(keys)) {
+                log.warn("Index {} {} on {} is not declared by any module", name, keys, collection);
+                undeclared.add(collection + "." + name);
+            }
+        });
+    }
+
+    private boolean isCollectionScan(QueryProbe probe) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getPersistentEntity(probe.entity());
+        QueryMapper mapper = new QueryMapper(mongoTemplate.getConverter());
+        Document find = new Document("find", mongoTemplate.getCollectionName(probe.entity()))
+                .append("filter", mapper.getMappedObject(probe.query().getQueryObject(), entity))
+                .append("sort", mapper.getMappedSort(probe.query().getSortObject(), entity));
+        try {
+            Document plan = mongoTemplate.executeCommand(
+                    new Document("explain", find).append("verbosity", "queryPlanner"));
+            if (containsStage(plan.get("queryPlanner", Document.class), COLLECTION_SCAN)) {
+                log.warn("Query {} falls back to a collection scan on {}; declare an index covering {}",
+                        probe.name(), find.getString("find"), find.toJson());
+                return true;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not explain query {}: {}", probe.name(), e.getMessage());
+        }
+        return false;
+    }
+
+    // Walks the whole plan: classic plans nest inputStage(s), slot-based plans wrap them in queryPlan
+    private static boolean containsStage(Object node, String stage) {
+        if (node instanceof Document document) {
+            if (stage.equals(document.get("stage"))) {
+                return true;
+            }
+            return document.values().stream().anyMatch(value -> containsStage(value, stage));
+        }
+        if (node instanceof List<?> list) {
+            return list.stream().anyMatch(value -> containsStage(value, stage));
+        }
+        return false;
+    }
+
+    private static String nameOf(Index index) {
+        Object name = index.getIndexOptions().get("name");
+        return name != null ? name.toString() : keysOf(index.getIndexKeys());
+    }
+
+    private static String keysOf(Document keys) {
+        return keys.entrySet().stream()
+                .map(key -> key.getKey() + ":" + (key.getValue() instanceof Number number
+                        ? String.valueOf(number.intValue())
+                        : String.valueOf(key.getValue())))
+                .collect(Collectors.joining(",", "{", "}"));
+    }
+
+    private static String keysOf(IndexInfo info) {
+        return info.getIndexFields().stream()
+                .map(field -> field.getKey() + ":" + directionOf(field))
+                .collect(Collectors.joining(",", "{", "}"));
+    }
+
+    private static String directionOf(IndexField field) {
+        if (field.getDirection() != null) {
+            return field.getDirection() == Sort.Direction.ASC ? "1" : "-1";
+        }
+        if (field.isText()) {
+            return "text";
+        }
+        return field.isHashed() ? "hashed" : "2dsphere";
+    }
+
+    record Report(List<String> built, List<String> undeclared, List<String> collectionScans,
+                  List<String> unbackedSorts) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.shopapp.shared.index;
+
+import com.shopapp.shared.pagination.SortPolicy;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+
+/**
+ * Declares the compound indexes a module's hot queries rely on, together with sample queries
+ * that are explained at startup to prove those indexes are actually used.
+ * Single-field indexes stay on the documents as {@code @Indexed} annotations.
+ */
+public interface ModuleIndexes {
+
+    List<DeclaredIndex> indexes();
+
+    default List<QueryProbe> probes() {
+        return List.of();
+    }
+
+    /**
+     * Sort whitelists of this module's listing endpoints; their indexed keys must name indexes declared here
+     */
+    default List<SortPolicy> sortPolicies() {
+        return List.of();
+    }
+
+    /**
+     * Amounts this module sorts on. Spring Data stores a {@code BigDecimal} as a string by default, which
+     * MongoDB sorts character by character, so these fields are mapped with
+     * {@code @Field(targetType = FieldType.DECIMAL128)}; values an older version stored as strings are
+     * converted at startup.
+     */
+    default List<DecimalField> decimalFields() {
+        return List.of();
+    }
+
+    record DeclaredIndex(Class<?> entity, Index index) {
+    }
+
+    record DecimalField(Class<?> entity, String field) {
+    }
+
+    /**
+     * A representative repository query. Only its shape matters, so filter values may be placeholders.
+     */
+    record QueryProbe(String name, Class<?> entity, Query query) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.shopapp.shared.interfaces;
+
+import java.util.Map;
+
+/**
+ * Contract for the Cart module - used by the order module to check out a user's server-side cart.
+ */
+public interface CartModuleApi {
+    
+    /**
+     * The lines of a user's cart ready to be ordered (productId -> quantity), in the order they were added
+     * @throws com.shopapp.shared.exception.BadRequestException if the cart is empty or an item is
+     *         unavailable or short of stock
+     */
+    Map<String, Integer> checkoutLines(String userId);
+    
+    /**
+     * Take ordered quantities out of a user's cart (productId -> quantity); lines that reach zero are
+     * removed, and anything added to the cart meanwhile stays
+     */
+    void removeOrdered(String userId, Map<String, Integer> quantities);
+}
@@ -24,6 +24,13 @@ public interface OrderModuleApi {
      */
     void cancelOrder(String orderId, String reason);
     
+    /**
+     * Take an unpaid order out of its stock hold before its payment is charged, so the expiry sweep
+     * cannot cancel it while the charge is in flight
+     * @return false if the order is no longer awaiting payment
+     */
+    boolean beginPayment(String orderId);
+    
     /**
      * DTO for order data exposed to other modules
      */
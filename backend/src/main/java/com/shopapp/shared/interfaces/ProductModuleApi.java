@@ -1,7 +1,9 @@
 package com.shopapp.shared.interfaces;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -15,6 +17,12 @@ public interface ProductModuleApi {
      */
     Optional<ProductDto> findById(String productId);
     
+    /**
+     * Find several products in a single lookup
+     * @return the products found, keyed by product ID; unknown IDs are absent from the map
+     */
+    Map<String, ProductDto> findByIds(Collection<String> productIds);
+    
     /**
      * Check if a product exists and is approved
      */
@@ -31,6 +39,31 @@ public interface ProductModuleApi {
      */
     void restoreStock(String productId, int quantity);
     
+    /**
+     * Reserve stock for several products at once (productId -> quantity).
+     * Either every line is reserved or none is; lines taken before a failure are released.
+     * @return the reserved products keyed by ID, in the iteration order of the request
+     * @throws com.shopapp.shared.exception.BadRequestException if a product is missing,
+     *         not approved or has insufficient stock
+     */
+    Map<String, ProductDto> reserveStock(Map<String, Integer> quantities);
+    
+    /**
+     * Release stock previously taken with {@link #reserveStock(Map)} (productId -> quantity)
+     */
+    void releaseStock(Map<String, Integer> quantities);
+    
+    /**
+     * Release stock at most once per {@code releaseId}, so a release retried after a crash returns it once.
+     * Units of a product in a flash sale go straight back on sale.
+     */
+    void releaseStock(String releaseId, Map<String, Integer> quantities);
+    
+    /**
+     * Forget a release made with {@link #releaseStock(String, Map)} once the caller has recorded it as done
+     */
+    void forgetRelease(String releaseId, Collection<String> productIds);
+    
     /**
      * DTO for product data exposed to other modules
      */
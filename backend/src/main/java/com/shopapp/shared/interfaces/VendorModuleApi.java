@@ -1,5 +1,7 @@
 package com.shopapp.shared.interfaces;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -18,6 +20,12 @@ public interface VendorModuleApi {
      */
     Optional<VendorDto> findById(String vendorId);
     
+    /**
+     * Find several vendors in a single lookup
+     * @return the vendors found, keyed by vendor ID; unknown IDs are absent from the map
+     */
+    Map<String, VendorDto> findByIds(Collection<String> vendorIds);
+    
     /**
      * Check if a user is an approved vendor
      */
@@ -0,0 +1,54 @@
+package com.shopapp.shared.pagination;
+
+import com.shopapp.shared.exception.BadRequestException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position of the last row on a page, ordered newest first by {@code (createdAt, _id)}.
+ * Clients only ever see the opaque {@link #encode() token}.
+ */
+public record Cursor(LocalDateTime createdAt, String id) {
+
+    public static final Sort SORT = Sort.by(Sort.Direction.DESC, "createdAt", "_id");
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * @return the decoded position, or null for a blank token, which starts a scroll from the first page
+     */
+    public static Cursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Range condition selecting the rows that come after this position in {@link #SORT} order.
+     */
+    public Criteria after() {
+        return new Criteria().orOperator(
+                Criteria.where("createdAt").lt(createdAt),
+                Criteria.where("createdAt").is(createdAt).and("_id").lt(id));
+    }
+}
@@ -0,0 +1,35 @@
+package com.shopapp.shared.pagination;
+
+import com.shopapp.shared.exception.BadRequestException;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset scroll. {@code nextCursor} is null once the last page has been reached.
+ */
+public record CursorPage<T>(List<T> content, String nextCursor) {
+
+    /**
+     * Number of rows to fetch for a page of {@code size}: one extra to detect whether another page follows
+     */
+    public static int fetchLimit(int size) {
+        if (size < 1) {
+            throw new BadRequestException("Page size must be at least 1");
+        }
+        return size + 1;
+    }
+
+    /**
+     * Builds a page from rows fetched with {@link #fetchLimit(int)}; the extra row only signals
+     * that another page exists and is not returned.
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int size,
+                                          Function<E, Cursor> positionOf,
+                                          Function<List<E>, List<T>> mapper) {
+        boolean hasMore = rows.size() > size;
+        List<E> page = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = hasMore ? positionOf.apply(page.get(page.size() - 1)).encode() : null;
+        return new CursorPage<>(mapper.apply(page), nextCursor);
+    }
+}
@@ -0,0 +1,117 @@
+package com.shopapp.shared.pagination;
+
+import com.shopapp.shared.exception.BadRequestException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The sort keys one listing endpoint accepts. A key backed by a compound index is walked in index order
+ * at any depth. Any other key is sorted by MongoDB as a top-k sort over {@code (page + 1) * size} documents,
+ * so those keys only reach the first {@link #getTopK()} results instead of sorting the whole collection.
+ */
+public final class SortPolicy {
+
+    public static final int DEFAULT_TOP_K = 1000;
+
+    /**
+     * @param index name of the compound index whose key order serves this sort, or null for a top-k sort
+     */
+    public record SortKey(String field, String index) {
+
+        public boolean isIndexed() {
+            return index != null;
+        }
+    }
+
+    private final Map<String, SortKey> keys;
+    private final int topK;
+
+    private SortPolicy(Map<String, SortKey> keys, int topK) {
+        this.keys = keys;
+        this.topK = topK;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Collection<SortKey> getKeys() {
+        return keys.values();
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    /**
+     * Resolve the request parameters of a page request against this policy
+     * @throws BadRequestException for an unknown key or direction, or a page beyond the top-k window
+     */
+    public Pageable pageable(int page, int size, String sortBy, String sortDir) {
+        if (page < 0) {
+            throw new BadRequestException("Page index must not be negative");
+        }
+        if (size < 1) {
+            throw new BadRequestException("Page size must be at least 1");
+        }
+
+        SortKey key = keys.get(sortBy);
+        if (key == null) {
+            throw new BadRequestException("Cannot sort by '" + sortBy + "'; supported keys are " + keys.keySet());
+        }
+
+        Sort.Direction direction = Sort.Direction.fromOptionalString(sortDir)
+                .orElseThrow(() -> new BadRequestException("Sort direction must be 'asc' or 'desc'"));
+
+        if (!key.isIndexed() && (long) (page + 1) * size > topK) {
+            throw new BadRequestException("Sorting by '" + sortBy + "' only reaches the first " + topK + " results");
+        }
+
+        // _id breaks ties so pages never overlap; every backing index ends with it
+        return PageRequest.of(page, size, Sort.by(direction, key.field(), "_id"));
+    }
+
+    public static final class Builder {
+
+        private final Map<String, SortKey> keys = new LinkedHashMap<>();
+        private int topK = DEFAULT_TOP_K;
+
+        /**
+         * Accept {@code field} as a sort key served by the named compound index
+         */
+        public Builder indexed(String field, String index) {
+            keys.put(field, new SortKey(field, index));
+            return this;
+        }
+
+        /**
+         * Accept {@code field} as a sort key without a backing index, limited to the top-k window
+         */
+        public Builder topK(String field) {
+            return topK(field, field);
+        }
+
+        /**
+         * Accept {@code key} as a sort key on {@code field}, for a listing whose documents name the value differently
+         */
+        public Builder topK(String key, String field) {
+            keys.put(key, new SortKey(field, null));
+            return this;
+        }
+
+        public Builder topKLimit(int topK) {
+            this.topK = topK;
+            return this;
+        }
+
+        public SortPolicy build() {
+            return new SortPolicy(Collections.unmodifiableMap(new LinkedHashMap<>(keys)), topK);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.shopapp.cart.service;
+
+import com.shopapp.cart.dto.AddCartItemRequest;
+import com.shopapp.cart.dto.CartItemResponse;
+import com.shopapp.cart.dto.CartResponse;
+import com.shopapp.cart.dto.UpdateCartItemRequest;
+import com.shopapp.cart.repository.CartRepository;
+import com.shopapp.shared.events.product.ProductsChangedEvent;
+import com.shopapp.shared.exception.BadRequestException;
+import com.shopapp.shared.exception.ResourceNotFoundException;
+import com.shopapp.shared.interfaces.ProductModuleApi;
+import com.shopapp.shared.interfaces.ProductModuleApi.ProductDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CartService Tests")
+class CartServiceTest {
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private ProductModuleApi productModuleApi;
+
+    private ProductSnapshots productSnapshots;
+    private CartService cartService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(cartRepository.findById(anyString())).thenReturn(Optional.empty());
+        productSnapshots = new ProductSnapshots(productModuleApi, 100, 60);
+        cartService = new CartService(new CartStore(cartRepository, 100, 4), productSnapshots, 3, 5);
+    }
+
+    private ProductDto product(String id, String price, int stock, String status) {
+        return new ProductDto(id, "Product " + id, "Category", new BigDecimal(price), stock, "vendor1", status,
+                List.of("img-" + id));
+    }
+
+    private void catalog(ProductDto... products) {
+        Map<String, ProductDto> byId = new HashMap<>();
+        for (ProductDto product : products) {
+            byId.put(product.id(), product);
+        }
+        when(productModuleApi.findByIds(anyCollection())).thenAnswer(invocation -> {
+            Map<String, ProductDto> found = new HashMap<>();
+            for (Object id : (Collection<?>) invocation.getArgument(0)) {
+                if (byId.containsKey(id)) {
+                    found.put((String) id, byId.get(id));
+                }
+            }
+            return found;
+        });
+    }
+
+    private CartResponse add(String productId, int quantity) {
+        return cartService.addItem("user1",
+                AddCartItemRequest.builder().productId(productId).quantity(quantity).build());
+    }
+
+    @Nested
+    @DisplayName("Cart Operations")
+    class CartOperations {
+
+        @Test
+        @DisplayName("Should merge repeated adds and price the cart from snapshots")
+        void shouldMergeAddsAndPriceCart() {
+            catalog(product("p1", "10.00", 10, "APPROVED"), product("p2", "2.50", 10, "APPROVED"));
+
+            add("p1", 1);
+            add("p2", 2);
+            CartResponse cart = add("p1", 2);
+
+            assertEquals(2, cart.getItems().size());
+            assertEquals("p1", cart.getItems().get(0).getProductId());
+            assertEquals(3, cart.getItems().get(0).getQuantity());
+            assertEquals("img-p1", cart.getItems().get(0).getProductImage());
+            assertEquals(5, cart.getTotalUnits());
+            assertEquals(new BigDecimal("35.00"), cart.getTotalAmount());
+            assertTrue(cart.isCheckoutReady());
+            // Both products were loaded once and served from snapshots afterwards
+            verify(productModuleApi, times(2)).findByIds(anyCollection());
+        }
+
+        @Test
+        @DisplayName("Should reject products that are not for sale")
+        void shouldRejectUnapprovedProduct() {
+            catalog(product("p1", "10.00", 10, "PENDING"));
+
+            assertThrows(ResourceNotFoundException.class, () -> add("p1", 1));
+            assertThrows(ResourceNotFoundException.class, () -> add("missing", 1));
+        }
+
+        @Test
+        @DisplayName("Should enforce the quantity and line limits")
+        void shouldEnforceLimits() {
+            catalog(product("p1", "1.00", 10, "APPROVED"), product("p2", "1.00", 10, "APPROVED"),
+                    product("p3", "1.00", 10, "APPROVED"), product("p4", "1.00", 10, "APPROVED"));
+
+            add("p1", 4);
+            assertThrows(BadRequestException.class, () -> add("p1", 2));
+            assertThrows(BadRequestException.class, () -> add("p1", Integer.MAX_VALUE));
+            add("p2", 1);
+            add("p3", 1);
+            assertThrows(BadRequestException.class, () -> add("p4", 1));
+
+            // Adding to an existing line is fine at the line limit
+            assertEquals(5, add("p1", 1).getItems().get(0).getQuantity());
+        }
+
+        @Test
+        @DisplayName("Should set quantities, removing an item at zero")
+        void shouldUpdateAndRemoveItems() {
+            catalog(product("p1", "10.00", 10, "APPROVED"));
+            add("p1", 1);
+
+            CartResponse updated = cartService.updateItem("user1", "p1",
+                    UpdateCartItemRequest.builder().quantity(4).build());
+            assertEquals(4, updated.getItems().get(0).getQuantity());
+
+            CartResponse removed = cartService.updateItem("user1", "p1",
+                    UpdateCartItemRequest.builder().quantity(0).build());
+            assertTrue(removed.getItems().isEmpty());
+            assertFalse(removed.isCheckoutReady());
+        }
+
+        @Test
+        @DisplayName("Should not update an item that is not in the cart")
+        void shouldRejectUpdateOfMissingItem() {
+            assertThrows(ResourceNotFoundException.class, () -> cartService.updateItem("user1", "p1",
+                    UpdateCartItemRequest.builder().quantity(1).build()));
+        }
+
+        @Test
+        @DisplayName("Should flag items that ran short of stock after a product change")
+        void shouldFlagItemsAfterProductChange() {
+            ProductDto before = product("p1", "10.00", 10, "APPROVED");
+            ProductDto after = product("p1", "12.00", 2, "APPROVED");
+            when(productModuleApi.findByIds(anyCollection()))
+                    .thenReturn(Map.of("p1", before))
+                    .thenReturn(Map.of("p1", after));
+            add("p1", 3);
+
+            productSnapshots.handleProductsChanged(new ProductsChangedEvent(Set.of("p1")));
+            CartResponse cart = cartService.getCart("user1");
+
+            CartItemResponse item = cart.getItems().get(0);
+            assertEquals(new BigDecimal("12.00"), item.getUnitPrice());
+            assertEquals(CartItemResponse.Issue.INSUFFICIENT_STOCK, item.getIssue());
+            assertEquals(BigDecimal.ZERO, cart.getTotalAmount());
+            assertFalse(cart.isCheckoutReady());
+        }
+    }
+
+    @Nested
+    @DisplayName("CartModuleApi Implementation")
+    class CartModuleApiImplementation {
+
+        @Test
+        @DisplayName("Should hand out the lines of a valid cart in the order they were added")
+        void shouldReturnCheckoutLines() {
+            catalog(product("p2", "1.00", 10, "APPROVED"), product("p1", "1.00", 10, "APPROVED"));
+            add("p2", 2);
+            add("p1", 1);
+
+            Map<String, Integer> lines = cartService.checkoutLines("user1");
+
+            assertEquals(List.of("p2", "p1"), List.copyOf(lines.keySet()));
+            assertEquals(2, lines.get("p2"));
+        }
+
+        @Test
+        @DisplayName("Should refuse to check out an empty cart")
+        void shouldRejectEmptyCart() {
+            assertThrows(BadRequestException.class, () -> cartService.checkoutLines("user1"));
+        }
+
+        @Test
+        @DisplayName("Should refuse to check out a cart with an unavailable item")
+        void shouldRejectUnavailableItems() {
+            when(productModuleApi.findByIds(anyCollection()))
+                    .thenReturn(Map.of("p1", product("p1", "1.00", 10, "APPROVED")))
+                    .thenReturn(Map.of());
+            add("p1", 1);
+            productSnapshots.handleProductsChanged(new ProductsChangedEvent(Set.of("p1")));
+
+            BadRequestException exception = assertThrows(BadRequestException.class,
+                    () -> cartService.checkoutLines("user1"));
+            assertTrue(exception.getMessage().contains("p1"));
+        }
+
+        @Test
+        @DisplayName("Should take only the ordered quantities out of the cart")
+        void shouldRemoveOrderedQuantities() {
+            catalog(product("p1", "1.00", 10, "APPROVED"), product("p2", "1.00", 10, "APPROVED"));
+            add("p1", 3);
+            add("p2", 1);
+
+            cartService.removeOrdered("user1", Map.of("p1", 2, "p2", 1));
+
+            CartResponse cart = cartService.getCart("user1");
+            assertEquals(1, cart.getItems().size());
+            assertEquals(1, cart.getItems().get(0).getQuantity());
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.shopapp.cart.service;
+
+import com.shopapp.cart.domain.Cart;
+import com.shopapp.cart.domain.CartLine;
+import com.shopapp.cart.repository.CartRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CartStore Tests")
+class CartStoreTest {
+
+    @Mock
+    private CartRepository cartRepository;
+
+    private CartStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new CartStore(cartRepository, 2, 4);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Cart> written() {
+        ArgumentCaptor<List<Cart>> captor = ArgumentCaptor.forClass(List.class);
+        verify(cartRepository).writeAll(captor.capture());
+        return captor.getValue();
+    }
+
+    @Nested
+    @DisplayName("Packed lines")
+    class PackedLines {
+
+        @Test
+        @DisplayName("Should keep lines in the order they were added across updates and removals")
+        void shouldKeepLineOrder() {
+            PackedCart cart = new PackedCart();
+            for (int i = 1; i <= 6; i++) {
+                cart.set("p" + i, i);
+            }
+            cart.set("p2", 0);
+            cart.set("p4", 40);
+
+            assertEquals(Map.of("p1", 1, "p3", 3, "p4", 40, "p5", 5, "p6", 6), cart.quantities());
+            assertEquals(List.of("p1", "p3", "p4", "p5", "p6"), List.copyOf(cart.quantities().keySet()));
+            assertEquals(0, cart.quantityOf("p2"));
+        }
+
+        @Test
+        @DisplayName("Should only count real changes as new versions")
+        void shouldVersionRealChangesOnly() {
+            PackedCart cart = new PackedCart();
+            cart.set("p1", 2);
+            long version = cart.version();
+
+            cart.set("p1", 2);
+            cart.set("missing", 0);
+
+            assertEquals(version, cart.version());
+        }
+
+        @Test
+        @DisplayName("Should skip empty and malformed lines of a stored cart")
+        void shouldSkipMalformedStoredLines() {
+            Cart stored = Cart.builder().id("user1").lines(List.of(
+                    CartLine.builder().productId("p1").quantity(2).build(),
+                    CartLine.builder().productId("p2").quantity(0).build(),
+                    CartLine.builder().quantity(1).build())).build();
+
+            assertEquals(Map.of("p1", 2), PackedCart.of(stored).quantities());
+        }
+    }
+
+    @Nested
+    @DisplayName("Loading")
+    class Loading {
+
+        @Test
+        @DisplayName("Should read a cart from Mongo once and serve it from memory afterwards")
+        void shouldLoadOnce() {
+            when(cartRepository.findById("user1")).thenReturn(Optional.of(Cart.builder().id("user1")
+                    .lines(List.of(CartLine.builder().productId("p1").quantity(2).build())).build()));
+
+            assertEquals(Map.of("p1", 2), store.read("user1", PackedCart::quantities));
+            assertEquals(Map.of("p1", 2), store.read("user1", PackedCart::quantities));
+
+            verify(cartRepository, times(1)).findById("user1");
+        }
+
+        @Test
+        @DisplayName("Should start an empty cart for a user without one")
+        void shouldStartEmptyCart() {
+            when(cartRepository.findById("user1")).thenReturn(Optional.empty());
+
+            assertTrue(store.read("user1", PackedCart::isEmpty));
+            assertEquals(0, store.dirtyCount());
+        }
+
+        @Test
+        @DisplayName("Should keep serving an unwritten cart after the LRU drops it")
+        void shouldServeEvictedDirtyCart() {
+            when(cartRepository.findById(anyString())).thenReturn(Optional.empty());
+
+            store.update("user1", cart -> {
+                cart.set("p1", 1);
+                return null;
+            });
+            store.read("user2", PackedCart::size);
+            store.read("user3", PackedCart::size);
+
+            assertEquals(2, store.residentCount());
+            assertEquals(Map.of("p1", 1), store.read("user1", PackedCart::quantities));
+            verify(cartRepository, times(1)).findById("user1");
+        }
+    }
+
+    @Nested
+    @DisplayName("Write-behind")
+    class WriteBehind {
+
+        @Test
+        @DisplayName("Should write changed carts in one batch and then forget them")
+        void shouldWriteChangedCarts() {
+            when(cartRepository.findById(anyString())).thenReturn(Optional.empty());
+            store.update("user1", cart -> {
+                cart.set("p1", 2);
+                return null;
+            });
+            store.read("user2", PackedCart::size);
+
+            assertEquals(1, store.flushDirty());
+
+            List<Cart> carts = written();
+            assertEquals(1, carts.size());
+            assertEquals("user1", carts.get(0).getId());
+            assertEquals("p1", carts.get(0).getLines().get(0).getProductId());
+            assertEquals(0, store.dirtyCount());
+            assertEquals(0, store.flushDirty());
+        }
+
+        @Test
+        @DisplayName("Should write a cleared cart with no lines so its document is removed")
+        void shouldWriteClearedCart() {
+            when(cartRepository.findById("user1")).thenReturn(Optional.of(Cart.builder().id("user1")
+                    .lines(List.of(CartLine.builder().productId("p1").quantity(2).build())).build()));
+            store.update("user1", cart -> {
+                cart.clear();
+                return null;
+            });
+
+            store.flushDirty();
+
+            assertTrue(written().get(0).getLines().isEmpty());
+        }
+
+        @Test
+        @DisplayName("Should keep carts queued when the write fails")
+        void shouldKeepCartsQueuedOnFailure() {
+            when(cartRepository.findById("user1")).thenReturn(Optional.empty());
+            doThrow(new RuntimeException("Mongo down")).when(cartRepository).writeAll(anyList());
+            store.update("user1", cart -> {
+                cart.set("p1", 2);
+                return null;
+            });
+
+            store.flush();
+
+            assertEquals(1, store.dirtyCount());
+        }
+
+        @Test
+        @DisplayName("Should keep a cart queued when it changes while being written")
+        void shouldKeepCartChangedDuringWrite() {
+            when(cartRepository.findById("user1")).thenReturn(Optional.empty());
+            store.update("user1", cart -> {
+                cart.set("p1", 2);
+                return null;
+            });
+            doAnswer(invocation -> store.update("user1", cart -> {
+                cart.set("p2", 1);
+                return null;
+            })).when(cartRepository).writeAll(anyList());
+
+            store.flushDirty();
+
+            assertEquals(1, store.dirtyCount());
+        }
+    }
+}
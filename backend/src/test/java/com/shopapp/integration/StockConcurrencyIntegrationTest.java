@@ -0,0 +1,97 @@
+package com.shopapp.integration;
+
+import com.shopapp.product.domain.Product;
+import com.shopapp.product.domain.ProductStatus;
+import com.shopapp.product.repository.ProductRepository;
+import com.shopapp.product.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hammers one product's stock from many threads against a real MongoDB, so the conditional
+ * decrement is checked for lost updates and overselling where they would actually happen
+ */
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+        "de.flapdoodle.mongodb.embedded.enabled=false",
+        "spring.autoconfigure.exclude=" +
+            "org.springframework.boot.autoconfigure.mongo.embedded.EmbeddedMongoAutoConfiguration," +
+            "de.flapdoodle.embed.mongo.spring.autoconfigure.EmbeddedMongoAutoConfiguration"
+    }
+)
+@ActiveProfiles("test")
+@DisplayName("Stock Concurrency Integration Tests")
+class StockConcurrencyIntegrationTest {
+
+    private static final int INITIAL_STOCK = 50;
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = 25;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @BeforeEach
+    void cleanUpDatabase() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should sell exactly the stock on hand when many threads decrement one product")
+    void shouldNeverOversellUnderConcurrentDecrements() throws Exception {
+        Product product = productRepository.save(Product.builder()
+                .name("Hot Product")
+                .category("Electronics")
+                .price(new BigDecimal("19.99"))
+                .stock(INITIAL_STOCK)
+                .vendorId("vendor1")
+                .status(ProductStatus.APPROVED)
+                .build());
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        if (productService.decrementStock(product.getId(), 1)) {
+                            successes.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(INITIAL_STOCK, successes.get());
+        assertEquals(0, productRepository.findById(product.getId()).orElseThrow().getStock());
+    }
+}
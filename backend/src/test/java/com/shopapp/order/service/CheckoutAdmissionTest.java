@@ -0,0 +1,107 @@
+package com.shopapp.order.service;
+
+import com.shopapp.order.dto.CheckoutTicket;
+import com.shopapp.shared.exception.ResourceNotFoundException;
+import com.shopapp.shared.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CheckoutAdmission Tests")
+class CheckoutAdmissionTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final CheckoutAdmission admission = new CheckoutAdmission(2, 2, Duration.ofSeconds(30), clock::get);
+
+    @Test
+    @DisplayName("Should admit checkouts directly while below the concurrency limit")
+    void shouldAdmitBelowLimit() {
+        assertEquals(CheckoutTicket.Status.ADMITTED, admission.admit("u1").getStatus());
+        assertEquals(CheckoutTicket.Status.ADMITTED, admission.admit("u2").getStatus());
+        assertEquals(2, admission.inFlight());
+    }
+
+    @Test
+    @DisplayName("Should queue arrivals in order once the limit is reached")
+    void shouldQueueInOrder() {
+        admission.admit("u1");
+        admission.admit("u2");
+
+        CheckoutTicket first = admission.admit("u3");
+        CheckoutTicket second = admission.admit("u4");
+
+        assertEquals(CheckoutTicket.Status.WAITING, first.getStatus());
+        assertEquals(1, first.getPosition());
+        assertEquals(2, second.getPosition());
+        assertTrue(second.getEtaSeconds() >= 1);
+    }
+
+    @Test
+    @DisplayName("Should keep a user's place when they submit again")
+    void shouldKeepPlaceOnResubmit() {
+        admission.admit("u1");
+        admission.admit("u2");
+        CheckoutTicket ticket = admission.admit("u3");
+
+        assertEquals(ticket.getId(), admission.admit("u3").getId());
+    }
+
+    @Test
+    @DisplayName("Should reject new arrivals immediately once the waiting room is full")
+    void shouldRejectWhenRoomFull() {
+        admission.admit("u1");
+        admission.admit("u2");
+        admission.admit("u3");
+        admission.admit("u4");
+
+        assertThrows(ServiceUnavailableException.class, () -> admission.admit("u5"));
+    }
+
+    @Test
+    @DisplayName("Should set a freed slot aside for the head of the room")
+    void shouldHandFreedSlotToHeadOfRoom() {
+        admission.admit("u1");
+        admission.admit("u2");
+        CheckoutTicket ticket = admission.admit("u3");
+
+        admission.release(Duration.ofMillis(100).toNanos());
+
+        assertEquals(CheckoutTicket.Status.ADMITTED, admission.status("u3", ticket.getId()).getStatus());
+        // A newcomer cannot take the slot reserved for u3
+        assertEquals(CheckoutTicket.Status.WAITING, admission.admit("u4").getStatus());
+        assertEquals(CheckoutTicket.Status.ADMITTED, admission.admit("u3").getStatus());
+        assertEquals(2, admission.inFlight());
+    }
+
+    @Test
+    @DisplayName("Should free slots and places held by users who stopped polling")
+    void shouldExpireAbandonedTickets() {
+        admission.admit("u1");
+        admission.admit("u2");
+        CheckoutTicket abandoned = admission.admit("u3");
+        admission.release(0);
+        admission.admit("u4");
+
+        clock.addAndGet(Duration.ofSeconds(31).toNanos());
+        admission.expire();
+
+        assertThrows(ResourceNotFoundException.class, () -> admission.status("u3", abandoned.getId()));
+        assertThrows(ResourceNotFoundException.class, () -> admission.status("u4", "unknown"));
+        assertEquals(1, admission.inFlight());
+        assertEquals(CheckoutTicket.Status.ADMITTED, admission.admit("u5").getStatus());
+    }
+
+    @Test
+    @DisplayName("Should not reveal another user's ticket")
+    void shouldNotRevealOtherUsersTicket() {
+        admission.admit("u1");
+        admission.admit("u2");
+        CheckoutTicket ticket = admission.admit("u3");
+
+        assertThrows(ResourceNotFoundException.class, () -> admission.status("u4", ticket.getId()));
+    }
+}
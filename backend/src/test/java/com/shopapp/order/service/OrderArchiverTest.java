@@ -0,0 +1,93 @@
+package com.shopapp.order.service;
+
+import com.shopapp.order.domain.Order;
+import com.shopapp.order.domain.OrderStatus;
+import com.shopapp.order.repository.ArchivedOrderRepository;
+import com.shopapp.order.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderArchiver Tests")
+class OrderArchiverTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 3, 0);
+    private static final LocalDateTime CUTOFF = NOW.minusDays(90);
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    private OrderArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        archiver = new OrderArchiver(orderRepository, archivedOrderRepository, 90, 2);
+    }
+
+    private Order finished(String id) {
+        return Order.builder().id(id).userId("user1").status(OrderStatus.DELIVERED).build();
+    }
+
+    @Test
+    @DisplayName("Should copy each batch into the archive before deleting it from the hot collection")
+    void shouldArchiveBeforeDeleting() {
+        List<Order> batch = List.of(finished("o1"));
+        when(orderRepository.findArchivable(CUTOFF, 2)).thenReturn(batch);
+        when(orderRepository.deleteArchived(List.of("o1"), CUTOFF)).thenReturn(1L);
+
+        assertEquals(1, archiver.archive(NOW));
+
+        InOrder inOrder = inOrder(archivedOrderRepository, orderRepository);
+        inOrder.verify(archivedOrderRepository).archive(batch, NOW);
+        inOrder.verify(orderRepository).deleteArchived(List.of("o1"), CUTOFF);
+    }
+
+    @Test
+    @DisplayName("Should keep archiving while batches come back full")
+    void shouldArchiveInBatches() {
+        when(orderRepository.findArchivable(CUTOFF, 2))
+                .thenReturn(List.of(finished("o1"), finished("o2")))
+                .thenReturn(List.of(finished("o3")));
+        when(orderRepository.deleteArchived(anyList(), any())).thenReturn(2L, 1L);
+
+        assertEquals(3, archiver.archive(NOW));
+        verify(archivedOrderRepository, times(2)).archive(anyList(), any());
+    }
+
+    @Test
+    @DisplayName("Should stop instead of looping when a full batch could not be deleted")
+    void shouldStopWhenNothingWasDeleted() {
+        when(orderRepository.findArchivable(CUTOFF, 2)).thenReturn(List.of(finished("o1"), finished("o2")));
+        when(orderRepository.deleteArchived(anyList(), any())).thenReturn(0L);
+
+        assertEquals(0, archiver.archive(NOW));
+        verify(orderRepository, times(1)).findArchivable(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should do nothing when no order is old enough")
+    void shouldDoNothingWhenNothingToArchive() {
+        when(orderRepository.findArchivable(CUTOFF, 2)).thenReturn(List.of());
+
+        assertEquals(0, archiver.archive(NOW));
+        verifyNoInteractions(archivedOrderRepository);
+        verify(orderRepository, never()).deleteArchived(anyList(), any());
+    }
+}
@@ -0,0 +1,128 @@
+package com.shopapp.order.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.shopapp.order.domain.Order;
+import com.shopapp.order.domain.OrderItem;
+import com.shopapp.order.domain.OrderStatus;
+import com.shopapp.order.domain.VendorOrder;
+import com.shopapp.order.repository.ArchivedOrderRepository;
+import com.shopapp.order.repository.OrderRepository;
+import com.shopapp.order.repository.VendorOrderRepository;
+import com.shopapp.shared.exception.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderExporter Tests")
+class OrderExporterTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2024, 12, 31);
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 3, 1, 10, 30);
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Mock
+    private VendorOrderRepository vendorOrderRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private OrderExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        exporter = new OrderExporter(orderRepository, archivedOrderRepository, vendorOrderRepository, objectMapper);
+    }
+
+    private Order order(String id, OrderStatus status) {
+        return Order.builder()
+                .id(id)
+                .userId("user1")
+                .status(status)
+                .totalAmount(new BigDecimal("30.00"))
+                .items(List.of(
+                        OrderItem.create("p1", "Mug, large", null, "v1", 2, new BigDecimal("10.00")),
+                        OrderItem.create("p2", "Plate", null, "v2", 1, new BigDecimal("10.00"))))
+                .createdAt(CREATED)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should write a vendor's share of each order as CSV rows under a header")
+    void shouldExportVendorOrdersAsCsv() throws IOException {
+        VendorOrder share = VendorOrder.of(order("o1", OrderStatus.SHIPPED)).get(0);
+        when(vendorOrderRepository.streamByVendorIdCreatedBetween("v1", FROM.atStartOfDay(), TO.plusDays(1).atStartOfDay()))
+                .thenReturn(Stream.of(share));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.exportVendorOrders("v1", OrderExporter.Range.of(FROM, TO), OrderExporter.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(String.join(",", OrderExporter.CSV_HEADER), lines[0]);
+        assertEquals("o1,user1,SHIPPED,1,2,20.00,2024-03-01T10:30,,,,", lines[1]);
+        assertEquals(2, lines.length);
+    }
+
+    @Test
+    @DisplayName("Should export hot then archived orders as NDJSON and close both cursors")
+    void shouldExportAllOrdersAsNdjson() throws IOException {
+        AtomicBoolean hotClosed = new AtomicBoolean();
+        AtomicBoolean archiveClosed = new AtomicBoolean();
+        when(orderRepository.streamCreatedBetween(any(), any()))
+                .thenReturn(Stream.of(order("o2", OrderStatus.PLACED)).onClose(() -> hotClosed.set(true)));
+        when(archivedOrderRepository.streamCreatedBetween(any(), any()))
+                .thenReturn(Stream.of(order("o1", OrderStatus.DELIVERED)).onClose(() -> archiveClosed.set(true)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.exportAllOrders(OrderExporter.Range.of(FROM, TO), OrderExporter.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("o2", first.get("orderId").asText());
+        assertEquals(3, first.get("units").asInt());
+        assertEquals("DELIVERED", objectMapper.readTree(lines[1]).get("status").asText());
+        assertTrue(hotClosed.get());
+        assertTrue(archiveClosed.get());
+    }
+
+    @Test
+    @DisplayName("Should default to the year up to today and reject a range that ends before it starts")
+    void shouldResolveRange() {
+        OrderExporter.Range range = OrderExporter.Range.of(null, TO);
+
+        assertEquals(TO.minusYears(1), range.from());
+        assertEquals("orders-2023-12-31-to-2024-12-31.csv", range.fileName(OrderExporter.Format.CSV));
+        assertThrows(BadRequestException.class, () -> OrderExporter.Range.of(TO, FROM));
+    }
+
+    @Test
+    @DisplayName("Should accept format names in any case and reject unknown ones")
+    void shouldParseFormat() {
+        assertEquals(OrderExporter.Format.NDJSON, OrderExporter.Format.of("ndjson"));
+        assertThrows(BadRequestException.class, () -> OrderExporter.Format.of("xlsx"));
+    }
+}
@@ -1,19 +1,31 @@
 package com.shopapp.order.service;
 
+import com.shopapp.order.domain.ArchivedOrder;
 import com.shopapp.order.domain.Order;
 import com.shopapp.order.domain.OrderItem;
 import com.shopapp.order.domain.OrderStatus;
+import com.shopapp.order.domain.OrderTransitions;
+import com.shopapp.order.domain.StatusChange;
+import com.shopapp.order.domain.VendorOrder;
 import com.shopapp.order.dto.*;
+import com.shopapp.order.repository.ArchivedOrderRepository;
 import com.shopapp.order.repository.OrderRepository;
+import com.shopapp.order.repository.VendorOrderRepository;
+import com.shopapp.shared.events.DomainEvent;
 import com.shopapp.shared.events.DomainEventPublisher;
 import com.shopapp.shared.events.order.OrderConfirmedEvent;
 import com.shopapp.shared.events.order.OrderCreatedEvent;
+import com.shopapp.shared.events.order.OrderStatusChangedEvent;
 import com.shopapp.shared.events.payment.PaymentFailedEvent;
 import com.shopapp.shared.events.payment.PaymentSuccessEvent;
 import com.shopapp.shared.exception.BadRequestException;
+import com.shopapp.shared.exception.ConflictException;
 import com.shopapp.shared.exception.ResourceNotFoundException;
+import com.shopapp.shared.interfaces.CartModuleApi;
 import com.shopapp.shared.interfaces.OrderModuleApi;
 import com.shopapp.shared.interfaces.ProductModuleApi;
+import com.shopapp.shared.pagination.Cursor;
+import com.shopapp.shared.pagination.CursorPage;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -26,14 +38,22 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,12 +63,24 @@ class OrderServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private VendorOrderRepository vendorOrderRepository;
+
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
     @Mock
     private ProductModuleApi productModuleApi;
 
+    @Mock
+    private CartModuleApi cartModuleApi;
+
     @Mock
     private DomainEventPublisher eventPublisher;
 
+    @Mock
+    private StockHoldSweeper stockHoldSweeper;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -96,8 +128,7 @@ class OrderServiceTest {
                     .status(OrderStatus.PLACED)
                     .build();
 
-            when(productModuleApi.findById("product1")).thenReturn(Optional.of(productDto));
-            when(productModuleApi.decrementStock("product1", 2)).thenReturn(true);
+            when(productModuleApi.reserveStock(Map.of("product1", 2))).thenReturn(Map.of("product1", productDto));
             when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
 
             OrderResponse response = orderService.createOrder("user123", request);
@@ -109,6 +140,24 @@ class OrderServiceTest {
             assertEquals(1, response.getItems().size());
         }
 
+        @Test
+        @DisplayName("Should hold reserved stock until the payment window closes")
+        void shouldHoldStockUntilPaymentWindowCloses() {
+            LocalDateTime expiry = LocalDateTime.of(2024, 1, 1, 12, 15);
+            ProductModuleApi.ProductDto productDto = createProductDto("product1", "Test Product",
+                    new BigDecimal("50.00"), 10);
+
+            when(productModuleApi.reserveStock(Map.of("product1", 2))).thenReturn(Map.of("product1", productDto));
+            when(stockHoldSweeper.expiresAt(any(LocalDateTime.class))).thenReturn(expiry);
+            when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArgument(0));
+
+            orderService.createOrder("user123", createValidOrderRequest());
+
+            ArgumentCaptor<Order> orderCaptor = ArgumentCaptor.forClass(Order.class);
+            verify(orderRepository).save(orderCaptor.capture());
+            assertEquals(expiry, orderCaptor.getValue().getHoldExpiresAt());
+        }
+
         @Test
         @DisplayName("Should create order with multiple items")
         void shouldCreateOrderWithMultipleItems() {
@@ -145,15 +194,54 @@ class OrderServiceTest {
                     .status(OrderStatus.CREATED)
                     .build();
 
-            when(productModuleApi.findById("product1")).thenReturn(Optional.of(product1));
-            when(productModuleApi.findById("product2")).thenReturn(Optional.of(product2));
-            when(productModuleApi.decrementStock(anyString(), anyInt())).thenReturn(true);
+            when(productModuleApi.reserveStock(anyMap()))
+                    .thenReturn(Map.of("product1", product1, "product2", product2));
             when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
 
             OrderResponse response = orderService.createOrder("user123", request);
 
             assertEquals(2, response.getItems().size());
             assertEquals(new BigDecimal("130.00"), response.getTotalAmount());
+            verify(productModuleApi).reserveStock(Map.of("product1", 2, "product2", 1));
+            verify(productModuleApi, never()).findById(anyString());
+            verify(productModuleApi, never()).decrementStock(anyString(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should merge repeated products into a single reservation line")
+        void shouldMergeRepeatedProductsIntoSingleReservationLine() {
+            CreateOrderRequest request = createValidOrderRequest();
+            request.setItems(List.of(
+                    OrderItemRequest.builder().productId("product1").quantity(2).build(),
+                    OrderItemRequest.builder().productId("product1").quantity(3).build()
+            ));
+
+            ProductModuleApi.ProductDto productDto = createProductDto("product1", "Test Product", 
+                    new BigDecimal("10.00"), 10);
+
+            when(productModuleApi.reserveStock(Map.of("product1", 5))).thenReturn(Map.of("product1", productDto));
+            when(orderRepository.save(any(Order.class))).thenAnswer(i -> i.getArgument(0));
+
+            OrderResponse response = orderService.createOrder("user123", request);
+
+            assertEquals(2, response.getItems().size());
+            assertEquals(new BigDecimal("50.00"), response.getTotalAmount());
+        }
+
+        @Test
+        @DisplayName("Should release reserved stock when order cannot be saved")
+        void shouldReleaseReservedStockWhenOrderCannotBeSaved() {
+            CreateOrderRequest request = createValidOrderRequest();
+            ProductModuleApi.ProductDto productDto = createProductDto("product1", "Test Product", 
+                    new BigDecimal("50.00"), 10);
+
+            when(productModuleApi.reserveStock(Map.of("product1", 2))).thenReturn(Map.of("product1", productDto));
+            when(orderRepository.save(any(Order.class))).thenThrow(new IllegalStateException("write failed"));
+
+            assertThrows(IllegalStateException.class, () -> orderService.createOrder("user123", request));
+
+            verify(productModuleApi).releaseStock(Map.of("product1", 2));
+            verify(eventPublisher, never()).publish(any());
         }
 
         @Test
@@ -171,8 +259,7 @@ class OrderServiceTest {
                     .items(List.of())
                     .build();
 
-            when(productModuleApi.findById("product1")).thenReturn(Optional.of(productDto));
-            when(productModuleApi.decrementStock(anyString(), anyInt())).thenReturn(true);
+            when(productModuleApi.reserveStock(anyMap())).thenReturn(Map.of("product1", productDto));
             when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
 
             orderService.createOrder("user123", request);
@@ -189,12 +276,14 @@ class OrderServiceTest {
         void shouldThrowExceptionForNonExistentProduct() {
             CreateOrderRequest request = createValidOrderRequest();
 
-            when(productModuleApi.findById("product1")).thenReturn(Optional.empty());
+            when(productModuleApi.reserveStock(anyMap()))
+                    .thenThrow(new BadRequestException("Product not found: product1"));
 
             BadRequestException exception = assertThrows(BadRequestException.class, 
                     () -> orderService.createOrder("user123", request));
             
             assertTrue(exception.getMessage().contains("Product not found"));
+            verify(orderRepository, never()).save(any());
         }
 
         @Test
@@ -202,16 +291,14 @@ class OrderServiceTest {
         void shouldThrowExceptionForNonApprovedProduct() {
             CreateOrderRequest request = createValidOrderRequest();
 
-            ProductModuleApi.ProductDto pendingProduct = new ProductModuleApi.ProductDto(
-                    "product1", "Test Product", "Category", new BigDecimal("50.00"), 10, "vendorId", "PENDING", List.of()
-            );
-
-            when(productModuleApi.findById("product1")).thenReturn(Optional.of(pendingProduct));
+            when(productModuleApi.reserveStock(anyMap()))
+                    .thenThrow(new BadRequestException("Product is not available: Test Product"));
 
             BadRequestException exception = assertThrows(BadRequestException.class, 
                     () -> orderService.createOrder("user123", request));
             
             assertTrue(exception.getMessage().contains("not available"));
+            verify(orderRepository, never()).save(any());
         }
 
         @Test
@@ -219,16 +306,14 @@ class OrderServiceTest {
         void shouldThrowExceptionForInsufficientStock() {
             CreateOrderRequest request = createValidOrderRequest();
 
-            ProductModuleApi.ProductDto productDto = createProductDto("product1", "Test Product", 
-                    new BigDecimal("50.00"), 10);
-
-            when(productModuleApi.findById("product1")).thenReturn(Optional.of(productDto));
-            when(productModuleApi.decrementStock("product1", 2)).thenReturn(false);
+            when(productModuleApi.reserveStock(Map.of("product1", 2)))
+                    .thenThrow(new BadRequestException("Insufficient stock for product: Test Product"));
 
             BadRequestException exception = assertThrows(BadRequestException.class, 
                     () -> orderService.createOrder("user123", request));
             
             assertTrue(exception.getMessage().contains("Insufficient stock"));
+            verify(orderRepository, never()).save(any());
         }
 
         @Test
@@ -252,8 +337,7 @@ class OrderServiceTest {
             ProductModuleApi.ProductDto productDto = createProductDto("product1", "Test Product", 
                     new BigDecimal("33.33"), 10);
 
-            when(productModuleApi.findById("product1")).thenReturn(Optional.of(productDto));
-            when(productModuleApi.decrementStock(anyString(), anyInt())).thenReturn(true);
+            when(productModuleApi.reserveStock(anyMap())).thenReturn(Map.of("product1", productDto));
             when(orderRepository.save(any(Order.class))).thenAnswer(i -> {
                 Order order = i.getArgument(0);
                 order.setId("order123");
@@ -265,6 +349,62 @@ class OrderServiceTest {
             // 33.33 * 3 = 99.99
             assertEquals(new BigDecimal("99.99"), response.getTotalAmount());
         }
+
+        @Test
+        @DisplayName("Should order the cart and take the ordered items out of it")
+        void shouldOrderCartAndRemoveOrderedItems() {
+            CartCheckoutRequest request = CartCheckoutRequest.builder()
+                    .shippingAddress(createValidOrderRequest().getShippingAddress())
+                    .build();
+            Map<String, Integer> lines = Map.of("product1", 3);
+
+            when(cartModuleApi.checkoutLines("user123")).thenReturn(lines);
+            when(productModuleApi.reserveStock(lines)).thenReturn(Map.of("product1",
+                    createProductDto("product1", "Test Product", new BigDecimal("10.00"), 10)));
+            when(orderRepository.save(any(Order.class))).thenAnswer(i -> {
+                Order order = i.getArgument(0);
+                order.setId("order123");
+                return order;
+            });
+
+            OrderResponse response = orderService.createOrderFromCart("user123", request);
+
+            assertEquals("order123", response.getId());
+            assertEquals(new BigDecimal("30.00"), response.getTotalAmount());
+            assertEquals(3, response.getItems().get(0).getQuantity());
+            verify(cartModuleApi).removeOrdered("user123", lines);
+        }
+
+        @Test
+        @DisplayName("Should leave the cart alone when the order fails")
+        void shouldKeepCartWhenOrderFails() {
+            CartCheckoutRequest request = CartCheckoutRequest.builder()
+                    .shippingAddress(createValidOrderRequest().getShippingAddress())
+                    .build();
+
+            when(cartModuleApi.checkoutLines("user123")).thenReturn(Map.of("product1", 3));
+            when(productModuleApi.reserveStock(anyMap()))
+                    .thenThrow(new BadRequestException("Insufficient stock for product: Test Product"));
+
+            assertThrows(BadRequestException.class, () -> orderService.createOrderFromCart("user123", request));
+
+            verify(cartModuleApi, never()).removeOrdered(anyString(), anyMap());
+            verify(orderRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should not order a cart that fails validation")
+        void shouldRejectInvalidCart() {
+            CartCheckoutRequest request = CartCheckoutRequest.builder()
+                    .shippingAddress(createValidOrderRequest().getShippingAddress())
+                    .build();
+
+            when(cartModuleApi.checkoutLines("user123")).thenThrow(new BadRequestException("Cart is empty"));
+
+            assertThrows(BadRequestException.class, () -> orderService.createOrderFromCart("user123", request));
+
+            verifyNoInteractions(productModuleApi);
+        }
     }
 
     @Nested
@@ -299,6 +439,14 @@ class OrderServiceTest {
 
             assertTrue(result.isEmpty());
         }
+
+        @Test
+        @DisplayName("Should refuse to begin payment once the order has left its hold")
+        void shouldRefuseToBeginPaymentForCancelledOrder() {
+            when(orderRepository.clearHold("order123")).thenReturn(false);
+
+            assertFalse(orderService.beginPayment("order123"));
+        }
     }
 
     @Nested
@@ -306,21 +454,32 @@ class OrderServiceTest {
     class OrderConfirmation {
 
         @Test
-        @DisplayName("Should confirm CREATED order")
-        void shouldConfirmCreatedOrder() {
-            Order order = Order.builder()
+        @DisplayName("Should confirm an unpaid order in one conditional update")
+        void shouldConfirmUnpaidOrderConditionally() {
+            Order confirmed = Order.builder()
                     .id("order123")
                     .userId("user123")
-                    .status(OrderStatus.CREATED)
+                    .status(OrderStatus.PREPARING)
                     .build();
-
-            when(orderRepository.findById("order123")).thenReturn(Optional.of(order));
-            when(orderRepository.save(any(Order.class))).thenReturn(order);
+            when(orderRepository.transition(eq("order123"), eq(OrderTransitions.UNPAID), any(StatusChange.class)))
+                    .thenReturn(Optional.of(confirmed));
 
             orderService.confirmOrder("order123");
 
-            assertEquals(OrderStatus.PREPARING, order.getStatus());
-            assertNotNull(order.getConfirmedAt());
+            ArgumentCaptor<StatusChange> changeCaptor = ArgumentCaptor.forClass(StatusChange.class);
+            verify(orderRepository).transition(eq("order123"), eq(OrderTransitions.UNPAID), changeCaptor.capture());
+            assertEquals(OrderStatus.PREPARING, changeCaptor.getValue().getStatus());
+            assertNotNull(changeCaptor.getValue().getFields().get("confirmedAt"));
+            verify(orderRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should turn the stock hold into a sale on confirmation")
+        void shouldClearStockHoldOnConfirmation() {
+            StatusChange change = StatusChange.confirm(LocalDateTime.now());
+
+            assertTrue(change.getFields().containsKey("holdExpiresAt"));
+            assertNull(change.getFields().get("holdExpiresAt"));
         }
 
         @Test
@@ -329,39 +488,45 @@ class OrderServiceTest {
             Order order = Order.builder()
                     .id("order123")
                     .userId("user123")
-                    .status(OrderStatus.CREATED)
+                    .status(OrderStatus.PREPARING)
                     .build();
 
-            when(orderRepository.findById("order123")).thenReturn(Optional.of(order));
-            when(orderRepository.save(any(Order.class))).thenReturn(order);
+            when(orderRepository.transition(eq("order123"), any(), any())).thenReturn(Optional.of(order));
 
             orderService.confirmOrder("order123");
 
-            ArgumentCaptor<OrderConfirmedEvent> eventCaptor = ArgumentCaptor.forClass(OrderConfirmedEvent.class);
-            verify(eventPublisher).publish(eventCaptor.capture());
+            ArgumentCaptor<DomainEvent> eventCaptor = ArgumentCaptor.forClass(DomainEvent.class);
+            verify(eventPublisher, times(2)).publish(eventCaptor.capture());
 
-            assertEquals("order123", eventCaptor.getValue().getOrderId());
+            OrderConfirmedEvent confirmed = assertInstanceOf(OrderConfirmedEvent.class, eventCaptor.getAllValues().get(0));
+            assertEquals("order123", confirmed.getOrderId());
+            assertEquals("user123", confirmed.getUserId());
+            OrderStatusChangedEvent changed = assertInstanceOf(OrderStatusChangedEvent.class, eventCaptor.getAllValues().get(1));
+            assertEquals("PREPARING", changed.getStatus());
         }
 
         @Test
-        @DisplayName("Should throw BadRequestException when confirming non-CREATED order")
-        void shouldThrowExceptionWhenConfirmingNonCreatedOrder() {
+        @DisplayName("Should report a conflict when the order is no longer placed")
+        void shouldReportConflictWhenNotPlaced() {
             Order order = Order.builder()
                     .id("order123")
                     .status(OrderStatus.CONFIRMED)
                     .build();
 
+            when(orderRepository.transition(eq("order123"), any(), any())).thenReturn(Optional.empty());
             when(orderRepository.findById("order123")).thenReturn(Optional.of(order));
 
-            BadRequestException exception = assertThrows(BadRequestException.class,
+            ConflictException exception = assertThrows(ConflictException.class,
                     () -> orderService.confirmOrder("order123"));
 
-            assertEquals("Only placed orders can be confirmed", exception.getMessage());
+            assertEquals("Only placed orders can be confirmed; order is CONFIRMED", exception.getMessage());
+            verifyNoInteractions(eventPublisher);
         }
 
         @Test
         @DisplayName("Should throw ResourceNotFoundException for non-existent order")
         void shouldThrowExceptionForNonExistentOrder() {
+            when(orderRepository.transition(eq("nonexistent"), any(), any())).thenReturn(Optional.empty());
             when(orderRepository.findById("nonexistent")).thenReturn(Optional.empty());
 
             assertThrows(ResourceNotFoundException.class, 
@@ -373,78 +538,71 @@ class OrderServiceTest {
     @DisplayName("Order Cancellation")
     class OrderCancellation {
 
-        @Test
-        @DisplayName("Should cancel CREATED order")
-        void shouldCancelCreatedOrder() {
-            Order order = Order.builder()
+        private Order cancelledOrder() {
+            return Order.builder()
                     .id("order123")
                     .userId("user123")
                     .items(List.of(
-                            OrderItem.builder().productId("product1").quantity(2).build()
+                            OrderItem.builder().productId("product1").quantity(2).build(),
+                            OrderItem.builder().productId("product2").quantity(3).build()
                     ))
-                    .status(OrderStatus.CREATED)
+                    .status(OrderStatus.CANCELLED)
+                    .cancellationReason("User requested")
                     .build();
+        }
 
-            when(orderRepository.findById("order123")).thenReturn(Optional.of(order));
-            when(orderRepository.save(any(Order.class))).thenReturn(order);
+        @Test
+        @DisplayName("Should cancel an order that has not shipped with the given reason")
+        void shouldCancelUnshippedOrder() {
+            when(orderRepository.transition(eq("order123"), eq(OrderTransitions.CANCELLABLE), any(StatusChange.class)))
+                    .thenReturn(Optional.of(cancelledOrder()));
 
             orderService.cancelOrder("order123", "User requested");
 
-            assertEquals(OrderStatus.CANCELLED, order.getStatus());
-            assertEquals("User requested", order.getCancellationReason());
-            assertNotNull(order.getCancelledAt());
+            ArgumentCaptor<StatusChange> changeCaptor = ArgumentCaptor.forClass(StatusChange.class);
+            verify(orderRepository).transition(eq("order123"), eq(OrderTransitions.CANCELLABLE), changeCaptor.capture());
+            assertEquals(OrderStatus.CANCELLED, changeCaptor.getValue().getStatus());
+            assertEquals("User requested", changeCaptor.getValue().getFields().get("cancellationReason"));
+            assertNotNull(changeCaptor.getValue().getFields().get("cancelledAt"));
         }
 
         @Test
-        @DisplayName("Should restore stock when cancelling order")
+        @DisplayName("Should restore stock of the order the cancellation won in one batch")
         void shouldRestoreStockWhenCancellingOrder() {
-            Order order = Order.builder()
-                    .id("order123")
-                    .userId("user123")
-                    .items(List.of(
-                            OrderItem.builder().productId("product1").quantity(2).build(),
-                            OrderItem.builder().productId("product2").quantity(3).build()
-                    ))
-                    .status(OrderStatus.CREATED)
-                    .build();
-
-            when(orderRepository.findById("order123")).thenReturn(Optional.of(order));
-            when(orderRepository.save(any(Order.class))).thenReturn(order);
+            when(orderRepository.transition(eq("order123"), any(), any())).thenReturn(Optional.of(cancelledOrder()));
 
             orderService.cancelOrder("order123", "User requested");
 
-            verify(productModuleApi).restoreStock("product1", 2);
-            verify(productModuleApi).restoreStock("product2", 3);
+            verify(productModuleApi).releaseStock(Map.of("product1", 2, "product2", 3));
+            verify(productModuleApi, never()).restoreStock(anyString(), anyInt());
         }
 
         @Test
-        @DisplayName("Should throw BadRequestException when cancelling CONFIRMED order")
+        @DisplayName("Should report a conflict when cancelling a CONFIRMED order")
         void shouldThrowExceptionWhenCancellingConfirmedOrder() {
             Order order = Order.builder()
                     .id("order123")
                     .status(OrderStatus.CONFIRMED)
                     .build();
 
+            when(orderRepository.transition(eq("order123"), any(), any())).thenReturn(Optional.empty());
             when(orderRepository.findById("order123")).thenReturn(Optional.of(order));
 
-            BadRequestException exception = assertThrows(BadRequestException.class, 
+            ConflictException exception = assertThrows(ConflictException.class, 
                     () -> orderService.cancelOrder("order123", "Reason"));
             
-            assertEquals("Order cannot be cancelled in current status", exception.getMessage());
+            assertEquals("Order cannot be cancelled in current status: CONFIRMED", exception.getMessage());
         }
 
         @Test
-        @DisplayName("Should throw BadRequestException when cancelling already CANCELLED order")
-        void shouldThrowExceptionWhenCancellingAlreadyCancelledOrder() {
-            Order order = Order.builder()
-                    .id("order123")
-                    .status(OrderStatus.CANCELLED)
-                    .build();
+        @DisplayName("Should not restore stock twice when the order was already cancelled")
+        void shouldNotRestoreStockForAlreadyCancelledOrder() {
+            when(orderRepository.transition(eq("order123"), any(), any())).thenReturn(Optional.empty());
+            when(orderRepository.findById("order123")).thenReturn(Optional.of(cancelledOrder()));
 
-            when(orderRepository.findById("order123")).thenReturn(Optional.of(order));
-
-            assertThrows(BadRequestException.class, 
+            assertThrows(ConflictException.class, 
                     () -> orderService.cancelOrder("order123", "Reason"));
+            verifyNoInteractions(productModuleApi);
         }
     }
 
@@ -490,12 +648,290 @@ class OrderServiceTest {
             Pageable pageable = PageRequest.of(0, 10);
             Page<Order> orderPage = new PageImpl<>(List.of(order1, order2), pageable, 2);
 
-            when(orderRepository.findByUserId("user123", pageable)).thenReturn(orderPage);
+            when(archivedOrderRepository.findSummariesByUserId("user123", pageable)).thenReturn(Page.empty());
+            when(orderRepository.findSummariesByUserId("user123", pageable)).thenReturn(orderPage);
 
-            Page<OrderResponse> result = orderService.getUserOrders("user123", pageable);
+            Page<OrderSummary> result = orderService.getUserOrders("user123", pageable);
 
             assertEquals(2, result.getContent().size());
         }
+
+        @Test
+        @DisplayName("Should summarize orders with item count and first item thumbnails")
+        void shouldSummarizeOrdersWithItemPreviews() {
+            List<OrderItem> items = new ArrayList<>();
+            for (int i = 1; i <= 6; i++) {
+                items.add(OrderItem.builder().productName("Item " + i).productImage("img" + i + ".jpg").build());
+            }
+            Order order = Order.builder().id("order1").userId("user123").items(items)
+                    .totalAmount(new BigDecimal("60.00")).status(OrderStatus.SHIPPED).build();
+
+            Pageable pageable = PageRequest.of(0, 10);
+            when(archivedOrderRepository.findSummariesByUserId("user123", pageable)).thenReturn(Page.empty());
+            when(orderRepository.findSummariesByUserId("user123", pageable))
+                    .thenReturn(new PageImpl<>(List.of(order), pageable, 1));
+
+            OrderSummary summary = orderService.getUserOrders("user123", pageable).getContent().get(0);
+
+            assertEquals(6, summary.getItemCount());
+            assertEquals(List.of("img1.jpg", "img2.jpg", "img3.jpg", "img4.jpg"),
+                    summary.getPreviewItems().stream().map(OrderItemPreview::getProductImage).toList());
+            assertEquals(OrderStatus.SHIPPED, summary.getStatus());
+        }
+
+        @Test
+        @DisplayName("Should scroll user orders by cursor and hand back the next cursor")
+        void shouldScrollUserOrdersByCursor() {
+            LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0);
+            Order order1 = Order.builder().id("order1").userId("user123").createdAt(now)
+                    .items(List.of()).status(OrderStatus.CREATED).build();
+            Order order2 = Order.builder().id("order2").userId("user123").createdAt(now.minusHours(1))
+                    .items(List.of()).status(OrderStatus.CREATED).build();
+            Order order3 = Order.builder().id("order3").userId("user123").createdAt(now.minusHours(2))
+                    .items(List.of()).status(OrderStatus.CREATED).build();
+
+            when(orderRepository.findByUserIdAfter("user123", null, 3)).thenReturn(List.of(order1, order2, order3));
+
+            CursorPage<OrderSummary> result = orderService.getUserOrders("user123", null, 2);
+
+            assertEquals(List.of("order1", "order2"), result.content().stream().map(OrderSummary::getId).toList());
+            assertEquals(new Cursor(now.minusHours(1), "order2"), Cursor.decode(result.nextCursor()));
+            verify(orderRepository, never()).findSummariesByUserId(anyString(), any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("Should find an order that has been archived")
+        void shouldFallBackToArchiveForOrder() {
+            Order archived = Order.builder().id("order123").userId("user123")
+                    .status(OrderStatus.DELIVERED).items(List.of()).build();
+            when(orderRepository.findByIdAndUserId("order123", "user123")).thenReturn(Optional.empty());
+            when(archivedOrderRepository.findOrder("order123", "user123")).thenReturn(Optional.of(archived));
+
+            OrderResponse response = orderService.getOrder("user123", "order123");
+
+            assertEquals(OrderStatus.DELIVERED, response.getStatus());
+        }
+
+        @Test
+        @DisplayName("Should page across hot and archived orders as one history")
+        void shouldPageAcrossTiers() {
+            LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0);
+            Order hot1 = Order.builder().id("h1").createdAt(now).items(List.of()).status(OrderStatus.PLACED).build();
+            Order hot2 = Order.builder().id("h2").createdAt(now.minusDays(2)).items(List.of()).status(OrderStatus.PLACED).build();
+            ArchivedOrder cold1 = ArchivedOrder.builder().id("a1").createdAt(now.minusDays(1))
+                    .status(OrderStatus.DELIVERED).build();
+            ArchivedOrder cold2 = ArchivedOrder.builder().id("a2").createdAt(now.minusDays(3))
+                    .status(OrderStatus.CANCELLED).build();
+
+            Sort sort = Sort.by(Sort.Direction.DESC, "createdAt");
+            Pageable pageable = PageRequest.of(1, 2, sort);
+            Pageable head = PageRequest.of(0, 4, sort);
+            when(archivedOrderRepository.findSummariesByUserId("user123", head))
+                    .thenReturn(new PageImpl<>(List.of(cold1, cold2), head, 2));
+            when(orderRepository.findSummariesByUserId("user123", head))
+                    .thenReturn(new PageImpl<>(List.of(hot1, hot2), head, 2));
+
+            Page<OrderSummary> result = orderService.getUserOrders("user123", pageable);
+
+            assertEquals(List.of("h2", "a2"), result.getContent().stream().map(OrderSummary::getId).toList());
+            assertEquals(4, result.getTotalElements());
+        }
+
+        @Test
+        @DisplayName("Should scroll across hot and archived orders, listing an order caught mid-archival once")
+        void shouldScrollAcrossTiers() {
+            LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0);
+            Order hot = Order.builder().id("h1").createdAt(now).items(List.of()).status(OrderStatus.PLACED).build();
+            Order moving = Order.builder().id("m1").createdAt(now.minusDays(2)).items(List.of())
+                    .status(OrderStatus.DELIVERED).build();
+            ArchivedOrder movingCopy = ArchivedOrder.builder().id("m1").createdAt(now.minusDays(2))
+                    .status(OrderStatus.DELIVERED).build();
+            ArchivedOrder cold = ArchivedOrder.builder().id("a1").createdAt(now.minusDays(1))
+                    .status(OrderStatus.DELIVERED).build();
+
+            when(orderRepository.findByUserIdAfter("user123", null, 3)).thenReturn(List.of(hot, moving));
+            when(archivedOrderRepository.findByUserIdAfter("user123", null, 3)).thenReturn(List.of(cold, movingCopy));
+
+            CursorPage<OrderSummary> result = orderService.getUserOrders("user123", null, 2);
+
+            assertEquals(List.of("h1", "a1"), result.content().stream().map(OrderSummary::getId).toList());
+            assertEquals(new Cursor(now.minusDays(1), "a1"), Cursor.decode(result.nextCursor()));
+        }
+
+        @Test
+        @DisplayName("Should refuse to cancel an archived order")
+        void shouldRefuseToCancelArchivedOrder() {
+            Order archived = Order.builder().id("order123").userId("user123")
+                    .status(OrderStatus.DELIVERED).items(List.of()).build();
+            when(orderRepository.findByIdAndUserId("order123", "user123")).thenReturn(Optional.empty());
+            when(archivedOrderRepository.findOrder("order123", "user123")).thenReturn(Optional.of(archived));
+
+            assertThrows(ConflictException.class, () -> orderService.cancelUserOrder("user123", "order123"));
+            verify(orderRepository, never()).transition(anyString(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should return no next cursor on the last vendor order page")
+        void shouldReturnNoNextCursorOnLastVendorOrderPage() {
+            Cursor after = new Cursor(LocalDateTime.of(2024, 5, 1, 12, 0), "order2");
+            VendorOrder order3 = VendorOrder.builder().id("order3:vendor1").orderId("order3")
+                    .createdAt(LocalDateTime.of(2024, 5, 1, 10, 0))
+                    .items(List.of()).status(OrderStatus.SHIPPED).build();
+
+            when(vendorOrderRepository.findByVendorIdAfter("vendor1", OrderStatus.SHIPPED, after, 21))
+                    .thenReturn(List.of(order3));
+
+            CursorPage<OrderSummary> result = orderService.getVendorOrders("vendor1", OrderStatus.SHIPPED, after, 20);
+
+            assertEquals("order3", result.content().get(0).getId());
+            assertNull(result.nextCursor());
+        }
+    }
+
+    @Nested
+    @DisplayName("Vendor Order Queries")
+    class VendorOrderQueries {
+
+        private Order sharedOrder() {
+            return Order.builder()
+                    .id("order123")
+                    .userId("user123")
+                    .status(OrderStatus.PREPARING)
+                    .items(new ArrayList<>(List.of(
+                            OrderItem.create("product1", "Mine", "", "vendor1", 2, new BigDecimal("10.00")),
+                            OrderItem.create("product2", "Theirs", "", "vendor2", 1, new BigDecimal("99.00")))))
+                    .totalAmount(new BigDecimal("119.00"))
+                    .build();
+        }
+
+        @Test
+        @DisplayName("Should list a vendor's share of orders with their own subtotal")
+        void shouldListVendorShareWithSubtotal() {
+            VendorOrder share = VendorOrder.of(sharedOrder()).get(0);
+            Pageable pageable = PageRequest.of(0, 20);
+            when(vendorOrderRepository.findSummariesByVendorId("vendor1", pageable))
+                    .thenReturn(new PageImpl<>(List.of(share), pageable, 1));
+
+            OrderSummary summary = orderService.getVendorOrders("vendor1", pageable).getContent().get(0);
+
+            assertEquals("order123", summary.getId());
+            assertEquals(new BigDecimal("20.00"), summary.getTotalAmount());
+            assertEquals(1, summary.getItemCount());
+        }
+
+        @Test
+        @DisplayName("Should show a vendor only their own items of an order")
+        void shouldShowOnlyVendorItems() {
+            when(vendorOrderRepository.findById("order123:vendor1"))
+                    .thenReturn(Optional.of(VendorOrder.of(sharedOrder()).get(0)));
+
+            OrderResponse response = orderService.getVendorOrder("vendor1", "order123");
+
+            assertEquals(List.of("product1"), response.getItems().stream().map(OrderItemResponse::getProductId).toList());
+            assertEquals(new BigDecimal("20.00"), response.getTotalAmount());
+        }
+
+        @Test
+        @DisplayName("Should publish a status change so the read model follows a vendor update")
+        void shouldPublishStatusChangeOnVendorUpdate() {
+            Order order = sharedOrder();
+            order.setStatus(OrderStatus.SHIPPED);
+            when(orderRepository.transitionForVendor(eq("order123"), eq("vendor1"), any(), any()))
+                    .thenReturn(Optional.of(order));
+
+            OrderResponse response = orderService.updateOrderStatus("vendor1", "order123",
+                    UpdateOrderStatusRequest.builder().status(OrderStatus.SHIPPED).build());
+
+            ArgumentCaptor<OrderStatusChangedEvent> eventCaptor = ArgumentCaptor.forClass(OrderStatusChangedEvent.class);
+            verify(eventPublisher).publish(eventCaptor.capture());
+            assertEquals("SHIPPED", eventCaptor.getValue().getStatus());
+            assertEquals(1, response.getItems().size());
+        }
+
+        @Test
+        @DisplayName("Should apply a vendor update only from statuses the transition table allows")
+        void shouldApplyVendorUpdateFromAllowedStatuses() {
+            when(orderRepository.transitionForVendor(eq("order123"), eq("vendor1"), any(), any()))
+                    .thenReturn(Optional.of(sharedOrder()));
+
+            orderService.updateOrderStatus("vendor1", "order123",
+                    UpdateOrderStatusRequest.builder().status(OrderStatus.SHIPPED).note("On its way").build());
+
+            ArgumentCaptor<StatusChange> changeCaptor = ArgumentCaptor.forClass(StatusChange.class);
+            verify(orderRepository).transitionForVendor(eq("order123"), eq("vendor1"),
+                    eq(Set.of(OrderStatus.CONFIRMED, OrderStatus.PREPARING, OrderStatus.DELIVERY_SCHEDULED)),
+                    changeCaptor.capture());
+            assertEquals("On its way", changeCaptor.getValue().getFields().get("statusNote"));
+            assertNotNull(changeCaptor.getValue().getFields().get("shippedAt"));
+            verify(orderRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should return every line's stock once when a vendor cancels the order")
+        void shouldReleaseStockWhenVendorCancels() {
+            Order cancelled = sharedOrder();
+            cancelled.setStatus(OrderStatus.CANCELLED);
+            cancelled.getItems().add(OrderItem.create("product1", "Mine", "", "vendor1", 3, new BigDecimal("10.00")));
+            when(orderRepository.transitionForVendor(eq("order123"), eq("vendor1"), any(), any()))
+                    .thenReturn(Optional.of(cancelled));
+
+            orderService.updateOrderStatus("vendor1", "order123",
+                    UpdateOrderStatusRequest.builder().status(OrderStatus.CANCELLED).note("Out of stock").build());
+
+            verify(productModuleApi).releaseStock(Map.of("product1", 5, "product2", 1));
+        }
+
+        @Test
+        @DisplayName("Should leave stock alone when a vendor cancellation loses the race")
+        void shouldNotReleaseStockForLostVendorCancellation() {
+            Order cancelled = sharedOrder();
+            cancelled.setStatus(OrderStatus.CANCELLED);
+            when(orderRepository.transitionForVendor(eq("order123"), eq("vendor1"), any(), any()))
+                    .thenReturn(Optional.empty());
+            when(orderRepository.findByIdAndVendorId("order123", "vendor1")).thenReturn(Optional.of(cancelled));
+
+            assertThrows(ConflictException.class, () -> orderService.updateOrderStatus("vendor1", "order123",
+                    UpdateOrderStatusRequest.builder().status(OrderStatus.CANCELLED).build()));
+
+            verifyNoInteractions(productModuleApi);
+        }
+
+        @Test
+        @DisplayName("Should report a conflict when the order moved on before the update")
+        void shouldReportConflictForStaleVendorUpdate() {
+            Order delivered = sharedOrder();
+            delivered.setStatus(OrderStatus.DELIVERED);
+            when(orderRepository.transitionForVendor(eq("order123"), eq("vendor1"), any(), any()))
+                    .thenReturn(Optional.empty());
+            when(orderRepository.findByIdAndVendorId("order123", "vendor1")).thenReturn(Optional.of(delivered));
+
+            ConflictException exception = assertThrows(ConflictException.class,
+                    () -> orderService.updateOrderStatus("vendor1", "order123",
+                            UpdateOrderStatusRequest.builder().status(OrderStatus.SHIPPED).build()));
+
+            assertEquals("Cannot transition from DELIVERED to SHIPPED", exception.getMessage());
+            verifyNoInteractions(eventPublisher);
+        }
+
+        @Test
+        @DisplayName("Should reject statuses vendors can never set without touching the database")
+        void shouldRejectStatusVendorsCannotSet() {
+            assertThrows(BadRequestException.class,
+                    () -> orderService.updateOrderStatus("vendor1", "order123",
+                            UpdateOrderStatusRequest.builder().status(OrderStatus.PLACED).build()));
+
+            verifyNoInteractions(orderRepository);
+        }
+
+        @Test
+        @DisplayName("Should require a delivery date to schedule delivery")
+        void shouldRequireDeliveryDateToSchedule() {
+            assertThrows(BadRequestException.class,
+                    () -> orderService.updateOrderStatus("vendor1", "order123",
+                            UpdateOrderStatusRequest.builder().status(OrderStatus.DELIVERY_SCHEDULED).build()));
+
+            verifyNoInteractions(orderRepository);
+        }
     }
 
     @Nested
@@ -515,12 +951,12 @@ class OrderServiceTest {
                     "payment123", "order123", "user123", new BigDecimal("100.00"), "TXN123"
             );
 
-            when(orderRepository.findById("order123")).thenReturn(Optional.of(order));
-            when(orderRepository.save(any(Order.class))).thenReturn(order);
+            when(orderRepository.transition(eq("order123"), eq(OrderTransitions.UNPAID), any()))
+                    .thenReturn(Optional.of(order));
 
             orderService.handlePaymentSuccess(event);
 
-            assertEquals(OrderStatus.PREPARING, order.getStatus());
+            verify(eventPublisher).publish(any(OrderConfirmedEvent.class));
         }
 
         @Test
@@ -539,13 +975,35 @@ class OrderServiceTest {
                     "payment123", "order123", "user123", new BigDecimal("100.00"), "Declined"
             );
 
-            when(orderRepository.findById("order123")).thenReturn(Optional.of(order));
-            when(orderRepository.save(any(Order.class))).thenReturn(order);
+            when(orderRepository.transition(eq("order123"), eq(OrderTransitions.CANCELLABLE), any()))
+                    .thenReturn(Optional.of(order));
 
             orderService.handlePaymentFailed(event);
 
-            assertEquals(OrderStatus.CANCELLED, order.getStatus());
-            assertTrue(order.getCancellationReason().contains("Payment failed"));
+            ArgumentCaptor<StatusChange> changeCaptor = ArgumentCaptor.forClass(StatusChange.class);
+            verify(orderRepository).transition(eq("order123"), any(), changeCaptor.capture());
+            assertTrue(((String) changeCaptor.getValue().getFields().get("cancellationReason")).contains("Payment failed"));
+            verify(productModuleApi).releaseStock(Map.of("product1", 2));
+        }
+
+        @Test
+        @DisplayName("Should ignore a late PaymentFailedEvent for an order that has shipped")
+        void shouldIgnoreLatePaymentFailure() {
+            Order shipped = Order.builder()
+                    .id("order123")
+                    .status(OrderStatus.SHIPPED)
+                    .build();
+
+            PaymentFailedEvent event = new PaymentFailedEvent(
+                    "payment123", "order123", "user123", new BigDecimal("100.00"), "Declined"
+            );
+
+            when(orderRepository.transition(eq("order123"), any(), any())).thenReturn(Optional.empty());
+            when(orderRepository.findById("order123")).thenReturn(Optional.of(shipped));
+
+            assertDoesNotThrow(() -> orderService.handlePaymentFailed(event));
+
+            verifyNoInteractions(productModuleApi);
         }
     }
 }
@@ -0,0 +1,160 @@
+package com.shopapp.order.service;
+
+import com.shopapp.order.domain.Order;
+import com.shopapp.order.domain.OrderItem;
+import com.shopapp.order.repository.OrderRepository;
+import com.shopapp.shared.events.DomainEventPublisher;
+import com.shopapp.shared.events.order.OrderStatusChangedEvent;
+import com.shopapp.shared.interfaces.ProductModuleApi;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockHoldSweeper Tests")
+class StockHoldSweeperTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ProductModuleApi productModuleApi;
+
+    @Mock
+    private DomainEventPublisher eventPublisher;
+
+    private StockHoldSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        sweeper = new StockHoldSweeper(orderRepository, productModuleApi, eventPublisher, 15, 2, 60000);
+    }
+
+    private Order heldOrder(String id, OrderItem... items) {
+        return Order.builder()
+                .id(id)
+                .items(List.of(items))
+                .build();
+    }
+
+    private OrderItem item(String productId, int quantity) {
+        return OrderItem.create(productId, "Product", null, "vendorId", quantity, new BigDecimal("10.00"));
+    }
+
+    @Test
+    @DisplayName("Should expire holds after the configured TTL")
+    void shouldExpireHoldsAfterTtl() {
+        assertEquals(NOW.plusMinutes(15), sweeper.expiresAt(NOW));
+    }
+
+    @Test
+    @DisplayName("Should cancel expired orders and release their stock in one bulk write per batch")
+    void shouldReleaseExpiredHoldsInBatches() {
+        when(orderRepository.findExpiredHoldIds(NOW, 2))
+                .thenReturn(List.of("o1", "o2"))
+                .thenReturn(List.of("o3"));
+        when(orderRepository.cancelExpiredHolds(any(), eq(NOW), anyString(), eq(StockHoldSweeper.EXPIRED_REASON)))
+                .thenReturn(2L)
+                .thenReturn(1L);
+        when(orderRepository.findHoldReleases(anyString()))
+                .thenReturn(List.of(heldOrder("o1", item("p1", 2)), heldOrder("o2", item("p1", 1), item("p2", 4))))
+                .thenReturn(List.of(heldOrder("o3", item("p2", 1))));
+
+        int released = sweeper.sweep(NOW);
+
+        assertEquals(3, released);
+        verify(productModuleApi).releaseStock(anyString(), eq(Map.of("p1", 3, "p2", 4)));
+        verify(productModuleApi).releaseStock(anyString(), eq(Map.of("p2", 1)));
+        verify(orderRepository, times(2)).completeHoldReleases(anyString());
+        // One status change per cancelled order keeps the vendor read model in step
+        verify(eventPublisher, times(3)).publish(any(OrderStatusChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should finish a release left half done by a sweep that failed between its steps")
+    void shouldResumeReleaseInterruptedBetweenSteps() {
+        when(orderRepository.findExpiredHoldIds(NOW, 2)).thenReturn(List.of("o1")).thenReturn(List.of());
+        when(orderRepository.cancelExpiredHolds(eq(List.of("o1")), eq(NOW), anyString(), anyString())).thenReturn(1L);
+        when(orderRepository.findHoldReleases(anyString())).thenReturn(List.of(heldOrder("o1", item("p1", 2))));
+        doThrow(new IllegalStateException("connection reset"))
+                .doNothing()
+                .when(productModuleApi).releaseStock(anyString(), any());
+
+        // The orders are cancelled and tagged, but the stock never made it back
+        assertThrows(IllegalStateException.class, () -> sweeper.sweep(NOW));
+        verify(orderRepository, never()).completeHoldReleases(anyString());
+        ArgumentCaptor<String> releaseId = ArgumentCaptor.forClass(String.class);
+        verify(orderRepository).cancelExpiredHolds(any(), any(), releaseId.capture(), anyString());
+
+        // Too recent to be stalled: the release may still be running elsewhere
+        LocalDateTime soon = NOW.plusSeconds(30);
+        when(orderRepository.findStalledHoldReleases(soon.minusMinutes(1), 2)).thenReturn(List.of());
+        sweeper.sweep(soon);
+        verify(productModuleApi, times(1)).releaseStock(anyString(), any());
+
+        LocalDateTime later = NOW.plusMinutes(2);
+        Order stalled = Order.builder().id("o1").holdReleaseId(releaseId.getValue()).build();
+        when(orderRepository.findStalledHoldReleases(later.minusMinutes(1), 2)).thenReturn(List.of(stalled));
+
+        assertEquals(0, sweeper.sweep(later));
+
+        // Retried under the same release ID, so products the first attempt reached are skipped
+        verify(productModuleApi, times(2)).releaseStock(releaseId.getValue(), Map.of("p1", 2));
+        verify(orderRepository).completeHoldReleases(releaseId.getValue());
+        verify(productModuleApi).forgetRelease(releaseId.getValue(), Set.of("p1"));
+        verify(eventPublisher).publish(any(OrderStatusChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should release stock only for the orders the sweep actually cancelled")
+    void shouldReleaseOnlyClaimedOrders() {
+        when(orderRepository.findExpiredHoldIds(NOW, 2)).thenReturn(List.of("o1"));
+        when(orderRepository.cancelExpiredHolds(eq(List.of("o1")), eq(NOW), anyString(), anyString()))
+                .thenReturn(0L);
+
+        assertEquals(0, sweeper.sweep(NOW));
+
+        verify(orderRepository, never()).findHoldReleases(anyString());
+        verifyNoInteractions(productModuleApi);
+    }
+
+    @Test
+    @DisplayName("Should do nothing when no hold has expired")
+    void shouldDoNothingWithoutExpiredHolds() {
+        when(orderRepository.findExpiredHoldIds(NOW, 2)).thenReturn(List.of());
+
+        assertEquals(0, sweeper.sweep(NOW));
+
+        verify(orderRepository, never()).cancelExpiredHolds(any(), any(), anyString(), anyString());
+        verifyNoInteractions(productModuleApi);
+    }
+
+    @Test
+    @DisplayName("Should reject a non-positive TTL or batch size")
+    void shouldRejectInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new StockHoldSweeper(orderRepository, productModuleApi, eventPublisher, 0, 10, 60000));
+        assertThrows(IllegalArgumentException.class,
+                () -> new StockHoldSweeper(orderRepository, productModuleApi, eventPublisher, 15, 0, 60000));
+        assertThrows(IllegalArgumentException.class,
+                () -> new StockHoldSweeper(orderRepository, productModuleApi, eventPublisher, 15, 10, 0));
+    }
+}
@@ -0,0 +1,119 @@
+package com.shopapp.order.service;
+
+import com.shopapp.order.domain.Order;
+import com.shopapp.order.domain.OrderItem;
+import com.shopapp.order.domain.OrderStatus;
+import com.shopapp.order.domain.VendorOrder;
+import com.shopapp.order.repository.OrderRepository;
+import com.shopapp.order.repository.VendorOrderRepository;
+import com.shopapp.shared.events.order.OrderCreatedEvent;
+import com.shopapp.shared.events.order.OrderStatusChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("VendorOrderProjection Tests")
+class VendorOrderProjectionTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private VendorOrderRepository vendorOrderRepository;
+
+    @InjectMocks
+    private VendorOrderProjection projection;
+
+    private Order order(OrderStatus status) {
+        return Order.builder()
+                .id("order1")
+                .userId("user1")
+                .status(status)
+                .items(List.of(
+                        OrderItem.create("p1", "A", null, "vendor1", 2, new BigDecimal("5.00")),
+                        OrderItem.create("p2", "B", null, "vendor2", 1, new BigDecimal("7.50")),
+                        OrderItem.create("p3", "C", null, "vendor1", 1, new BigDecimal("3.00"))))
+                .totalAmount(new BigDecimal("20.50"))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should split an order into one document per vendor with only that vendor's items")
+    @SuppressWarnings("unchecked")
+    void shouldProjectOneDocumentPerVendor() {
+        when(orderRepository.findById("order1")).thenReturn(Optional.of(order(OrderStatus.PLACED)));
+
+        projection.handleOrderCreated(new OrderCreatedEvent("order1", "user1", new BigDecimal("20.50")));
+
+        ArgumentCaptor<List<VendorOrder>> captor = ArgumentCaptor.forClass(List.class);
+        verify(vendorOrderRepository).saveAllIfNewer(captor.capture());
+        List<VendorOrder> shares = captor.getValue();
+
+        assertEquals(List.of("order1:vendor1", "order1:vendor2"), shares.stream().map(VendorOrder::getId).toList());
+        assertEquals(new BigDecimal("13.00"), shares.get(0).getSubtotal());
+        assertEquals(2, shares.get(0).getItems().size());
+        assertEquals(new BigDecimal("7.50"), shares.get(1).getSubtotal());
+    }
+
+    @Test
+    @DisplayName("Should overwrite every vendor's document with the order's new status")
+    @SuppressWarnings("unchecked")
+    void shouldFollowStatusChanges() {
+        when(orderRepository.findById("order1")).thenReturn(Optional.of(order(OrderStatus.SHIPPED)));
+
+        projection.handleOrderStatusChanged(new OrderStatusChangedEvent("order1", "SHIPPED"));
+
+        ArgumentCaptor<List<VendorOrder>> captor = ArgumentCaptor.forClass(List.class);
+        verify(vendorOrderRepository).saveAllIfNewer(captor.capture());
+        assertTrue(captor.getValue().stream().allMatch(share -> share.getStatus() == OrderStatus.SHIPPED));
+    }
+
+    @Test
+    @DisplayName("Should not fail the order operation when the projection cannot be written")
+    void shouldSwallowProjectionFailures() {
+        when(orderRepository.findById("order1")).thenReturn(Optional.of(order(OrderStatus.PLACED)));
+        doThrow(new IllegalStateException("down")).when(vendorOrderRepository).saveAllIfNewer(anyList());
+
+        assertDoesNotThrow(() -> projection.refresh("order1"));
+    }
+
+    @Test
+    @DisplayName("Should backfill existing orders until a pass has completed")
+    void shouldBackfillUntilMarkedComplete() {
+        when(vendorOrderRepository.isBackfilled()).thenReturn(false, true);
+        when(orderRepository.streamAllBy()).thenReturn(Stream.of(order(OrderStatus.DELIVERED)));
+
+        projection.backfill();
+        projection.backfill();
+
+        verify(orderRepository, times(1)).streamAllBy();
+        verify(vendorOrderRepository, times(1)).saveAllIfNewer(anyList());
+        verify(vendorOrderRepository).markBackfilled();
+    }
+
+    @Test
+    @DisplayName("Should leave the backfill unmarked when it stops part way, so the next start resumes it")
+    void shouldNotMarkInterruptedBackfill() {
+        when(vendorOrderRepository.isBackfilled()).thenReturn(false);
+        when(orderRepository.streamAllBy()).thenReturn(Stream.of(order(OrderStatus.DELIVERED)));
+        doThrow(new IllegalStateException("down")).when(vendorOrderRepository).saveAllIfNewer(anyList());
+
+        assertThrows(IllegalStateException.class, () -> projection.backfill());
+
+        verify(vendorOrderRepository, never()).markBackfilled();
+    }
+}
@@ -0,0 +1,188 @@
+package com.shopapp.payment.service;
+
+import com.shopapp.payment.domain.Payment;
+import com.shopapp.payment.domain.PaymentStatus;
+import com.shopapp.payment.repository.PaymentRepository;
+import com.shopapp.shared.events.DomainEventPublisher;
+import com.shopapp.shared.events.payment.PaymentFailedEvent;
+import com.shopapp.shared.events.payment.PaymentSuccessEvent;
+import com.shopapp.shared.exception.ConflictException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PaymentQueue Tests")
+class PaymentQueueTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private PaymentGateway paymentGateway;
+
+    @Mock
+    private DomainEventPublisher eventPublisher;
+
+    private PaymentQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        queue = new PaymentQueue(paymentRepository, paymentGateway, eventPublisher, 1, 30, 500, 3, 1000);
+    }
+
+    private Payment claimed(int attempts) {
+        return Payment.builder()
+                .id("payment123")
+                .orderId("order123")
+                .userId("user123")
+                .amount(new BigDecimal("100.00"))
+                .status(PaymentStatus.PROCESSING)
+                .paymentMethod("CARD")
+                .attempts(attempts)
+                .build();
+    }
+
+    private Payment finished(PaymentStatus status, String transactionId, String failureReason) {
+        Payment payment = claimed(1);
+        payment.setStatus(status);
+        payment.setTransactionId(transactionId);
+        payment.setFailureReason(failureReason);
+        return payment;
+    }
+
+    @Test
+    @DisplayName("Should report an empty queue")
+    void shouldReportEmptyQueue() {
+        when(paymentRepository.claimNext(eq(NOW), eq(NOW.plusSeconds(30)), anyString())).thenReturn(Optional.empty());
+
+        assertFalse(queue.processNext(NOW));
+        verifyNoInteractions(paymentGateway);
+    }
+
+    @Test
+    @DisplayName("Should record an approved charge and confirm the order")
+    void shouldRecordApprovedCharge() {
+        when(paymentRepository.claimNext(eq(NOW), eq(NOW.plusSeconds(30)), anyString())).thenReturn(Optional.of(claimed(1)));
+        when(paymentGateway.charge(any())).thenReturn(PaymentGateway.ChargeResult.approved("TXN-1"));
+        when(paymentRepository.complete(eq("payment123"), anyString(), eq(PaymentStatus.SUCCESS), eq("TXN-1"),
+                isNull(), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(finished(PaymentStatus.SUCCESS, "TXN-1", null)));
+
+        assertTrue(queue.processNext(NOW));
+
+        ArgumentCaptor<PaymentSuccessEvent> event = ArgumentCaptor.forClass(PaymentSuccessEvent.class);
+        verify(eventPublisher).publish(event.capture());
+        assertEquals("order123", event.getValue().getOrderId());
+        assertEquals("TXN-1", event.getValue().getTransactionId());
+    }
+
+    @Test
+    @DisplayName("Should flag the charge for refund when the order was cancelled while the payment was queued")
+    void shouldFlagRefundWhenOrderCancelledWhileQueued() {
+        when(paymentRepository.claimNext(eq(NOW), eq(NOW.plusSeconds(30)), anyString())).thenReturn(Optional.of(claimed(1)));
+        when(paymentGateway.charge(any())).thenReturn(PaymentGateway.ChargeResult.approved("TXN-1"));
+        when(paymentRepository.complete(eq("payment123"), anyString(), eq(PaymentStatus.SUCCESS), eq("TXN-1"),
+                isNull(), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(finished(PaymentStatus.SUCCESS, "TXN-1", null)));
+        doThrow(new ConflictException("Only placed orders can be confirmed; order is CANCELLED"))
+                .when(eventPublisher).publish(any(PaymentSuccessEvent.class));
+        when(paymentRepository.markRefundPending(eq("payment123"), anyString())).thenReturn(true);
+
+        assertTrue(queue.processNext(NOW));
+
+        ArgumentCaptor<String> reason = ArgumentCaptor.forClass(String.class);
+        verify(paymentRepository).markRefundPending(eq("payment123"), reason.capture());
+        assertTrue(reason.getValue().contains("CANCELLED"));
+    }
+
+    @Test
+    @DisplayName("Should record a declined charge and fail the order")
+    void shouldRecordDeclinedCharge() {
+        when(paymentRepository.claimNext(eq(NOW), eq(NOW.plusSeconds(30)), anyString())).thenReturn(Optional.of(claimed(1)));
+        when(paymentGateway.charge(any())).thenReturn(PaymentGateway.ChargeResult.declined("Card declined"));
+        when(paymentRepository.complete(eq("payment123"), anyString(), eq(PaymentStatus.FAILED), isNull(),
+                eq("Card declined"), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(finished(PaymentStatus.FAILED, null, "Card declined")));
+
+        queue.processNext(NOW);
+
+        ArgumentCaptor<PaymentFailedEvent> event = ArgumentCaptor.forClass(PaymentFailedEvent.class);
+        verify(eventPublisher).publish(event.capture());
+        assertEquals("Card declined", event.getValue().getFailureReason());
+    }
+
+    @Test
+    @DisplayName("Should retry a charge that got no decision, backing off")
+    void shouldRetryUndecidedCharge() {
+        when(paymentRepository.claimNext(eq(NOW), eq(NOW.plusSeconds(30)), anyString())).thenReturn(Optional.of(claimed(2)));
+        when(paymentGateway.charge(any())).thenThrow(new PaymentGatewayException("timeout"));
+        LocalDateTime before = LocalDateTime.now();
+
+        queue.processNext(NOW);
+
+        ArgumentCaptor<LocalDateTime> retryAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(paymentRepository).retryLater(eq("payment123"), anyString(), retryAt.capture());
+        // Second attempt: twice the base backoff
+        assertFalse(retryAt.getValue().isBefore(before.plusSeconds(2)));
+        verify(paymentRepository, never()).complete(any(), any(), any(), any(), any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should fail the payment once every attempt got no decision")
+    void shouldFailAfterLastAttempt() {
+        when(paymentRepository.claimNext(eq(NOW), eq(NOW.plusSeconds(30)), anyString())).thenReturn(Optional.of(claimed(3)));
+        when(paymentGateway.charge(any())).thenThrow(new PaymentGatewayException("timeout"));
+        when(paymentRepository.complete(eq("payment123"), anyString(), eq(PaymentStatus.FAILED), isNull(),
+                anyString(), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(finished(PaymentStatus.FAILED, null, "unavailable")));
+
+        queue.processNext(NOW);
+
+        verify(paymentRepository, never()).retryLater(any(), any(), any());
+        verify(eventPublisher).publish(any(PaymentFailedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should publish nothing when another worker took the payment over")
+    void shouldPublishNothingAfterLosingClaim() {
+        when(paymentRepository.claimNext(eq(NOW), eq(NOW.plusSeconds(30)), anyString())).thenReturn(Optional.of(claimed(1)));
+        when(paymentGateway.charge(any())).thenReturn(PaymentGateway.ChargeResult.approved("TXN-1"));
+        when(paymentRepository.complete(any(), any(), any(), any(), any(), any())).thenReturn(Optional.empty());
+
+        queue.processNext(NOW);
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should keep the recorded outcome when the order update fails")
+    void shouldSurviveFailedOrderUpdate() {
+        when(paymentRepository.claimNext(eq(NOW), eq(NOW.plusSeconds(30)), anyString())).thenReturn(Optional.of(claimed(1)));
+        when(paymentGateway.charge(any())).thenReturn(PaymentGateway.ChargeResult.approved("TXN-1"));
+        when(paymentRepository.complete(any(), any(), any(), any(), any(), any()))
+                .thenReturn(Optional.of(finished(PaymentStatus.SUCCESS, "TXN-1", null)));
+        doThrow(new RuntimeException("order store down")).when(eventPublisher).publish(any());
+
+        assertTrue(queue.processNext(NOW));
+        verify(paymentRepository, never()).retryLater(any(), any(), any());
+    }
+}
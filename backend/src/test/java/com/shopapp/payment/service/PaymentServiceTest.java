@@ -7,8 +7,6 @@ import com.shopapp.payment.dto.PaymentResponse;
 import com.shopapp.payment.dto.ProcessPaymentRequest;
 import com.shopapp.payment.repository.PaymentRepository;
 import com.shopapp.shared.events.DomainEventPublisher;
-import com.shopapp.shared.events.payment.PaymentFailedEvent;
-import com.shopapp.shared.events.payment.PaymentSuccessEvent;
 import com.shopapp.shared.exception.BadRequestException;
 import com.shopapp.shared.exception.ResourceNotFoundException;
 import com.shopapp.shared.interfaces.OrderModuleApi;
@@ -16,21 +14,24 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -46,6 +47,9 @@ class PaymentServiceTest {
     @Mock
     private DomainEventPublisher eventPublisher;
 
+    @Mock
+    private PaymentQueue paymentQueue;
+
     @InjectMocks
     private PaymentService paymentService;
 
@@ -75,10 +79,8 @@ class PaymentServiceTest {
                     .status(PaymentStatus.PENDING)
                     .paymentMethod("CARD")
                     .build();
-
-            when(paymentRepository.existsByOrderId("order123")).thenReturn(false);
             when(orderModuleApi.findById("order123")).thenReturn(Optional.of(orderDto));
-            when(paymentRepository.save(any(Payment.class))).thenReturn(savedPayment);
+            when(paymentRepository.insert(any(Payment.class))).thenReturn(savedPayment);
 
             PaymentResponse response = paymentService.initiatePayment("user123", request);
 
@@ -97,10 +99,8 @@ class PaymentServiceTest {
                     .build();
 
             OrderModuleApi.OrderDto orderDto = createOrderDto("order123", "user123", "CREATED");
-
-            when(paymentRepository.existsByOrderId("order123")).thenReturn(false);
             when(orderModuleApi.findById("order123")).thenReturn(Optional.of(orderDto));
-            when(paymentRepository.save(any(Payment.class))).thenAnswer(i -> {
+            when(paymentRepository.insert(any(Payment.class))).thenAnswer(i -> {
                 Payment p = i.getArgument(0);
                 p.setId("payment123");
                 return p;
@@ -118,7 +118,9 @@ class PaymentServiceTest {
                     .orderId("order123")
                     .build();
 
-            when(paymentRepository.existsByOrderId("order123")).thenReturn(true);
+            when(orderModuleApi.findById("order123"))
+                    .thenReturn(Optional.of(createOrderDto("order123", "user123", "PLACED")));
+            when(paymentRepository.insert(any(Payment.class))).thenThrow(new DuplicateKeyException("orderId"));
 
             BadRequestException exception = assertThrows(BadRequestException.class, 
                     () -> paymentService.initiatePayment("user123", request));
@@ -132,8 +134,6 @@ class PaymentServiceTest {
             InitiatePaymentRequest request = InitiatePaymentRequest.builder()
                     .orderId("nonexistent")
                     .build();
-
-            when(paymentRepository.existsByOrderId("nonexistent")).thenReturn(false);
             when(orderModuleApi.findById("nonexistent")).thenReturn(Optional.empty());
 
             assertThrows(ResourceNotFoundException.class, 
@@ -148,8 +148,6 @@ class PaymentServiceTest {
                     .build();
 
             OrderModuleApi.OrderDto orderDto = createOrderDto("order123", "otherUser", "CREATED");
-
-            when(paymentRepository.existsByOrderId("order123")).thenReturn(false);
             when(orderModuleApi.findById("order123")).thenReturn(Optional.of(orderDto));
 
             BadRequestException exception = assertThrows(BadRequestException.class, 
@@ -158,6 +156,21 @@ class PaymentServiceTest {
             assertEquals("Order does not belong to current user", exception.getMessage());
         }
 
+        @Test
+        @DisplayName("Should initiate payment for a PLACED order")
+        void shouldInitiatePaymentForPlacedOrder() {
+            InitiatePaymentRequest request = InitiatePaymentRequest.builder()
+                    .orderId("order123")
+                    .build();
+            when(orderModuleApi.findById("order123"))
+                    .thenReturn(Optional.of(createOrderDto("order123", "user123", "PLACED")));
+            when(paymentRepository.insert(any(Payment.class))).thenAnswer(i -> i.getArgument(0));
+
+            PaymentResponse response = paymentService.initiatePayment("user123", request);
+
+            assertEquals(PaymentStatus.PENDING, response.getStatus());
+        }
+
         @Test
         @DisplayName("Should throw BadRequestException when order is not in CREATED status")
         void shouldThrowExceptionWhenOrderNotInCreatedStatus() {
@@ -166,8 +179,6 @@ class PaymentServiceTest {
                     .build();
 
             OrderModuleApi.OrderDto orderDto = createOrderDto("order123", "user123", "CONFIRMED");
-
-            when(paymentRepository.existsByOrderId("order123")).thenReturn(false);
             when(orderModuleApi.findById("order123")).thenReturn(Optional.of(orderDto));
 
             BadRequestException exception = assertThrows(BadRequestException.class, 
@@ -182,8 +193,8 @@ class PaymentServiceTest {
     class PaymentProcessing {
 
         @Test
-        @DisplayName("Should process payment successfully with simulateSuccess=true")
-        void shouldProcessPaymentSuccessfullyWithSimulateSuccess() {
+        @DisplayName("Should queue a pending payment and wake a worker")
+        void shouldQueuePendingPayment() {
             ProcessPaymentRequest request = ProcessPaymentRequest.builder()
                     .paymentId("payment123")
                     .simulateSuccess(true)
@@ -196,43 +207,27 @@ class PaymentServiceTest {
                     .amount(new BigDecimal("100.00"))
                     .status(PaymentStatus.PENDING)
                     .build();
-
-            when(paymentRepository.findByIdAndUserId("payment123", "user123")).thenReturn(Optional.of(payment));
-            when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
-
-            PaymentResponse response = paymentService.processPayment("user123", request);
-
-            assertEquals(PaymentStatus.SUCCESS, response.getStatus());
-            assertNotNull(response.getTransactionId());
-            assertNull(response.getFailureReason());
-        }
-
-        @Test
-        @DisplayName("Should publish PaymentSuccessEvent on successful payment")
-        void shouldPublishPaymentSuccessEventOnSuccess() {
-            ProcessPaymentRequest request = ProcessPaymentRequest.builder()
-                    .paymentId("payment123")
-                    .simulateSuccess(true)
-                    .build();
-
-            Payment payment = Payment.builder()
+            Payment queued = Payment.builder()
                     .id("payment123")
                     .orderId("order123")
                     .userId("user123")
                     .amount(new BigDecimal("100.00"))
-                    .status(PaymentStatus.PENDING)
+                    .status(PaymentStatus.PROCESSING)
+                    .simulateSuccess(true)
                     .build();
 
             when(paymentRepository.findByIdAndUserId("payment123", "user123")).thenReturn(Optional.of(payment));
-            when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
+            when(orderModuleApi.beginPayment("order123")).thenReturn(true);
+            when(paymentRepository.enqueue(eq("payment123"), eq("user123"), eq(true), any(LocalDateTime.class)))
+                    .thenReturn(Optional.of(queued));
 
-            paymentService.processPayment("user123", request);
-
-            ArgumentCaptor<PaymentSuccessEvent> eventCaptor = ArgumentCaptor.forClass(PaymentSuccessEvent.class);
-            verify(eventPublisher).publish(eventCaptor.capture());
+            PaymentResponse response = paymentService.processPayment("user123", request);
 
-            assertEquals("payment123", eventCaptor.getValue().getPaymentId());
-            assertEquals("order123", eventCaptor.getValue().getOrderId());
+            assertEquals(PaymentStatus.PROCESSING, response.getStatus());
+            assertNull(response.getTransactionId());
+            verify(paymentQueue).signal();
+            // The outcome is published by the worker that charges the payment
+            verifyNoInteractions(eventPublisher);
         }
 
         @Test
@@ -253,81 +248,66 @@ class PaymentServiceTest {
                     () -> paymentService.processPayment("user123", request));
             
             assertEquals("Payment has already been processed", exception.getMessage());
+            verify(paymentRepository, never()).enqueue(any(), any(), anyBoolean(), any());
         }
 
         @Test
-        @DisplayName("Should throw ResourceNotFoundException for non-existent payment")
-        void shouldThrowExceptionForNonExistentPayment() {
-            ProcessPaymentRequest request = ProcessPaymentRequest.builder()
-                    .paymentId("nonexistent")
-                    .build();
-
-            when(paymentRepository.findByIdAndUserId("nonexistent", "user123")).thenReturn(Optional.empty());
-
-            assertThrows(ResourceNotFoundException.class, 
-                    () -> paymentService.processPayment("user123", request));
-        }
-
-        @Test
-        @DisplayName("Should set processedAt timestamp on payment completion")
-        void shouldSetProcessedAtOnPaymentCompletion() {
+        @DisplayName("Should queue a payment submitted twice at once only once")
+        void shouldRejectConcurrentSecondSubmission() {
             ProcessPaymentRequest request = ProcessPaymentRequest.builder()
                     .paymentId("payment123")
-                    .simulateSuccess(true)
                     .build();
 
             Payment payment = Payment.builder()
                     .id("payment123")
                     .orderId("order123")
-                    .userId("user123")
-                    .amount(new BigDecimal("100.00"))
                     .status(PaymentStatus.PENDING)
                     .build();
 
             when(paymentRepository.findByIdAndUserId("payment123", "user123")).thenReturn(Optional.of(payment));
-            when(paymentRepository.save(any(Payment.class))).thenReturn(payment);
+            when(orderModuleApi.beginPayment("order123")).thenReturn(true);
+            when(paymentRepository.enqueue(eq("payment123"), eq("user123"), eq(false), any(LocalDateTime.class)))
+                    .thenReturn(Optional.empty());
 
-            PaymentResponse response = paymentService.processPayment("user123", request);
-
-            assertNotNull(response.getProcessedAt());
+            assertThrows(BadRequestException.class, () -> paymentService.processPayment("user123", request));
+            verify(paymentQueue, never()).signal();
         }
-    }
-
-    @Nested
-    @DisplayName("Payment Failure Handling")
-    class PaymentFailureHandling {
 
         @Test
-        @DisplayName("Should publish PaymentFailedEvent on failed payment")
-        void shouldPublishPaymentFailedEventOnFailure() {
+        @DisplayName("Should not queue a payment for an order no longer awaiting payment")
+        void shouldRejectPaymentForOrderOutOfHold() {
             ProcessPaymentRequest request = ProcessPaymentRequest.builder()
                     .paymentId("payment123")
-                    .simulateSuccess(false)
                     .build();
 
             Payment payment = Payment.builder()
                     .id("payment123")
                     .orderId("order123")
-                    .userId("user123")
-                    .amount(new BigDecimal("100.00"))
                     .status(PaymentStatus.PENDING)
                     .build();
 
             when(paymentRepository.findByIdAndUserId("payment123", "user123")).thenReturn(Optional.of(payment));
-            when(paymentRepository.save(any(Payment.class))).thenAnswer(i -> {
-                Payment p = i.getArgument(0);
-                p.setStatus(PaymentStatus.FAILED);
-                p.setFailureReason("Payment declined by payment provider");
-                return p;
-            });
+            when(orderModuleApi.beginPayment("order123")).thenReturn(false);
+
+            BadRequestException exception = assertThrows(BadRequestException.class,
+                    () -> paymentService.processPayment("user123", request));
+
+            assertEquals("Order is no longer awaiting payment", exception.getMessage());
+            verify(paymentRepository, never()).enqueue(any(), any(), anyBoolean(), any());
+            verify(paymentQueue, never()).signal();
+        }
 
-            // Force failure by setting random seed or directly testing the failure path
-            // Since we can't control random, we'll verify the structure handles failures
+        @Test
+        @DisplayName("Should throw ResourceNotFoundException for non-existent payment")
+        void shouldThrowExceptionForNonExistentPayment() {
+            ProcessPaymentRequest request = ProcessPaymentRequest.builder()
+                    .paymentId("nonexistent")
+                    .build();
 
-            paymentService.processPayment("user123", request);
+            when(paymentRepository.findByIdAndUserId("nonexistent", "user123")).thenReturn(Optional.empty());
 
-            // Either success or failure event should be published
-            verify(eventPublisher).publish(any());
+            assertThrows(ResourceNotFoundException.class, 
+                    () -> paymentService.processPayment("user123", request));
         }
     }
 
@@ -0,0 +1,81 @@
+package com.shopapp.payment.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SimulatedPaymentGateway Tests")
+class SimulatedPaymentGatewayTest {
+
+    private static PaymentGateway.ChargeRequest request(String paymentId, boolean simulateSuccess) {
+        return new PaymentGateway.ChargeRequest(paymentId, new BigDecimal("10.00"), "CARD", simulateSuccess);
+    }
+
+    @Test
+    @DisplayName("Should decline about the configured share of charges")
+    void shouldDeclineConfiguredShare() {
+        SimulatedPaymentGateway gateway = new SimulatedPaymentGateway(0, 0, 1000, 0, 0.25, new Random(7));
+
+        int declined = 0;
+        for (int i = 0; i < 2000; i++) {
+            if (!gateway.charge(request("p" + i, false)).approved()) {
+                declined++;
+            }
+        }
+
+        assertTrue(declined > 400 && declined < 600, "declined " + declined);
+    }
+
+    @Test
+    @DisplayName("Should approve charges that ask for success")
+    void shouldApproveRequestedSuccess() {
+        SimulatedPaymentGateway gateway = new SimulatedPaymentGateway(0, 0, 1000, 0, 1, new Random(7));
+
+        PaymentGateway.ChargeResult result = gateway.charge(request("p1", true));
+
+        assertTrue(result.approved());
+        assertTrue(result.transactionId().startsWith("TXN-"));
+    }
+
+    @Test
+    @DisplayName("Should answer a retried charge with its first decision")
+    void shouldRememberDecisions() {
+        SimulatedPaymentGateway gateway = new SimulatedPaymentGateway(0, 0, 1000, 0, 0.5, new Random(7));
+
+        PaymentGateway.ChargeResult first = gateway.charge(request("p1", false));
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(first, gateway.charge(request("p1", false)));
+        }
+    }
+
+    @Test
+    @DisplayName("Should fail without a decision at the configured error rate")
+    void shouldFailAtErrorRate() {
+        SimulatedPaymentGateway gateway = new SimulatedPaymentGateway(0, 0, 1000, 1, 0, new Random(7));
+
+        assertThrows(PaymentGatewayException.class, () -> gateway.charge(request("p1", true)));
+    }
+
+    @Test
+    @DisplayName("Should time out calls drawn slower than the timeout")
+    void shouldTimeOutSlowCalls() {
+        // Median far above the timeout, so every call times out after waiting 1 ms
+        SimulatedPaymentGateway gateway = new SimulatedPaymentGateway(60_000, 60_000, 1, 0, 0, new Random(7));
+
+        assertThrows(PaymentGatewayException.class, () -> gateway.charge(request("p1", true)));
+    }
+
+    @Test
+    @DisplayName("Should reject impossible latency and rate settings")
+    void shouldRejectInvalidSettings() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new SimulatedPaymentGateway(500, 100, 1000, 0, 0, new Random()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SimulatedPaymentGateway(0, 0, 1000, 1.5, 0, new Random()));
+    }
+}
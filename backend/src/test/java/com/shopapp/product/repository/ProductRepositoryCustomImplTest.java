@@ -0,0 +1,93 @@
+package com.shopapp.product.repository;
+
+import com.shopapp.product.domain.Product;
+import com.shopapp.product.dto.ProductSearchRequest;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductRepositoryCustomImpl Tests")
+class ProductRepositoryCustomImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private ProductRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ProductRepositoryCustomImpl(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("Should guard the decrement with the stock check in the same atomic findAndModify")
+    void shouldGuardDecrementInFilter() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Product.class))).thenReturn(Product.builder().id("product123").stock(7).build());
+
+        assertEquals(OptionalInt.of(7), repository.decrementStock("product123", 3));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), options.capture(), eq(Product.class));
+
+        Document filter = query.getValue().getQueryObject();
+        assertEquals("product123", filter.get("_id"));
+        assertEquals(new Document("$gte", 3), filter.get("stock"));
+        assertEquals(new Document("$ne", true), filter.get("flashSale"));
+        assertEquals(new Document("stock", -3), update.getValue().getUpdateObject().get("$inc"));
+        assertTrue(options.getValue().isReturnNew());
+    }
+
+    @Test
+    @DisplayName("Should report a decrement the stock guard rejected")
+    void shouldReportRejectedDecrement() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Product.class))).thenReturn(null);
+
+        assertTrue(repository.decrementStock("product123", 3).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should read a faceted page with an indexed find once facets are cached")
+    void shouldReadCachedFacetPageWithPlainFind() {
+        ProductSearchRequest filter = ProductSearchRequest.builder().category("Lighting").inStock(true).build();
+        when(mongoTemplate.find(any(Query.class), eq(Product.class))).thenReturn(List.of());
+
+        FacetedProducts result = repository.facetedSearch(filter, List.of("p1", "p2"), PageRequest.of(2, 20), false);
+
+        assertTrue(result.content().isEmpty());
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Product.class));
+        assertEquals(new Document("createdAt", -1).append("_id", -1), query.getValue().getSortObject());
+        assertEquals(40, query.getValue().getSkip());
+        assertEquals(20, query.getValue().getLimit());
+        List<Document> criteria = query.getValue().getQueryObject().getList("$and", Document.class);
+        assertEquals(new Document("$in", List.of("p1", "p2")), criteria.get(0).get("_id"));
+        assertEquals(new Document("category", "Lighting"), criteria.get(1));
+        assertEquals(new Document("stock", new Document("$gt", 0)), criteria.get(2));
+        verify(mongoTemplate, never()).aggregate(any(Aggregation.class), anyString(), eq(Document.class));
+    }
+}
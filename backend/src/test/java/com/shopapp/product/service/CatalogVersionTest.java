@@ -0,0 +1,103 @@
+package com.shopapp.product.service;
+
+import com.shopapp.shared.events.vendor.VendorProfileUpdatedEvent;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.OptionalInt;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CatalogVersion Tests")
+class CatalogVersionTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private final AtomicLong now = new AtomicLong(900_000);
+
+    private CatalogVersion catalogVersion;
+
+    @BeforeEach
+    void setUp() {
+        catalogVersion = new CatalogVersion(mongoTemplate, 30_000, now::get);
+    }
+
+    private void stored(long products, long vendors) {
+        when(mongoTemplate.findById("catalog", Document.class, CatalogVersion.COLLECTION))
+                .thenReturn(new Document("products", products).append("vendors", vendors));
+    }
+
+    @Test
+    @DisplayName("Should derive the listing tag from the shared counters, so any instance's change moves it")
+    void shouldDeriveListingTagFromSharedCounters() {
+        stored(3, 1);
+        String tag = catalogVersion.listingTag();
+
+        assertEquals(tag, catalogVersion.listingTag());
+        assertTrue(tag.startsWith("W/\""));
+
+        // Another instance bumped the document
+        stored(4, 1);
+        assertNotEquals(tag, catalogVersion.listingTag());
+    }
+
+    @Test
+    @DisplayName("Should roll the listing tag over once per stock window")
+    void shouldRollListingTagOverPerStockWindow() {
+        stored(3, 1);
+        String tag = catalogVersion.listingTag();
+
+        now.addAndGet(29_000);
+        String sameWindow = catalogVersion.listingTag();
+        now.addAndGet(30_000);
+
+        assertEquals(tag, sameWindow);
+        assertNotEquals(tag, catalogVersion.listingTag());
+    }
+
+    @Test
+    @DisplayName("Should tag an unversioned catalog before any change was recorded")
+    void shouldTagUnversionedCatalog() {
+        assertEquals("W/\"c-0-0-30\"", catalogVersion.listingTag());
+    }
+
+    @Test
+    @DisplayName("Should change product tags when a vendor profile is updated")
+    void shouldChangeProductTagsOnVendorProfileUpdate() {
+        stored(3, 1);
+        String tag = catalogVersion.productTag("p1", UPDATED_AT, OptionalInt.empty());
+
+        stored(3, 2);
+        assertNotEquals(tag, catalogVersion.productTag("p1", UPDATED_AT, OptionalInt.empty()));
+    }
+
+    @Test
+    @DisplayName("Should increment the persisted counters")
+    void shouldIncrementPersistedCounters() {
+        catalogVersion.productsChanged();
+        catalogVersion.handleVendorProfileUpdated(new VendorProfileUpdatedEvent("vendorId123", "userId123"));
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).upsert(any(Query.class), updates.capture(), eq(CatalogVersion.COLLECTION));
+        assertEquals(new Document("products", 1), updates.getAllValues().get(0).getUpdateObject().get("$inc"));
+        assertEquals(new Document("vendors", 1), updates.getAllValues().get(1).getUpdateObject().get("$inc"));
+    }
+}
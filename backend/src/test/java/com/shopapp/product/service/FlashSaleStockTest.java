@@ -0,0 +1,159 @@
+package com.shopapp.product.service;
+
+import com.shopapp.product.domain.Product;
+import com.shopapp.product.repository.ProductRepository;
+import com.shopapp.shared.exception.BadRequestException;
+import com.shopapp.shared.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FlashSaleStock Tests")
+class FlashSaleStockTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @TempDir
+    Path journalDir;
+
+    private FlashSaleJournal journal;
+    private FlashSaleStock flashSaleStock;
+
+    @BeforeEach
+    void setUp() {
+        journal = new FlashSaleJournal(journalDir.toString());
+        flashSaleStock = new FlashSaleStock(productRepository, journal, 4);
+    }
+
+    private void startSale(String productId, int stock) {
+        when(productRepository.startFlashSale(productId))
+                .thenReturn(Optional.of(Product.builder().id(productId).stock(stock).flashSale(true).build()));
+        flashSaleStock.start(productId);
+    }
+
+    @Test
+    @DisplayName("Should reserve in memory and journal each reservation")
+    void shouldReserveInMemoryAndJournal() {
+        startSale("p1", 5);
+
+        assertTrue(flashSaleStock.reserve("p1", 3));
+        assertFalse(flashSaleStock.reserve("p1", 3));
+
+        assertEquals(OptionalInt.of(2), flashSaleStock.available("p1"));
+        assertEquals(Map.of("p1", 3), journal.replay());
+        verify(productRepository, never()).decrementStock(anyMap());
+    }
+
+    @Test
+    @DisplayName("Should write back only the net change and drop the flushed journal")
+    void shouldWriteBackNetChange() {
+        startSale("p1", 10);
+        flashSaleStock.reserve("p1", 4);
+        flashSaleStock.release("p1", 1);
+
+        flashSaleStock.flush();
+        flashSaleStock.flush();
+
+        verify(productRepository).incrementStock(Map.of("p1", -3));
+        verify(productRepository).incrementStock(Map.of());
+        assertTrue(journal.segments().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep the journal when the write-back fails")
+    void shouldKeepJournalWhenWriteBackFails() {
+        startSale("p1", 10);
+        flashSaleStock.reserve("p1", 2);
+        doThrow(new RuntimeException("down")).when(productRepository).incrementStock(Map.of("p1", -2));
+
+        flashSaleStock.flush();
+
+        assertEquals(Map.of("p1", 2), journal.replay());
+    }
+
+    @Test
+    @DisplayName("Should put released hold units back on sale once per release, without flushing them again")
+    void shouldReleaseHoldOncePerReleaseId() {
+        startSale("p1", 10);
+        flashSaleStock.reserve("p1", 4);
+        when(productRepository.incrementStock("release1", "p1", 3)).thenReturn(true, false);
+
+        assertTrue(flashSaleStock.release("release1", "p1", 3));
+        // A retry after a crash is recognised by the database and gives nothing twice
+        assertTrue(flashSaleStock.release("release1", "p1", 3));
+        assertEquals(OptionalInt.of(9), flashSaleStock.available("p1"));
+
+        flashSaleStock.flush();
+        // Only the reservation; the released units reached the database with their release ID
+        verify(productRepository).incrementStock(Map.of("p1", -4));
+    }
+
+    @Test
+    @DisplayName("Should leave a release for a product outside a sale to the caller")
+    void shouldNotReleaseHoldOutsideSale() {
+        assertFalse(flashSaleStock.release("release1", "p1", 3));
+
+        verify(productRepository, never()).incrementStock(anyString(), anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should hand the exact remaining stock back when the sale ends")
+    void shouldHandBackRemainingStockOnEnd() {
+        startSale("p1", 10);
+        flashSaleStock.reserve("p1", 6);
+
+        assertEquals(4, flashSaleStock.end("p1"));
+
+        verify(productRepository).incrementStock("p1", -6);
+        verify(productRepository).endFlashSale("p1");
+        assertFalse(flashSaleStock.isActive("p1"));
+        assertFalse(flashSaleStock.release("p1", 1));
+        assertThrows(ServiceUnavailableException.class, () -> flashSaleStock.reserve("p1", 1));
+    }
+
+    @Test
+    @DisplayName("Should refuse to start a sale the database does not allow")
+    void shouldRefuseToStartDisallowedSale() {
+        when(productRepository.startFlashSale("p1")).thenReturn(Optional.empty());
+
+        assertThrows(BadRequestException.class, () -> flashSaleStock.start("p1"));
+        assertThrows(BadRequestException.class, () -> flashSaleStock.end("p1"));
+    }
+
+    @Test
+    @DisplayName("Should replay unflushed reservations and resume sales after a restart")
+    void shouldReplayJournalAndResumeAfterRestart() {
+        startSale("p1", 10);
+        flashSaleStock.reserve("p1", 2);
+        flashSaleStock.reserve("p1", 1);
+        journal.close();
+
+        FlashSaleStock restarted = new FlashSaleStock(productRepository, new FlashSaleJournal(journalDir.toString()), 4);
+        when(productRepository.findFlashSaleStock())
+                .thenReturn(List.of(Product.builder().id("p1").stock(7).build()));
+
+        restarted.recover();
+
+        verify(productRepository).incrementStock(Map.of("p1", -3));
+        assertEquals(OptionalInt.of(7), restarted.available("p1"));
+        assertTrue(journal.segments().isEmpty());
+    }
+}
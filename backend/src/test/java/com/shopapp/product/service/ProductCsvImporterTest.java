@@ -0,0 +1,171 @@
+package com.shopapp.product.service;
+
+import com.shopapp.product.domain.Product;
+import com.shopapp.product.domain.ProductStatus;
+import com.shopapp.product.dto.BulkUploadResponse;
+import com.shopapp.product.repository.ProductRepository;
+import com.shopapp.shared.exception.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductCsvImporter Tests")
+class ProductCsvImporterTest {
+
+    private static final String HEADER = "name,category,description,price,stock,images\n";
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductCsvImporter importer;
+
+    private final List<List<Product>> insertedBatches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        importer = new ProductCsvImporter(productRepository, 2);
+    }
+
+    private void captureInserts() {
+        when(productRepository.insertUnordered(anyList())).thenAnswer(invocation -> {
+            List<Product> batch = invocation.getArgument(0);
+            insertedBatches.add(List.copyOf(batch));
+            return Map.of();
+        });
+    }
+
+    @Test
+    @DisplayName("Should insert valid rows in fixed-size batches")
+    void shouldInsertValidRowsInBatches() {
+        captureInserts();
+        String csv = HEADER
+                + "\"Lamp, desk\",Home,\"Bright\nand warm\",19.99,5,a.jpg;b.jpg\n"
+                + "Mug,Kitchen,,4.50,10,\n"
+                + "Plate,Kitchen,,3.00,7,\n";
+
+        BulkUploadResponse result = importer.importProducts("vendor1", new StringReader(csv));
+
+        assertEquals(3, result.getTotalRows());
+        assertEquals(3, result.getSuccessCount());
+        assertEquals(0, result.getFailureCount());
+        assertEquals(List.of(2, 1), insertedBatches.stream().map(List::size).toList());
+
+        Product lamp = insertedBatches.get(0).get(0);
+        assertEquals("Lamp, desk", lamp.getName());
+        assertEquals("Bright\nand warm", lamp.getDescription());
+        assertEquals(new BigDecimal("19.99"), lamp.getPrice());
+        assertEquals(List.of("a.jpg", "b.jpg"), lamp.getImages());
+        assertEquals("vendor1", lamp.getVendorId());
+        assertEquals(ProductStatus.PENDING, lamp.getStatus());
+    }
+
+    @Test
+    @DisplayName("Should report invalid rows by line number and keep importing")
+    void shouldReportInvalidRows() {
+        captureInserts();
+        String csv = HEADER
+                + "Mug,Kitchen,,4.50,10,\n"
+                + "\n"
+                + "Bowl,Kitchen,,free,10,\n"
+                + ",Kitchen,,1.00,1,\n"
+                + "Cup,Kitchen\n"
+                + "Plate,Kitchen,,3.00,7,\n";
+
+        BulkUploadResponse result = importer.importProducts("vendor1", new StringReader(csv));
+
+        assertEquals(5, result.getTotalRows());
+        assertEquals(2, result.getSuccessCount());
+        assertEquals(3, result.getFailureCount());
+        assertEquals(List.of(4L, 5L, 6L),
+                result.getErrors().stream().map(BulkUploadResponse.RowError::getRowNumber).toList());
+        assertEquals("Invalid price format: free", result.getErrors().get(0).getErrorMessage());
+        assertEquals("Bowl", result.getErrors().get(0).getProductName());
+    }
+
+    @Test
+    @DisplayName("Should count every row of a batch that fails to save as failed")
+    void shouldFailWholeBatchOnSaveError() {
+        when(productRepository.insertUnordered(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(Map.of());
+
+        String csv = HEADER + "A,Cat,,1,1,\nB,Cat,,1,1,\nC,Cat,,1,1,\n";
+
+        BulkUploadResponse result = importer.importProducts("vendor1", new StringReader(csv));
+
+        assertEquals(1, result.getSuccessCount());
+        assertEquals(2, result.getFailureCount());
+        assertEquals(List.of("A", "B"),
+                result.getErrors().stream().map(BulkUploadResponse.RowError::getProductName).toList());
+    }
+
+    @Test
+    @DisplayName("Should count only the rows the database rejected when a batch partly fails")
+    void shouldCountPartialBatchFailuresPerRow() {
+        when(productRepository.insertUnordered(anyList()))
+                .thenReturn(Map.of(1, "E11000 duplicate key error"))
+                .thenReturn(Map.of());
+
+        String csv = HEADER + "A,Cat,,1,1,\nB,Cat,,1,1,\nC,Cat,,1,1,\n";
+
+        BulkUploadResponse result = importer.importProducts("vendor1", new StringReader(csv));
+
+        assertEquals(2, result.getSuccessCount());
+        assertEquals(1, result.getFailureCount());
+        assertEquals(3L, result.getErrors().get(0).getRowNumber());
+        assertEquals("B", result.getErrors().get(0).getProductName());
+        // The database's reason is logged, not shown to the vendor
+        assertEquals("Failed to save product", result.getErrors().get(0).getErrorMessage());
+    }
+
+    @Test
+    @DisplayName("Should stop at an unterminated quote and report it")
+    void shouldStopAtUnterminatedQuote() {
+        captureInserts();
+        String csv = HEADER + "A,Cat,,1,1,\n\"Broken,Cat,,1,1,\nC,Cat,,1,1,\n";
+
+        BulkUploadResponse result = importer.importProducts("vendor1", new StringReader(csv));
+
+        assertEquals(1, result.getSuccessCount());
+        assertEquals(1, result.getFailureCount());
+        assertEquals(3L, result.getErrors().get(0).getRowNumber());
+    }
+
+    @Test
+    @DisplayName("Should cap itemised errors but keep counting failures")
+    void shouldCapReportedErrors() {
+        StringBuilder csv = new StringBuilder(HEADER);
+        int rows = ProductCsvImporter.MAX_REPORTED_ERRORS + 5;
+        for (int i = 0; i < rows; i++) {
+            csv.append("Item,Cat,,-1,1,\n");
+        }
+
+        BulkUploadResponse result = importer.importProducts("vendor1", new StringReader(csv.toString()));
+
+        assertEquals(rows, result.getFailureCount());
+        assertEquals(ProductCsvImporter.MAX_REPORTED_ERRORS, result.getErrors().size());
+        verify(productRepository, never()).insertUnordered(anyList());
+    }
+
+    @Test
+    @DisplayName("Should reject a file without data rows")
+    void shouldRejectFileWithoutDataRows() {
+        assertThrows(BadRequestException.class, () -> importer.importProducts("vendor1", new StringReader("")));
+        assertThrows(BadRequestException.class, () -> importer.importProducts("vendor1", new StringReader(HEADER)));
+    }
+}
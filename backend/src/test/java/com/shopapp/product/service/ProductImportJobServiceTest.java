@@ -0,0 +1,321 @@
+package com.shopapp.product.service;
+
+import com.mongodb.MongoInterruptedException;
+import com.shopapp.product.domain.ImportJob;
+import com.shopapp.product.domain.ImportJobStatus;
+import com.shopapp.product.domain.Product;
+import com.shopapp.product.dto.BulkUploadResponse;
+import com.shopapp.product.dto.ImportJobResponse;
+import com.shopapp.product.repository.ImportJobRepository;
+import com.shopapp.product.repository.ProductRepository;
+import com.shopapp.shared.exception.ResourceNotFoundException;
+import com.shopapp.shared.exception.ServiceUnavailableException;
+import com.shopapp.shared.interfaces.VendorModuleApi;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductImportJobService Tests")
+class ProductImportJobServiceTest {
+
+    private static final String CSV = """
+            name,category,description,price,stock,images
+            Mug,Kitchen,,4.50,10,
+            Bowl,Kitchen,,free,10,
+            Plate,Kitchen,,3.00,7,
+            Cup,Kitchen,,2.00,3,
+            """;
+
+    @Mock
+    private ImportJobRepository importJobRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private VendorModuleApi vendorModuleApi;
+
+    @Mock
+    private ExecutorService executor;
+
+    @TempDir
+    Path spoolDir;
+
+    private ProductImportJobService service;
+
+    @BeforeEach
+    void setUp() {
+        ProductCsvImporter importer = new ProductCsvImporter(productRepository, 2);
+        service = new ProductImportJobService(
+                importJobRepository, productRepository, importer, vendorModuleApi, spoolDir, executor);
+    }
+
+    private ImportJob spooledJob(String content) throws IOException {
+        Path spool = spoolDir.resolve("job1.csv");
+        Files.writeString(spool, content);
+        return ImportJob.builder()
+                .id("job1")
+                .vendorId("vendor1")
+                .fileName("catalog.csv")
+                .spoolPath(spool.toString())
+                .fileSize(Files.size(spool))
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Submission")
+    class Submission {
+
+        private final MockMultipartFile file = new MockMultipartFile(
+                "file", "catalog.csv", "text/csv", CSV.getBytes(StandardCharsets.UTF_8));
+
+        @BeforeEach
+        void setUp() {
+            when(vendorModuleApi.getVendorIdByUserId("user1")).thenReturn(Optional.of("vendor1"));
+            when(importJobRepository.save(any(ImportJob.class))).thenAnswer(invocation -> {
+                ImportJob job = invocation.getArgument(0);
+                if (job.getId() == null) {
+                    job.setId("job1");
+                }
+                return job;
+            });
+        }
+
+        @Test
+        @DisplayName("Should spool the upload, queue the job and return immediately")
+        void shouldSpoolAndQueue() throws IOException {
+            ImportJobResponse response = service.submit("user1", file);
+
+            assertEquals("job1", response.getId());
+            assertEquals(ImportJobStatus.QUEUED, response.getStatus());
+            assertEquals(CSV, Files.readString(spoolDir.resolve("job1.csv")));
+            verify(executor).execute(any(Runnable.class));
+            verifyNoInteractions(productRepository);
+        }
+
+        @Test
+        @DisplayName("Should refuse the upload and clean up when the worker queue is full")
+        void shouldRefuseWhenQueueFull() {
+            doThrow(new RejectedExecutionException()).when(executor).execute(any(Runnable.class));
+
+            ServiceUnavailableException e = assertThrows(ServiceUnavailableException.class,
+                    () -> service.submit("user1", file));
+
+            assertTrue(e.getRetryAfterSeconds() > 0);
+            assertFalse(Files.exists(spoolDir.resolve("job1.csv")));
+            verify(importJobRepository).delete(any(ImportJob.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Processing")
+    class Processing {
+
+        private final List<List<Product>> insertedBatches = new ArrayList<>();
+
+        private void captureInserts() {
+            when(productRepository.insertUnordered(anyList())).thenAnswer(invocation -> {
+                List<Product> batch = invocation.getArgument(0);
+                insertedBatches.add(List.copyOf(batch));
+                return Map.of();
+            });
+        }
+
+        @Test
+        @DisplayName("Should import the spooled file, checkpoint each batch and complete")
+        void shouldImportAndComplete() throws IOException {
+            ImportJob job = spooledJob(CSV);
+            List<Long> checkpoints = new ArrayList<>();
+            when(importJobRepository.findById("job1")).thenReturn(Optional.of(job));
+            when(importJobRepository.save(job)).thenAnswer(invocation -> {
+                checkpoints.add(job.getCommittedLine());
+                return job;
+            });
+            captureInserts();
+
+            service.run("job1");
+
+            assertEquals(ImportJobStatus.COMPLETED, job.getStatus());
+            assertEquals(4, job.getTotalRows());
+            assertEquals(3, job.getSuccessCount());
+            assertEquals(1, job.getFailureCount());
+            assertEquals(3L, job.getErrors().get(0).getRowNumber());
+            assertEquals(5, job.getCommittedLine());
+            assertTrue(checkpoints.contains(4L));
+            assertEquals(job.getFileSize(), job.getBytesProcessed());
+            assertTrue(insertedBatches.stream().flatMap(List::stream)
+                    .allMatch(product -> "job1".equals(product.getImportJobId()) && product.getImportLine() != null));
+            assertFalse(Files.exists(Path.of(job.getSpoolPath())));
+        }
+
+        @Test
+        @DisplayName("Should resume after the last committed line and drop rows written past it")
+        void shouldResumeAfterCommittedLine() throws IOException {
+            ImportJob job = spooledJob(CSV);
+            job.setStatus(ImportJobStatus.RUNNING);
+            job.setCommittedLine(4);
+            job.setTotalRows(3);
+            job.setSuccessCount(2);
+            job.setFailureCount(1);
+            job.setErrors(new ArrayList<>(List.of(BulkUploadResponse.RowError.builder()
+                    .rowNumber(3).productName("Bowl").errorMessage("Invalid price format: free").build())));
+            when(importJobRepository.findById("job1")).thenReturn(Optional.of(job));
+            when(importJobRepository.save(job)).thenReturn(job);
+            captureInserts();
+
+            service.run("job1");
+
+            verify(productRepository).deleteByImportJobIdAndImportLineGreaterThan("job1", 4);
+            assertEquals(List.of("Cup"), insertedBatches.stream().flatMap(List::stream).map(Product::getName).toList());
+            assertEquals(ImportJobStatus.COMPLETED, job.getStatus());
+            assertEquals(4, job.getTotalRows());
+            assertEquals(3, job.getSuccessCount());
+            assertEquals(1, job.getErrors().size());
+        }
+
+        @Test
+        @DisplayName("Should fail the job when the file has no data rows")
+        void shouldFailJobWithoutDataRows() throws IOException {
+            ImportJob job = spooledJob("name,category,description,price,stock\n");
+            when(importJobRepository.findById("job1")).thenReturn(Optional.of(job));
+            when(importJobRepository.save(job)).thenReturn(job);
+
+            service.run("job1");
+
+            assertEquals(ImportJobStatus.FAILED, job.getStatus());
+            assertNotNull(job.getFailureReason());
+            verify(productRepository, never()).insertUnordered(anyList());
+        }
+
+        @Test
+        @DisplayName("Should leave finished jobs alone")
+        void shouldSkipFinishedJobs() throws IOException {
+            ImportJob job = spooledJob(CSV);
+            job.setStatus(ImportJobStatus.COMPLETED);
+            when(importJobRepository.findById("job1")).thenReturn(Optional.of(job));
+
+            service.run("job1");
+
+            verify(importJobRepository, never()).save(any(ImportJob.class));
+            verifyNoInteractions(productRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Progress and Recovery")
+    class ProgressAndRecovery {
+
+        @Test
+        @DisplayName("Should report progress and an ETA for a running job")
+        void shouldReportProgress() throws IOException {
+            ImportJob job = spooledJob(CSV);
+            job.setStatus(ImportJobStatus.RUNNING);
+            job.setStartedAt(LocalDateTime.now().minusSeconds(10));
+            job.setBytesProcessed(job.getFileSize() / 2);
+            when(vendorModuleApi.getVendorIdByUserId("user1")).thenReturn(Optional.of("vendor1"));
+            when(importJobRepository.findByIdAndVendorId("job1", "vendor1")).thenReturn(Optional.of(job));
+
+            ImportJobResponse response = service.getJob("user1", "job1");
+
+            assertTrue(response.getPercentComplete() >= 45 && response.getPercentComplete() <= 55);
+            assertNotNull(response.getEtaSeconds());
+            assertTrue(response.getEtaSeconds() >= 8 && response.getEtaSeconds() <= 12);
+        }
+
+        @Test
+        @DisplayName("Should hide other vendors' jobs")
+        void shouldHideOtherVendorsJobs() {
+            when(vendorModuleApi.getVendorIdByUserId("user2")).thenReturn(Optional.of("vendor2"));
+            when(importJobRepository.findByIdAndVendorId("job1", "vendor2")).thenReturn(Optional.empty());
+
+            assertThrows(ResourceNotFoundException.class, () -> service.getJob("user2", "job1"));
+        }
+
+        @Test
+        @DisplayName("Should requeue interrupted jobs whose upload is on this node")
+        void shouldRequeueInterruptedJobs() throws IOException {
+            ImportJob local = spooledJob(CSV);
+            ImportJob elsewhere = ImportJob.builder()
+                    .id("job2")
+                    .status(ImportJobStatus.RUNNING)
+                    .spoolPath(spoolDir.resolve("missing.csv").toString())
+                    .build();
+            when(importJobRepository.findByStatusIn(List.of(ImportJobStatus.QUEUED, ImportJobStatus.RUNNING)))
+                    .thenReturn(List.of(local, elsewhere));
+
+            service.resumeInterruptedJobs();
+
+            verify(executor, times(1)).execute(any(Runnable.class));
+            verify(importJobRepository, never()).save(any(ImportJob.class));
+        }
+
+        @Test
+        @DisplayName("Should keep an interrupted job running with its upload and resume it on the next start")
+        void shouldResumeJobInterruptedByShutdown() throws IOException {
+            ImportJob job = spooledJob(CSV);
+            when(importJobRepository.findById("job1")).thenReturn(Optional.of(job));
+            when(importJobRepository.save(job)).thenReturn(job);
+            List<String> inserted = new ArrayList<>();
+            AtomicInteger inserts = new AtomicInteger();
+            when(productRepository.insertUnordered(anyList())).thenAnswer(invocation -> {
+                if (inserts.incrementAndGet() == 2) {
+                    // What shutdownNow() does to a worker blocked on the database
+                    Thread.currentThread().interrupt();
+                    throw new UncategorizedMongoDbException("interrupted",
+                            new MongoInterruptedException("Interrupted waiting for lock", null));
+                }
+                List<Product> batch = invocation.getArgument(0);
+                batch.forEach(product -> inserted.add(product.getName()));
+                return Map.of();
+            });
+
+            service.run("job1");
+
+            assertTrue(Thread.interrupted(), "interrupt flag should be restored for the executor");
+            assertEquals(ImportJobStatus.RUNNING, job.getStatus());
+            assertEquals(4, job.getCommittedLine());
+            assertTrue(Files.exists(Path.of(job.getSpoolPath())));
+
+            when(importJobRepository.findByStatusIn(List.of(ImportJobStatus.QUEUED, ImportJobStatus.RUNNING)))
+                    .thenReturn(List.of(job));
+            ArgumentCaptor<Runnable> resumed = ArgumentCaptor.forClass(Runnable.class);
+            service.resumeInterruptedJobs();
+            verify(executor).execute(resumed.capture());
+            resumed.getValue().run();
+
+            verify(productRepository).deleteByImportJobIdAndImportLineGreaterThan("job1", 0);
+            verify(productRepository).deleteByImportJobIdAndImportLineGreaterThan("job1", 4);
+            assertEquals(List.of("Mug", "Plate", "Cup"), inserted);
+            assertEquals(ImportJobStatus.COMPLETED, job.getStatus());
+            assertEquals(3, job.getSuccessCount());
+            assertFalse(Files.exists(Path.of(job.getSpoolPath())));
+        }
+    }
+}
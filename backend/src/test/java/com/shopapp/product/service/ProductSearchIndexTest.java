@@ -0,0 +1,127 @@
+package com.shopapp.product.service;
+
+import com.shopapp.product.domain.Product;
+import com.shopapp.product.domain.ProductStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ProductSearchIndex Tests")
+class ProductSearchIndexTest {
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+
+    private Product product(String id, String name, int ageInDays) {
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .status(ProductStatus.APPROVED)
+                .visible(true)
+                .createdAt(LocalDateTime.of(2024, 1, 31, 0, 0).minusDays(ageInDays))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should tokenize names into lower-cased words")
+    void shouldTokenizeNamesIntoLowerCasedWords() {
+        assertEquals(Set.of("usb", "c", "cable", "2m"), ProductSearchIndex.tokenize("USB-C Cable (2m)"));
+        assertTrue(ProductSearchIndex.tokenize("  ").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should match every query token by prefix")
+    void shouldMatchEveryQueryTokenByPrefix() {
+        index.rebuild(List.of(
+                product("p1", "Wireless Mouse", 1),
+                product("p2", "Wired Mouse", 2),
+                product("p3", "Wireless Keyboard", 3)));
+
+        assertEquals(List.of("p1", "p2"), index.search("wir mouse", PageRequest.of(0, 10)).getContent());
+        assertEquals(List.of("p1", "p3"), index.search("WIRELESS", PageRequest.of(0, 10)).getContent());
+        assertTrue(index.search("wireless trackpad", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should page results newest first")
+    void shouldPageResultsNewestFirst() {
+        index.rebuild(List.of(
+                product("p1", "Red Shirt", 3),
+                product("p2", "Blue Shirt", 1),
+                product("p3", "Green Shirt", 2)));
+
+        Page<String> first = index.search("shirt", PageRequest.of(0, 2));
+        Page<String> second = index.search("shirt", PageRequest.of(1, 2));
+
+        assertEquals(List.of("p2", "p3"), first.getContent());
+        assertEquals(List.of("p1"), second.getContent());
+        assertEquals(3, first.getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Should only index approved and visible products")
+    void shouldOnlyIndexApprovedAndVisibleProducts() {
+        Product pending = product("p1", "Table", 1);
+        pending.setStatus(ProductStatus.PENDING);
+        Product hidden = product("p2", "Table", 1);
+        hidden.setVisible(false);
+
+        index.rebuild(List.of(pending, hidden, product("p3", "Table", 1)));
+
+        assertEquals(List.of("p3"), index.search("table", PageRequest.of(0, 10)).getContent());
+    }
+
+    @Test
+    @DisplayName("Should drop stale tokens when a product is renamed")
+    void shouldDropStaleTokensWhenRenamed() {
+        Product product = product("p1", "Old Name", 1);
+        index.index(product);
+
+        product.setName("New Title");
+        index.index(product);
+
+        assertTrue(index.search("old", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(List.of("p1"), index.search("title", PageRequest.of(0, 10)).getContent());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    @DisplayName("Should treat regex metacharacters as plain separators")
+    void shouldTreatRegexMetacharactersAsSeparators() {
+        index.index(product("p1", "C++ Primer", 1));
+
+        assertEquals(List.of("p1"), index.search("c++", PageRequest.of(0, 10)).getContent());
+        assertTrue(index.search("(((", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should expose the full match set for filtering elsewhere")
+    void shouldExposeFullMatchSet() {
+        index.rebuild(List.of(
+                product("p1", "Steel Pan", 1),
+                product("p2", "Steel Pot", 2),
+                product("p3", "Clay Pot", 3)));
+
+        assertEquals(Set.of("p1", "p2"), index.matchingIds("steel"));
+        assertEquals(Set.of("p2"), index.matchingIds("pot steel"));
+        assertTrue(index.matchingIds("  ").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep only the newest matches beyond a limit")
+    void shouldCapMatchSetToNewest() {
+        index.rebuild(List.of(
+                product("p1", "Steel Pan", 3),
+                product("p2", "Steel Pot", 1),
+                product("p3", "Steel Wok", 2)));
+
+        assertEquals(List.of("p2", "p3"), List.copyOf(index.matchingIds("s", 2)));
+        assertEquals(Set.of("p1", "p2", "p3"), index.matchingIds("s", 3));
+    }
+}
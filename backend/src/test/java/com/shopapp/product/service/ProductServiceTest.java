@@ -2,19 +2,28 @@ package com.shopapp.product.service;
 
 import com.shopapp.product.domain.Product;
 import com.shopapp.product.domain.ProductStatus;
+import com.shopapp.product.dto.BulkUploadResponse;
 import com.shopapp.product.dto.CreateProductRequest;
+import com.shopapp.product.dto.FacetedSearchResponse;
 import com.shopapp.product.dto.ProductResponse;
 import com.shopapp.product.dto.ProductSearchRequest;
+import com.shopapp.product.dto.ProductSummary;
+import com.shopapp.product.dto.ProductSuggestion;
+import com.shopapp.product.dto.SearchFacets;
 import com.shopapp.product.dto.UpdateProductRequest;
+import com.shopapp.product.repository.FacetedProducts;
 import com.shopapp.product.repository.ProductRepository;
 import com.shopapp.shared.events.DomainEventPublisher;
 import com.shopapp.shared.events.product.ProductApprovedEvent;
 import com.shopapp.shared.events.product.ProductRejectedEvent;
+import com.shopapp.shared.events.product.ProductsChangedEvent;
 import com.shopapp.shared.exception.BadRequestException;
 import com.shopapp.shared.exception.ForbiddenException;
 import com.shopapp.shared.exception.ResourceNotFoundException;
 import com.shopapp.shared.interfaces.ProductModuleApi;
 import com.shopapp.shared.interfaces.VendorModuleApi;
+import com.shopapp.shared.pagination.Cursor;
+import com.shopapp.shared.pagination.CursorPage;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -22,6 +31,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
@@ -30,13 +40,24 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
 
+import java.io.StringReader;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -52,6 +73,24 @@ class ProductServiceTest {
     @Mock
     private DomainEventPublisher eventPublisher;
 
+    @Spy
+    private ProductSearchIndex productSearchIndex = new ProductSearchIndex();
+
+    @Spy
+    private ProductSuggestIndex productSuggestIndex = new ProductSuggestIndex(10);
+
+    @Mock
+    private ProductCsvImporter productCsvImporter;
+
+    @Spy
+    private ProductFacetCache productFacetCache = new ProductFacetCache(100, 30);
+
+    @Spy
+    private CatalogVersion catalogVersion = new CatalogVersion(mock(MongoTemplate.class), 30_000, () -> 0L);
+
+    @Mock
+    private FlashSaleStock flashSaleStock;
+
     @InjectMocks
     private ProductService productService;
 
@@ -61,6 +100,19 @@ class ProductServiceTest {
         );
     }
 
+    private Product approvedProduct(String id, String name, String category) {
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .category(category)
+                .price(new BigDecimal("10.00"))
+                .stock(10)
+                .vendorId("vendorId123")
+                .status(ProductStatus.APPROVED)
+                .visible(true)
+                .build();
+    }
+
     @Nested
     @DisplayName("Product Creation")
     class ProductCreation {
@@ -181,6 +233,33 @@ class ProductServiceTest {
             assertEquals("Test Product", result.get().name());
         }
 
+        @Test
+        @DisplayName("Should find several products in one query, leaving unknown IDs out")
+        void shouldFindProductsByIds() {
+            Product product = Product.builder()
+                    .id("productId123")
+                    .name("Test Product")
+                    .price(new BigDecimal("100.00"))
+                    .stock(50)
+                    .status(ProductStatus.APPROVED)
+                    .build();
+
+            when(productRepository.findByIdIn(List.of("productId123", "missing"))).thenReturn(List.of(product));
+
+            Map<String, ProductModuleApi.ProductDto> result = productService.findByIds(List.of("productId123", "missing"));
+
+            assertEquals(Set.of("productId123"), result.keySet());
+            assertEquals(50, result.get("productId123").stock());
+            verify(productRepository, never()).findById(anyString());
+        }
+
+        @Test
+        @DisplayName("Should not query for an empty ID list")
+        void shouldSkipLookupForNoIds() {
+            assertTrue(productService.findByIds(List.of()).isEmpty());
+            verifyNoInteractions(productRepository);
+        }
+
         @Test
         @DisplayName("Should return true for approved product")
         void shouldReturnTrueForApprovedProduct() {
@@ -223,82 +302,161 @@ class ProductServiceTest {
         @Test
         @DisplayName("Should decrement stock when sufficient")
         void shouldDecrementStockWhenSufficient() {
-            Product product = Product.builder()
-                    .id("productId123")
-                    .stock(10)
-                    .build();
-
-            when(productRepository.findById("productId123")).thenReturn(Optional.of(product));
-            when(productRepository.save(any(Product.class))).thenReturn(product);
+            when(productRepository.decrementStock("productId123", 5)).thenReturn(OptionalInt.of(5));
 
             boolean result = productService.decrementStock("productId123", 5);
 
             assertTrue(result);
-            assertEquals(5, product.getStock());
-            verify(productRepository).save(product);
+            verify(productRepository).decrementStock("productId123", 5);
+            verify(productRepository, never()).findById(any());
+            verify(productRepository, never()).save(any());
         }
 
         @Test
         @DisplayName("Should return false when insufficient stock")
         void shouldReturnFalseWhenInsufficientStock() {
-            Product product = Product.builder()
-                    .id("productId123")
-                    .stock(3)
-                    .build();
-
-            when(productRepository.findById("productId123")).thenReturn(Optional.of(product));
+            when(productRepository.decrementStock("productId123", 5)).thenReturn(OptionalInt.empty());
+            when(productRepository.existsById("productId123")).thenReturn(true);
 
             boolean result = productService.decrementStock("productId123", 5);
 
             assertFalse(result);
-            assertEquals(3, product.getStock()); // Stock unchanged
             verify(productRepository, never()).save(any());
         }
 
         @Test
         @DisplayName("Should decrement exact stock amount")
         void shouldDecrementExactStockAmount() {
-            Product product = Product.builder()
-                    .id("productId123")
-                    .stock(5)
-                    .build();
-
-            when(productRepository.findById("productId123")).thenReturn(Optional.of(product));
-            when(productRepository.save(any(Product.class))).thenReturn(product);
+            when(productRepository.decrementStock("productId123", 5)).thenReturn(OptionalInt.of(0));
 
             boolean result = productService.decrementStock("productId123", 5);
 
             assertTrue(result);
-            assertEquals(0, product.getStock());
+        }
+
+        @Test
+        @DisplayName("Should throw ResourceNotFoundException when decrementing stock for non-existent product")
+        void shouldThrowExceptionWhenDecrementingStockForNonExistentProduct() {
+            when(productRepository.decrementStock("nonexistent", 5)).thenReturn(OptionalInt.empty());
+            when(productRepository.existsById("nonexistent")).thenReturn(false);
+
+            assertThrows(ResourceNotFoundException.class,
+                    () -> productService.decrementStock("nonexistent", 5));
         }
 
         @Test
         @DisplayName("Should restore stock")
         void shouldRestoreStock() {
-            Product product = Product.builder()
-                    .id("productId123")
-                    .stock(5)
-                    .build();
-
-            when(productRepository.findById("productId123")).thenReturn(Optional.of(product));
-            when(productRepository.save(any(Product.class))).thenReturn(product);
+            when(productRepository.incrementStock("productId123", 3)).thenReturn(OptionalInt.of(8));
 
             productService.restoreStock("productId123", 3);
 
-            assertEquals(8, product.getStock());
-            verify(productRepository).save(product);
+            verify(productRepository).incrementStock("productId123", 3);
+            verify(productRepository, never()).save(any());
         }
 
         @Test
         @DisplayName("Should throw ResourceNotFoundException when restoring stock for non-existent product")
         void shouldThrowExceptionWhenRestoringStockForNonExistentProduct() {
-            when(productRepository.findById("nonexistent")).thenReturn(Optional.empty());
+            when(productRepository.incrementStock("nonexistent", 5)).thenReturn(OptionalInt.empty());
 
             assertThrows(ResourceNotFoundException.class, 
                     () -> productService.restoreStock("nonexistent", 5));
         }
     }
 
+    @Nested
+    @DisplayName("Batch Stock Reservation")
+    class BatchStockReservation {
+
+        @Test
+        @DisplayName("Should load all products once and decrement them in one bulk write")
+        void shouldReserveAllLinesInOneBulkWrite() {
+            Map<String, Integer> quantities = new LinkedHashMap<>();
+            quantities.put("product1", 2);
+            quantities.put("product2", 1);
+
+            when(productRepository.findByIdIn(List.of("product1", "product2")))
+                    .thenReturn(List.of(
+                            approvedProduct("product2", "Product 2", "Category"),
+                            approvedProduct("product1", "Product 1", "Category")));
+            when(productRepository.decrementStock(quantities)).thenReturn(Optional.empty());
+
+            Map<String, ProductModuleApi.ProductDto> reserved = productService.reserveStock(quantities);
+
+            assertEquals(List.of("product1", "product2"), List.copyOf(reserved.keySet()));
+            assertEquals("Product 1", reserved.get("product1").name());
+            verify(productRepository).findByIdIn(List.of("product1", "product2"));
+            verify(productRepository).decrementStock(quantities);
+            verify(productRepository, never()).findById(any());
+            verify(productRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should reject reservation when a product does not exist")
+        void shouldRejectReservationWhenProductMissing() {
+            when(productRepository.findByIdIn(List.of("missing"))).thenReturn(List.of());
+
+            BadRequestException exception = assertThrows(BadRequestException.class,
+                    () -> productService.reserveStock(Map.of("missing", 1)));
+
+            assertEquals("Product not found: missing", exception.getMessage());
+            verify(productRepository, never()).decrementStock(anyMap());
+        }
+
+        @Test
+        @DisplayName("Should reject reservation when a product is not approved")
+        void shouldRejectReservationWhenProductNotApproved() {
+            Product pending = approvedProduct("product1", "Pending Product", "Category");
+            pending.setStatus(ProductStatus.PENDING);
+            when(productRepository.findByIdIn(List.of("product1"))).thenReturn(List.of(pending));
+
+            BadRequestException exception = assertThrows(BadRequestException.class,
+                    () -> productService.reserveStock(Map.of("product1", 1)));
+
+            assertEquals("Product is not available: Pending Product", exception.getMessage());
+            verify(productRepository, never()).decrementStock(anyMap());
+        }
+
+        @Test
+        @DisplayName("Should report the product that ran out of stock")
+        void shouldReportProductWithInsufficientStock() {
+            Map<String, Integer> quantities = new LinkedHashMap<>();
+            quantities.put("product1", 2);
+            quantities.put("product2", 50);
+
+            when(productRepository.findByIdIn(List.of("product1", "product2")))
+                    .thenReturn(List.of(
+                            approvedProduct("product1", "Product 1", "Category"),
+                            approvedProduct("product2", "Product 2", "Category")));
+            when(productRepository.decrementStock(quantities)).thenReturn(Optional.of("product2"));
+
+            BadRequestException exception = assertThrows(BadRequestException.class,
+                    () -> productService.reserveStock(quantities));
+
+            assertEquals("Insufficient stock for product: Product 2", exception.getMessage());
+        }
+
+        @Test
+        @DisplayName("Should reject non-positive quantities")
+        void shouldRejectNonPositiveQuantities() {
+            assertThrows(BadRequestException.class,
+                    () -> productService.reserveStock(Map.of("product1", 0)));
+
+            verifyNoInteractions(productRepository);
+        }
+
+        @Test
+        @DisplayName("Should release stock in one bulk write")
+        void shouldReleaseStockInOneBulkWrite() {
+            Map<String, Integer> quantities = Map.of("product1", 2, "product2", 1);
+
+            productService.releaseStock(quantities);
+
+            verify(productRepository).incrementStock(quantities);
+        }
+    }
+
     @Nested
     @DisplayName("Product Update")
     class ProductUpdate {
@@ -539,16 +697,17 @@ class ProductServiceTest {
             Product product = Product.builder()
                     .id("productId123")
                     .vendorId("vendorId123")
-                    .visible(true)
+                    .visible(false)
                     .build();
 
-            when(productRepository.findById("productId123")).thenReturn(Optional.of(product));
-            when(productRepository.save(any(Product.class))).thenReturn(product);
+            when(productRepository.updateVisibility("productId123", false)).thenReturn(Optional.of(product));
             when(vendorModuleApi.findById("vendorId123")).thenReturn(Optional.of(createVendorDto("vendorId123")));
 
             ProductResponse response = productService.changeProductVisibility("productId123", false);
 
             assertFalse(response.isVisible());
+            // A targeted update: a full save could roll back stock a flash sale flushed meanwhile
+            verify(productRepository, never()).save(any(Product.class));
         }
 
         @Test
@@ -557,11 +716,10 @@ class ProductServiceTest {
             Product product = Product.builder()
                     .id("productId123")
                     .vendorId("vendorId123")
-                    .visible(false)
+                    .visible(true)
                     .build();
 
-            when(productRepository.findById("productId123")).thenReturn(Optional.of(product));
-            when(productRepository.save(any(Product.class))).thenReturn(product);
+            when(productRepository.updateVisibility("productId123", true)).thenReturn(Optional.of(product));
             when(vendorModuleApi.findById("vendorId123")).thenReturn(Optional.of(createVendorDto("vendorId123")));
 
             ProductResponse response = productService.changeProductVisibility("productId123", true);
@@ -588,16 +746,90 @@ class ProductServiceTest {
             Pageable pageable = PageRequest.of(0, 10);
             Page<Product> productPage = new PageImpl<>(List.of(product), pageable, 1);
 
-            when(productRepository.findByStatusAndVisibleTrue(ProductStatus.APPROVED, pageable))
+            when(productRepository.findSummariesByStatusAndVisibleTrue(ProductStatus.APPROVED, pageable))
                     .thenReturn(productPage);
-            when(vendorModuleApi.findById(anyString())).thenReturn(Optional.of(createVendorDto("vendorId123")));
+            when(vendorModuleApi.findByIds(Set.of("vendorId123")))
+                    .thenReturn(Map.of("vendorId123", createVendorDto("vendorId123")));
 
-            Page<ProductResponse> result = productService.getApprovedProducts(pageable);
+            Page<ProductSummary> result = productService.getApprovedProducts(pageable);
 
             assertEquals(1, result.getContent().size());
             assertEquals(ProductStatus.APPROVED, result.getContent().get(0).getStatus());
         }
 
+        @Test
+        @DisplayName("Should list products as summaries with only the first image as thumbnail")
+        void shouldListProductsAsSummaries() {
+            Product product = Product.builder().id("p1").name("Lamp").vendorId("vendorId123")
+                    .images(List.of("front.jpg")).status(ProductStatus.PENDING).build();
+            Product imageless = Product.builder().id("p2").name("Rug").vendorId("vendorId123")
+                    .images(List.of()).status(ProductStatus.PENDING).build();
+
+            Pageable pageable = PageRequest.of(0, 20);
+            when(productRepository.findSummariesByStatus(ProductStatus.PENDING, pageable))
+                    .thenReturn(new PageImpl<>(List.of(product, imageless), pageable, 2));
+            when(vendorModuleApi.findByIds(Set.of("vendorId123")))
+                    .thenReturn(Map.of("vendorId123", createVendorDto("vendorId123")));
+
+            List<ProductSummary> result = productService.getPendingProducts(pageable).getContent();
+
+            assertEquals("front.jpg", result.get(0).getThumbnail());
+            assertNull(result.get(1).getThumbnail());
+        }
+
+        @Test
+        @DisplayName("Should resolve vendor names for a whole page with one batch lookup")
+        void shouldResolveVendorNamesWithOneBatchLookup() {
+            List<Product> products = List.of(
+                    Product.builder().id("p1").vendorId("vendorA").status(ProductStatus.APPROVED).build(),
+                    Product.builder().id("p2").vendorId("vendorB").status(ProductStatus.APPROVED).build(),
+                    Product.builder().id("p3").vendorId("vendorA").status(ProductStatus.APPROVED).build(),
+                    Product.builder().id("p4").vendorId("vendorGone").status(ProductStatus.APPROVED).build()
+            );
+
+            Pageable pageable = PageRequest.of(0, 20);
+            when(productRepository.findAllSummaries(pageable)).thenReturn(new PageImpl<>(products, pageable, 4));
+            when(vendorModuleApi.findByIds(Set.of("vendorA", "vendorB", "vendorGone"))).thenReturn(Map.of(
+                    "vendorA", new VendorModuleApi.VendorDto("vendorA", "u1", "Store A", null, null, "APPROVED"),
+                    "vendorB", new VendorModuleApi.VendorDto("vendorB", "u2", "Store B", null, null, "APPROVED")
+            ));
+
+            List<ProductSummary> result = productService.getAllProducts(pageable).getContent();
+
+            assertEquals(List.of("Store A", "Store B", "Store A", "Unknown Vendor"),
+                    result.stream().map(ProductSummary::getVendorName).toList());
+            verify(vendorModuleApi, times(1)).findByIds(any());
+            verify(vendorModuleApi, never()).findById(anyString());
+        }
+
+        @Test
+        @DisplayName("Should scroll approved products by cursor without counting")
+        void shouldScrollApprovedProductsByCursor() {
+            LocalDateTime now = LocalDateTime.of(2024, 5, 1, 12, 0);
+            Cursor after = new Cursor(now, "p0");
+            List<Product> products = List.of(
+                    Product.builder().id("p1").vendorId("vendorId123").createdAt(now).build(),
+                    Product.builder().id("p2").vendorId("vendorId123").createdAt(now.minusMinutes(1)).build(),
+                    Product.builder().id("p3").vendorId("vendorId123").createdAt(now.minusMinutes(2)).build());
+
+            when(productRepository.findApprovedAfter(after, 3)).thenReturn(products);
+            when(vendorModuleApi.findByIds(Set.of("vendorId123")))
+                    .thenReturn(Map.of("vendorId123", createVendorDto("vendorId123")));
+
+            CursorPage<ProductSummary> result = productService.getApprovedProducts(after, 2);
+
+            assertEquals(List.of("p1", "p2"), result.content().stream().map(ProductSummary::getId).toList());
+            assertEquals(new Cursor(now.minusMinutes(1), "p2"), Cursor.decode(result.nextCursor()));
+            verify(productRepository, never()).count();
+        }
+
+        @Test
+        @DisplayName("Should reject a cursor page size below one")
+        void shouldRejectCursorPageSizeBelowOne() {
+            assertThrows(BadRequestException.class, () -> productService.getApprovedProducts(null, 0));
+            verifyNoInteractions(productRepository);
+        }
+
         @Test
         @DisplayName("Should throw ResourceNotFoundException for pending product when getting by ID publicly")
         void shouldThrowExceptionForPendingProductPublicAccess() {
@@ -628,4 +860,428 @@ class ProductServiceTest {
                     () -> productService.getApprovedProductById("productId123"));
         }
     }
+
+    @Nested
+    @DisplayName("Bulk Upload")
+    class BulkUpload {
+
+        @Test
+        @DisplayName("Should stream the upload to the importer for the caller's vendor")
+        void shouldStreamUploadToImporter() {
+            StringReader csv = new StringReader("name,category,description,price,stock\n");
+            BulkUploadResponse summary = BulkUploadResponse.builder().totalRows(0).build();
+
+            when(vendorModuleApi.getVendorIdByUserId("userId123")).thenReturn(Optional.of("vendorId123"));
+            when(productCsvImporter.importProducts("vendorId123", csv)).thenReturn(summary);
+
+            assertSame(summary, productService.bulkUploadProducts("userId123", csv));
+        }
+
+        @Test
+        @DisplayName("Should reject uploads from users who are not approved vendors")
+        void shouldRejectUploadFromNonVendor() {
+            when(vendorModuleApi.getVendorIdByUserId("userId123")).thenReturn(Optional.empty());
+
+            assertThrows(ForbiddenException.class,
+                    () -> productService.bulkUploadProducts("userId123", new StringReader("")));
+            verifyNoInteractions(productCsvImporter);
+        }
+    }
+
+    @Nested
+    @DisplayName("Faceted Search")
+    class FacetedSearch {
+
+        private final SearchFacets facets = SearchFacets.builder()
+                .categories(List.of(new SearchFacets.CategoryCount("Kitchen", 3)))
+                .inStock(2)
+                .outOfStock(1)
+                .build();
+
+        private Product product(String id) {
+            return Product.builder().id(id).name("Mug " + id).vendorId("vendorId123")
+                    .status(ProductStatus.APPROVED).visible(true).build();
+        }
+
+        @Test
+        @DisplayName("Should compute facets once and reuse them for later pages of the same filters")
+        void shouldReuseCachedFacetsAcrossPages() {
+            ProductSearchRequest request = ProductSearchRequest.builder()
+                    .category("Kitchen").minPrice(new BigDecimal("10.0")).inStock(true).build();
+            ProductSearchRequest samePageTwo = ProductSearchRequest.builder()
+                    .category(" Kitchen ").minPrice(new BigDecimal("10")).inStock(true).build();
+
+            when(productRepository.facetedSearch(request, null, PageRequest.of(0, 2), true))
+                    .thenReturn(new FacetedProducts(List.of(product("p1"), product("p2")), 3L, facets));
+            when(productRepository.facetedSearch(samePageTwo, null, PageRequest.of(1, 2), false))
+                    .thenReturn(new FacetedProducts(List.of(product("p3")), null, null));
+            when(vendorModuleApi.findByIds(Set.of("vendorId123")))
+                    .thenReturn(Map.of("vendorId123", createVendorDto("vendorId123")));
+
+            FacetedSearchResponse first = productService.facetedSearch(request, PageRequest.of(0, 2));
+            FacetedSearchResponse second = productService.facetedSearch(samePageTwo, PageRequest.of(1, 2));
+
+            assertEquals(2, first.getProducts().getContent().size());
+            assertEquals(3L, first.getProducts().getTotalElements());
+            assertEquals("Kitchen", first.getFacets().getCategories().get(0).getCategory());
+            assertEquals(1, second.getProducts().getContent().size());
+            assertEquals(3L, second.getProducts().getTotalElements());
+            assertTrue(second.getProducts().isLast());
+            assertSame(facets, second.getFacets());
+        }
+
+        @Test
+        @DisplayName("Should restrict the aggregation to keyword matches from the index")
+        void shouldRestrictToKeywordMatches() {
+            productSearchIndex.rebuild(List.of(product("p1"), Product.builder().id("p2").name("Plate")
+                    .status(ProductStatus.APPROVED).visible(true).build()));
+            ProductSearchRequest request = ProductSearchRequest.builder().keyword("mug").build();
+
+            when(productRepository.facetedSearch(request, Set.of("p1"), PageRequest.of(0, 20), true))
+                    .thenReturn(new FacetedProducts(List.of(product("p1")), 1L, facets));
+            when(vendorModuleApi.findByIds(Set.of("vendorId123")))
+                    .thenReturn(Map.of("vendorId123", createVendorDto("vendorId123")));
+
+            FacetedSearchResponse response = productService.facetedSearch(request, PageRequest.of(0, 20));
+
+            assertEquals(List.of("p1"), response.getProducts().getContent().stream().map(ProductResponse::getId).toList());
+        }
+
+        @Test
+        @DisplayName("Should answer keywords without matches without querying the database")
+        void shouldShortCircuitKeywordWithoutMatches() {
+            FacetedSearchResponse response = productService.facetedSearch(
+                    ProductSearchRequest.builder().keyword("nothing").build(), PageRequest.of(0, 20));
+
+            assertTrue(response.getProducts().getContent().isEmpty());
+            assertEquals(0L, response.getProducts().getTotalElements());
+            verifyNoInteractions(productRepository);
+        }
+
+        @Test
+        @DisplayName("Should reject an inverted price range")
+        void shouldRejectInvertedPriceRange() {
+            ProductSearchRequest request = ProductSearchRequest.builder()
+                    .minPrice(new BigDecimal("50")).maxPrice(new BigDecimal("10")).build();
+
+            assertThrows(BadRequestException.class, () -> productService.facetedSearch(request, PageRequest.of(0, 20)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Conditional Requests")
+    class ConditionalRequests {
+
+        @Test
+        @DisplayName("Should derive the product tag from a projection without loading the vendor")
+        void shouldDeriveProductTagFromProjection() {
+            LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+            Product version = Product.builder().status(ProductStatus.APPROVED).visible(true).updatedAt(updatedAt).build();
+            when(productRepository.findVersionById("p1")).thenReturn(Optional.of(version));
+
+            String tag = productService.getApprovedProductTag("p1");
+
+            assertEquals(tag, productService.getApprovedProductTag("p1"));
+            version.setUpdatedAt(updatedAt.plusSeconds(1));
+            assertNotEquals(tag, productService.getApprovedProductTag("p1"));
+            verify(productRepository, never()).findById(anyString());
+            verifyNoInteractions(vendorModuleApi);
+        }
+
+        @Test
+        @DisplayName("Should change the product tag as a flash sale sells stock")
+        void shouldChangeProductTagWithFlashSaleStock() {
+            Product version = Product.builder().status(ProductStatus.APPROVED).visible(true)
+                    .updatedAt(LocalDateTime.of(2024, 5, 1, 12, 0)).build();
+            when(productRepository.findVersionById("p1")).thenReturn(Optional.of(version));
+            when(flashSaleStock.available("p1")).thenReturn(OptionalInt.of(10), OptionalInt.of(9));
+
+            // updatedAt trails the in-memory counter, so only the live level tells these apart
+            assertNotEquals(productService.getApprovedProductTag("p1"), productService.getApprovedProductTag("p1"));
+        }
+
+        @Test
+        @DisplayName("Should not issue tags for products hidden from the public")
+        void shouldNotTagHiddenProducts() {
+            when(productRepository.findVersionById("p1")).thenReturn(Optional.of(
+                    Product.builder().status(ProductStatus.APPROVED).visible(false).build()));
+            when(productRepository.findVersionById("p2")).thenReturn(Optional.empty());
+
+            assertThrows(ResourceNotFoundException.class, () -> productService.getApprovedProductTag("p1"));
+            assertThrows(ResourceNotFoundException.class, () -> productService.getApprovedProductTag("p2"));
+        }
+
+        @Test
+        @DisplayName("Should bump the listing version for visibility changes but not for stock")
+        void shouldBumpListingVersionForCatalogChangesOnly() {
+            Product product = Product.builder().id("p1").name("Lamp").vendorId("vendorId123")
+                    .status(ProductStatus.APPROVED).visible(true).build();
+            when(productRepository.decrementStock("p1", 1)).thenReturn(OptionalInt.of(4));
+            when(productRepository.updateVisibility("p1", false)).thenReturn(Optional.of(product));
+            when(vendorModuleApi.findById("vendorId123")).thenReturn(Optional.of(createVendorDto("vendorId123")));
+
+            productService.decrementStock("p1", 1);
+            verify(catalogVersion, never()).productsChanged();
+            // Carts still drop their copy of the product
+            verify(eventPublisher).publish(any(ProductsChangedEvent.class));
+
+            productService.changeProductVisibility("p1", false);
+            verify(catalogVersion).productsChanged();
+        }
+    }
+
+    @Nested
+    @DisplayName("Keyword Search")
+    class KeywordSearch {
+
+        @Test
+        @DisplayName("Should answer keyword search from the index and load only the page hits")
+        void shouldAnswerKeywordSearchFromIndex() {
+            Product phone = approvedProduct("p1", "Galaxy Phone", "Category");
+            productSearchIndex.rebuild(List.of(phone, approvedProduct("p2", "Garden Hose", "Category")));
+
+            Pageable pageable = PageRequest.of(0, 20);
+            when(productRepository.findSummariesByIdIn(List.of("p1"))).thenReturn(List.of(phone));
+            when(vendorModuleApi.findByIds(Set.of("vendorId123")))
+                    .thenReturn(Map.of("vendorId123", createVendorDto("vendorId123")));
+
+            Page<ProductSummary> result = productService.searchProducts(
+                    ProductSearchRequest.builder().keyword("gal").build(), pageable);
+
+            assertEquals(1, result.getTotalElements());
+            assertEquals("Galaxy Phone", result.getContent().get(0).getName());
+            verify(productRepository).findSummariesByIdIn(List.of("p1"));
+        }
+
+        @Test
+        @DisplayName("Should not query the database when nothing matches")
+        void shouldNotQueryDatabaseWhenNothingMatches() {
+            productSearchIndex.rebuild(List.of(approvedProduct("p1", "Galaxy Phone", "Category")));
+
+            Page<ProductSummary> result = productService.searchProducts(
+                    ProductSearchRequest.builder().keyword("(a+)+$").build(), PageRequest.of(0, 20));
+
+            assertTrue(result.isEmpty());
+            verifyNoInteractions(productRepository);
+        }
+
+        @Test
+        @DisplayName("Should make approved products searchable and drop rejected or hidden ones")
+        void shouldKeepIndexCurrentThroughLifecycle() {
+            Product product = Product.builder()
+                    .id("p1")
+                    .name("Desk Lamp")
+                    .vendorId("vendorId123")
+                    .status(ProductStatus.PENDING)
+                    .visible(true)
+                    .build();
+
+            when(productRepository.findById("p1")).thenReturn(Optional.of(product));
+            when(productRepository.save(any(Product.class))).thenAnswer(i -> i.getArgument(0));
+            when(productRepository.updateVisibility(eq("p1"), anyBoolean())).thenAnswer(i -> {
+                product.setVisible(i.getArgument(1));
+                return Optional.of(product);
+            });
+            when(vendorModuleApi.findById("vendorId123")).thenReturn(Optional.of(createVendorDto("vendorId123")));
+
+            productService.approveProduct("p1");
+            assertEquals(1, productSearchIndex.search("lamp", PageRequest.of(0, 10)).getTotalElements());
+
+            productService.changeProductVisibility("p1", false);
+            assertEquals(0, productSearchIndex.search("lamp", PageRequest.of(0, 10)).getTotalElements());
+
+            productService.changeProductVisibility("p1", true);
+            assertEquals(1, productSearchIndex.search("lamp", PageRequest.of(0, 10)).getTotalElements());
+        }
+
+        @Test
+        @DisplayName("Should remove deleted products from the index")
+        void shouldRemoveDeletedProductsFromIndex() {
+            Product product = approvedProduct("p1", "Desk Lamp", "Category");
+            productSearchIndex.index(product);
+
+            when(vendorModuleApi.getVendorIdByUserId("userId123")).thenReturn(Optional.of("vendorId123"));
+            when(productRepository.findByIdAndVendorId("p1", "vendorId123")).thenReturn(Optional.of(product));
+
+            productService.deleteProduct("userId123", "p1");
+
+            assertEquals(0, productSearchIndex.size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Suggestions")
+    class Suggestions {
+
+        @Test
+        @DisplayName("Should answer suggestions from memory")
+        void shouldAnswerSuggestionsFromMemory() {
+            productSuggestIndex.rebuild(List.of(
+                    approvedProduct("p1", "Desk Lamp", "Lighting"),
+                    approvedProduct("p2", "Desk Chair", "Furniture")));
+
+            List<ProductSuggestion> result = productService.suggest("des", 5);
+
+            assertEquals(List.of("Desk Chair", "Desk Lamp"), result.stream().map(ProductSuggestion::getText).toList());
+            verifyNoInteractions(productRepository);
+        }
+
+        @Test
+        @DisplayName("Should reject blank queries and out of range limits")
+        void shouldRejectInvalidSuggestRequests() {
+            assertThrows(BadRequestException.class, () -> productService.suggest(" ", 5));
+            assertThrows(BadRequestException.class, () -> productService.suggest("desk", 0));
+            assertThrows(BadRequestException.class, () -> productService.suggest("desk", 21));
+        }
+
+        @Test
+        @DisplayName("Should rank reserved products higher")
+        void shouldRankReservedProductsHigher() {
+            Product lamp = approvedProduct("p1", "Desk Lamp", "Lighting");
+            productSuggestIndex.rebuild(List.of(lamp, approvedProduct("p2", "Desk Chair", "Furniture")));
+
+            when(productRepository.findByIdIn(List.of("p1"))).thenReturn(List.of(lamp));
+            when(productRepository.decrementStock(Map.of("p1", 3))).thenReturn(Optional.empty());
+
+            productService.reserveStock(Map.of("p1", 3));
+            productSuggestIndex.applyDemand();
+
+            assertEquals("Desk Lamp", productService.suggest("desk", 5).get(0).getText());
+        }
+
+        @Test
+        @DisplayName("Should add approved products and drop deleted ones")
+        void shouldKeepSuggestionsCurrentThroughLifecycle() {
+            Product product = approvedProduct("p1", "Desk Lamp", "Lighting");
+            product.setStatus(ProductStatus.PENDING);
+
+            when(productRepository.findById("p1")).thenReturn(Optional.of(product));
+            when(productRepository.save(any(Product.class))).thenAnswer(i -> i.getArgument(0));
+            when(vendorModuleApi.findById("vendorId123")).thenReturn(Optional.of(createVendorDto("vendorId123")));
+            when(vendorModuleApi.getVendorIdByUserId("userId123")).thenReturn(Optional.of("vendorId123"));
+            when(productRepository.findByIdAndVendorId("p1", "vendorId123")).thenReturn(Optional.of(product));
+
+            assertTrue(productService.suggest("lamp", 5).isEmpty());
+
+            productService.approveProduct("p1");
+            assertEquals(1, productService.suggest("lamp", 5).size());
+
+            productService.deleteProduct("userId123", "p1");
+            assertTrue(productService.suggest("l", 5).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Flash Sale")
+    class FlashSale {
+
+        @Test
+        @DisplayName("Should reserve flash-sale lines in memory and the rest in the database")
+        void shouldSplitReservationBetweenMemoryAndDatabase() {
+            Map<String, Integer> quantities = new LinkedHashMap<>();
+            quantities.put("flash", 2);
+            quantities.put("regular", 1);
+
+            when(productRepository.findByIdIn(List.of("flash", "regular")))
+                    .thenReturn(List.of(
+                            approvedProduct("flash", "Product flash", "Category"),
+                            approvedProduct("regular", "Product regular", "Category")));
+            when(flashSaleStock.isActive("flash")).thenReturn(true);
+            when(flashSaleStock.reserve("flash", 2)).thenReturn(true);
+            when(productRepository.decrementStock(Map.of("regular", 1))).thenReturn(Optional.empty());
+
+            productService.reserveStock(quantities);
+
+            verify(productRepository).decrementStock(Map.of("regular", 1));
+        }
+
+        @Test
+        @DisplayName("Should hand flash-sale units back when the database lines fail")
+        void shouldReleaseFlashSaleLinesWhenDatabaseLinesFail() {
+            Map<String, Integer> quantities = new LinkedHashMap<>();
+            quantities.put("flash", 2);
+            quantities.put("regular", 1);
+
+            when(productRepository.findByIdIn(List.of("flash", "regular")))
+                    .thenReturn(List.of(
+                            approvedProduct("flash", "Product flash", "Category"),
+                            approvedProduct("regular", "Product regular", "Category")));
+            when(flashSaleStock.isActive("flash")).thenReturn(true);
+            when(flashSaleStock.reserve("flash", 2)).thenReturn(true);
+            when(flashSaleStock.release("flash", 2)).thenReturn(true);
+            when(productRepository.decrementStock(Map.of("regular", 1))).thenReturn(Optional.of("regular"));
+
+            assertThrows(BadRequestException.class, () -> productService.reserveStock(quantities));
+
+            verify(flashSaleStock).release("flash", 2);
+            verify(productRepository).incrementStock(Map.of());
+        }
+
+        @Test
+        @DisplayName("Should not touch the database when a flash-sale product sells out")
+        void shouldFailSoldOutFlashSaleWithoutDatabaseWrite() {
+            when(flashSaleStock.isActive("flash")).thenReturn(true);
+            when(flashSaleStock.reserve("flash", 1)).thenReturn(false);
+
+            assertFalse(productService.decrementStock("flash", 1));
+
+            verify(productRepository, never()).decrementStock(anyString(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Should restore in the database once the flash sale has ended")
+        void shouldRestoreInDatabaseAfterSaleEnded() {
+            when(flashSaleStock.release("flash", 3)).thenReturn(false);
+            when(productRepository.incrementStock("flash", 3)).thenReturn(OptionalInt.of(8));
+
+            productService.restoreStock("flash", 3);
+
+            verify(productRepository).incrementStock("flash", 3);
+        }
+
+        @Test
+        @DisplayName("Should put released hold units of a flash-sale product back on sale")
+        void shouldReleaseHoldIntoFlashSale() {
+            Map<String, Integer> quantities = new LinkedHashMap<>();
+            quantities.put("flash", 2);
+            quantities.put("regular", 1);
+            when(flashSaleStock.release("release1", "flash", 2)).thenReturn(true);
+
+            productService.releaseStock("release1", quantities);
+
+            verify(productRepository).incrementStock("release1", Map.of("regular", 1));
+        }
+
+        @Test
+        @DisplayName("Should refuse vendor edits while a flash sale runs")
+        void shouldRefuseVendorEditsDuringFlashSale() {
+            Product product = approvedProduct("flash", "Product flash", "Category");
+            product.setFlashSale(true);
+
+            when(vendorModuleApi.getVendorIdByUserId("userId123")).thenReturn(Optional.of("vendorId"));
+            when(productRepository.findByIdAndVendorId("flash", "vendorId")).thenReturn(Optional.of(product));
+
+            assertThrows(BadRequestException.class, () -> productService.updateProduct(
+                    "userId123", "flash", UpdateProductRequest.builder().stock(100).build()));
+            verify(productRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Should start a flash sale and report live stock")
+        void shouldStartFlashSaleAndReportLiveStock() {
+            Product product = approvedProduct("flash", "Product flash", "Category");
+            product.setFlashSale(true);
+
+            when(productRepository.existsById("flash")).thenReturn(true);
+            when(productRepository.findById("flash")).thenReturn(Optional.of(product));
+            when(flashSaleStock.available("flash")).thenReturn(OptionalInt.of(7));
+            when(vendorModuleApi.findById("vendorId123")).thenReturn(Optional.of(createVendorDto("vendorId123")));
+
+            ProductResponse response = productService.changeFlashSale("flash", true);
+
+            verify(flashSaleStock).start("flash");
+            assertTrue(response.isFlashSale());
+            assertEquals(7, response.getStock());
+        }
+    }
 }
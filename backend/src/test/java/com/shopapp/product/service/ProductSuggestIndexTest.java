@@ -0,0 +1,124 @@
+package com.shopapp.product.service;
+
+import com.shopapp.product.domain.Product;
+import com.shopapp.product.domain.ProductStatus;
+import com.shopapp.product.dto.ProductSuggestion;
+import com.shopapp.product.dto.ProductSuggestion.SuggestionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ProductSuggestIndex Tests")
+class ProductSuggestIndexTest {
+
+    private final ProductSuggestIndex index = new ProductSuggestIndex(3);
+
+    private Product product(String id, String name, String category) {
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .category(category)
+                .status(ProductStatus.APPROVED)
+                .visible(true)
+                .build();
+    }
+
+    private List<String> texts(String prefix) {
+        return index.suggest(prefix, 10).stream()
+                .map(ProductSuggestion::getText)
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Should key names by every word offset and categories by the whole phrase")
+    void shouldKeyNamesByWordOffsets() {
+        assertEquals(Set.of("usb c cable", "c cable", "cable"), ProductSuggestIndex.keysOf("USB-C  Cable", SuggestionType.NAME));
+        assertEquals(Set.of("home garden"), ProductSuggestIndex.keysOf("Home & Garden", SuggestionType.CATEGORY));
+        assertEquals("usb c", ProductSuggestIndex.normalize("  USB-C "));
+    }
+
+    @Test
+    @DisplayName("Should match prefixes that end inside a compressed edge")
+    void shouldMatchPrefixesInsideEdges() {
+        index.rebuild(List.of(
+                product("p1", "Wireless Mouse", "Electronics"),
+                product("p2", "Wired Headset", "Electronics")));
+
+        assertEquals(List.of("Wired Headset", "Wireless Mouse"), texts("wir"));
+        assertEquals(List.of("Wireless Mouse"), texts("WIREL"));
+        assertEquals(List.of("Wireless Mouse"), texts("mou"));
+        assertTrue(texts("wirex").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should rank categories by how many products carry them")
+    void shouldRankByPopularity() {
+        index.rebuild(List.of(
+                product("p1", "Cable", "Cameras"),
+                product("p2", "Camera Bag", "Cases"),
+                product("p3", "Charger", "Cases")));
+
+        List<ProductSuggestion> suggestions = index.suggest("ca", 10);
+
+        assertEquals("Cases", suggestions.get(0).getText());
+        assertEquals(SuggestionType.CATEGORY, suggestions.get(0).getType());
+        assertEquals(2, suggestions.get(0).getPopularity());
+        assertEquals(3, suggestions.size());
+    }
+
+    @Test
+    @DisplayName("Should lift terms of products with recorded demand")
+    void shouldLiftTermsWithDemand() {
+        index.rebuild(List.of(
+                product("p1", "Desk Lamp", "Lighting"),
+                product("p2", "Desk Chair", "Furniture")));
+
+        index.recordDemand(Map.of("p1", 3));
+        index.recordDemand(Map.of("p1", 2));
+        // Recorded off the trie until the next apply
+        assertEquals(1, index.suggest("desk", 1).get(0).getPopularity());
+
+        index.applyDemand();
+
+        assertEquals(List.of("Desk Lamp", "Desk Chair"), texts("desk"));
+        assertEquals(6, index.suggest("desk", 1).get(0).getPopularity());
+    }
+
+    @Test
+    @DisplayName("Should drop terms once their last product leaves the catalog")
+    void shouldDropTermsWithLastProduct() {
+        index.rebuild(List.of(
+                product("p1", "Desk Lamp", "Lighting"),
+                product("p2", "Floor Lamp", "Lighting")));
+
+        index.remove("p1");
+        assertEquals(List.of("Floor Lamp"), texts("lamp"));
+        assertEquals(1, index.suggest("light", 1).get(0).getPopularity());
+
+        Product hidden = product("p2", "Floor Lamp", "Lighting");
+        hidden.setVisible(false);
+        index.index(hidden);
+
+        assertTrue(texts("l").isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    @DisplayName("Should keep suggesting siblings after a split edge is folded back")
+    void shouldKeepSiblingsAfterFolding() {
+        index.index(product("p1", "Tablet", "Computers"));
+        index.index(product("p2", "Table", "Furniture"));
+        index.index(product("p3", "Tab", "Misc"));
+
+        index.remove("p2");
+        index.remove("p3");
+
+        assertEquals(List.of("Tablet"), texts("tab"));
+        assertEquals(List.of("Tablet"), texts("tablet"));
+    }
+}
@@ -0,0 +1,79 @@
+package com.shopapp.product.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StripedStock Tests")
+class StripedStockTest {
+
+    @Test
+    @DisplayName("Should spread stock over the slots without losing units")
+    void shouldSpreadStockOverSlots() {
+        assertEquals(10, new StripedStock(10, 4).level());
+        assertEquals(0, new StripedStock(-3, 4).level());
+    }
+
+    @Test
+    @DisplayName("Should gather a reservation larger than any single slot")
+    void shouldGatherAcrossSlots() {
+        StripedStock stock = new StripedStock(10, 4);
+
+        assertEquals(StripedStock.Outcome.TAKEN, stock.take(9));
+        assertEquals(1, stock.level());
+        assertEquals(StripedStock.Outcome.INSUFFICIENT, stock.take(2));
+        assertEquals(1, stock.level());
+    }
+
+    @Test
+    @DisplayName("Should never sell more than the stock under concurrent buyers")
+    void shouldNeverOversellUnderContention() throws Exception {
+        StripedStock stock = new StripedStock(1000, 8);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Integer>> buyers = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                buyers.add(() -> {
+                    int sold = 0;
+                    for (int attempt = 0; attempt < 500; attempt++) {
+                        if (stock.take(1 + attempt % 3) == StripedStock.Outcome.TAKEN) {
+                            sold += 1 + attempt % 3;
+                        }
+                    }
+                    return sold;
+                });
+            }
+
+            int sold = 0;
+            for (Future<Integer> result : executor.invokeAll(buyers)) {
+                sold += result.get();
+            }
+
+            assertEquals(1000, sold + stock.level());
+            assertTrue(sold <= 1000);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should drain an exact level on sealing and refuse later takes and gives")
+    void shouldRefuseTakesAndGivesOnceSealed() {
+        StripedStock stock = new StripedStock(10, 4);
+        stock.take(3);
+
+        assertEquals(7, stock.seal());
+        assertTrue(stock.isSealed());
+        assertEquals(StripedStock.Outcome.SEALED, stock.take(1));
+        assertFalse(stock.give(1));
+        assertEquals(0, stock.level());
+    }
+}
@@ -0,0 +1,75 @@
+package com.shopapp.shared.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BoundedCache Tests")
+class BoundedCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    @DisplayName("Should count hits and misses")
+    void shouldCountHitsAndMisses() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1), clock::get);
+
+        cache.put("a", "A");
+
+        assertEquals(Optional.of("A"), cache.get("a"));
+        assertEquals(Optional.empty(), cache.get("b"));
+        assertEquals(new BoundedCache.CacheStats(1, 1, 0, 1), cache.stats());
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used entry when full")
+    void shouldEvictLeastRecentlyUsedEntryWhenFull() {
+        BoundedCache<String, String> cache = new BoundedCache<>(2, Duration.ofMinutes(1), clock::get);
+
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.get("a");
+        cache.put("c", "C");
+
+        assertTrue(cache.get("a").isPresent());
+        assertTrue(cache.get("b").isEmpty());
+        assertTrue(cache.get("c").isPresent());
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    @DisplayName("Should expire entries after TTL")
+    void shouldExpireEntriesAfterTtl() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofSeconds(5), clock::get);
+
+        cache.put("a", "A");
+        clock.addAndGet(Duration.ofSeconds(4).toNanos());
+        assertTrue(cache.get("a").isPresent());
+
+        clock.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertTrue(cache.get("a").isEmpty());
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.stats().evictions());
+    }
+
+    @Test
+    @DisplayName("Should drop invalidated entries")
+    void shouldDropInvalidatedEntries() {
+        BoundedCache<String, String> cache = new BoundedCache<>(10, Duration.ofMinutes(1), clock::get);
+
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.invalidate("a");
+
+        assertTrue(cache.get("a").isEmpty());
+        assertTrue(cache.get("b").isPresent());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+}
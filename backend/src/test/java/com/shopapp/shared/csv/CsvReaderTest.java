@@ -0,0 +1,70 @@
+package com.shopapp.shared.csv;
+
+import com.shopapp.shared.exception.BadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CsvReader Tests")
+class CsvReaderTest {
+
+    private CsvReader reader(String csv) {
+        return new CsvReader(new StringReader(csv));
+    }
+
+    @Test
+    @DisplayName("Should split plain records on commas and line breaks")
+    void shouldSplitPlainRecords() throws IOException {
+        CsvReader reader = reader("a,b,c\r\nd,,f\ng,h,");
+
+        assertEquals(List.of("a", "b", "c"), reader.readRecord());
+        assertEquals(List.of("d", "", "f"), reader.readRecord());
+        assertEquals(List.of("g", "h", ""), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    @DisplayName("Should keep commas, escaped quotes and line breaks inside quoted fields")
+    void shouldHandleQuotedFields() throws IOException {
+        CsvReader reader = reader("\"Mug, large\",\"The \"\"best\"\" mug\",\"line one\r\nline two\"\nnext,row\n");
+
+        assertEquals(List.of("Mug, large", "The \"best\" mug", "line one\r\nline two"), reader.readRecord());
+        assertEquals(1, reader.getRecordLine());
+        assertEquals(List.of("next", "row"), reader.readRecord());
+        assertEquals(3, reader.getRecordLine());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    @DisplayName("Should skip a leading byte order mark and report blank lines as blank records")
+    void shouldSkipBomAndFlagBlankLines() throws IOException {
+        CsvReader reader = reader("\uFEFFname\n\nvalue");
+
+        assertEquals(List.of("name"), reader.readRecord());
+        assertTrue(CsvReader.isBlank(reader.readRecord()));
+        assertEquals(List.of("value"), reader.readRecord());
+    }
+
+    @Test
+    @DisplayName("Should reject an unterminated quoted field")
+    void shouldRejectUnterminatedQuote() throws IOException {
+        CsvReader reader = reader("ok,row\n\"never closed,1\n2,3\n");
+
+        assertEquals(List.of("ok", "row"), reader.readRecord());
+        BadRequestException e = assertThrows(BadRequestException.class, reader::readRecord);
+        assertTrue(e.getMessage().contains("line 2"));
+    }
+
+    @Test
+    @DisplayName("Should reject fields longer than the limit")
+    void shouldRejectOversizedFields() {
+        CsvReader reader = new CsvReader(new StringReader("abcdef"), 5);
+
+        assertThrows(BadRequestException.class, reader::readRecord);
+    }
+}
@@ -0,0 +1,51 @@
+package com.shopapp.shared.csv;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CsvWriter Tests")
+class CsvWriterTest {
+
+    private String write(List<?>... records) throws IOException {
+        StringWriter out = new StringWriter();
+        try (CsvWriter writer = new CsvWriter(out)) {
+            for (List<?> record : records) {
+                writer.writeRecord(record);
+            }
+        }
+        return out.toString();
+    }
+
+    @Test
+    @DisplayName("Should write plain fields unquoted and nulls as empty fields")
+    void shouldWritePlainFields() throws IOException {
+        assertEquals("a,1,,c\r\n", write(Arrays.asList("a", 1, null, "c")));
+    }
+
+    @Test
+    @DisplayName("Should quote fields holding separators, quotes or line breaks")
+    void shouldQuoteSpecialFields() throws IOException {
+        assertEquals("\"Mug, large\",\"The \"\"best\"\" mug\",\"two\nlines\"\r\n",
+                write(List.of("Mug, large", "The \"best\" mug", "two\nlines")));
+    }
+
+    @Test
+    @DisplayName("Should read back exactly what it wrote")
+    void shouldRoundTripThroughReader() throws IOException {
+        List<String> record = List.of("plain", "comma, inside", "\"quoted\"", "line one\r\nline two", "");
+
+        CsvReader reader = new CsvReader(new StringReader(write(record, List.of("next"))));
+
+        assertEquals(record, reader.readRecord());
+        assertEquals(List.of("next"), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+}
@@ -0,0 +1,162 @@
+package com.shopapp.shared.idempotency;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopapp.shared.exception.BadRequestException;
+import com.shopapp.shared.exception.ConflictException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IdempotencyStore Tests")
+class IdempotencyStoreTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger runs = new AtomicInteger();
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(mongoTemplate, objectMapper, Duration.ofHours(24), Duration.ofSeconds(5));
+    }
+
+    private ResponseEntity<?> created() {
+        runs.incrementAndGet();
+        return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("id", "order1"));
+    }
+
+    private IdempotencyRecord completedRecord(Object request) {
+        return IdempotencyRecord.builder()
+                .id("orders:user1:key1")
+                .requestHash(store.fingerprint(request))
+                .completed(true)
+                .responseStatus(201)
+                .responseBody("{\"id\":\"order1\"}")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should run the action directly when no key is sent")
+    void shouldRunWithoutKey() {
+        ResponseEntity<?> response = store.execute("orders", "user1", null, Map.of(), this::created);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("Should claim the key, run once and store the response")
+    void shouldClaimRunAndStore() {
+        ResponseEntity<?> response = store.execute("orders", "user1", "key1", Map.of("q", 1), this::created);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(1, runs.get());
+        verify(mongoTemplate).insert(any(IdempotencyRecord.class));
+        verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(IdempotencyRecord.class));
+    }
+
+    @Test
+    @DisplayName("Should replay the stored response for a duplicate without running the action")
+    void shouldReplayStoredResponse() {
+        IdempotencyRecord record = completedRecord(Map.of("q", 1));
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("dup"));
+        when(mongoTemplate.findById("orders:user1:key1", IdempotencyRecord.class)).thenReturn(record);
+
+        ResponseEntity<?> response = store.execute("orders", "user1", "key1", Map.of("q", 1), this::created);
+
+        assertEquals(0, runs.get());
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals("order1", ((JsonNode) response.getBody()).get("id").asText());
+        assertEquals("true", response.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    }
+
+    @Test
+    @DisplayName("Should refuse a key reused for a different request")
+    void shouldRefuseKeyReusedForDifferentRequest() {
+        IdempotencyRecord record = completedRecord(Map.of("q", 1));
+        when(mongoTemplate.insert(any(IdempotencyRecord.class))).thenThrow(new DuplicateKeyException("dup"));
+        when(mongoTemplate.findById("orders:user1:key1", IdempotencyRecord.class)).thenReturn(record);
+
+        assertThrows(ConflictException.class,
+                () -> store.execute("orders", "user1", "key1", Map.of("q", 2), this::created));
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    @DisplayName("Should free the key when the action fails or only queues the request")
+    void shouldReleaseKeyOnFailureOrAccepted() {
+        assertThrows(BadRequestException.class, () -> store.execute("orders", "user1", "key1", Map.of(),
+                () -> {
+                    throw new BadRequestException("Out of stock");
+                }));
+        store.execute("orders", "user1", "key2", Map.of(), () -> ResponseEntity.accepted().build());
+
+        verify(mongoTemplate, times(2)).remove(any(Query.class), eq(IdempotencyRecord.class));
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(IdempotencyRecord.class));
+    }
+
+    @Test
+    @DisplayName("Should coalesce a concurrent duplicate onto the running request")
+    void shouldCoalesceConcurrentDuplicates() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+
+        CompletableFuture<ResponseEntity<?>> first = CompletableFuture.supplyAsync(() ->
+                store.execute("orders", "user1", "key1", Map.of(), () -> {
+                    started.countDown();
+                    try {
+                        finish.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return created();
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<ResponseEntity<?>> duplicate = CompletableFuture.supplyAsync(() ->
+                store.execute("orders", "user1", "key1", Map.of(), this::created));
+        // Give the duplicate time to find the running request before it completes
+        Thread.sleep(200);
+        finish.countDown();
+
+        assertEquals(HttpStatus.CREATED, first.get(5, TimeUnit.SECONDS).getStatusCode());
+        ResponseEntity<?> replayed = duplicate.get(5, TimeUnit.SECONDS);
+        assertEquals(HttpStatus.CREATED, replayed.getStatusCode());
+        assertEquals(1, runs.get());
+        verify(mongoTemplate, times(1)).insert(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    @DisplayName("Should reject blank or oversized keys")
+    void shouldRejectInvalidKeys() {
+        assertThrows(BadRequestException.class,
+                () -> store.execute("orders", "user1", " ", Map.of(), this::created));
+        assertThrows(BadRequestException.class,
+                () -> store.execute("orders", "user1", "k".repeat(256), Map.of(), this::created));
+    }
+}
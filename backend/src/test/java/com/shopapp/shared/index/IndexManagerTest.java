@@ -0,0 +1,196 @@
+package com.shopapp.shared.index;
+
+import com.mongodb.client.result.UpdateResult;
+import com.shopapp.payment.domain.Payment;
+import com.shopapp.payment.repository.PaymentIndexes;
+import com.shopapp.shared.pagination.SortPolicy;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IndexManager Tests")
+class IndexManagerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations indexOps;
+
+    private IndexManager indexManager;
+
+    @BeforeEach
+    void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        // As configured by Spring Boot, so probes can carry dates
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        lenient().when(mongoTemplate.getConverter()).thenReturn(converter);
+        lenient().when(mongoTemplate.getCollectionName(Payment.class)).thenReturn("payments");
+        lenient().when(mongoTemplate.indexOps(Payment.class)).thenReturn(indexOps);
+        indexManager = new IndexManager(mongoTemplate, List.of(new PaymentIndexes()), true, true, Runnable::run);
+    }
+
+    private static IndexInfo index(String name, IndexField... fields) {
+        return new IndexInfo(List.of(fields), name, false, false, null);
+    }
+
+    private static Document plan(String stage) {
+        return new Document("queryPlanner", new Document("winningPlan",
+                new Document("stage", "SORT").append("inputStage", new Document("stage", stage))));
+    }
+
+    @Test
+    @DisplayName("Should build declared index that is missing")
+    void shouldBuildDeclaredIndexThatIsMissing() {
+        when(indexOps.getIndexInfo()).thenReturn(List.of(index("_id_", IndexField.create("_id", Sort.Direction.ASC))));
+        when(mongoTemplate.executeCommand(any(Document.class))).thenReturn(plan("IXSCAN"));
+
+        IndexManager.Report report = indexManager.reconcile();
+
+        verify(indexOps, times(2)).ensureIndex(any(Index.class));
+        assertEquals(List.of("payments.user_created_id", "payments.status_available"), report.built());
+        assertTrue(report.undeclared().isEmpty());
+        assertTrue(report.collectionScans().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should leave existing indexes alone and report undeclared ones")
+    void shouldReportUndeclaredIndexes() {
+        when(indexOps.getIndexInfo()).thenReturn(List.of(
+                index("_id_", IndexField.create("_id", Sort.Direction.ASC)),
+                index("user_created_id", IndexField.create("userId", Sort.Direction.ASC),
+                        IndexField.create("createdAt", Sort.Direction.DESC),
+                        IndexField.create("_id", Sort.Direction.DESC)),
+                index("status_available", IndexField.create("status", Sort.Direction.ASC),
+                        IndexField.create("availableAt", Sort.Direction.ASC)),
+                index("orderId", IndexField.create("orderId", Sort.Direction.ASC)),
+                index("legacy_amount", IndexField.create("amount", Sort.Direction.DESC))));
+        when(mongoTemplate.executeCommand(any(Document.class))).thenReturn(plan("IXSCAN"));
+
+        IndexManager.Report report = indexManager.reconcile();
+
+        verify(indexOps, never()).ensureIndex(any());
+        assertTrue(report.built().isEmpty());
+        assertEquals(List.of("payments.legacy_amount"), report.undeclared());
+    }
+
+    @Test
+    @DisplayName("Should not rebuild index whose name is taken by different keys")
+    void shouldNotRebuildConflictingIndex() {
+        when(indexOps.getIndexInfo()).thenReturn(List.of(
+                index("user_created_id", IndexField.create("amount", Sort.Direction.ASC)),
+                index("status_available", IndexField.create("status", Sort.Direction.ASC),
+                        IndexField.create("availableAt", Sort.Direction.ASC))));
+        when(mongoTemplate.executeCommand(any(Document.class))).thenReturn(plan("IXSCAN"));
+
+        IndexManager.Report report = indexManager.reconcile();
+
+        verify(indexOps, never()).ensureIndex(any());
+        assertEquals(List.of("payments.user_created_id"), report.undeclared());
+    }
+
+    @Test
+    @DisplayName("Should flag registered query that scans the whole collection")
+    void shouldFlagCollectionScan() {
+        when(indexOps.getIndexInfo()).thenReturn(List.of());
+        when(mongoTemplate.executeCommand(any(Document.class))).thenReturn(plan("COLLSCAN"));
+
+        IndexManager.Report report = indexManager.reconcile();
+
+        assertEquals(List.of("findByUserId", "claimNext"), report.collectionScans());
+    }
+
+    @Test
+    @DisplayName("Should report sort keys that name an undeclared index")
+    void shouldReportUnbackedSortKeys() {
+        ModuleIndexes module = new ModuleIndexes() {
+            @Override
+            public List<DeclaredIndex> indexes() {
+                return new PaymentIndexes().indexes();
+            }
+
+            @Override
+            public List<SortPolicy> sortPolicies() {
+                return List.of(PaymentIndexes.USER_SORTS,
+                        SortPolicy.builder().indexed("processedAt", "user_processed_id").build());
+            }
+        };
+        when(indexOps.getIndexInfo()).thenReturn(List.of());
+
+        IndexManager.Report report = new IndexManager(mongoTemplate, List.of(module), true, true, Runnable::run)
+                .reconcile();
+
+        assertEquals(List.of("processedAt"), report.unbackedSorts());
+    }
+
+    @Test
+    @DisplayName("Should convert decimal fields still stored as strings whether or not indexes are built")
+    void shouldConvertLegacyDecimalStrings() {
+        ModuleIndexes module = new ModuleIndexes() {
+            @Override
+            public List<DeclaredIndex> indexes() {
+                return List.of();
+            }
+
+            @Override
+            public List<DecimalField> decimalFields() {
+                return List.of(new DecimalField(Payment.class, "amount"));
+            }
+        };
+        when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq("payments")))
+                .thenReturn(UpdateResult.acknowledged(3, 3L, null));
+
+        new IndexManager(mongoTemplate, List.of(module), true, false, Runnable::run).reconcile();
+        new IndexManager(mongoTemplate, List.of(module), false, false, Runnable::run).reconcile();
+
+        ArgumentCaptor<Query> legacy = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+        verify(mongoTemplate, times(2)).updateMulti(legacy.capture(), update.capture(), eq("payments"));
+        assertTrue(legacy.getValue().getQueryObject().toJson().contains("\"$type\""));
+        assertInstanceOf(AggregationUpdate.class, update.getValue());
+        // Strings left behind are counted so they can be reported
+        verify(mongoTemplate, times(2)).count(any(Query.class), eq("payments"));
+    }
+
+    @Test
+    @DisplayName("Should keep reconciling when explain fails")
+    void shouldKeepReconcilingWhenExplainFails() {
+        when(indexOps.getIndexInfo()).thenReturn(List.of());
+        when(mongoTemplate.executeCommand(any(Document.class))).thenThrow(new IllegalStateException("down"));
+
+        IndexManager.Report report = indexManager.reconcile();
+
+        assertEquals(List.of("payments.user_created_id", "payments.status_available"), report.built());
+        assertTrue(report.collectionScans().isEmpty());
+    }
+}
@@ -0,0 +1,60 @@
+package com.shopapp.shared.pagination;
+
+import com.shopapp.shared.exception.BadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Cursor Tests")
+class CursorTest {
+
+    @Test
+    @DisplayName("Should round-trip through its opaque token")
+    void shouldRoundTripThroughToken() {
+        Cursor cursor = new Cursor(LocalDateTime.of(2024, 3, 9, 14, 30, 5, 123_000_000), "65f0c2a1b3e4d5f6a7b8c9d0");
+
+        String token = cursor.encode();
+
+        assertFalse(token.contains("|"));
+        assertEquals(cursor, Cursor.decode(token));
+    }
+
+    @Test
+    @DisplayName("Should treat a blank token as the start of the scroll")
+    void shouldTreatBlankTokenAsStart() {
+        assertNull(Cursor.decode(null));
+        assertNull(Cursor.decode(""));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed tokens")
+    void shouldRejectMalformedTokens() {
+        String noSeparator = Base64.getUrlEncoder().encodeToString("2024-03-09T14:30".getBytes(StandardCharsets.UTF_8));
+        String badDate = Base64.getUrlEncoder().encodeToString("yesterday|abc".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(BadRequestException.class, () -> Cursor.decode("not base64!"));
+        assertThrows(BadRequestException.class, () -> Cursor.decode(noSeparator));
+        assertThrows(BadRequestException.class, () -> Cursor.decode(badDate));
+    }
+
+    @Test
+    @DisplayName("Should drop the look-ahead row and point the next cursor at the last returned row")
+    void shouldDropLookAheadRow() {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Cursor> rows = List.of(new Cursor(now, "c"), new Cursor(now, "b"), new Cursor(now, "a"));
+
+        CursorPage<String> page = CursorPage.of(rows, 2, row -> row, list -> list.stream().map(Cursor::id).toList());
+        CursorPage<String> last = CursorPage.of(rows, 3, row -> row, list -> list.stream().map(Cursor::id).toList());
+
+        assertEquals(List.of("c", "b"), page.content());
+        assertEquals(new Cursor(now, "b"), Cursor.decode(page.nextCursor()));
+        assertNull(last.nextCursor());
+        assertEquals(3, CursorPage.fetchLimit(2));
+    }
+}
@@ -0,0 +1,79 @@
+package com.shopapp.shared.pagination;
+
+import com.shopapp.shared.exception.BadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SortPolicy Tests")
+class SortPolicyTest {
+
+    private final SortPolicy policy = SortPolicy.builder()
+            .indexed("createdAt", "status_created_id")
+            .topK("price")
+            .topKLimit(100)
+            .build();
+
+    @Test
+    @DisplayName("Should sort by an allowed key with _id as tie-breaker")
+    void shouldSortByAllowedKeyWithIdTieBreaker() {
+        Pageable pageable = policy.pageable(2, 20, "createdAt", "desc");
+
+        assertEquals(40, pageable.getOffset());
+        assertEquals(Sort.by(Sort.Direction.DESC, "createdAt", "_id"), pageable.getSort());
+    }
+
+    @Test
+    @DisplayName("Should accept direction in any case")
+    void shouldAcceptDirectionInAnyCase() {
+        assertEquals(Sort.by(Sort.Direction.ASC, "price", "_id"),
+                policy.pageable(0, 20, "price", "ASC").getSort());
+    }
+
+    @Test
+    @DisplayName("Should reject keys outside the whitelist")
+    void shouldRejectUnknownKey() {
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> policy.pageable(0, 20, "description", "asc"));
+
+        assertTrue(exception.getMessage().contains("[createdAt, price]"));
+    }
+
+    @Test
+    @DisplayName("Should map a public key onto the field its documents store")
+    void shouldMapKeyOntoField() {
+        SortPolicy aliased = SortPolicy.builder().topK("totalAmount", "subtotal").build();
+
+        assertEquals(Sort.by(Sort.Direction.DESC, "subtotal", "_id"),
+                aliased.pageable(0, 20, "totalAmount", "desc").getSort());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown sort direction")
+    void shouldRejectUnknownDirection() {
+        assertThrows(BadRequestException.class, () -> policy.pageable(0, 20, "createdAt", "sideways"));
+    }
+
+    @Test
+    @DisplayName("Should keep unindexed sorts within the top-k window")
+    void shouldKeepUnindexedSortsWithinTopK() {
+        assertNotNull(policy.pageable(4, 20, "price", "asc"));
+        assertThrows(BadRequestException.class, () -> policy.pageable(5, 20, "price", "asc"));
+    }
+
+    @Test
+    @DisplayName("Should page indexed sorts at any depth")
+    void shouldPageIndexedSortsAtAnyDepth() {
+        assertEquals(100_000, policy.pageable(5_000, 20, "createdAt", "desc").getOffset());
+    }
+
+    @Test
+    @DisplayName("Should reject negative page and empty size")
+    void shouldRejectInvalidPageBounds() {
+        assertThrows(BadRequestException.class, () -> policy.pageable(-1, 20, "createdAt", "desc"));
+        assertThrows(BadRequestException.class, () -> policy.pageable(0, 0, "createdAt", "desc"));
+    }
+}
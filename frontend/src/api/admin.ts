@@ -1,5 +1,5 @@
 import apiClient from './client';
-import { Vendor, Product, Page } from '../types';
+import { Vendor, Product, ProductSummary, Page } from '../types';
 
 interface ApiResponse<T> {
   success: boolean;
@@ -37,15 +37,15 @@ export const adminApi = {
   },
 
   // Product management
-  getPendingProducts: async (page = 0, size = 10): Promise<Page<Product>> => {
-    const response = await apiClient.get<ApiResponse<Page<Product>>>(
+  getPendingProducts: async (page = 0, size = 10): Promise<Page<ProductSummary>> => {
+    const response = await apiClient.get<ApiResponse<Page<ProductSummary>>>(
       `/admin/products/pending?page=${page}&size=${size}`
     );
     return response.data.data;
   },
 
-  getAllProducts: async (page = 0, size = 10): Promise<Page<Product>> => {
-    const response = await apiClient.get<ApiResponse<Page<Product>>>(
+  getAllProducts: async (page = 0, size = 10): Promise<Page<ProductSummary>> => {
+    const response = await apiClient.get<ApiResponse<Page<ProductSummary>>>(
       `/admin/products?page=${page}&size=${size}`
     );
     return response.data.data;
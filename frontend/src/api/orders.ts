@@ -1,5 +1,5 @@
 import apiClient from './client';
-import { Order, CreateOrderRequest, Page } from '../types';
+import { Order, OrderSummary, CreateOrderRequest, CheckoutTicket, Page } from '../types';
 
 interface ApiResponse<T> {
   success: boolean;
@@ -7,9 +7,31 @@ interface ApiResponse<T> {
   data: T;
 }
 
+const MAX_POLL_MS = 5000;
+
+const sleep = (ms: number) => new Promise((resolve) => setTimeout(resolve, ms));
+
 export const ordersApi = {
-  create: async (data: CreateOrderRequest): Promise<Order> => {
-    const response = await apiClient.post<ApiResponse<Order>>('/orders', data);
+  // A busy checkout answers 202 with a waiting-room ticket: poll it until admitted, then submit again.
+  // Every submission carries the caller's idempotency key, so a retried request never places a second order.
+  create: async (data: CreateOrderRequest, idempotencyKey: string): Promise<Order> => {
+    const headers = { 'Idempotency-Key': idempotencyKey };
+    for (;;) {
+      const response = await apiClient.post<ApiResponse<Order | CheckoutTicket>>('/orders', data, { headers });
+      if (response.status !== 202) {
+        return response.data.data as Order;
+      }
+
+      let ticket = response.data.data as CheckoutTicket;
+      while (ticket.status === 'WAITING') {
+        await sleep(Math.min(ticket.etaSeconds * 1000, MAX_POLL_MS));
+        ticket = await ordersApi.getCheckoutTicket(ticket.id);
+      }
+    }
+  },
+
+  getCheckoutTicket: async (id: string): Promise<CheckoutTicket> => {
+    const response = await apiClient.get<ApiResponse<CheckoutTicket>>(`/orders/checkout-tickets/${id}`);
     return response.data.data;
   },
 
@@ -18,8 +40,8 @@ export const ordersApi = {
     return response.data.data;
   },
 
-  getUserOrders: async (page = 0, size = 10): Promise<Page<Order>> => {
-    const response = await apiClient.get<ApiResponse<Page<Order>>>(`/orders?page=${page}&size=${size}`);
+  getUserOrders: async (page = 0, size = 10): Promise<Page<OrderSummary>> => {
+    const response = await apiClient.get<ApiResponse<Page<OrderSummary>>>(`/orders?page=${page}&size=${size}`);
     return response.data.data;
   },
 
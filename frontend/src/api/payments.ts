@@ -1,5 +1,7 @@
 import apiClient from './client';
-import { Payment, InitiatePaymentRequest, ProcessPaymentRequest } from '../types';
+import { Payment, PaymentStatus, InitiatePaymentRequest, ProcessPaymentRequest } from '../types';
+
+const POLL_INTERVAL_MS = 1000;
 
 interface ApiResponse<T> {
   success: boolean;
@@ -8,8 +10,10 @@ interface ApiResponse<T> {
 }
 
 export const paymentsApi = {
-  initiatePayment: async (data: InitiatePaymentRequest): Promise<Payment> => {
-    const response = await apiClient.post<ApiResponse<Payment>>('/payments/initiate', data);
+  initiatePayment: async (data: InitiatePaymentRequest, idempotencyKey: string): Promise<Payment> => {
+    const response = await apiClient.post<ApiResponse<Payment>>('/payments/initiate', data, {
+      headers: { 'Idempotency-Key': idempotencyKey },
+    });
     return response.data.data;
   },
 
@@ -18,6 +22,22 @@ export const paymentsApi = {
     return response.data.data;
   },
 
+  getPayment: async (paymentId: string): Promise<Payment> => {
+    const response = await apiClient.get<ApiResponse<Payment>>(`/payments/${paymentId}`);
+    return response.data.data;
+  },
+
+  // Payments are charged in the background after processPayment; poll until the outcome is known
+  awaitOutcome: async (payment: Payment, timeoutMs = 60000): Promise<Payment> => {
+    const deadline = Date.now() + timeoutMs;
+    let current = payment;
+    while (current.status === PaymentStatus.PROCESSING && Date.now() < deadline) {
+      await new Promise((resolve) => setTimeout(resolve, POLL_INTERVAL_MS));
+      current = await paymentsApi.getPayment(current.id);
+    }
+    return current;
+  },
+
   getByOrderId: async (orderId: string): Promise<Payment> => {
     const response = await apiClient.get<ApiResponse<Payment>>(`/payments/order/${orderId}`);
     return response.data.data;
@@ -1,5 +1,5 @@
 import apiClient from './client';
-import { Product, CreateProductRequest, Page } from '../types';
+import { Product, ProductSummary, CreateProductRequest, Page } from '../types';
 
 interface ApiResponse<T> {
   success: boolean;
@@ -8,14 +8,14 @@ interface ApiResponse<T> {
 }
 
 export const productsApi = {
-  getAll: async (page = 0, size = 12, category?: string): Promise<Page<Product>> => {
+  getAll: async (page = 0, size = 12, category?: string): Promise<Page<ProductSummary>> => {
     const params = new URLSearchParams();
     params.append('page', page.toString());
     params.append('size', size.toString());
     if (category) {
       params.append('category', category);
     }
-    const response = await apiClient.get<ApiResponse<Page<Product>>>(`/products?${params.toString()}`);
+    const response = await apiClient.get<ApiResponse<Page<ProductSummary>>>(`/products?${params.toString()}`);
     return response.data.data;
   },
 
@@ -24,15 +24,15 @@ export const productsApi = {
     return response.data.data;
   },
 
-  getByCategory: async (category: string, page = 0, size = 12): Promise<Page<Product>> => {
-    const response = await apiClient.get<ApiResponse<Page<Product>>>(
+  getByCategory: async (category: string, page = 0, size = 12): Promise<Page<ProductSummary>> => {
+    const response = await apiClient.get<ApiResponse<Page<ProductSummary>>>(
       `/products/category/${category}?page=${page}&size=${size}`
     );
     return response.data.data;
   },
 
-  search: async (query: string, page = 0, size = 12): Promise<Page<Product>> => {
-    const response = await apiClient.get<ApiResponse<Page<Product>>>(
+  search: async (query: string, page = 0, size = 12): Promise<Page<ProductSummary>> => {
+    const response = await apiClient.get<ApiResponse<Page<ProductSummary>>>(
       `/products/search?q=${encodeURIComponent(query)}&page=${page}&size=${size}`
     );
     return response.data.data;
@@ -86,7 +86,6 @@ export interface BulkUploadResponse {
   totalRows: number;
   successCount: number;
   failureCount: number;
-  successfulProducts: Product[];
   errors: BulkUploadError[];
 }
 
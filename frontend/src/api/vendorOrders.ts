@@ -1,4 +1,4 @@
-import { Order, OrderStatus, Page, UpdateOrderStatusRequest } from '../types';
+import { Order, OrderStatus, OrderSummary, Page, UpdateOrderStatusRequest } from '../types';
 import apiClient from './client';
 
 interface ApiResponse<T> {
@@ -10,12 +10,12 @@ interface ApiResponse<T> {
 
 export const vendorOrdersApi = {
   // Get all orders for the vendor
-  getOrders: async (page = 0, size = 20, status?: OrderStatus): Promise<Page<Order>> => {
+  getOrders: async (page = 0, size = 20, status?: OrderStatus): Promise<Page<OrderSummary>> => {
     const params: Record<string, string | number> = { page, size };
     if (status) {
       params.status = status;
     }
-    const response = await apiClient.get<ApiResponse<Page<Order>>>('/vendor/orders', { params });
+    const response = await apiClient.get<ApiResponse<Page<OrderSummary>>>('/vendor/orders', { params });
     return response.data.data;
   },
 
@@ -58,7 +58,7 @@ export function CartSidebar() {
                     {/* Product Image */}
                     <div className="w-20 h-20 bg-gray-200 rounded-lg flex-shrink-0 overflow-hidden">
                       <img
-                        src={item.product.images?.[0] || `https://placehold.co/80x80/e2e8f0/64748b?text=${encodeURIComponent(item.product.name.slice(0, 10))}`}
+                        src={item.product.thumbnail || `https://placehold.co/80x80/e2e8f0/64748b?text=${encodeURIComponent(item.product.name.slice(0, 10))}`}
                         alt={item.product.name}
                         className="w-full h-full object-cover"
                         onError={(e) => {
@@ -1,22 +1,22 @@
 import { describe, it, expect, vi, beforeEach } from 'vitest';
 import { render, screen, fireEvent } from '../../test/test-utils';
 import { ProductCard } from './ProductCard';
-import { Product, ProductStatus } from '../../types';
+import { ProductSummary, ProductStatus } from '../../types';
 import { useCartStore } from '../../store/cartStore';
 
 // Mock product
-const mockProduct: Product = {
+const mockProduct: ProductSummary = {
   id: 'product-1',
   vendorId: 'vendor-123',
+  vendorName: 'Test Store',
   name: 'Test Product',
-  description: 'A test product description',
   category: 'Electronics',
   price: 99.99,
   stock: 10,
-  images: ['https://example.com/img.jpg'],
+  thumbnail: 'https://example.com/img.jpg',
   status: ProductStatus.APPROVED,
+  visible: true,
   createdAt: new Date().toISOString(),
-  updatedAt: new Date().toISOString(),
 };
 
 // Reset cart store before each test
@@ -52,7 +52,7 @@ describe('ProductCard', () => {
   });
 
   it('should render placeholder when no image provided', () => {
-    const productWithoutImage = { ...mockProduct, images: [] };
+    const productWithoutImage = { ...mockProduct, thumbnail: undefined };
     render(<ProductCard product={productWithoutImage} />);
     
     const img = screen.getByAltText('Test Product');
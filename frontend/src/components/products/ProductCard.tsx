@@ -1,11 +1,11 @@
 import { Link } from 'react-router-dom';
 import { ShoppingCart, Heart, Eye } from 'lucide-react';
-import { Product, ProductStatus } from '../../types';
+import { ProductSummary, ProductStatus } from '../../types';
 import { useCartStore } from '../../store/cartStore';
 import toast from 'react-hot-toast';
 
 interface ProductCardProps {
-  product: Product;
+  product: ProductSummary;
 }
 
 export function ProductCard({ product }: ProductCardProps) {
@@ -39,9 +39,9 @@ export function ProductCard({ product }: ProductCardProps) {
     >
       {/* Image */}
       <div className="relative aspect-square bg-gray-100 overflow-hidden">
-        {product.images?.[0] ? (
+        {product.thumbnail ? (
           <img
-            src={product.images[0]}
+            src={product.thumbnail}
             alt={product.name}
             className="w-full h-full object-cover group-hover:scale-105 transition-transform duration-300"
             onError={(e) => {
@@ -98,9 +98,11 @@ export function ProductCard({ product }: ProductCardProps) {
         <h3 className="font-medium text-gray-900 group-hover:text-primary-600 transition-colors truncate">
           {product.name}
         </h3>
-        <p className="text-sm text-gray-500 mt-1 line-clamp-2">
-          {product.description}
-        </p>
+        {product.vendorName && (
+          <p className="text-sm text-gray-500 mt-1 truncate">
+            by {product.vendorName}
+          </p>
+        )}
         
         <div className="mt-4 flex items-center justify-between">
           <div>
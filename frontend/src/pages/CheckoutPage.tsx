@@ -7,7 +7,7 @@ import { useAuthStore } from '../store/authStore';
 import { ordersApi } from '../api/orders';
 import { paymentsApi } from '../api/payments';
 import { LoadingSpinner } from '../components/common/LoadingSpinner';
-import { ShippingAddressRequest, PaymentMethod } from '../types';
+import { ShippingAddressRequest, PaymentMethod, PaymentStatus, CreateOrderRequest, InitiatePaymentRequest } from '../types';
 import toast from 'react-hot-toast';
 
 export function CheckoutPage() {
@@ -30,6 +30,11 @@ export function CheckoutPage() {
   });
 
   const [paymentMethod, setPaymentMethod] = useState<PaymentMethod>(PaymentMethod.CREDIT_CARD);
+
+  // One key per attempt, reused when the same request is retried so it replays instead of running twice.
+  // A fresh key is taken once the attempt succeeds or the request it stands for changes.
+  const [orderKey, setOrderKey] = useState(() => crypto.randomUUID());
+  const [paymentKey, setPaymentKey] = useState(() => crypto.randomUUID());
   const [cardDetails, setCardDetails] = useState({
     cardNumber: '',
     expiryMonth: '',
@@ -41,8 +46,9 @@ export function CheckoutPage() {
   const totalPrice = getTotalPrice();
 
   const createOrderMutation = useMutation({
-    mutationFn: ordersApi.create,
+    mutationFn: (data: CreateOrderRequest) => ordersApi.create(data, orderKey),
     onSuccess: (order) => {
+      setOrderKey(crypto.randomUUID());
       setOrderId(order.id);
       setStep('payment');
     },
@@ -57,8 +63,9 @@ export function CheckoutPage() {
   });
 
   const initiatePaymentMutation = useMutation({
-    mutationFn: paymentsApi.initiatePayment,
+    mutationFn: (data: InitiatePaymentRequest) => paymentsApi.initiatePayment(data, paymentKey),
     onSuccess: async (payment) => {
+      setPaymentKey(crypto.randomUUID());
       // For Cash on Delivery, skip the process step
       if (paymentMethod === PaymentMethod.CASH_ON_DELIVERY) {
         clearCart();
@@ -69,13 +76,24 @@ export function CheckoutPage() {
       
       // For card payments, process the payment
       try {
-        await paymentsApi.processPayment({
+        const submitted = await paymentsApi.processPayment({
           paymentId: payment.id,
           simulateSuccess: true, // In a real app, this would be based on actual card processing
         });
+        const result = await paymentsApi.awaitOutcome(submitted);
+        if (result.status === PaymentStatus.FAILED) {
+          toast.error('Payment was declined. Please try again.');
+          return;
+        }
+        if (result.status === PaymentStatus.REFUND_PENDING) {
+          toast.error('Your order was cancelled before payment completed. The charge will be refunded.');
+          return;
+        }
         clearCart();
         setStep('confirmation');
-        toast.success('Payment successful!');
+        toast.success(result.status === PaymentStatus.PROCESSING
+          ? 'Payment submitted! Your order will be confirmed shortly.'
+          : 'Payment successful!');
       } catch (err) {
         toast.error('Payment processing failed. Please try again.');
       }
@@ -139,6 +157,12 @@ export function CheckoutPage() {
 
   const handleAddressChange = (e: React.ChangeEvent<HTMLInputElement>) => {
     setShippingAddress({ ...shippingAddress, [e.target.name]: e.target.value });
+    setOrderKey(crypto.randomUUID());
+  };
+
+  const handlePaymentMethodChange = (method: PaymentMethod) => {
+    setPaymentMethod(method);
+    setPaymentKey(crypto.randomUUID());
   };
 
   const handleCardChange = (e: React.ChangeEvent<HTMLInputElement>) => {
@@ -357,7 +381,7 @@ export function CheckoutPage() {
                     name="paymentMethod"
                     value={PaymentMethod.CREDIT_CARD}
                     checked={paymentMethod === PaymentMethod.CREDIT_CARD}
-                    onChange={(e) => setPaymentMethod(e.target.value as PaymentMethod)}
+                    onChange={(e) => handlePaymentMethodChange(e.target.value as PaymentMethod)}
                     className="h-4 w-4 text-primary-600"
                   />
                   <CreditCard className="h-6 w-6 text-gray-500" />
@@ -379,7 +403,7 @@ export function CheckoutPage() {
                     name="paymentMethod"
                     value={PaymentMethod.CASH_ON_DELIVERY}
                     checked={paymentMethod === PaymentMethod.CASH_ON_DELIVERY}
-                    onChange={(e) => setPaymentMethod(e.target.value as PaymentMethod)}
+                    onChange={(e) => handlePaymentMethodChange(e.target.value as PaymentMethod)}
                     className="h-4 w-4 text-primary-600"
                   />
                   <Banknote className="h-6 w-6 text-gray-500" />
@@ -519,7 +543,7 @@ export function CheckoutPage() {
                 <div key={item.product.id} className="flex items-center space-x-4">
                   <div className="w-16 h-16 bg-gray-100 rounded-lg overflow-hidden">
                     <img
-                      src={item.product.images?.[0] || `https://placehold.co/64x64/e2e8f0/64748b?text=${encodeURIComponent(item.product.name.slice(0, 8))}`}
+                      src={item.product.thumbnail || `https://placehold.co/64x64/e2e8f0/64748b?text=${encodeURIComponent(item.product.name.slice(0, 8))}`}
                       alt={item.product.name}
                       className="w-16 h-16 rounded-lg object-cover"
                       onError={(e) => {
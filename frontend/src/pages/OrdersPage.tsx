@@ -130,7 +130,7 @@ export function OrdersPage() {
                     </div>
                     <div>
                       <p className="text-sm text-gray-500">Items</p>
-                      <p className="font-medium">{order.items?.length || 0} items</p>
+                      <p className="font-medium">{order.itemCount || 0} items</p>
                     </div>
                     <div>
                       <p className="text-sm text-gray-500">Total</p>
@@ -158,10 +158,10 @@ export function OrdersPage() {
                   )}
 
                   {/* Order Items Preview */}
-                  {order.items && order.items.length > 0 && (
+                  {order.previewItems && order.previewItems.length > 0 && (
                     <div className="border-t pt-4">
                       <div className="flex items-center space-x-4 overflow-x-auto pb-2">
-                        {order.items.slice(0, 4).map((item, index) => {
+                        {order.previewItems.map((item, index) => {
                           const placeholderImage = `https://placehold.co/64x64/e2e8f0/64748b?text=${encodeURIComponent((item.productName || 'Item').slice(0, 5))}`;
                           return (
                             <div
@@ -179,28 +179,16 @@ export function OrdersPage() {
                             </div>
                           );
                         })}
-                        {order.items.length > 4 && (
+                        {order.itemCount > order.previewItems.length && (
                           <div className="flex-shrink-0 w-16 h-16 bg-gray-100 rounded-lg flex items-center justify-center">
                             <span className="text-sm text-gray-500">
-                              +{order.items.length - 4}
+                              +{order.itemCount - order.previewItems.length}
                             </span>
                           </div>
                         )}
                       </div>
                     </div>
                   )}
-
-                  {/* Shipping Address */}
-                  {order.shippingAddress && (
-                    <div className="border-t pt-4 mt-4">
-                      <p className="text-sm text-gray-500 mb-1">Shipping to:</p>
-                      <p className="text-sm">
-                        {order.shippingAddress.fullName}, {order.shippingAddress.addressLine1},{' '}
-                        {order.shippingAddress.city}, {order.shippingAddress.state}{' '}
-                        {order.shippingAddress.postalCode}
-                      </p>
-                    </div>
-                  )}
                 </div>
               </div>
             );
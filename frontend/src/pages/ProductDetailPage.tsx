@@ -50,7 +50,7 @@ export function ProductDetailPage() {
       return;
     }
     
-    addItem(product, quantity);
+    addItem({ ...product, thumbnail: product.images?.[0] }, quantity);
     toast.success(`Added ${quantity} item(s) to cart!`);
     setQuantity(1);
   };
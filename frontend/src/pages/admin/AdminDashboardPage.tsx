@@ -252,7 +252,7 @@ export function AdminDashboardPage() {
                     <div className="flex items-center space-x-3">
                       <div className="h-10 w-10 bg-gray-100 rounded overflow-hidden">
                         <img 
-                          src={product.images?.[0] || `https://placehold.co/40x40/e2e8f0/64748b?text=${encodeURIComponent(product.name.slice(0, 5))}`} 
+                          src={product.thumbnail || `https://placehold.co/40x40/e2e8f0/64748b?text=${encodeURIComponent(product.name.slice(0, 5))}`} 
                           alt="" 
                           className="h-10 w-10 rounded object-cover"
                           onError={(e) => {
@@ -365,7 +365,7 @@ export function AdminDashboardPage() {
                       <div className="flex items-center space-x-3">
                         <div className="h-12 w-12 bg-gray-100 rounded overflow-hidden">
                           <img 
-                            src={product.images?.[0] || `https://placehold.co/48x48/e2e8f0/64748b?text=${encodeURIComponent(product.name.slice(0, 5))}`} 
+                            src={product.thumbnail || `https://placehold.co/48x48/e2e8f0/64748b?text=${encodeURIComponent(product.name.slice(0, 5))}`} 
                             alt="" 
                             className="h-12 w-12 rounded object-cover"
                             onError={(e) => {
@@ -375,7 +375,7 @@ export function AdminDashboardPage() {
                         </div>
                         <div>
                           <p className="font-medium text-gray-900">{product.name}</p>
-                          <p className="text-sm text-gray-500 truncate max-w-xs">{product.description}</p>
+                          <p className="text-sm text-gray-500 truncate max-w-xs">{product.vendorName}</p>
                         </div>
                       </div>
                     </td>
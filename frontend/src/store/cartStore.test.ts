@@ -1,20 +1,19 @@
 import { describe, it, expect, beforeEach } from 'vitest';
 import { useCartStore } from './cartStore';
-import { Product, ProductStatus } from '../types';
+import { ProductSummary, ProductStatus } from '../types';
 
 // Mock product for testing
-const createMockProduct = (id: string, price: number, stock: number = 10): Product => ({
+const createMockProduct = (id: string, price: number, stock: number = 10): ProductSummary => ({
   id,
   vendorId: 'vendor-123',
   name: `Product ${id}`,
-  description: 'Test product description',
   category: 'Electronics',
   price,
   stock,
-  images: ['https://example.com/img.jpg'],
+  thumbnail: 'https://example.com/img.jpg',
   status: ProductStatus.APPROVED,
+  visible: true,
   createdAt: new Date().toISOString(),
-  updatedAt: new Date().toISOString(),
 });
 
 // Reset store before each test
@@ -85,6 +85,21 @@ export interface Product {
   updatedAt: string;
 }
 
+// Listing view of a product, returned by catalog, search and admin listings
+export interface ProductSummary {
+  id: string;
+  vendorId: string;
+  vendorName?: string;
+  name: string;
+  category: string;
+  price: number;
+  stock: number;
+  thumbnail?: string;
+  status: ProductStatus;
+  visible: boolean;
+  createdAt: string;
+}
+
 export enum ProductStatus {
   PENDING = 'PENDING',
   APPROVED = 'APPROVED',
@@ -119,6 +134,31 @@ export interface Order {
   deliveredAt?: string;
 }
 
+// Listing view of an order; fetch the order by id for items, address and timeline
+export interface OrderSummary {
+  id: string;
+  status: OrderStatus;
+  totalAmount: number;
+  itemCount: number;
+  previewItems: OrderItemPreview[];
+  statusNote?: string;
+  estimatedDeliveryDate?: string;
+  createdAt: string;
+}
+
+// Place in the checkout waiting room, returned with 202 when checkout is busy
+export interface CheckoutTicket {
+  id: string;
+  status: 'WAITING' | 'ADMITTED';
+  position: number;
+  etaSeconds: number;
+}
+
+export interface OrderItemPreview {
+  productName: string;
+  productImage?: string;
+}
+
 export interface OrderItem {
   productId: string;
   productName: string;
@@ -196,9 +236,11 @@ export interface Payment {
 
 export enum PaymentStatus {
   PENDING = 'PENDING',
+  PROCESSING = 'PROCESSING',
   COMPLETED = 'COMPLETED',
   FAILED = 'FAILED',
   REFUNDED = 'REFUNDED',
+  REFUND_PENDING = 'REFUND_PENDING',
 }
 
 export enum PaymentMethod {
@@ -239,8 +281,10 @@ export interface Page<T> {
 }
 
 // Cart Types (Frontend only)
+export type CartProduct = Pick<ProductSummary, 'id' | 'name' | 'price' | 'stock' | 'thumbnail'>;
+
 export interface CartItem {
-  product: Product;
+  product: CartProduct;
   quantity: number;
 }
 